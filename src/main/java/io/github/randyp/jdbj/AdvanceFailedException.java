@@ -6,6 +6,7 @@ import java.util.function.Consumer;
  * Runtime exception to wrap any exception caught in {@link ResultSetSpliterator#tryAdvance(Consumer)}.
  * <p>
  * If you are using {@link StreamQuery} and need to catch all exceptions, be sure to catch this one.
+ * Also thrown reading spilled rows of a {@link SpillingList}.
  * <p>
  * Cause will never be null;
  * @see ResultSetSpliterator
@@ -0,0 +1,48 @@
+package io.github.randyp.jdbj;
+
+import java.sql.SQLException;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Binds a collection as a single array parameter, see {@link Dialect#bindsArrays()}.
+ */
+final class ArrayBinding implements PositionalBinding {
+
+    private static final int ELEMENT_TYPES = ValueList.ElementType.values().length;
+
+    /**
+     * Appends the array parameter for the dialect and element type encoded in shape
+     */
+    static void appendPositionalParameters(StringBuilder builder, int shape) {
+        final int form = ARRAY_SHAPE - shape;
+        Dialect.values()[form / ELEMENT_TYPES].appendArrayParameter(builder, ValueList.ElementType.values()[form % ELEMENT_TYPES]);
+    }
+
+    private final Dialect dialect;
+    private final ValueList values;
+
+    ArrayBinding(Dialect dialect, ValueList values) {
+        this.dialect = dialect;
+        this.values = values;
+    }
+
+    @Override
+    public int bind(PreparedColumn preparedColumn, int parameterIndex) throws SQLException {
+        dialect.bindArray(preparedColumn.moveTo(parameterIndex), values);
+        return parameterIndex + 1;
+    }
+
+    /**
+     * @return {@link #ARRAY_SHAPE} or less, one shape for each dialect and element type
+     */
+    @Override
+    public int shape() {
+        return ARRAY_SHAPE - (dialect.ordinal() * ELEMENT_TYPES + values.getType().ordinal());
+    }
+
+    @Override
+    public void appendPositionalParametersToQueryString(StringBuilder builder) {
+        PositionalBinding.appendPositionalParameters(builder, shape());
+    }
+}
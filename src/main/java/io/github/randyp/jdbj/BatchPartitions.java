@@ -0,0 +1,107 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.ConnectionSupplier;
+
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Partitions the batches of a {@link BatchedExecute} into contiguous slices, and executes each slice on its own connection at the same time.
+ * @see BatchedExecuteUpdate#executeParallel(ConnectionSupplier, int, PartitionMode, Executor)
+ * @see BatchedExecuteInsert#executeParallel(ConnectionSupplier, int, PartitionMode, Executor)
+ */
+final class BatchPartitions {
+
+    /**
+     * Executes one partition.
+     * @param <R> result type
+     */
+    interface PartitionQuery<R> {
+        R execute(Connection connection, List<ValueBindings> partition) throws SQLException;
+    }
+
+    /**
+     * @param executor runs the partitions, if null they run on {@link SharedExecutor}
+     * @return result of each partition, in order
+     * @throws PartitionedBatchException if any partition failed, after every partition was executed
+     * @throws RejectedExecutionException if executor rejected a partition, after cancelling the partitions already handed to it
+     */
+    static <R> List<R> execute(ConnectionSupplier db, List<ValueBindings> batches, int partitions, PartitionMode mode, @Nullable Executor executor, PartitionQuery<R> query) throws SQLException {
+        Objects.requireNonNull(db, "db must not be null");
+        Objects.requireNonNull(mode, "mode must not be null");
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
+        if (batches.isEmpty()) {
+            throw new IllegalStateException("no batches to insert");
+        }
+        final int count = Math.min(partitions, batches.size());
+        final Executor runner = executor == null ? SharedExecutor.POOL : executor;
+        final List<Future<R>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final List<ValueBindings> partition = batches.subList(from(i, count, batches.size()), from(i + 1, count, batches.size()));
+            final FutureTask<R> task = new FutureTask<>(() -> execute(db, partition, mode, query));
+            try {
+                runner.execute(task);
+            } catch (RejectedExecutionException e) {
+                for (Future<R> future : futures) {
+                    future.cancel(true);
+                }
+                throw e;
+            }
+            futures.add(task);
+        }
+
+        final List<R> results = new ArrayList<>(count);
+        final List<PartitionedBatchException.Partition> report = new ArrayList<>(count);
+        boolean failed = false;
+        for (int i = 0; i < count; i++) {
+            R result = null;
+            Throwable failure = null;
+            try {
+                result = futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Future<R> future : futures) {
+                    future.cancel(true);
+                }
+                throw new SQLException("interrupted while waiting for partitions", e);
+            } catch (ExecutionException e) {
+                failure = e.getCause();
+                failed = true;
+            }
+            results.add(result);
+            report.add(new PartitionedBatchException.Partition(i, from(i, count, batches.size()), from(i + 1, count, batches.size()), result, failure));
+        }
+        if (failed) {
+            throw new PartitionedBatchException(report);
+        }
+        return results;
+    }
+
+    private static <R> R execute(ConnectionSupplier db, List<ValueBindings> partition, PartitionMode mode, PartitionQuery<R> query) throws SQLException {
+        if (mode == PartitionMode.TRANSACTION_PER_PARTITION) {
+            return new ReturningTransaction<>(connection -> query.execute(connection, partition)).execute(db);
+        }
+        try (Connection connection = db.getConnection()) {
+            return query.execute(connection, partition);
+        }
+    }
+
+    /**
+     * @return index of the first batch of partition
+     */
+    private static int from(int partition, int partitions, int size) {
+        return (int) ((long) partition * size / partitions);
+    }
+
+    private BatchPartitions() {
+    }
+}
@@ -2,6 +2,7 @@ package io.github.randyp.jdbj;
 
 import io.github.randyp.jdbj.lambda.Binding;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.ArrayList;
@@ -22,12 +23,43 @@ abstract class BatchedExecute<P> {
 
     final NamedParameterStatement statement;
     final List<ValueBindings> batches = new ArrayList<>();
+    @Nullable
+    MultiRowValues multiRowValues;
 
     BatchedExecute(NamedParameterStatement statement) {
         Objects.requireNonNull(statement, "statement must not be null");
         this.statement = statement;
     }
 
+    /**
+     * Same as {@link #rewriteValues(int)} with at most 1000 rows per statement.
+     * @return this
+     */
+    public P rewriteValues() {
+        return rewriteValues(MultiRowValues.DEFAULT_MAX_ROWS);
+    }
+
+    /**
+     * Executes a single row {@code INSERT ... VALUES (:a, :b)} as multi-row {@code INSERT ... VALUES (?,?),(?,?),...} statements instead of with {@link java.sql.PreparedStatement#executeBatch()},
+     * on databases which support it (PostgreSQL, MySQL, MariaDB, HSQLDB, H2, Derby, SQLite, SQL Server).
+     * Rows per statement are also limited by the number of parameters the database allows in one statement.
+     * Other databases execute the batch as usual.
+     * @param maxRowsPerStatement maximum number of rows per statement
+     * @return this
+     * @throws IllegalStateException if the statement is not a single row {@code INSERT ... VALUES (...)} with every named parameter in the row
+     */
+    public P rewriteValues(int maxRowsPerStatement) {
+        if (maxRowsPerStatement <= 0) {
+            throw new IllegalArgumentException("maxRowsPerStatement must be positive");
+        }
+        final MultiRowValues values = MultiRowValues.of(statement, maxRowsPerStatement);
+        if (values == null) {
+            throw new IllegalStateException("can only rewrite a single row INSERT ... VALUES (...) with every named parameter in the row");
+        }
+        this.multiRowValues = values;
+        return chainThis();
+    }
+
     public Batch startBatch(){
         return new Batch();
     }
@@ -52,6 +84,16 @@ abstract class BatchedExecute<P> {
             return new Batch(batch.addAll(supplier.get()));
         }
 
+        /**
+         * Binds named parameters from the properties of value, see {@link PositionalBindingsBuilder#bindObject(Object)}.
+         * Properties are read and bound straight to the statement when the batch is executed, without a binding per named parameter.
+         * @param value public class with a property for at least one named parameter
+         * @return batch with the properties of value bound
+         */
+        public Batch bindObject(Object value) {
+            return new Batch(ObjectBindings.bindObject(statement, batch, value));
+        }
+
         @Override
         public Batch bind(String name, Binding binding) {
             return new Batch(batch.bind(name, binding));
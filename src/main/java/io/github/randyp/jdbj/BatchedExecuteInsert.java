@@ -3,6 +3,7 @@ package io.github.randyp.jdbj;
 import io.github.randyp.jdbj.lambda.ConnectionSupplier;
 import io.github.randyp.jdbj.lambda.ResultMapper;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.sql.DataSource;
@@ -13,6 +14,7 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 /**
  * Insert multiple rows into the database using jdbc batch functionality. Does not allow binding of collections, since generated sql must be same for all batches. Example:
@@ -41,6 +43,9 @@ import java.util.Objects;
  * Also worth noting: returning keys during batch execution is generally not supported.
  * Often times only the keys from the last batch will be returned (Oracle, H2).
  * However, this class is safe to use with current versions of postgres, mysql, and hsql.
+ * <p>
+ * With {@link #rewriteValues(int)} rows are inserted with multi-row {@code INSERT ... VALUES} statements on databases which return the keys of every row of such a statement
+ * (postgres, mysql, mariadb and hsql), returning the keys in the order rows were added. Other databases execute the batch as usual.
  * @param <K> type of the returned keys
  * @see ExecuteInsert#asBatch() 
  * @see BatchedExecuteUpdate
@@ -70,12 +75,53 @@ public class BatchedExecuteInsert<K> extends BatchedExecute<BatchedExecuteInsert
 
     public List<K> execute(Connection connection) throws SQLException {
         checkNotEmpty();
+        return execute(connection, batches);
+    }
 
-        final String sql = statement.jdbcSql(batches.get(0));
+    public List<K> executeParallel(DataSource db, int partitions, PartitionMode mode) throws SQLException {
+        return executeParallel(db::getConnection, partitions, mode, null);
+    }
 
+    public List<K> executeParallel(DataSource db, int partitions, PartitionMode mode, @Nullable Executor executor) throws SQLException {
+        return executeParallel(db::getConnection, partitions, mode, executor);
+    }
+
+    /**
+     * Splits the batches into at most partitions contiguous partitions, and inserts each partition on its own connection from db at the same time.
+     * @param partitions number of partitions, and of connections used at once
+     * @param mode whether each partition is inserted in its own transaction
+     * @param executor runs the partitions, if null on daemon threads shared by every parallel execution
+     * @return generated keys, in the order batches were added
+     * @throws PartitionedBatchException if any partition failed, reporting which
+     */
+    public List<K> executeParallel(ConnectionSupplier db, int partitions, PartitionMode mode, @Nullable Executor executor) throws SQLException {
+        final List<List<K>> results = BatchPartitions.execute(db, batches, partitions, mode, executor, this::execute);
         final List<K> keys = new ArrayList<>();
+        for (List<K> result : results) {
+            keys.addAll(result);
+        }
+        return keys;
+    }
+
+    private List<K> execute(Connection connection, List<ValueBindings> rows) throws SQLException {
+        final List<K> keys = new ArrayList<>();
+        if (multiRowValues != null) {
+            final Dialect dialect = Dialect.of(connection);
+            if (dialect != null && dialect.returnsAllKeys) {
+                multiRowValues.execute(connection, rows, dialect, true, (ps, from, count, updateCount) -> {
+                    try (SmartResultSet generatedKeys = new SmartResultSet(ps.getGeneratedKeys())) {
+                        while (generatedKeys.next()) {
+                            keys.add(keysMapper.map(generatedKeys));
+                        }
+                    }
+                });
+                return keys;
+            }
+        }
+
+        final String sql = statement.jdbcSql(rows.get(0));
         try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            for (ValueBindings batch : batches) {
+            for (ValueBindings batch : rows) {
                 statement.bind(ps, batch);
                 ps.addBatch();
             }
@@ -2,12 +2,17 @@ package io.github.randyp.jdbj;
 
 import io.github.randyp.jdbj.lambda.ConnectionSupplier;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Updates multiple rows in the database using jdbc batch functionality. Does not allow binding of collections, since generated sql must be same for all batches. Example:
@@ -27,6 +32,8 @@ import java.sql.SQLException;
  * }     
  * </pre>
  * Encapsulates the execution of {@link PreparedStatement#executeBatch()} while adding most of the JDBJ features.
+ * Large batches can be executed on several connections at once, see {@link #executeParallel(ConnectionSupplier, int, PartitionMode, Executor)}.
+ * Inserts can be sent as multi-row statements instead, see {@link #rewriteValues(int)}, update counts are then 1 per row, or {@link Statement#SUCCESS_NO_INFO} if the database reported a different count.
  * <p>
  * Worth noting: {@link BatchedExecuteUpdate} is Mutable, but individual batches {@link Batch} are {@link Immutable}.
  * 
@@ -55,10 +62,50 @@ public class BatchedExecuteUpdate extends BatchedExecute<BatchedExecuteUpdate> {
         if (batches.isEmpty()) {
             throw new IllegalStateException("no batches to insert");
         }
+        return execute(connection, batches);
+    }
+
+    public int[] executeParallel(DataSource db, int partitions, PartitionMode mode) throws SQLException {
+        return executeParallel(db::getConnection, partitions, mode, null);
+    }
+
+    public int[] executeParallel(DataSource db, int partitions, PartitionMode mode, @Nullable Executor executor) throws SQLException {
+        return executeParallel(db::getConnection, partitions, mode, executor);
+    }
+
+    /**
+     * Splits the batches into at most partitions contiguous partitions, and executes each partition on its own connection from db at the same time.
+     * @param partitions number of partitions, and of connections used at once
+     * @param mode whether each partition is executed in its own transaction
+     * @param executor runs the partitions, if null on daemon threads shared by every parallel execution
+     * @return update counts, in the order batches were added
+     * @throws PartitionedBatchException if any partition failed, reporting which
+     */
+    public int[] executeParallel(ConnectionSupplier db, int partitions, PartitionMode mode, @Nullable Executor executor) throws SQLException {
+        final List<int[]> results = BatchPartitions.execute(db, batches, partitions, mode, executor, this::execute);
+        final int[] updateCounts = new int[batches.size()];
+        int from = 0;
+        for (int[] result : results) {
+            System.arraycopy(result, 0, updateCounts, from, result.length);
+            from += result.length;
+        }
+        return updateCounts;
+    }
+
+    private int[] execute(Connection connection, List<ValueBindings> rows) throws SQLException {
+        if (multiRowValues != null) {
+            final Dialect dialect = Dialect.of(connection);
+            if (dialect != null) {
+                final int[] updateCounts = new int[rows.size()];
+                multiRowValues.execute(connection, rows, dialect, false, (ps, from, count, updateCount) ->
+                        Arrays.fill(updateCounts, from, from + count, updateCount == count ? 1 : Statement.SUCCESS_NO_INFO));
+                return updateCounts;
+            }
+        }
 
-        final String sql = statement.jdbcSql(batches.get(0));
+        final String sql = statement.jdbcSql(rows.get(0));
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            for (ValueBindings batch : batches) {
+            for (ValueBindings batch : rows) {
                 statement.bind(ps, batch);
                 ps.addBatch();
             }
@@ -0,0 +1,86 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Cursor and batch splitting shared by {@link ResultSetSpliterator} and its primitive variants, which only differ in the array a batch is mapped into.
+ * @param <A> batch array type, such as {@code long[]}
+ * @param <S> spliterator type returned by {@link #trySplit()}
+ */
+@NotThreadSafe
+abstract class BatchingSpliterator<A, S extends Spliterator<?>> {
+
+    final SmartResultSet rs;
+    private int batch;
+    private boolean exhausted;
+
+    BatchingSpliterator(ResultSet rs) {
+        this.rs = new SmartResultSet(rs);
+    }
+
+    /**
+     * @return whether {@link #rs} moved to another row, after which the caller maps it
+     */
+    final boolean next() {
+        if (exhausted) {
+            return false;
+        }
+        final boolean advanced;
+        try {
+            advanced = rs.next();
+        } catch (SQLException e) {
+            throw new AdvanceFailedException(e);
+        }
+        if (!advanced) {
+            exhausted = true;
+        }
+        return advanced;
+    }
+
+    public final @Nullable S trySplit() {
+        if (exhausted) {
+            return null;
+        }
+        final int n = Math.min(batch + ResultSetSpliterator.BATCH_UNIT, ResultSetSpliterator.MAX_BATCH);
+        final A rows = newBatch(n);
+        int j = 0;
+        try {
+            while (j < n && rs.next()) {
+                map(rows, j++);
+            }
+        } catch (Exception e) {
+            throw new AdvanceFailedException(e);
+        }
+        if (j < n) {
+            exhausted = true;
+        }
+        if (j == 0) {
+            return null;
+        }
+        batch = j;
+        return spliterator(rows, j);
+    }
+
+    public final long estimateSize() {
+        return exhausted ? 0 : Long.MAX_VALUE;
+    }
+
+    public final int characteristics() {
+        return Spliterator.IMMUTABLE | Spliterator.ORDERED;
+    }
+
+    abstract A newBatch(int size);
+
+    /**
+     * Maps the current row of {@link #rs} into rows[i].
+     */
+    abstract void map(A rows, int i) throws SQLException;
+
+    abstract S spliterator(A rows, int size);
+}
@@ -0,0 +1,144 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Persistent map of named parameter to binding, backing {@link PositionalBindings} and {@link ValueBindings}.
+ * <p>
+ * {@link BindingChain#put(String, PositionalBinding)} allocates a single node and shares every earlier binding with the chain it was called on,
+ * instead of copying all of the bindings.
+ * <p>
+ * Small chains are searched linearly. Larger chains share an index with the chains they were built from:
+ * only the newest chain of a lineage adds to the index, and each chain only sees index entries at or below its own size.
+ * Putting to a chain which is no longer the newest (such as a shared query prototype) starts a new index for the new lineage.
+ * @param <B> binding type
+ */
+@Immutable
+@ThreadSafe
+final class BindingChain<B extends PositionalBinding> {
+
+    private static final int INDEX_THRESHOLD = 8;
+
+    private static final BindingChain<?> EMPTY = new BindingChain<>(null, null, null, 0, null);
+
+    static <B extends PositionalBinding> BindingChain<B> empty() {
+        //noinspection unchecked
+        return (BindingChain<B>) EMPTY;
+    }
+
+    private final String name;
+    private final B binding;
+    private final BindingChain<B> next;
+    private final int size;
+    private final Index<B> index;
+    private volatile Set<String> keys;
+
+    private BindingChain(String name, B binding, BindingChain<B> next, int size, Index<B> index) {
+        this.name = name;
+        this.binding = binding;
+        this.next = next;
+        this.size = size;
+        this.index = index;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(String name) {
+        return get(name) != null;
+    }
+
+    @Nullable B get(String name) {
+        if (index != null) {
+            final BindingChain<B> node = index.nodes.get(name);
+            return node != null && node.size <= size ? node.binding : null;
+        }
+        for (BindingChain<B> node = this; node.size > 0; node = node.next) {
+            if (node.name.equals(name)) {
+                return node.binding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @throws IllegalArgumentException if name already has a binding
+     */
+    BindingChain<B> put(String name, B binding) {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(binding, "binding must not be null");
+        if (containsKey(name)) {
+            throw new IllegalArgumentException("named parameter \"" + name + "\" already has a binding");
+        }
+
+        final int newSize = size + 1;
+        if (index != null && index.owner.compareAndSet(this, null)) {
+            final BindingChain<B> chain = new BindingChain<>(name, binding, this, newSize, index);
+            index.nodes.put(name, chain);
+            index.owner.set(chain);
+            return chain;
+        }
+        if (newSize < INDEX_THRESHOLD) {
+            return new BindingChain<>(name, binding, this, newSize, null);
+        }
+
+        final Index<B> newIndex = new Index<>();
+        final BindingChain<B> chain = new BindingChain<>(name, binding, this, newSize, newIndex);
+        for (BindingChain<B> node = chain; node.size > 0; node = node.next) {
+            newIndex.nodes.put(node.name, node);
+        }
+        newIndex.owner.set(chain);
+        return chain;
+    }
+
+    /**
+     * @return names in the order they were bound
+     */
+    Set<String> keys() {
+        Set<String> keys = this.keys;
+        if (keys == null) {
+            final Set<String> ordered = new LinkedHashSet<>();
+            for (BindingChain<B> node : nodes()) {
+                ordered.add(node.name);
+            }
+            this.keys = keys = Collections.unmodifiableSet(ordered);
+        }
+        return keys;
+    }
+
+    /**
+     * @return bindings by name, in the order they were bound
+     */
+    Map<String, B> asMap() {
+        final Map<String, B> map = new LinkedHashMap<>();
+        for (BindingChain<B> node : nodes()) {
+            map.put(node.name, node.binding);
+        }
+        return map;
+    }
+
+    private List<BindingChain<B>> nodes() {
+        final BindingChain<?>[] nodes = new BindingChain<?>[size];
+        for (BindingChain<B> node = this; node.size > 0; node = node.next) {
+            nodes[node.size - 1] = node;
+        }
+        //noinspection unchecked
+        return Arrays.asList((BindingChain<B>[]) nodes);
+    }
+
+    private static final class Index<B extends PositionalBinding> {
+        final Map<String, BindingChain<B>> nodes = new ConcurrentHashMap<>();
+        /**
+         * newest chain of the lineage, the only one which may add to nodes. null while a put is in progress.
+         */
+        final AtomicReference<BindingChain<B>> owner = new AtomicReference<>();
+    }
+}
@@ -28,41 +28,27 @@ interface CollectionBindingsBuilder<P> {
 
     default P bindBooleans(String name, Collection<Boolean> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<Boolean, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setBoolean(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.BOOLEAN, xs));
     }
 
     default P bindBooleans(String name, boolean... xs){
         Objects.requireNonNull(xs, nullMessage);
-        final List<Binding> bindings = new ArrayList<>();
-        for (final boolean x : xs) {
-            bindings.add(pc -> pc.setBooleanPrimitive(x));
-        }
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(xs));
     }
 
     default P bindBytes(String name, Collection<Byte> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<Byte, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setByte(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.TINYINT, xs));
     }
 
     default P bindBytes(String name, byte... xs){
         Objects.requireNonNull(xs, nullMessage);
-        final List<Binding> bindings = new ArrayList<>();
-        for (final byte x : xs) {
-            bindings.add(pc -> pc.setBytePrimitive(x));
-        }
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(xs));
     }
 
     default P bindDates(String name, Collection<Date> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<Date, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setDate(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.DATE, xs));
     }
 
     default P bindDates(String name, Collection<Date> xs, Calendar calendar){
@@ -74,113 +60,77 @@ interface CollectionBindingsBuilder<P> {
 
     default P bindDoubles(String name, Collection<Double> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<Double, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setDouble(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.DOUBLE, xs));
     }
 
     default P bindDoubles(String name, double... xs){
         Objects.requireNonNull(xs, nullMessage);
-        final List<Binding> bindings = new ArrayList<>();
-        for (final double x : xs) {
-            bindings.add(pc -> pc.setDoublePrimitive(x));
-        }
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(xs));
     }
 
     default P bindFloats(String name, Collection<Float> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<Float, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setFloat(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.REAL, xs));
     }
 
     default P bindFloats(String name, float... xs){
         Objects.requireNonNull(xs, nullMessage);
-        final List<Binding> bindings = new ArrayList<>();
-        for (final float x : xs) {
-            bindings.add(pc -> pc.setFloatPrimitive(x));
-        }
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(xs));
     }
 
     default P bindIntegers(String name, Collection<Integer> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<Integer, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setInteger(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.INTEGER, xs));
     }
 
     default P bindIntegers(String name, int... xs){
         Objects.requireNonNull(xs, nullMessage);
-        final List<Binding> bindings = new ArrayList<>();
-        for (final int x : xs) {
-            bindings.add(pc -> pc.setInt(x));
-        }
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(xs));
     }
 
     default P bindLongs(String name, Collection<Long> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<Long, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setLong(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.BIGINT, xs));
     }
 
     default P bindLongs(String name, long... xs){
         Objects.requireNonNull(xs, nullMessage);
-        final List<Binding> bindings = new ArrayList<>();
-        for (final long x : xs) {
-            bindings.add(pc -> pc.setLongPrimitive(x));
-        }
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(xs));
     }
 
     default P bindObjects(String name, Collection<Object> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<Object, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setObject(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.OBJECT, xs));
     }
 
     default P bindObjects(String name, Object... xs){
         Objects.requireNonNull(xs, nullMessage);
-        return bindObjects(name, Arrays.asList(xs));
+        return bindCollection(name, ValueList.of(ValueList.ElementType.OBJECT, xs));
     }
 
     default P bindShorts(String name, Collection<Short> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<Short, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setShort(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.SMALLINT, xs));
     }
 
     default P bindShorts(String name, short... xs){
         Objects.requireNonNull(xs, nullMessage);
-        final List<Binding> bindings = new ArrayList<>();
-        for (final short x : xs) {
-            bindings.add(pc -> pc.setShortPrimitive(x));
-        }
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(xs));
     }
 
     default P bindStrings(String name, Collection<String> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<String, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setString(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.VARCHAR, xs));
     }
 
     default P bindStrings(String name, String... xs){
         Objects.requireNonNull(xs, nullMessage);
-        return bindStrings(name, Arrays.asList(xs));
+        return bindCollection(name, ValueList.of(ValueList.ElementType.VARCHAR, xs));
     }
 
     default P bindTimes(String name, Collection<Time> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<Time, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setTime(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.TIME, xs));
     }
 
     default P bindTimes(String name, Collection<Time> xs, Calendar calendar){
@@ -192,9 +142,7 @@ interface CollectionBindingsBuilder<P> {
 
     default P bindTimestamps(String name, Collection<Timestamp> xs){
         Objects.requireNonNull(xs, nullMessage);
-        final Function<Timestamp, Binding> createBinding = x -> (Binding) preparedColumn -> preparedColumn.setTimestamp(x);
-        final List<Binding> bindings = xs.stream().map(createBinding).collect(Collectors.toList());
-        return bindCollection(name, bindings);
+        return bindCollection(name, ValueList.of(ValueList.ElementType.TIMESTAMP, xs));
     }
 
     default P bindTimestamps(String name, Collection<Timestamp> xs, Calendar calendar){
@@ -0,0 +1,177 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.ConnectionSupplier;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Splits the one collection binding larger than {@link #chunkSize} into chunks of at most {@link #chunkSize} bindings,
+ * and executes the query once per chunk, either sequentially on one connection or on up to {@link #parallelism} connections at once.
+ * <p>
+ * Results are returned in chunk order.
+ * @see MapQuery#chunkCollections(int, int)
+ * @see ExecuteQueryRunnable#chunkCollections(int, int)
+ */
+@Immutable
+@ThreadSafe
+final class CollectionChunks {
+
+    /**
+     * Never splits, executes the query once.
+     */
+    static final CollectionChunks NONE = new CollectionChunks(Integer.MAX_VALUE, 1);
+
+    /**
+     * Query executed for one chunk.
+     * @param <R> result type
+     */
+    interface ChunkQuery<R> {
+        R execute(Connection connection, PositionalBindings chunk) throws SQLException;
+    }
+
+    final int chunkSize;
+    final int parallelism;
+
+    CollectionChunks(int chunkSize, int parallelism) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final CollectionChunks that = (CollectionChunks) o;
+        return chunkSize == that.chunkSize && parallelism == that.parallelism;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * chunkSize + parallelism;
+    }
+
+    /**
+     * @return bindings for each chunk, or just bindings when no collection binding is larger than {@link #chunkSize}
+     * @throws IllegalStateException if more than one collection binding is larger than {@link #chunkSize}
+     */
+    List<PositionalBindings> split(PositionalBindings bindings) {
+        String oversized = null;
+        int size = 0;
+        for (String name : bindings.keys()) {
+            final PositionalBinding binding = bindings.get(name);
+            if (binding instanceof ListBinding && ((ListBinding) binding).getBindings().size() > chunkSize) {
+                if (oversized != null) {
+                    throw new IllegalStateException("can only chunk one collection binding, both \"" + oversized + "\" and \"" + name + "\" are larger than " + chunkSize);
+                }
+                oversized = name;
+                size = ((ListBinding) binding).getBindings().size();
+            }
+        }
+        if (oversized == null) {
+            return Collections.singletonList(bindings);
+        }
+
+        final List<PositionalBindings> chunks = new ArrayList<>((size + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < size; from += chunkSize) {
+            chunks.add(bindings.sliceCollection(oversized, from, Math.min(size, from + chunkSize)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Executes chunks sequentially on connection.
+     * @return result for each chunk, in chunk order
+     */
+    <R> List<R> execute(Connection connection, List<PositionalBindings> chunks, ChunkQuery<R> query) throws SQLException {
+        final List<R> results = new ArrayList<>(chunks.size());
+        for (PositionalBindings chunk : chunks) {
+            results.add(query.execute(connection, chunk));
+        }
+        return results;
+    }
+
+    /**
+     * Executes chunks sequentially on one connection, or on up to {@link #parallelism} connections at once using threads from {@link SharedExecutor}.
+     * Stops handing out chunks after the first failure, and interrupts chunks still running once the caller stops waiting.
+     * @return result for each chunk, in chunk order
+     */
+    <R> List<R> execute(ConnectionSupplier db, List<PositionalBindings> chunks, ChunkQuery<R> query) throws SQLException {
+        final int workers = Math.min(parallelism, chunks.size());
+        if (workers <= 1) {
+            try (Connection connection = db.getConnection()) {
+                return execute(connection, chunks, query);
+            }
+        }
+
+        final Object[] results = new Object[chunks.size()];
+        final AtomicInteger nextChunk = new AtomicInteger();
+        final List<Future<Void>> futures = new ArrayList<>(workers);
+        try {
+            for (int worker = 0; worker < workers; worker++) {
+                futures.add(SharedExecutor.POOL.submit(() -> {
+                    int chunk = nextChunk.getAndIncrement();
+                    if (chunk >= results.length) {
+                        return null;
+                    }
+                    try (Connection connection = db.getConnection()) {
+                        for (; chunk < results.length; chunk = nextChunk.getAndIncrement()) {
+                            results[chunk] = query.execute(connection, chunks.get(chunk));
+                        }
+                    } catch (Exception e) {
+                        nextChunk.set(results.length);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                await(future);
+            }
+        } finally {
+            nextChunk.set(results.length);
+            for (Future<Void> future : futures) {
+                future.cancel(true);
+            }
+        }
+        //noinspection unchecked
+        return (List<R>) (List<?>) Arrays.asList(results);
+    }
+
+    private static void await(Future<Void> future) throws SQLException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while waiting for chunks", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException(cause);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Rounds the size of collection bindings up to a bucket, so that collections of many different sizes
+ * generate only a few different {@code "(?,?,...,?)"} expansions, and therefore only a few different jdbc sql statements for server and driver statement caches.
+ * <p>
+ * The extra parameters are bound by repeating the last element of the collection, which does not change the result of an {@code IN} list.
+ * Empty collections are never padded.
+ * <pre>
+ * {@code
+ * query.padCollections(CollectionPadding.powersOfTwo()).bindLongs(":ids", ids)
+ * }
+ * </pre>
+ * @see PositionalBindings#padCollections(CollectionPadding)
+ * @see PositionalBindingsBuilder#padCollections(CollectionPadding)
+ */
+@Immutable
+@ThreadSafe
+@FunctionalInterface
+public interface CollectionPadding {
+
+    /**
+     * No padding, collections are bound as is.
+     */
+    CollectionPadding NONE = size -> size;
+
+    /**
+     * @param size size of the collection, at least 1
+     * @return number of parameters to bind, at least size
+     */
+    int paddedSize(int size);
+
+    /**
+     * Pads to 1, 2, 4, 8, 16, ... so there are at most 32 distinct sizes.
+     * @return padding to the next power of two
+     */
+    static CollectionPadding powersOfTwo() {
+        return size -> {
+            final int highestOneBit = Integer.highestOneBit(size);
+            if (highestOneBit == size || highestOneBit == 1 << 30) {
+                return size;
+            }
+            return highestOneBit << 1;
+        };
+    }
+
+    /**
+     * Pads to the next size in the ladder. Beyond the last size, keeps doubling the last size.
+     * <p>
+     * For example {@code ladder(10, 50, 100)} pads 3 to 10, 42 to 50, 100 to 100 and 150 to 200.
+     * @param sizes ascending positive sizes
+     * @return padding to the next size in the ladder
+     */
+    static CollectionPadding ladder(int... sizes) {
+        Objects.requireNonNull(sizes, "sizes must not be null");
+        if (sizes.length == 0) {
+            throw new IllegalArgumentException("sizes must not be empty");
+        }
+        final int[] ladder = sizes.clone();
+        for (int i = 0; i < ladder.length; i++) {
+            if (ladder[i] <= 0) {
+                throw new IllegalArgumentException("sizes must be positive");
+            }
+            if (i > 0 && ladder[i] <= ladder[i - 1]) {
+                throw new IllegalArgumentException("sizes must be ascending");
+            }
+        }
+        return size -> {
+            final int index = Arrays.binarySearch(ladder, size);
+            if (index >= 0) {
+                return size;
+            }
+            final int insertion = -index - 1;
+            if (insertion < ladder.length) {
+                return ladder[insertion];
+            }
+            long padded = ladder[ladder.length - 1];
+            while (padded < size) {
+                padded <<= 1;
+            }
+            return padded > Integer.MAX_VALUE ? size : (int) padded;
+        };
+    }
+}
@@ -0,0 +1,451 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One column of {@link Columns}, values are indexed by row, starting at {@code 0}.
+ * Values are stored in arrays of {@value #BLOCK} rows, and each block is scanned sequentially. While reading, the first block starts small
+ * and is copied as it doubles up to {@value #BLOCK} rows, so small results stay small, later blocks are filled in place, and the last block is trimmed.
+ * <p>
+ * The storage is picked from {@link ResultSetMetaData#getColumnType(int)} and {@link ResultSetMetaData#isSigned(int)}:
+ * {@link OfLong} for {@link Types#BIGINT} and unsigned {@link Types#INTEGER}, {@link OfInt} for other {@link Types#INTEGER} and smaller,
+ * {@link OfDouble} for {@link Types#DOUBLE}, {@link Types#FLOAT} and {@link Types#REAL},
+ * {@link OfString} for character types, and {@link OfObject} for everything else, including unsigned {@link Types#BIGINT}.
+ * Nulls are kept in a bitmap, primitive columns read {@code 0} for null values like {@link ResultSet} does.
+ * @see Columns
+ */
+@Immutable
+@ThreadSafe
+public abstract class Column {
+
+    private static final int INITIAL_CAPACITY = 16;
+    static final int BLOCK_SHIFT = 10;
+    static final int BLOCK = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK - 1;
+
+    private final String label;
+    private final int rows;
+    private final BitSet nulls;
+
+    private Column(String label, int rows, BitSet nulls) {
+        this.label = label;
+        this.rows = rows;
+        this.nulls = nulls;
+    }
+
+    /**
+     * @see ResultSetMetaData#getColumnLabel(int)
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public boolean isNull(int row) {
+        checkRow(row);
+        return nulls.get(row);
+    }
+
+    /**
+     * @return value at row, boxed
+     */
+    @Nullable
+    public abstract Object getObject(int row);
+
+    void checkRow(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("row " + row + " not in [0, " + rows + ")");
+        }
+    }
+
+    /**
+     * @param columnIndex column of the result set, starting at {@code 1}
+     * @return reader for the type of column
+     */
+    static Reader reader(ResultSetMetaData metaData, int columnIndex) throws SQLException {
+        final String label = metaData.getColumnLabel(columnIndex);
+        switch (metaData.getColumnType(columnIndex)) {
+            case Types.BIGINT:
+                return metaData.isSigned(columnIndex) ? new LongReader(label, columnIndex) : new ObjectReader(label, columnIndex);
+            case Types.INTEGER:
+                return metaData.isSigned(columnIndex) ? new IntReader(label, columnIndex) : new LongReader(label, columnIndex);
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return new IntReader(label, columnIndex);
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.REAL:
+                return new DoubleReader(label, columnIndex);
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return new StringReader(label, columnIndex);
+            default:
+                return new ObjectReader(label, columnIndex);
+        }
+    }
+
+    /**
+     * Not intended for external use.
+     * <p>
+     * Reads one column of every row into blocks, the first block grows up to {@link #BLOCK} rows, then the last block is trimmed.
+     */
+    static abstract class Reader {
+        final String label;
+        final int columnIndex;
+        final BitSet nulls = new BitSet();
+
+        Reader(String label, int columnIndex) {
+            this.label = label;
+            this.columnIndex = columnIndex;
+        }
+
+        /**
+         * @param row rows read so far
+         */
+        abstract void read(ResultSet rs, int row) throws SQLException;
+
+        abstract Column finish(int rows);
+    }
+
+    public static final class OfLong extends Column {
+
+        private final long[][] values;
+
+        private OfLong(String label, int rows, BitSet nulls, long[][] values) {
+            super(label, rows, nulls);
+            this.values = values;
+        }
+
+        /**
+         * @return value at row, {@code 0} if null
+         */
+        public long getLong(int row) {
+            checkRow(row);
+            return values[row >>> BLOCK_SHIFT][row & BLOCK_MASK];
+        }
+
+        @Nullable
+        @Override
+        public Long getObject(int row) {
+            return isNull(row) ? null : getLong(row);
+        }
+    }
+
+    public static final class OfInt extends Column {
+
+        private final int[][] values;
+
+        private OfInt(String label, int rows, BitSet nulls, int[][] values) {
+            super(label, rows, nulls);
+            this.values = values;
+        }
+
+        /**
+         * @return value at row, {@code 0} if null
+         */
+        public int getInt(int row) {
+            checkRow(row);
+            return values[row >>> BLOCK_SHIFT][row & BLOCK_MASK];
+        }
+
+        @Nullable
+        @Override
+        public Integer getObject(int row) {
+            return isNull(row) ? null : getInt(row);
+        }
+    }
+
+    public static final class OfDouble extends Column {
+
+        private final double[][] values;
+
+        private OfDouble(String label, int rows, BitSet nulls, double[][] values) {
+            super(label, rows, nulls);
+            this.values = values;
+        }
+
+        /**
+         * @return value at row, {@code 0} if null
+         */
+        public double getDouble(int row) {
+            checkRow(row);
+            return values[row >>> BLOCK_SHIFT][row & BLOCK_MASK];
+        }
+
+        @Nullable
+        @Override
+        public Double getObject(int row) {
+            return isNull(row) ? null : getDouble(row);
+        }
+    }
+
+    /**
+     * Dictionary encoded, each distinct value is stored once and rows hold its code, an index into {@link #getDictionary()}.
+     */
+    public static final class OfString extends Column {
+
+        private final int[][] codes;
+        private final List<String> dictionary;
+
+        private OfString(String label, int rows, BitSet nulls, int[][] codes, List<String> dictionary) {
+            super(label, rows, nulls);
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+
+        /**
+         * @return code of the value at row, {@code -1} if null
+         */
+        public int getCode(int row) {
+            checkRow(row);
+            return codes[row >>> BLOCK_SHIFT][row & BLOCK_MASK];
+        }
+
+        /**
+         * @return distinct values, in order of first appearance
+         */
+        public List<String> getDictionary() {
+            return dictionary;
+        }
+
+        @Nullable
+        public String getString(int row) {
+            final int code = getCode(row);
+            return code < 0 ? null : dictionary.get(code);
+        }
+
+        @Nullable
+        @Override
+        public String getObject(int row) {
+            return getString(row);
+        }
+    }
+
+    /**
+     * Values as returned by {@link ResultSet#getObject(int)}.
+     */
+    public static final class OfObject extends Column {
+
+        private final Object[][] values;
+
+        private OfObject(String label, int rows, BitSet nulls, Object[][] values) {
+            super(label, rows, nulls);
+            this.values = values;
+        }
+
+        @Nullable
+        @Override
+        public Object getObject(int row) {
+            checkRow(row);
+            return values[row >>> BLOCK_SHIFT][row & BLOCK_MASK];
+        }
+    }
+
+    private static final class LongReader extends Reader {
+        private final List<long[]> full = new ArrayList<>();
+        private long[] block = new long[INITIAL_CAPACITY];
+        private int j;
+
+        LongReader(String label, int columnIndex) {
+            super(label, columnIndex);
+        }
+
+        @Override
+        void read(ResultSet rs, int row) throws SQLException {
+            if (j == block.length) {
+                if (j < BLOCK) {
+                    block = Arrays.copyOf(block, j << 1);
+                } else {
+                    full.add(block);
+                    block = new long[BLOCK];
+                    j = 0;
+                }
+            }
+            block[j++] = rs.getLong(columnIndex);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Column finish(int rows) {
+            if (j > 0) {
+                full.add(j == block.length ? block : Arrays.copyOf(block, j));
+            }
+            return new OfLong(label, rows, nulls, full.toArray(new long[full.size()][]));
+        }
+    }
+
+    private static final class IntReader extends Reader {
+        private final List<int[]> full = new ArrayList<>();
+        private int[] block = new int[INITIAL_CAPACITY];
+        private int j;
+
+        IntReader(String label, int columnIndex) {
+            super(label, columnIndex);
+        }
+
+        @Override
+        void read(ResultSet rs, int row) throws SQLException {
+            if (j == block.length) {
+                if (j < BLOCK) {
+                    block = Arrays.copyOf(block, j << 1);
+                } else {
+                    full.add(block);
+                    block = new int[BLOCK];
+                    j = 0;
+                }
+            }
+            block[j++] = rs.getInt(columnIndex);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Column finish(int rows) {
+            if (j > 0) {
+                full.add(j == block.length ? block : Arrays.copyOf(block, j));
+            }
+            return new OfInt(label, rows, nulls, full.toArray(new int[full.size()][]));
+        }
+    }
+
+    private static final class DoubleReader extends Reader {
+        private final List<double[]> full = new ArrayList<>();
+        private double[] block = new double[INITIAL_CAPACITY];
+        private int j;
+
+        DoubleReader(String label, int columnIndex) {
+            super(label, columnIndex);
+        }
+
+        @Override
+        void read(ResultSet rs, int row) throws SQLException {
+            if (j == block.length) {
+                if (j < BLOCK) {
+                    block = Arrays.copyOf(block, j << 1);
+                } else {
+                    full.add(block);
+                    block = new double[BLOCK];
+                    j = 0;
+                }
+            }
+            block[j++] = rs.getDouble(columnIndex);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Column finish(int rows) {
+            if (j > 0) {
+                full.add(j == block.length ? block : Arrays.copyOf(block, j));
+            }
+            return new OfDouble(label, rows, nulls, full.toArray(new double[full.size()][]));
+        }
+    }
+
+    private static final class StringReader extends Reader {
+        private final List<int[]> full = new ArrayList<>();
+        private int[] block = new int[INITIAL_CAPACITY];
+        private int j;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        StringReader(String label, int columnIndex) {
+            super(label, columnIndex);
+        }
+
+        @Override
+        void read(ResultSet rs, int row) throws SQLException {
+            if (j == block.length) {
+                if (j < BLOCK) {
+                    block = Arrays.copyOf(block, j << 1);
+                } else {
+                    full.add(block);
+                    block = new int[BLOCK];
+                    j = 0;
+                }
+            }
+            final String value = rs.getString(columnIndex);
+            if (value == null) {
+                nulls.set(row);
+                block[j++] = -1;
+                return;
+            }
+            Integer code = dictionary.get(value);
+            if (code == null) {
+                code = values.size();
+                dictionary.put(value, code);
+                values.add(value);
+            }
+            block[j++] = code;
+        }
+
+        @Override
+        Column finish(int rows) {
+            if (j > 0) {
+                full.add(j == block.length ? block : Arrays.copyOf(block, j));
+            }
+            return new OfString(label, rows, nulls, full.toArray(new int[full.size()][]),
+                    Collections.unmodifiableList(Arrays.asList(values.toArray(new String[values.size()]))));
+        }
+    }
+
+    private static final class ObjectReader extends Reader {
+        private final List<Object[]> full = new ArrayList<>();
+        private Object[] block = new Object[INITIAL_CAPACITY];
+        private int j;
+
+        ObjectReader(String label, int columnIndex) {
+            super(label, columnIndex);
+        }
+
+        @Override
+        void read(ResultSet rs, int row) throws SQLException {
+            if (j == block.length) {
+                if (j < BLOCK) {
+                    block = Arrays.copyOf(block, j << 1);
+                } else {
+                    full.add(block);
+                    block = new Object[BLOCK];
+                    j = 0;
+                }
+            }
+            final Object value = rs.getObject(columnIndex);
+            if (value == null) {
+                nulls.set(row);
+            }
+            block[j++] = value;
+        }
+
+        @Override
+        Column finish(int rows) {
+            if (j > 0) {
+                full.add(j == block.length ? block : Arrays.copyOf(block, j));
+            }
+            return new OfObject(label, rows, nulls, full.toArray(new Object[full.size()][]));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A whole result set read into memory column by column, instead of one object per row:
+ * <pre>
+ * {@code
+ * Columns students = JDBJ.query("SELECT id, gpa FROM student").toColumns().execute(db);
+ * Column.OfLong ids = students.column("id", Column.OfLong.class);
+ * for (int row = 0; row < students.rows(); row++) {
+ *     total += ids.getLong(row);
+ * }
+ * }
+ * </pre>
+ * Numbers are kept in primitive arrays and strings are dictionary encoded, see {@link Column},
+ * so a row costs a few bytes per column and scanning a column reads one array.
+ * @see ReturnsQuery#toColumns()
+ */
+@Immutable
+@ThreadSafe
+public final class Columns {
+
+    private final int rows;
+    private final List<Column> columns;
+    private final Map<String, Integer> indexes;
+
+    private Columns(int rows, List<Column> columns) {
+        this.rows = rows;
+        this.columns = columns;
+        final Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            indexes.putIfAbsent(key(columns.get(i).getLabel()), i);
+        }
+        this.indexes = indexes;
+    }
+
+    /**
+     * Reads the remaining rows of rs, does not close it.
+     */
+    static Columns read(ResultSet rs) throws SQLException {
+        final ResultSetMetaData metaData = rs.getMetaData();
+        final Column.Reader[] readers = new Column.Reader[metaData.getColumnCount()];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = Column.reader(metaData, i + 1);
+        }
+        int rows = 0;
+        while (rs.next()) {
+            for (Column.Reader reader : readers) {
+                reader.read(rs, rows);
+            }
+            rows++;
+        }
+        final List<Column> columns = new ArrayList<>(readers.length);
+        for (Column.Reader reader : readers) {
+            columns.add(reader.finish(rows));
+        }
+        return new Columns(rows, Collections.unmodifiableList(columns));
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return columns, in result set order
+     */
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @param columnIndex the first column is 1, the second is 2, ...
+     */
+    public Column column(int columnIndex) {
+        if (columnIndex < 1 || columnIndex > columns.size()) {
+            throw new IndexOutOfBoundsException("columnIndex " + columnIndex + " not in [1, " + columns.size() + "]");
+        }
+        return columns.get(columnIndex - 1);
+    }
+
+    /**
+     * @param columnLabel label of the column, ignoring case, the first column wins if more than one has this label
+     * @throws IllegalArgumentException if no column has this label
+     */
+    public Column column(String columnLabel) {
+        Objects.requireNonNull(columnLabel, "columnLabel must not be null");
+        final Integer index = indexes.get(key(columnLabel));
+        if (index == null) {
+            throw new IllegalArgumentException("no column labeled \"" + columnLabel + "\", columns are: " + Arrays.toString(labels()));
+        }
+        return columns.get(index);
+    }
+
+    /**
+     * @param type expected column type, like {@link Column.OfLong}
+     * @throws IllegalArgumentException if no column has this label, or it is not of type
+     */
+    public <C extends Column> C column(String columnLabel, Class<C> type) {
+        Objects.requireNonNull(type, "type must not be null");
+        final Column column = column(columnLabel);
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException("column \"" + columnLabel + "\" is " + column.getClass().getSimpleName() + ", not " + type.getSimpleName());
+        }
+        return type.cast(column);
+    }
+
+    private String[] labels() {
+        final String[] labels = new String[columns.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = columns.get(i).getLabel();
+        }
+        return labels;
+    }
+
+    private static String key(String columnLabel) {
+        return columnLabel.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,298 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.ResultMapper;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Maps rows to {@link R} by column label, see {@link ReturnsQuery#mapTo(Class)}.
+ * <p>
+ * The first row of each result set is matched against {@link R} once, into a single {@link MethodHandle}
+ * that reads each column by index and calls the constructor and setters. Handles are cached per class and column labels,
+ * readers are picked from the property types, so column types do not matter.
+ * <p>
+ * In order of preference, a row maps to:
+ * <ol>
+ *     <li>a single column of a type {@link SmartResult} can read, like {@link Long} or {@link String}</li>
+ *     <li>a public no argument constructor, then for each column a public setter or public field with the same name</li>
+ *     <li>a public constructor with one parameter per column, matched by name when compiled with {@code -parameters}
+ *     (always for records), otherwise by position when it is the only constructor with that many parameters</li>
+ * </ol>
+ * Names are matched ignoring case and underscores, so {@code first_name} maps to {@code setFirstName}.
+ * @param <R> return type
+ */
+@Immutable
+@ThreadSafe
+final class CompiledResultMapper<R> implements ResultMapper<R> {
+
+    private static final ClassValue<ConcurrentMap<List<String>, MethodHandle>> COMPILED = new ClassValue<ConcurrentMap<List<String>, MethodHandle>>() {
+        @Override
+        protected ConcurrentMap<List<String>, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final Map<Class<?>, String> READERS = new HashMap<>();
+
+    static {
+        READERS.put(boolean.class, "getBooleanPrimitive");
+        READERS.put(Boolean.class, "getBoolean");
+        READERS.put(byte.class, "getBytePrimitive");
+        READERS.put(Byte.class, "getByte");
+        READERS.put(short.class, "getShortPrimitive");
+        READERS.put(Short.class, "getShort");
+        READERS.put(int.class, "getIntegerPrimitive");
+        READERS.put(Integer.class, "getInteger");
+        READERS.put(long.class, "getLongPrimitive");
+        READERS.put(Long.class, "getLong");
+        READERS.put(float.class, "getFloatPrimitive");
+        READERS.put(Float.class, "getFloat");
+        READERS.put(double.class, "getDoublePrimitive");
+        READERS.put(Double.class, "getDouble");
+        READERS.put(String.class, "getString");
+        READERS.put(BigDecimal.class, "getBigDecimal");
+        READERS.put(byte[].class, "getBytes");
+        READERS.put(Date.class, "getDate");
+        READERS.put(Time.class, "getTime");
+        READERS.put(Timestamp.class, "getTimestamp");
+        READERS.put(Array.class, "getSQLArray");
+        READERS.put(Blob.class, "getBlob");
+        READERS.put(Clob.class, "getClob");
+        READERS.put(NClob.class, "getNClob");
+        READERS.put(SQLXML.class, "getSQLXML");
+        READERS.put(URL.class, "getURL");
+        READERS.put(Object.class, "getObject");
+    }
+
+    private static final MethodType MAPPER_TYPE = MethodType.methodType(Object.class, SmartResult.class);
+
+    static <R> CompiledResultMapper<R> of(Class<R> type) {
+        Objects.requireNonNull(type, "type must not be null");
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                throw new IllegalArgumentException(type.getName() + " must be public");
+            }
+        }
+        if (type.isPrimitive() || !READERS.containsKey(type) && (type.isInterface() || Modifier.isAbstract(type.getModifiers()))) {
+            throw new IllegalArgumentException(type.getName() + " must be a concrete class");
+        }
+        return new CompiledResultMapper<>(type);
+    }
+
+    private final Class<R> type;
+
+    private CompiledResultMapper(Class<R> type) {
+        this.type = type;
+    }
+
+    @Override
+    public R map(SmartResult result) throws SQLException {
+        final MethodHandle compiled = result.compiled(this);
+        try {
+            return type.cast((Object) compiled.invokeExact(result));
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new SQLException("failed to map row to " + type.getName(), t);
+        }
+    }
+
+    /**
+     * Mappers of the same class are equal, so queries built again with {@link ReturnsQuery#mapTo(Class)} share {@link QueryCache} results.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof CompiledResultMapper && type == ((CompiledResultMapper<?>) o).type;
+    }
+
+    @Override
+    public int hashCode() {
+        return type.hashCode();
+    }
+
+    /**
+     * @return handle of type (SmartResult)Object for rows with the columns in metaData
+     */
+    MethodHandle compile(ResultSetMetaData metaData) throws SQLException {
+        final String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        final ConcurrentMap<List<String>, MethodHandle> compiled = COMPILED.get(type);
+        final List<String> key = Arrays.asList(labels);
+        final MethodHandle cached = compiled.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final MethodHandle handle;
+        try {
+            handle = compile(labels).asType(MAPPER_TYPE);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new SQLException("cannot map to " + type.getName(), e);
+        }
+        final MethodHandle raced = compiled.putIfAbsent(key, handle);
+        return raced == null ? handle : raced;
+    }
+
+    private MethodHandle compile(String[] labels) throws SQLException, IllegalAccessException, NoSuchMethodException {
+        if (READERS.containsKey(type) || type.isEnum()) {
+            if (labels.length != 1) {
+                throw new SQLException(type.getName() + " maps from one column, but got " + labels.length);
+            }
+            return reader(type, 1);
+        }
+
+        for (Constructor<?> constructor : type.getConstructors()) {
+            if (constructor.getParameterCount() == 0) {
+                return bean(constructor, labels);
+            }
+        }
+
+        final List<Constructor<?>> candidates = new ArrayList<>();
+        for (Constructor<?> constructor : type.getConstructors()) {
+            if (constructor.getParameterCount() == labels.length) {
+                candidates.add(constructor);
+            }
+        }
+        for (Constructor<?> candidate : candidates) {
+            final int[] columns = columnsByName(candidate, labels);
+            if (columns != null) {
+                return constructor(candidate, columns);
+            }
+        }
+        if (candidates.size() == 1) {
+            final int[] columns = new int[labels.length];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = i + 1;
+            }
+            return constructor(candidates.get(0), columns);
+        }
+        throw new SQLException(type.getName() + " has no public constructor matching columns " + Arrays.toString(labels));
+    }
+
+    private MethodHandle bean(Constructor<?> constructor, String[] labels) throws SQLException, IllegalAccessException, NoSuchMethodException {
+        final Map<String, Method> setters = new HashMap<>();
+        final Map<String, Method> ambiguous = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (method.getName().length() > 3 && method.getName().startsWith("set") && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                final String name = normalize(method.getName().substring(3));
+                if (setters.put(name, method) != null) {
+                    ambiguous.put(name, method);
+                }
+            }
+        }
+        final Map<String, Field> fields = new HashMap<>();
+        for (Field field : type.getFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())) {
+                fields.put(normalize(field.getName()), field);
+            }
+        }
+
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        //(R, SmartResult)R, each setter folded in front
+        MethodHandle chain = MethodHandles.dropArguments(MethodHandles.identity(type), 1, SmartResult.class);
+        for (int i = labels.length - 1; i >= 0; i--) {
+            final String name = normalize(labels[i]);
+            final MethodHandle setter;
+            if (ambiguous.containsKey(name)) {
+                throw new SQLException(type.getName() + " has more than one setter for column \"" + labels[i] + "\"");
+            } else if (setters.containsKey(name)) {
+                setter = lookup.unreflect(setters.get(name));
+            } else if (fields.containsKey(name)) {
+                setter = lookup.unreflectSetter(fields.get(name));
+            } else {
+                throw new SQLException(type.getName() + " has no public setter or field for column \"" + labels[i] + "\"");
+            }
+            final MethodHandle read = MethodHandles.filterArguments(setter, 1, reader(setter.type().parameterType(1), i + 1));
+            chain = MethodHandles.foldArguments(chain, read.asType(MethodType.methodType(void.class, type, SmartResult.class)));
+        }
+        final MethodHandle create = MethodHandles.dropArguments(lookup.unreflectConstructor(constructor), 0, SmartResult.class);
+        return MethodHandles.foldArguments(chain, create);
+    }
+
+    private MethodHandle constructor(Constructor<?> constructor, int[] columns) throws IllegalAccessException, NoSuchMethodException {
+        final Class<?>[] parameters = constructor.getParameterTypes();
+        final MethodHandle[] readers = new MethodHandle[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            readers[i] = reader(parameters[i], columns[i]);
+        }
+        final MethodHandle create = MethodHandles.filterArguments(MethodHandles.publicLookup().unreflectConstructor(constructor), 0, readers);
+        return MethodHandles.permuteArguments(create, MethodType.methodType(type, SmartResult.class), new int[parameters.length]);
+    }
+
+    /**
+     * @return column of each parameter, or null if parameter names are not present or do not match labels
+     */
+    private static int[] columnsByName(Constructor<?> constructor, String[] labels) {
+        final Parameter[] parameters = constructor.getParameters();
+        final int[] columns = new int[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            if (!parameters[i].isNamePresent()) {
+                return null;
+            }
+            final String name = normalize(parameters[i].getName());
+            for (int j = 0; j < labels.length && columns[i] == 0; j++) {
+                if (normalize(labels[j]).equals(name)) {
+                    columns[i] = j + 1;
+                }
+            }
+            if (columns[i] == 0) {
+                return null;
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * @return handle of type (SmartResult)valueType that reads column
+     */
+    private static MethodHandle reader(Class<?> valueType, int column) throws IllegalAccessException, NoSuchMethodException {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final MethodHandle read;
+        if (READERS.containsKey(valueType)) {
+            read = lookup.findVirtual(SmartResult.class, READERS.get(valueType), MethodType.methodType(valueType, int.class));
+            return MethodHandles.insertArguments(read, 1, column);
+        } else if (valueType.isEnum()) {
+            read = lookup.findVirtual(SmartResult.class, "getString", MethodType.methodType(String.class, int.class));
+            final MethodHandle toEnum = lookup.findStatic(CompiledResultMapper.class, "toEnum", MethodType.methodType(Enum.class, Class.class, String.class));
+            return MethodHandles.filterReturnValue(MethodHandles.insertArguments(read, 1, column), MethodHandles.insertArguments(toEnum, 0, valueType))
+                    .asType(MethodType.methodType(valueType, SmartResult.class));
+        } else {
+            read = lookup.findVirtual(SmartResult.class, "getObject", MethodType.methodType(Object.class, int.class, Class.class));
+            return MethodHandles.insertArguments(read, 1, column, valueType)
+                    .asType(MethodType.methodType(valueType, SmartResult.class));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static <E extends Enum<E>> Enum<E> toEnum(Class<E> enumType, String name) {
+        return name == null ? null : Enum.valueOf(enumType, name);
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,596 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.ConnectionSupplier;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Small connection pool for applications without one, such as batch jobs and command line tools. Example:
+ * <pre>
+ * {@code
+ * try (ConnectionPool db = ConnectionPool.builder(dataSource).maxSize(8).build()) {
+ *     List<Student> students = JDBJ.query("SELECT * FROM student").map(Student::from).toList().execute(db);
+ * }
+ * }
+ * </pre>
+ * Borrowing takes a permit from a {@link Semaphore} and the most recently returned connection from a lock free deque,
+ * so at most {@link #getMaxSize()} connections are borrowed at once and waiting borrowers time out after the borrow timeout.
+ * <p>
+ * Connections idle for longer than {@link Builder#validateAfterIdle(long, TimeUnit)} are checked with {@link Connection#isValid(int)} before being borrowed again.
+ * Connections discarded because validation or reset failed, or because they were aborted, are replaced while fewer than {@link #getMinSize()} are open.
+ * When returned, a connection is rolled back if it is not in auto commit mode, and auto commit and transaction isolation are restored
+ * to what the driver opened the connection with, which undoes what {@link Transaction} and {@link ReturningTransaction} change if they fail part way.
+ * <p>
+ * With leak detection on, connections borrowed for longer than the threshold are logged once at {@link Level#WARNING} with the stack trace of the borrower.
+ * This is most often a {@link java.util.stream.Stream} from {@link StreamQuery} which was never closed.
+ * <p>
+ * Statements created on a borrowed connection are the driver's, so {@link java.sql.Statement#getConnection()} returns the driver's connection rather than the borrowed one.
+ * Close the borrowed connection to return it, closing the driver's connection discards it from the pool.
+ * <p>
+ * To also reuse prepared statements, pool connections from a {@link StatementCachingDataSource}.
+ * <p>
+ * Only implements {@link DataSource}, since also implementing {@link ConnectionSupplier} would make every {@code execute(db)} call ambiguous.
+ * Use {@code pool::getConnection} where a {@link ConnectionSupplier} is needed.
+ * @see StatementCachingDataSource
+ */
+@ThreadSafe
+public final class ConnectionPool implements DataSource, AutoCloseable {
+
+    public static final int DEFAULT_MAX_SIZE = 10;
+    public static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 30_000;
+    public static final long DEFAULT_VALIDATE_AFTER_IDLE_MILLIS = 500;
+    public static final int DEFAULT_VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * @param db opens the pooled connections
+     * @return builder with no minimum size, a maximum size of {@value #DEFAULT_MAX_SIZE} and leak detection off
+     */
+    public static Builder builder(ConnectionSupplier db) {
+        return new Builder(db);
+    }
+
+    /**
+     * @param dataSource opens the pooled connections
+     * @return builder with no minimum size, a maximum size of {@value #DEFAULT_MAX_SIZE} and leak detection off
+     */
+    public static Builder builder(DataSource dataSource) {
+        Objects.requireNonNull(dataSource, "dataSource must not be null");
+        return new Builder(dataSource::getConnection);
+    }
+
+    private final ConnectionSupplier db;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutNanos;
+    private final long validateAfterIdleNanos;
+    private final int validationTimeoutSeconds;
+    private final long leakDetectionThresholdNanos;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<Borrowed> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicLong leaks = new AtomicLong();
+    @Nullable
+    private final ScheduledExecutorService leakDetection;
+
+    private final Object topUpLock = new Object();
+
+    private volatile boolean closed;
+    @Nullable
+    private volatile PrintWriter logWriter;
+
+    private ConnectionPool(Builder builder) {
+        this.db = builder.db;
+        this.minSize = builder.minSize;
+        this.maxSize = builder.maxSize;
+        this.borrowTimeoutNanos = builder.borrowTimeoutNanos;
+        this.validateAfterIdleNanos = builder.validateAfterIdleNanos;
+        this.validationTimeoutSeconds = builder.validationTimeoutSeconds;
+        this.leakDetectionThresholdNanos = builder.leakDetectionThresholdNanos;
+        this.permits = new Semaphore(maxSize);
+        if (leakDetectionThresholdNanos > 0) {
+            leakDetection = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "jdbj-pool-leak-detection");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long period = Math.max(leakDetectionThresholdNanos / 2, TimeUnit.MILLISECONDS.toNanos(10));
+            leakDetection.scheduleWithFixedDelay(this::detectLeaks, period, period, TimeUnit.NANOSECONDS);
+        } else {
+            leakDetection = null;
+        }
+    }
+
+    /**
+     * Borrows a connection, which is returned to the pool by {@link Connection#close()}.
+     * @return connection
+     * @throws SQLTimeoutException if every connection is still borrowed after the borrow timeout
+     * @throws SQLException if the pool is closed or opening a connection failed
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTimeoutException("timed out after " + TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos) + "ms waiting for one of " + maxSize + " connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted waiting for a connection", e);
+        }
+        try {
+            if (closed) {
+                throw new SQLException("pool is closed");
+            }
+            final Borrowed connection = new Borrowed(take());
+            if (leakDetection != null) {
+                borrowed.add(connection);
+            }
+            return connection.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes idle connections, borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (leakDetection != null) {
+            leakDetection.shutdownNow();
+        }
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return number of open connections, borrowed or idle
+     */
+    public int openCount() {
+        return open.get();
+    }
+
+    /**
+     * @return number of open connections waiting to be borrowed
+     */
+    public int idleCount() {
+        return idle.size();
+    }
+
+    /**
+     * @return number of connections reported as leaked, each is reported at most once
+     */
+    public long leakCount() {
+        return leaks.get();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("pooled connections are opened by the ConnectionSupplier");
+    }
+
+    @Override
+    @Nullable
+    public PrintWriter getLogWriter() throws SQLException {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(@Nullable PrintWriter out) throws SQLException {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        throw new SQLFeatureNotSupportedException("use Builder.borrowTimeout");
+    }
+
+    /**
+     * @return borrow timeout in seconds, rounded up
+     */
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return (int) Math.min(Integer.MAX_VALUE, (borrowTimeoutNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return LOGGER;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    private void fill() throws SQLException {
+        final List<PooledConnection> opened = new ArrayList<>(minSize);
+        try {
+            for (int i = 0; i < minSize; i++) {
+                opened.add(open());
+            }
+        } catch (SQLException | RuntimeException e) {
+            for (PooledConnection pooled : opened) {
+                discard(pooled);
+            }
+            throw e;
+        }
+        opened.forEach(idle::addFirst);
+    }
+
+    /**
+     * @return most recently returned connection which is still valid, otherwise a newly opened connection
+     */
+    private PooledConnection take() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isValid(pooled)) {
+                return pooled;
+            }
+            replace(pooled);
+        }
+        return open();
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        if (System.nanoTime() - pooled.returnedAt < validateAfterIdleNanos) {
+            return true;
+        }
+        try {
+            return pooled.connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        final Connection connection = db.getConnection();
+        Objects.requireNonNull(connection, "db must not supply a null connection");
+        try {
+            final PooledConnection pooled = new PooledConnection(connection, connection.getAutoCommit(), connection.getTransactionIsolation());
+            open.incrementAndGet();
+            return pooled;
+        } catch (SQLException | RuntimeException e) {
+            try {
+                connection.close();
+            } catch (SQLException closeFailed) {
+                e.addSuppressed(closeFailed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the connection, failures are ignored since the connection is not used again.
+     */
+    private void discard(PooledConnection pooled) {
+        open.decrementAndGet();
+        try {
+            pooled.connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * Discards the connection and opens connections until {@link #getMinSize()} are open again.
+     */
+    private void replace(PooledConnection pooled) {
+        discard(pooled);
+        topUp();
+    }
+
+    /**
+     * Failures are logged and left to the next discard, since the caller is not waiting for these connections.
+     */
+    private void topUp() {
+        synchronized (topUpLock) {
+            while (!closed && open.get() < minSize) {
+                final PooledConnection pooled;
+                try {
+                    pooled = open();
+                } catch (SQLException | RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "failed to replace a discarded connection, " + open.get() + " of " + minSize + " connections open", e);
+                    return;
+                }
+                idle.addFirst(pooled);
+                if (closed && idle.remove(pooled)) {
+                    discard(pooled);
+                }
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        final long now = System.nanoTime();
+        for (Borrowed connection : borrowed) {
+            if (!connection.leakReported && now - connection.borrowedAt > leakDetectionThresholdNanos) {
+                connection.leakReported = true;
+                leaks.incrementAndGet();
+                LOGGER.log(Level.WARNING, "connection borrowed " + TimeUnit.NANOSECONDS.toMillis(now - connection.borrowedAt)
+                        + "ms ago has not been closed, was a Stream from a StreamQuery left open?", connection.borrowedBy);
+            }
+        }
+    }
+
+    private static final class PooledConnection {
+        private final Connection connection;
+        private final boolean autoCommit;
+        private final int isolation;
+        private volatile long returnedAt = System.nanoTime();
+
+        PooledConnection(Connection connection, boolean autoCommit, int isolation) {
+            this.connection = connection;
+            this.autoCommit = autoCommit;
+            this.isolation = isolation;
+        }
+    }
+
+    /**
+     * Connection handed out to the borrower, closing it returns the pooled connection.
+     * Statements are not wrapped, so {@link java.sql.Statement#getConnection()} returns {@link PooledConnection#connection}.
+     */
+    private final class Borrowed implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private final Connection proxy;
+        private final AtomicBoolean returned = new AtomicBoolean();
+        private final long borrowedAt = System.nanoTime();
+        @Nullable
+        private final Throwable borrowedBy;
+
+        private volatile boolean autoCommitChanged;
+        private volatile boolean isolationChanged;
+        private volatile boolean aborted;
+        private volatile boolean leakReported;
+
+        Borrowed(PooledConnection pooled) {
+            this.pooled = pooled;
+            this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+            this.borrowedBy = leakDetection == null ? null : new Throwable("connection borrowed by " + Thread.currentThread().getName());
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+            switch (name) {
+                case "close":
+                    giveBack();
+                    return null;
+                case "isClosed":
+                    return returned.get() || pooled.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "pooled " + pooled.connection;
+                default:
+                    if (returned.get()) {
+                        throw new SQLException("connection is closed");
+                    }
+                    if (name.equals("setAutoCommit")) {
+                        autoCommitChanged = true;
+                    } else if (name.equals("setTransactionIsolation")) {
+                        isolationChanged = true;
+                    } else if (name.equals("abort")) {
+                        aborted = true;
+                    }
+                    final Object result;
+                    try {
+                        result = method.invoke(pooled.connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (aborted) {
+                        giveBack();
+                    }
+                    return result;
+            }
+        }
+
+        private void giveBack() throws SQLException {
+            if (!returned.compareAndSet(false, true)) {
+                return;
+            }
+            borrowed.remove(this);
+            try {
+                if (closed) {
+                    discard(pooled);
+                    return;
+                }
+                if (aborted) {
+                    replace(pooled);
+                    return;
+                }
+                try {
+                    reset();
+                } catch (SQLException | RuntimeException e) {
+                    replace(pooled);
+                    throw e;
+                }
+                pooled.returnedAt = System.nanoTime();
+                idle.addFirst(pooled);
+                if (closed && idle.remove(pooled)) {
+                    discard(pooled);
+                }
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void reset() throws SQLException {
+            final Connection connection = pooled.connection;
+            if (autoCommitChanged || !pooled.autoCommit) {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+                if (connection.getAutoCommit() != pooled.autoCommit) {
+                    connection.setAutoCommit(pooled.autoCommit);
+                }
+            }
+            if (isolationChanged && connection.getTransactionIsolation() != pooled.isolation) {
+                connection.setTransactionIsolation(pooled.isolation);
+            }
+        }
+    }
+
+    /**
+     * Configures a {@link ConnectionPool}, times of {@code 0} turn off the associated behaviour.
+     */
+    @NotThreadSafe
+    public static final class Builder {
+
+        private final ConnectionSupplier db;
+        private int minSize;
+        private int maxSize = DEFAULT_MAX_SIZE;
+        private long borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_BORROW_TIMEOUT_MILLIS);
+        private long validateAfterIdleNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_VALIDATE_AFTER_IDLE_MILLIS);
+        private int validationTimeoutSeconds = DEFAULT_VALIDATION_TIMEOUT_SECONDS;
+        private long leakDetectionThresholdNanos;
+
+        private Builder(ConnectionSupplier db) {
+            Objects.requireNonNull(db, "db must not be null");
+            this.db = db;
+        }
+
+        /**
+         * @param minSize number of connections opened by {@link #build()} and reopened when connections are discarded
+         */
+        public Builder minSize(int minSize) {
+            if (minSize < 0) {
+                throw new IllegalArgumentException("minSize must not be negative");
+            }
+            this.minSize = minSize;
+            return this;
+        }
+
+        /**
+         * @param maxSize maximum number of connections borrowed at once
+         */
+        public Builder maxSize(int maxSize) {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("maxSize must be at least 1");
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * @param timeout how long {@link ConnectionPool#getConnection()} waits for a connection to be returned when every connection is borrowed
+         */
+        public Builder borrowTimeout(long timeout, TimeUnit unit) {
+            this.borrowTimeoutNanos = nanos(timeout, unit, "timeout");
+            return this;
+        }
+
+        /**
+         * @param idle connections returned longer ago than this are validated before being borrowed, {@code 0} validates on every borrow
+         */
+        public Builder validateAfterIdle(long idle, TimeUnit unit) {
+            this.validateAfterIdleNanos = nanos(idle, unit, "idle");
+            return this;
+        }
+
+        /**
+         * @param seconds passed to {@link Connection#isValid(int)}
+         */
+        public Builder validationTimeout(int seconds) {
+            if (seconds < 0) {
+                throw new IllegalArgumentException("seconds must not be negative");
+            }
+            this.validationTimeoutSeconds = seconds;
+            return this;
+        }
+
+        /**
+         * @param threshold connections borrowed for longer than this are logged as leaked, {@code 0} turns off leak detection
+         */
+        public Builder leakDetectionThreshold(long threshold, TimeUnit unit) {
+            this.leakDetectionThresholdNanos = nanos(threshold, unit, "threshold");
+            return this;
+        }
+
+        /**
+         * @return pool with {@link #minSize(int)} connections already open
+         * @throws SQLException if opening the minimum connections failed
+         */
+        public ConnectionPool build() throws SQLException {
+            if (minSize > maxSize) {
+                throw new IllegalStateException("minSize " + minSize + " is greater than maxSize " + maxSize);
+            }
+            final ConnectionPool pool = new ConnectionPool(this);
+            try {
+                pool.fill();
+            } catch (SQLException | RuntimeException e) {
+                pool.close();
+                throw e;
+            }
+            return pool;
+        }
+
+        private static long nanos(long duration, TimeUnit unit, String name) {
+            Objects.requireNonNull(unit, "unit must not be null");
+            if (duration < 0) {
+                throw new IllegalArgumentException(name + " must not be negative");
+            }
+            return unit.toNanos(duration);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Statement settings for how rows are fetched by {@link ExecuteQuery}, {@link StreamQuery} and {@link PreparedExecuteQuery}, {@code 0} leaves the driver's default.
+ * <p>
+ * When streaming, the fetch size defaults to {@value #DEFAULT_STREAMING_FETCH_SIZE} and is adjusted per driver by {@link Dialect},
+ * which may also turn off auto commit until the results are closed.
+ * <p>
+ * Options are equal when every setting is equal, so they can be part of a {@link QueryCache} key.
+ */
+@Immutable
+final class CursorOptions {
+
+    static final int DEFAULT_STREAMING_FETCH_SIZE = 1000;
+
+    static final CursorOptions DEFAULT = new CursorOptions(0, 0, 0, null, false);
+
+    private final int fetchSize;
+    private final int maxRows;
+    private final int queryTimeout;
+    @Nullable
+    private final Integer fetchDirection;
+    private final boolean streaming;
+
+    private CursorOptions(int fetchSize, int maxRows, int queryTimeout, @Nullable Integer fetchDirection, boolean streaming) {
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+        this.queryTimeout = queryTimeout;
+        this.fetchDirection = fetchDirection;
+        this.streaming = streaming;
+    }
+
+    CursorOptions fetchSize(int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("rows must not be negative");
+        }
+        return new CursorOptions(rows, maxRows, queryTimeout, fetchDirection, streaming);
+    }
+
+    CursorOptions maxRows(int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("rows must not be negative");
+        }
+        return new CursorOptions(fetchSize, rows, queryTimeout, fetchDirection, streaming);
+    }
+
+    CursorOptions queryTimeout(int seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("seconds must not be negative");
+        }
+        return new CursorOptions(fetchSize, maxRows, seconds, fetchDirection, streaming);
+    }
+
+    CursorOptions fetchDirection(int direction) {
+        switch (direction) {
+            case ResultSet.FETCH_FORWARD:
+            case ResultSet.FETCH_REVERSE:
+            case ResultSet.FETCH_UNKNOWN:
+                break;
+            default:
+                throw new IllegalArgumentException(direction + " is not a valid fetch direction constant");
+        }
+        return new CursorOptions(fetchSize, maxRows, queryTimeout, direction, streaming);
+    }
+
+    CursorOptions streaming() {
+        return new CursorOptions(fetchSize, maxRows, queryTimeout, fetchDirection, true);
+    }
+
+    int getFetchSize() {
+        return fetchSize;
+    }
+
+    int getMaxRows() {
+        return maxRows;
+    }
+
+    int getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    @Nullable
+    Integer getFetchDirection() {
+        return fetchDirection;
+    }
+
+    boolean isStreaming() {
+        return streaming;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final CursorOptions that = (CursorOptions) o;
+        return fetchSize == that.fetchSize && maxRows == that.maxRows && queryTimeout == that.queryTimeout
+                && streaming == that.streaming && Objects.equals(fetchDirection, that.fetchDirection);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fetchSize, maxRows, queryTimeout, fetchDirection, streaming);
+    }
+
+    /**
+     * @return whether {@link #apply(Connection, PreparedStatement, Dialect)} needs the dialect
+     */
+    boolean needsDialect() {
+        return streaming;
+    }
+
+    /**
+     * Applies settings to ps, call before executing.
+     * @param dialect dialect of the connection's database, only needed if {@link #needsDialect()}
+     * @return true if auto commit was turned off for streaming, pass to {@link #restore(Connection, boolean)} once the results are closed.
+     * If a setting fails, auto commit is turned back on before the exception is thrown, so callers only restore after this returns.
+     */
+    boolean apply(Connection connection, PreparedStatement ps, @Nullable Dialect dialect) throws SQLException {
+        int fetchSize = this.fetchSize;
+        boolean autoCommitTurnedOff = false;
+        if (streaming) {
+            if (fetchSize == 0) {
+                fetchSize = DEFAULT_STREAMING_FETCH_SIZE;
+            }
+            if (dialect != null) {
+                fetchSize = dialect.streamingFetchSize(fetchSize);
+                if (dialect.streamingRequiresTransaction && connection.getAutoCommit()) {
+                    connection.setAutoCommit(false);
+                    autoCommitTurnedOff = true;
+                }
+            }
+        }
+        try {
+            if (fetchSize != 0) {
+                ps.setFetchSize(fetchSize);
+            }
+            if (maxRows != 0) {
+                ps.setMaxRows(maxRows);
+            }
+            if (queryTimeout != 0) {
+                ps.setQueryTimeout(queryTimeout);
+            }
+            if (fetchDirection != null) {
+                ps.setFetchDirection(fetchDirection);
+            }
+        } catch (SQLException | RuntimeException e) {
+            try {
+                restore(connection, autoCommitTurnedOff);
+            } catch (SQLException restoreFailed) {
+                e.addSuppressed(restoreFailed);
+            }
+            throw e;
+        }
+        return autoCommitTurnedOff;
+    }
+
+    /**
+     * Turns auto commit back on if {@link #apply(Connection, PreparedStatement, Dialect)} turned it off, which ends the read only transaction.
+     */
+    static void restore(Connection connection, boolean autoCommitTurnedOff) throws SQLException {
+        if (autoCommitTurnedOff) {
+            connection.setAutoCommit(true);
+        }
+    }
+}
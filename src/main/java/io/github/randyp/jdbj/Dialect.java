@@ -0,0 +1,159 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * What jdbj does differently per database, looked up once per execution by {@link #of(Connection)}:
+ * <ul>
+ *     <li>binding a named parameter after {@code IN} as one array parameter, see {@link ArrayBinding}</li>
+ *     <li>limits of multi-row {@code INSERT ... VALUES (...), (...)} statements, see {@link MultiRowValues}</li>
+ *     <li>what drivers need to stream rows instead of reading the whole result into memory, see {@link CursorOptions#streaming()}</li>
+ * </ul>
+ */
+enum Dialect {
+    /**
+     * only uses a cursor when not in auto commit mode
+     */
+    POSTGRESQL("PostgreSQL", Short.MAX_VALUE, true, true) {
+        @Override
+        boolean bindsArrays() {
+            return true;
+        }
+
+        @Override
+        void appendArrayParameter(StringBuilder builder, ValueList.ElementType type) {
+            builder.append("(SELECT unnest(?))");
+        }
+
+        @Override
+        void bindArray(PreparedColumn pc, ValueList values) throws SQLException {
+            pc.setArray(pc.createArrayOf(values.getType().typeName, values.toValueArray()));
+        }
+    },
+    /**
+     * Connector/J streams row by row only for {@link Integer#MIN_VALUE}, any other fetch size reads the whole result
+     */
+    MYSQL("MySQL", 65535, true, false) {
+        @Override
+        int streamingFetchSize(int requested) {
+            return Integer.MIN_VALUE;
+        }
+    },
+    MARIADB("MariaDB", 65535, true, false),
+    HSQLDB("HSQL Database Engine", Short.MAX_VALUE, true, false) {
+        @Override
+        boolean bindsArrays() {
+            return true;
+        }
+
+        @Override
+        void appendArrayParameter(StringBuilder builder, ValueList.ElementType type) {
+            builder.append("(UNNEST(?))");
+        }
+
+        @Override
+        void bindArray(PreparedColumn pc, ValueList values) throws SQLException {
+            pc.setArray(pc.createArrayOf(values.getType().typeName, values.toValueArray()));
+        }
+    },
+    /**
+     * only returns the key of the last row of a multi-row insert
+     */
+    H2("H2", Short.MAX_VALUE, false, false) {
+        @Override
+        boolean bindsArrays() {
+            return true;
+        }
+
+        @Override
+        void appendArrayParameter(StringBuilder builder, ValueList.ElementType type) {
+            builder.append("(SELECT X FROM TABLE(X ").append(type.name()).append(" = ?))");
+        }
+
+        @Override
+        void bindArray(PreparedColumn pc, ValueList values) throws SQLException {
+            pc.setObject(values.toValueArray());
+        }
+    },
+    /**
+     * parsing is recursive in the number of rows, keep statements small
+     */
+    DERBY("Apache Derby", 3000, false, false),
+    /**
+     * SQLITE_MAX_VARIABLE_NUMBER defaults to 999
+     */
+    SQLITE("SQLite", 999, false, false),
+    SQL_SERVER("Microsoft SQL Server", 2100, false, false);
+
+    private final String productName;
+    /**
+     * maximum number of parameters in one statement
+     */
+    final int maxParameters;
+    /**
+     * whether {@link java.sql.Statement#getGeneratedKeys()} returns the keys of every row of a multi-row insert
+     */
+    final boolean returnsAllKeys;
+    /**
+     * whether auto commit must be off while streaming
+     */
+    final boolean streamingRequiresTransaction;
+
+    Dialect(String productName, int maxParameters, boolean returnsAllKeys, boolean streamingRequiresTransaction) {
+        this.productName = productName;
+        this.maxParameters = maxParameters;
+        this.returnsAllKeys = returnsAllKeys;
+        this.streamingRequiresTransaction = streamingRequiresTransaction;
+    }
+
+    /**
+     * @return whether a collection after {@code IN} can be bound as one array parameter
+     */
+    boolean bindsArrays() {
+        return false;
+    }
+
+    /**
+     * Appends the replacement for a named parameter, so that {@code x IN :xs} becomes {@code x IN (... ? ...)}.
+     * Only called if {@link #bindsArrays()}.
+     */
+    void appendArrayParameter(StringBuilder builder, ValueList.ElementType type) {
+        throw new UnsupportedOperationException(name() + " does not bind arrays");
+    }
+
+    void bindArray(PreparedColumn pc, ValueList values) throws SQLException {
+        throw new UnsupportedOperationException(name() + " does not bind arrays");
+    }
+
+    /**
+     * @param requested fetch size requested by the caller
+     * @return fetch size to set on the statement when streaming
+     */
+    int streamingFetchSize(int requested) {
+        return requested;
+    }
+
+    /**
+     * @return dialect of the connection's database, null if it has none
+     */
+    static @Nullable Dialect of(Connection connection) throws SQLException {
+        final String productName = connection.getMetaData().getDatabaseProductName();
+        for (Dialect dialect : values()) {
+            if (dialect.productName.equals(productName)) {
+                return dialect;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return dialect of the connection's database if bindings or cursor need it, otherwise null without asking the connection
+     */
+    static @Nullable Dialect forExecuting(Connection connection, PositionalBindings bindings, CursorOptions cursor) throws SQLException {
+        return bindings.needsDialect() || cursor.needsDialect() ? of(connection) : null;
+    }
+}
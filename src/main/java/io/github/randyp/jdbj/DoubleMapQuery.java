@@ -0,0 +1,66 @@
+package io.github.randyp.jdbj;
+
+
+import io.github.randyp.jdbj.lambda.DoubleResultMapper;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.SQLException;
+
+/**
+ * Like {@link MapQuery}, but for {@code double} results, which are never boxed.
+ * <pre>
+ * {@code
+ * double[] ids = JDBJ.query("SELECT id FROM student").mapToDouble(rs -> rs.getDoublePrimitive(1)).toDoubleArray().execute(db);
+ * }
+ * </pre>
+ * Is {@link Immutable}, so you will need to (re)assign to a variable after every binding.
+ * @see DoubleStreamQuery
+ * @see DoubleResultMapper
+ */
+@Immutable
+@ThreadSafe
+public final class DoubleMapQuery extends PrimitiveMapQuery<DoubleMapQuery, DoubleResultMapper, double[]> {
+
+    DoubleMapQuery(NamedParameterStatement statement, PositionalBindings bindings, DoubleResultMapper mapper) {
+        this(statement, bindings, mapper, CollectionChunks.NONE, CursorOptions.DEFAULT);
+    }
+
+    private DoubleMapQuery(NamedParameterStatement statement, PositionalBindings bindings, DoubleResultMapper mapper, CollectionChunks chunks, CursorOptions cursor) {
+        super(statement, bindings, (s,b)->new DoubleMapQuery(s,b,mapper,chunks,cursor), mapper, chunks, cursor);
+    }
+
+    public DoubleStreamQuery toStream() {
+        return new DoubleStreamQuery(statement, bindings, mapper, chunks, false, cursor);
+    }
+
+    /**
+     * @see MapQuery#toParallelStream()
+     */
+    public DoubleStreamQuery toParallelStream() {
+        return new DoubleStreamQuery(statement, bindings, mapper, chunks, true, cursor);
+    }
+
+    /**
+     * Reads every row into an array with exactly one element per row. Rows are read into blocks of at most {@value PrimitiveMapQuery#MAX_BLOCK} elements,
+     * which are copied once into the result, instead of regrowing one array.
+     */
+    public ExecuteQuery<double[]> toDoubleArray() {
+        return toArray("toDoubleArray", double[]::clone);
+    }
+
+    @Override
+    DoubleMapQuery with(CollectionChunks chunks, CursorOptions cursor) {
+        return new DoubleMapQuery(statement, bindings, mapper, chunks, cursor);
+    }
+
+    @Override
+    double[] newArray(int length) {
+        return new double[length];
+    }
+
+    @Override
+    void map(SmartResultSet rs, double[] block, int i) throws SQLException {
+        block[i] = mapper.map(rs);
+    }
+}
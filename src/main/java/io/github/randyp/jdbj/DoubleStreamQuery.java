@@ -0,0 +1,41 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.DoubleResultMapper;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.ResultSet;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Like {@link StreamQuery}, but returns a {@link DoubleStream}, so results are never boxed. Please close your streams, perhaps using try-with-resources.
+ * <p>
+ * Is {@link Immutable}, so you will need to (re)assign to a variable after every binding.
+ * @see DoubleMapQuery
+ * @see ResultSetSpliterator.OfDouble
+ */
+@Immutable
+@ThreadSafe
+public final class DoubleStreamQuery extends PrimitiveStreamQuery<DoubleStreamQuery, DoubleResultMapper, DoubleStream> {
+
+    DoubleStreamQuery(NamedParameterStatement statement, PositionalBindings bindings, DoubleResultMapper mapper, CollectionChunks chunks, boolean parallel, CursorOptions cursor) {
+        super(statement, bindings, ((s, b) -> new DoubleStreamQuery(s, b, mapper, chunks, parallel, cursor)), mapper, chunks, parallel, cursor);
+    }
+
+    @Override
+    DoubleStreamQuery with(CursorOptions cursor) {
+        return new DoubleStreamQuery(statement, bindings, mapper, chunks, parallel, cursor);
+    }
+
+    @Override
+    DoubleStream stream(ResultSet rs) {
+        return StreamSupport.doubleStream(new ResultSetSpliterator.OfDouble(rs, mapper), parallel);
+    }
+
+    @Override
+    DoubleStream flatten(Stream<DoubleStream> chunkStreams) {
+        return chunkStreams.flatMapToDouble(chunkStream -> chunkStream);
+    }
+}
@@ -51,6 +51,32 @@ public final class ExecuteInsert<K> extends PositionalBindingsBuilder<ExecuteIns
         return new BatchedExecuteInsert<>(statement, keysMapper);
     }
 
+    /**
+     * @param connection connection to execute on, not closed by the returned batch
+     * @return batch which executes every {@link StreamingBatchedExecuteInsert#flushEvery(int)} rows on connection
+     */
+    public StreamingBatchedExecuteInsert<K> asStreamingBatch(Connection connection){
+        Objects.requireNonNull(connection, "connection must not be null");
+        return new StreamingBatchedExecuteInsert<>(statement, keysMapper, () -> connection, false);
+    }
+
+    /**
+     * @param db obtains the connection when the first row is added, which is closed when the returned batch is closed
+     * @return batch which executes every {@link StreamingBatchedExecuteInsert#flushEvery(int)} rows on a connection from db
+     */
+    public StreamingBatchedExecuteInsert<K> asStreamingBatch(DataSource db){
+        Objects.requireNonNull(db, "db must not be null");
+        return new StreamingBatchedExecuteInsert<>(statement, keysMapper, db::getConnection, true);
+    }
+
+    /**
+     * @param connection connection to prepare on, not closed by the returned handle
+     * @return handle which executes this insert repeatedly on one {@link PreparedStatement}, with these bindings and the bindings made on the handle
+     */
+    public PreparedExecuteInsert<K> prepare(Connection connection) {
+        return new PreparedExecuteInsert<>(statement, bindings, keysMapper, connection);
+    }
+
     public List<K> execute(DataSource db) throws SQLException {
         return execute(db::getConnection);
     }
@@ -66,8 +92,9 @@ public final class ExecuteInsert<K> extends PositionalBindingsBuilder<ExecuteIns
         checkAllBindingsPresent();
 
         final List<K> keys = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(buildSql(), Statement.RETURN_GENERATED_KEYS)) {
-            bindToStatement(ps);
+        final SlotBindings connectionBindings = statement.resolve(bindingsFor(connection));
+        try (PreparedStatement ps = connection.prepareStatement(statement.jdbcSql(connectionBindings), Statement.RETURN_GENERATED_KEYS)) {
+            statement.bind(ps, connectionBindings);
             ps.executeUpdate();
 
             try(SmartResultSet generatedKeys = new SmartResultSet(ps.getGeneratedKeys())){
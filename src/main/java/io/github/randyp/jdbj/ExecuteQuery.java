@@ -3,6 +3,7 @@ package io.github.randyp.jdbj;
 
 import io.github.randyp.jdbj.lambda.ConnectionSupplier;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
 import javax.sql.DataSource;
@@ -10,7 +11,10 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * Runs jdbc query, returns result(s). Example:
@@ -32,11 +36,121 @@ import java.util.Objects;
 public final class ExecuteQuery<R> extends PositionalBindingsBuilder<ExecuteQuery<R>> {
 
     private final ResultSetToResult<R> toResult;
+    private final CollectionChunks chunks;
+    private final Function<List<R>, R> mergeChunks;
+    private final CursorOptions cursor;
+    private final QueryCache.Result<R> result;
+    @Nullable
+    private final QueryCache.Policy cache;
 
     public ExecuteQuery(NamedParameterStatement statement, PositionalBindings bindings, ResultSetToResult<R> toResult) {
-        super(statement, bindings, (s, b) -> new ExecuteQuery<>(s, b, toResult));
+        this(statement, bindings, toResult, CollectionChunks.NONE, chunkResults -> chunkResults.get(0), CursorOptions.DEFAULT, new QueryCache.Result<>(r -> r, toResult));
+    }
+
+    /**
+     * @param result what toResult makes of the rows, for {@link #cached(QueryCache, Duration, String...)}
+     */
+    ExecuteQuery(NamedParameterStatement statement, PositionalBindings bindings, ResultSetToResult<R> toResult, CollectionChunks chunks, Function<List<R>, R> mergeChunks, CursorOptions cursor, QueryCache.Result<R> result) {
+        this(statement, bindings, toResult, chunks, mergeChunks, cursor, result, null);
+    }
+
+    /**
+     * @param chunks how to split oversized collection bindings
+     * @param mergeChunks merges the results of each chunk, in chunk order
+     * @param cursor statement settings for fetching rows
+     * @param cache where results are cached, null for no caching
+     */
+    private ExecuteQuery(NamedParameterStatement statement, PositionalBindings bindings, ResultSetToResult<R> toResult, CollectionChunks chunks, Function<List<R>, R> mergeChunks, CursorOptions cursor,
+                         QueryCache.Result<R> result, @Nullable QueryCache.Policy cache) {
+        super(statement, bindings, (s, b) -> new ExecuteQuery<>(s, b, toResult, chunks, mergeChunks, cursor, result, cache));
         Objects.requireNonNull(toResult, "toResult must not be null");
+        Objects.requireNonNull(cursor, "cursor must not be null");
+        Objects.requireNonNull(result, "result must not be null");
         this.toResult = toResult;
+        this.chunks = chunks;
+        this.mergeChunks = mergeChunks;
+        this.cursor = cursor;
+        this.result = result;
+        this.cache = cache;
+    }
+
+    /**
+     * @param rows hint for the number of rows fetched from the database at a time, {@code 0} for the driver's default
+     * @see java.sql.Statement#setFetchSize(int)
+     */
+    public ExecuteQuery<R> fetchSize(int rows) {
+        return withCursor(cursor.fetchSize(rows));
+    }
+
+    /**
+     * @param rows maximum number of rows read, further rows are silently dropped, {@code 0} for no limit
+     * @see java.sql.Statement#setMaxRows(int)
+     */
+    public ExecuteQuery<R> maxRows(int rows) {
+        return withCursor(cursor.maxRows(rows));
+    }
+
+    /**
+     * @param seconds how long the driver waits for the query to execute, {@code 0} for no limit
+     * @see java.sql.Statement#setQueryTimeout(int)
+     */
+    public ExecuteQuery<R> queryTimeout(int seconds) {
+        return withCursor(cursor.queryTimeout(seconds));
+    }
+
+    /**
+     * @param direction one of {@link ResultSet#FETCH_FORWARD}, {@link ResultSet#FETCH_REVERSE} or {@link ResultSet#FETCH_UNKNOWN}
+     * @see java.sql.Statement#setFetchDirection(int)
+     */
+    public ExecuteQuery<R> fetchDirection(int direction) {
+        return withCursor(cursor.fetchDirection(direction));
+    }
+
+    /**
+     * Fetches rows in batches of {@link #fetchSize(int)}, default {@value CursorOptions#DEFAULT_STREAMING_FETCH_SIZE}, instead of the whole result at once,
+     * doing what each driver needs: Connector/J (MySQL) fetches row by row, and PostgreSQL runs the query with auto commit off, turning it back on once the results are read.
+     * @return query which streams rows from the database
+     */
+    public ExecuteQuery<R> streaming() {
+        return withCursor(cursor.streaming());
+    }
+
+    /**
+     * Caches results in cache for ttl, keyed by this query's sql, bound values, mapper, cursor settings and chunking, so executing again with the same bindings
+     * returns the same result without getting a connection, even if the query was built again with the same mapper, see {@link QueryCache}.
+     * Results are shared by every execution, so lists are returned as unmodifiable views and arrays are copied.
+     * Results which hold resources, like {@link SpillingList}, should not be cached.
+     * <p>
+     * Executions binding values without value equality, such as streams, lobs and arrays, are not cached, see {@link QueryCache}.
+     * {@link #prepare(Connection)} does not use the cache.
+     * @param cache where results are cached
+     * @param ttl how long results are returned from the cache
+     * @param tags invalidate cached results with {@link QueryCache#invalidate(String)}, usually the tables the query reads
+     * @return query which caches results
+     */
+    public ExecuteQuery<R> cached(QueryCache cache, Duration ttl, String... tags) {
+        Objects.requireNonNull(cache, "cache must not be null");
+        Objects.requireNonNull(ttl, "ttl must not be null");
+        return new ExecuteQuery<>(statement, bindings, toResult, chunks, mergeChunks, cursor, result, new QueryCache.Policy(cache, null, ttl, tags));
+    }
+
+    /**
+     * Like {@link #cached(QueryCache, Duration, String...)}, but only shares results with queries cached under the same name.
+     * @param name name of the query in cache
+     */
+    public ExecuteQuery<R> cached(QueryCache cache, String name, Duration ttl, String... tags) {
+        Objects.requireNonNull(cache, "cache must not be null");
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(ttl, "ttl must not be null");
+        return new ExecuteQuery<>(statement, bindings, toResult, chunks, mergeChunks, cursor, result, new QueryCache.Policy(cache, name, ttl, tags));
+    }
+
+    /**
+     * @param connection connection to prepare on, not closed by the returned handle
+     * @return handle which executes this query repeatedly on one {@link PreparedStatement}, with these bindings and the bindings made on the handle
+     */
+    public PreparedExecuteQuery<R> prepare(Connection connection) {
+        return new PreparedExecuteQuery<>(statement, bindings, toResult, chunks, mergeChunks, cursor, connection);
     }
 
     public R execute(DataSource db) throws SQLException {
@@ -45,23 +159,57 @@ public final class ExecuteQuery<R> extends PositionalBindingsBuilder<ExecuteQuer
     
     public R execute(ConnectionSupplier db) throws SQLException {
         checkAllBindingsPresent(); //might as well, not need to open connection
-        try(Connection connection = db.getConnection()){
-            return execute(connection);
+        if (cache != null) {
+            return result.share(cache.cache.get(QueryCache.key(cache.name, result, chunks, cursor, statement, bindings), cache, () -> executeUncached(db)));
         }
+        return executeUncached(db);
     }
 
     public R execute(Connection connection) throws SQLException {
         checkAllBindingsPresent();
+        if (cache != null) {
+            return result.share(cache.cache.get(QueryCache.key(cache.name, result, chunks, cursor, statement, bindings), cache, () -> executeUncached(connection)));
+        }
+        return executeUncached(connection);
+    }
 
+    private R executeUncached(ConnectionSupplier db) throws SQLException {
+        final List<PositionalBindings> split = chunks.split(bindings);
+        if (split.size() == 1) {
+            try(Connection connection = db.getConnection()){
+                return execute(connection, bindings);
+            }
+        }
+        return mergeChunks.apply(chunks.execute(db, split, this::execute));
+    }
+
+    private R executeUncached(Connection connection) throws SQLException {
+        final List<PositionalBindings> split = chunks.split(bindings);
+        if (split.size() == 1) {
+            return execute(connection, bindings);
+        }
+        return mergeChunks.apply(chunks.execute(connection, split, this::execute));
+    }
+
+    private R execute(Connection connection, PositionalBindings chunk) throws SQLException {
+        final Dialect dialect = Dialect.forExecuting(connection, chunk, cursor);
+        final SlotBindings connectionBindings = statement.resolve(chunk.forDialect(dialect, statement));
         try (PreparedStatement ps = connection.prepareStatement(
-                buildSql(),
+                statement.jdbcSql(connectionBindings),
                 ResultSet.TYPE_FORWARD_ONLY,
                 ResultSet.CONCUR_READ_ONLY)) {
-            bindToStatement(ps);
+            statement.bind(ps, connectionBindings);
+            final boolean autoCommitTurnedOff = cursor.apply(connection, ps, dialect);
             try (SmartResultSet rs = new SmartResultSet(ps.executeQuery())) {
                 return toResult.from(rs);
+            } finally {
+                CursorOptions.restore(connection, autoCommitTurnedOff);
             }
         }
     }
 
+    private ExecuteQuery<R> withCursor(CursorOptions cursor) {
+        return new ExecuteQuery<>(statement, bindings, toResult, chunks, mergeChunks, cursor, result, cache);
+    }
+
 }
@@ -11,6 +11,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -36,11 +37,40 @@ import java.util.Objects;
 public final class ExecuteQueryRunnable extends PositionalBindingsBuilder<ExecuteQueryRunnable> {
 
     private final ResultSetRunnable runnable;
+    private final CollectionChunks chunks;
 
     ExecuteQueryRunnable(NamedParameterStatement statement, PositionalBindings bindings, ResultSetRunnable runnable) {
-        super(statement, bindings, ((s, b) -> new ExecuteQueryRunnable(s, b, runnable)));
+        this(statement, bindings, runnable, CollectionChunks.NONE);
+    }
+
+    private ExecuteQueryRunnable(NamedParameterStatement statement, PositionalBindings bindings, ResultSetRunnable runnable, CollectionChunks chunks) {
+        super(statement, bindings, ((s, b) -> new ExecuteQueryRunnable(s, b, runnable, chunks)));
         Objects.requireNonNull(runnable, "runnable must not be null");
         this.runnable = runnable;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Runs once per chunk of at most chunkSize bindings when a collection binding is larger than chunkSize,
+     * for databases which limit the number of parameters in a statement. Chunks are run in order.
+     * <p>
+     * Only one collection binding may be larger than chunkSize.
+     * @param chunkSize maximum number of bindings from a collection binding per execution
+     * @return query which runs chunks sequentially on one connection
+     */
+    public ExecuteQueryRunnable chunkCollections(int chunkSize) {
+        return chunkCollections(chunkSize, 1);
+    }
+
+    /**
+     * Like {@link #chunkCollections(int)}, but when executed with a {@link DataSource} or {@link ConnectionSupplier}
+     * runs up to parallelism chunks at once, each on its own connection, so the runnable must be thread safe.
+     * @param chunkSize maximum number of bindings from a collection binding per execution
+     * @param parallelism maximum number of connections to run chunks on at once
+     * @return query which runs chunks in parallel
+     */
+    public ExecuteQueryRunnable chunkCollections(int chunkSize, int parallelism) {
+        return new ExecuteQueryRunnable(statement, bindings, runnable, new CollectionChunks(chunkSize, parallelism));
     }
 
     public void execute(DataSource db) throws SQLException {
@@ -49,22 +79,32 @@ public final class ExecuteQueryRunnable extends PositionalBindingsBuilder<Execut
 
     public void execute(ConnectionSupplier db) throws SQLException {
         checkAllBindingsPresent();
-        try(Connection connection = db.getConnection()){
-            execute(connection);
+        final List<PositionalBindings> split = chunks.split(bindings);
+        if (split.size() == 1) {
+            try(Connection connection = db.getConnection()){
+                execute(connection, bindings);
+            }
+            return;
         }
+        chunks.execute(db, split, this::execute);
     }
 
     public void execute(Connection connection) throws SQLException {
         checkAllBindingsPresent();
+        chunks.execute(connection, chunks.split(bindings), this::execute);
+    }
 
+    private Void execute(Connection connection, PositionalBindings chunk) throws SQLException {
+        final SlotBindings connectionBindings = statement.resolve(chunk.forDialect(Dialect.forExecuting(connection, chunk, CursorOptions.DEFAULT), statement));
         try (PreparedStatement ps = connection.prepareStatement(
-                buildSql(),
+                statement.jdbcSql(connectionBindings),
                 ResultSet.TYPE_FORWARD_ONLY,
                 ResultSet.CONCUR_READ_ONLY)) {
-            bindToStatement(ps);
+            statement.bind(ps, connectionBindings);
             try (ResultSet rs = ps.executeQuery()) {
                 runnable.run(rs);
             }
         }
+        return null;
     }
 }
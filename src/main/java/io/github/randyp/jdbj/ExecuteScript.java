@@ -1,9 +1,6 @@
 package io.github.randyp.jdbj;
 
 import io.github.randyp.jdbj.lambda.ConnectionSupplier;
-import io.github.randyp.jdbj.lexer.StatementsLexer;
-import org.antlr.v4.runtime.ANTLRInputStream;
-import org.antlr.v4.runtime.Token;
 
 import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
@@ -11,7 +8,6 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -38,27 +34,7 @@ import java.util.stream.Collectors;
 public final class ExecuteScript extends PositionalBindingsBuilder<ExecuteScript> {
 
     public static ExecuteScript from(String script) {
-        final List<String> statements = new ArrayList<>();
-        StringBuilder currentStatement = new StringBuilder();
-
-        final StatementsLexer lexer = new StatementsLexer(new ANTLRInputStream(script));
-        Token token = lexer.nextToken();
-        while (token.getType() != StatementsLexer.EOF) {
-            switch (token.getType()) {
-                case StatementsLexer.STATEMENT_END:
-                    statements.add(currentStatement.toString());
-                    currentStatement = new StringBuilder();
-                    break;
-                case StatementsLexer.LITERAL:
-                case StatementsLexer.QUOTED_TEXT:
-                case StatementsLexer.DOUBLE_QUOTED_TEXT:
-                default:
-                    currentStatement.append(token.getText());
-                    break;
-            }
-            token = lexer.nextToken();
-        }
-        statements.add(currentStatement.toString());
+        final List<String> statements = SqlScanner.statements(script);
 
         final NamedParameterStatement scriptStatement = NamedParameterStatement.make(script);
         final List<NamedParameterStatement> scriptStatements = statements.stream()
@@ -97,8 +73,9 @@ public final class ExecuteScript extends PositionalBindingsBuilder<ExecuteScript
         boolean[] results = new boolean[statements.size()];
         for (int i = 0; i < statements.size(); i++) {
             NamedParameterStatement statement = statements.get(i);
-            try (PreparedStatement ps = connection.prepareStatement(statement.jdbcSql(bindings))) {
-                statement.bind(ps, bindings);
+            final SlotBindings resolved = statement.resolve(bindings);
+            try (PreparedStatement ps = connection.prepareStatement(statement.jdbcSql(resolved))) {
+                statement.bind(ps, resolved);
                 results[i] = ps.execute();
             }
         }
@@ -49,8 +49,9 @@ public final class ExecuteStatement extends PositionalBindingsBuilder<ExecuteSta
     public boolean execute(Connection connection) throws SQLException {
         checkAllBindingsPresent();
 
-        try (PreparedStatement ps = connection.prepareStatement(buildSql())) {
-            bindToStatement(ps);
+        final SlotBindings connectionBindings = statement.resolve(bindingsFor(connection));
+        try (PreparedStatement ps = connection.prepareStatement(statement.jdbcSql(connectionBindings))) {
+            statement.bind(ps, connectionBindings);
             return ps.execute();
         }
     }
@@ -8,6 +8,7 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Objects;
 
 /**
  * Perform a single sql update statement. 
@@ -45,6 +46,32 @@ public final class ExecuteUpdate extends PositionalBindingsBuilder<ExecuteUpdate
         return new BatchedExecuteUpdate(statement);
     }
 
+    /**
+     * @param connection connection to execute on, not closed by the returned batch
+     * @return batch which executes every {@link StreamingBatchedExecuteUpdate#flushEvery(int)} rows on connection
+     */
+    public StreamingBatchedExecuteUpdate asStreamingBatch(Connection connection){
+        Objects.requireNonNull(connection, "connection must not be null");
+        return new StreamingBatchedExecuteUpdate(statement, () -> connection, false);
+    }
+
+    /**
+     * @param db obtains the connection when the first row is added, which is closed when the returned batch is closed
+     * @return batch which executes every {@link StreamingBatchedExecuteUpdate#flushEvery(int)} rows on a connection from db
+     */
+    public StreamingBatchedExecuteUpdate asStreamingBatch(DataSource db){
+        Objects.requireNonNull(db, "db must not be null");
+        return new StreamingBatchedExecuteUpdate(statement, db::getConnection, true);
+    }
+
+    /**
+     * @param connection connection to prepare on, not closed by the returned handle
+     * @return handle which executes this update repeatedly on one {@link PreparedStatement}, with these bindings and the bindings made on the handle
+     */
+    public PreparedExecuteUpdate prepare(Connection connection) {
+        return new PreparedExecuteUpdate(statement, bindings, connection);
+    }
+
     public int execute(DataSource db) throws SQLException {
         return execute(db::getConnection);
     }
@@ -59,8 +86,9 @@ public final class ExecuteUpdate extends PositionalBindingsBuilder<ExecuteUpdate
     public int execute(Connection connection) throws SQLException {
         checkAllBindingsPresent();
 
-        try (PreparedStatement ps = connection.prepareStatement(buildSql())) {
-            bindToStatement(ps);
+        final SlotBindings connectionBindings = statement.resolve(bindingsFor(connection));
+        try (PreparedStatement ps = connection.prepareStatement(statement.jdbcSql(connectionBindings))) {
+            statement.bind(ps, connectionBindings);
             return ps.executeUpdate();
         }
     }
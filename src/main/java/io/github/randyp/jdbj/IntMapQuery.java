@@ -0,0 +1,66 @@
+package io.github.randyp.jdbj;
+
+
+import io.github.randyp.jdbj.lambda.IntResultMapper;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.SQLException;
+
+/**
+ * Like {@link MapQuery}, but for {@code int} results, which are never boxed.
+ * <pre>
+ * {@code
+ * int[] ids = JDBJ.query("SELECT id FROM student").mapToInt(rs -> rs.getIntegerPrimitive(1)).toIntArray().execute(db);
+ * }
+ * </pre>
+ * Is {@link Immutable}, so you will need to (re)assign to a variable after every binding.
+ * @see IntStreamQuery
+ * @see IntResultMapper
+ */
+@Immutable
+@ThreadSafe
+public final class IntMapQuery extends PrimitiveMapQuery<IntMapQuery, IntResultMapper, int[]> {
+
+    IntMapQuery(NamedParameterStatement statement, PositionalBindings bindings, IntResultMapper mapper) {
+        this(statement, bindings, mapper, CollectionChunks.NONE, CursorOptions.DEFAULT);
+    }
+
+    private IntMapQuery(NamedParameterStatement statement, PositionalBindings bindings, IntResultMapper mapper, CollectionChunks chunks, CursorOptions cursor) {
+        super(statement, bindings, (s,b)->new IntMapQuery(s,b,mapper,chunks,cursor), mapper, chunks, cursor);
+    }
+
+    public IntStreamQuery toStream() {
+        return new IntStreamQuery(statement, bindings, mapper, chunks, false, cursor);
+    }
+
+    /**
+     * @see MapQuery#toParallelStream()
+     */
+    public IntStreamQuery toParallelStream() {
+        return new IntStreamQuery(statement, bindings, mapper, chunks, true, cursor);
+    }
+
+    /**
+     * Reads every row into an array with exactly one element per row. Rows are read into blocks of at most {@value PrimitiveMapQuery#MAX_BLOCK} elements,
+     * which are copied once into the result, instead of regrowing one array.
+     */
+    public ExecuteQuery<int[]> toIntArray() {
+        return toArray("toIntArray", int[]::clone);
+    }
+
+    @Override
+    IntMapQuery with(CollectionChunks chunks, CursorOptions cursor) {
+        return new IntMapQuery(statement, bindings, mapper, chunks, cursor);
+    }
+
+    @Override
+    int[] newArray(int length) {
+        return new int[length];
+    }
+
+    @Override
+    void map(SmartResultSet rs, int[] block, int i) throws SQLException {
+        block[i] = mapper.map(rs);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.IntResultMapper;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.ResultSet;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Like {@link StreamQuery}, but returns a {@link IntStream}, so results are never boxed. Please close your streams, perhaps using try-with-resources.
+ * <p>
+ * Is {@link Immutable}, so you will need to (re)assign to a variable after every binding.
+ * @see IntMapQuery
+ * @see ResultSetSpliterator.OfInt
+ */
+@Immutable
+@ThreadSafe
+public final class IntStreamQuery extends PrimitiveStreamQuery<IntStreamQuery, IntResultMapper, IntStream> {
+
+    IntStreamQuery(NamedParameterStatement statement, PositionalBindings bindings, IntResultMapper mapper, CollectionChunks chunks, boolean parallel, CursorOptions cursor) {
+        super(statement, bindings, ((s, b) -> new IntStreamQuery(s, b, mapper, chunks, parallel, cursor)), mapper, chunks, parallel, cursor);
+    }
+
+    @Override
+    IntStreamQuery with(CursorOptions cursor) {
+        return new IntStreamQuery(statement, bindings, mapper, chunks, parallel, cursor);
+    }
+
+    @Override
+    IntStream stream(ResultSet rs) {
+        return StreamSupport.intStream(new ResultSetSpliterator.OfInt(rs, mapper), parallel);
+    }
+
+    @Override
+    IntStream flatten(Stream<IntStream> chunkStreams) {
+        return chunkStreams.flatMapToInt(chunkStream -> chunkStream);
+    }
+}
@@ -150,6 +150,15 @@ public final class JDBJ {
         return string(script).script();
     }
 
+    /**
+     * See {@link NamedParameterStatementCache} for documentation.
+     *
+     * @return cache used when building queries from {@link QueryStringBuilder}
+     */
+    public static NamedParameterStatementCache statementCache() {
+        return NamedParameterStatementCache.GLOBAL;
+    }
+
     JDBJ() {
     }
 }
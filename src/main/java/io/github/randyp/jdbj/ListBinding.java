@@ -2,7 +2,7 @@ package io.github.randyp.jdbj;
 
 import io.github.randyp.jdbj.lambda.Binding;
 
-import java.sql.PreparedStatement;
+import javax.annotation.Nullable;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -14,35 +14,78 @@ import java.util.List;
 final class ListBinding implements PositionalBinding {
 
     private final List<Binding> bindings;
+    /**
+     * number of parameters to bind, parameters past the end of bindings repeat the last binding
+     */
+    private final int paddedSize;
 
     ListBinding(List<Binding> bindings) {
-        this.bindings = Collections.unmodifiableList(new ArrayList<>(bindings));
+        this(bindings instanceof ValueList ? bindings : Collections.unmodifiableList(new ArrayList<>(bindings)), bindings.size());
+    }
+
+    private ListBinding(List<Binding> bindings, int paddedSize) {
+        this.bindings = bindings;
+        this.paddedSize = paddedSize;
+    }
+
+    /**
+     * @return values if they may be bound as an array, otherwise null
+     */
+    @Nullable ValueList getValues() {
+        return bindings instanceof ValueList ? (ValueList) bindings : null;
+    }
+
+    /**
+     * @param padding padding to apply to the unpadded bindings
+     * @return binding which binds {@link CollectionPadding#paddedSize(int)} parameters, this if the padded size is unchanged
+     */
+    ListBinding pad(CollectionPadding padding) {
+        if (bindings.isEmpty()) {
+            return this;
+        }
+        final int paddedSize = padding.paddedSize(bindings.size());
+        if (paddedSize < bindings.size()) {
+            throw new IllegalStateException("padding must not shrink collections, padded " + bindings.size() + " to " + paddedSize);
+        }
+        return paddedSize == this.paddedSize ? this : new ListBinding(bindings, paddedSize);
     }
 
     List<Binding> getBindings() {
         return bindings;
     }
 
+    /**
+     * @return unpadded binding of bindings from (inclusive) to (exclusive)
+     */
+    ListBinding slice(int from, int to) {
+        return new ListBinding(bindings.subList(from, to), to - from);
+    }
+
     @Override
-    public int bind(PreparedStatement ps, int parameterIndex) throws SQLException {
-        for (int i = 0; i < bindings.size(); i++) {
-            final PreparedColumn preparedColumn = new PreparedColumn(ps, parameterIndex + i);
-            bindings.get(i).bind(preparedColumn);
+    public int bind(PreparedColumn preparedColumn, int parameterIndex) throws SQLException {
+        final int size = bindings.size();
+        if (bindings instanceof ValueList) {
+            final ValueList values = (ValueList) bindings;
+            for (int i = 0; i < paddedSize; i++) {
+                values.bind(preparedColumn.moveTo(parameterIndex + i), i < size ? i : size - 1);
+            }
+            return parameterIndex + paddedSize;
+        }
+        for (int i = 0; i < paddedSize; i++) {
+            bindings.get(i < size ? i : size - 1).bind(preparedColumn.moveTo(parameterIndex + i));
             preparedColumn.setNullIfNotSet();
         }
-        return parameterIndex + bindings.size();
+        return parameterIndex + paddedSize;
+    }
+
+    @Override
+    public int shape() {
+        return paddedSize;
     }
 
     @Override
     public void appendPositionalParametersToQueryString(StringBuilder builder) {
-        builder.append('(');
-        for (int i = 0; i < bindings.size(); i++) {
-            if(i > 0){
-                builder.append(',');
-            }
-            builder.append('?');
-        }
-        builder.append(')');
+        PositionalBinding.appendPositionalParameters(builder, shape());
     }
 
 }
@@ -0,0 +1,66 @@
+package io.github.randyp.jdbj;
+
+
+import io.github.randyp.jdbj.lambda.LongResultMapper;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.SQLException;
+
+/**
+ * Like {@link MapQuery}, but for {@code long} results, which are never boxed.
+ * <pre>
+ * {@code
+ * long[] ids = JDBJ.query("SELECT id FROM student").mapToLong(rs -> rs.getLongPrimitive(1)).toLongArray().execute(db);
+ * }
+ * </pre>
+ * Is {@link Immutable}, so you will need to (re)assign to a variable after every binding.
+ * @see LongStreamQuery
+ * @see LongResultMapper
+ */
+@Immutable
+@ThreadSafe
+public final class LongMapQuery extends PrimitiveMapQuery<LongMapQuery, LongResultMapper, long[]> {
+
+    LongMapQuery(NamedParameterStatement statement, PositionalBindings bindings, LongResultMapper mapper) {
+        this(statement, bindings, mapper, CollectionChunks.NONE, CursorOptions.DEFAULT);
+    }
+
+    private LongMapQuery(NamedParameterStatement statement, PositionalBindings bindings, LongResultMapper mapper, CollectionChunks chunks, CursorOptions cursor) {
+        super(statement, bindings, (s,b)->new LongMapQuery(s,b,mapper,chunks,cursor), mapper, chunks, cursor);
+    }
+
+    public LongStreamQuery toStream() {
+        return new LongStreamQuery(statement, bindings, mapper, chunks, false, cursor);
+    }
+
+    /**
+     * @see MapQuery#toParallelStream()
+     */
+    public LongStreamQuery toParallelStream() {
+        return new LongStreamQuery(statement, bindings, mapper, chunks, true, cursor);
+    }
+
+    /**
+     * Reads every row into an array with exactly one element per row. Rows are read into blocks of at most {@value PrimitiveMapQuery#MAX_BLOCK} elements,
+     * which are copied once into the result, instead of regrowing one array.
+     */
+    public ExecuteQuery<long[]> toLongArray() {
+        return toArray("toLongArray", long[]::clone);
+    }
+
+    @Override
+    LongMapQuery with(CollectionChunks chunks, CursorOptions cursor) {
+        return new LongMapQuery(statement, bindings, mapper, chunks, cursor);
+    }
+
+    @Override
+    long[] newArray(int length) {
+        return new long[length];
+    }
+
+    @Override
+    void map(SmartResultSet rs, long[] block, int i) throws SQLException {
+        block[i] = mapper.map(rs);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.LongResultMapper;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.ResultSet;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Like {@link StreamQuery}, but returns a {@link LongStream}, so results are never boxed. Please close your streams, perhaps using try-with-resources.
+ * <p>
+ * Is {@link Immutable}, so you will need to (re)assign to a variable after every binding.
+ * @see LongMapQuery
+ * @see ResultSetSpliterator.OfLong
+ */
+@Immutable
+@ThreadSafe
+public final class LongStreamQuery extends PrimitiveStreamQuery<LongStreamQuery, LongResultMapper, LongStream> {
+
+    LongStreamQuery(NamedParameterStatement statement, PositionalBindings bindings, LongResultMapper mapper, CollectionChunks chunks, boolean parallel, CursorOptions cursor) {
+        super(statement, bindings, ((s, b) -> new LongStreamQuery(s, b, mapper, chunks, parallel, cursor)), mapper, chunks, parallel, cursor);
+    }
+
+    @Override
+    LongStreamQuery with(CursorOptions cursor) {
+        return new LongStreamQuery(statement, bindings, mapper, chunks, parallel, cursor);
+    }
+
+    @Override
+    LongStream stream(ResultSet rs) {
+        return StreamSupport.longStream(new ResultSetSpliterator.OfLong(rs, mapper), parallel);
+    }
+
+    @Override
+    LongStream flatten(Stream<LongStream> chunkStreams) {
+        return chunkStreams.flatMapToLong(chunkStream -> chunkStream);
+    }
+}
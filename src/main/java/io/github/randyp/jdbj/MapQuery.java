@@ -5,7 +5,9 @@ import io.github.randyp.jdbj.lambda.ResultMapper;
 
 import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
+import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -31,19 +33,112 @@ import java.util.function.Function;
 public final class MapQuery<R> extends PositionalBindingsBuilder<MapQuery<R>> {
 
     private final ResultMapper<R> mapper;
+    private final CollectionChunks chunks;
+    private final CursorOptions cursor;
 
     MapQuery(NamedParameterStatement statement, PositionalBindings bindings, ResultMapper<R> mapper) {
-        super(statement, bindings, (s,b)->new MapQuery<>(s,b,mapper));
+        this(statement, bindings, mapper, CollectionChunks.NONE, CursorOptions.DEFAULT);
+    }
+
+    private MapQuery(NamedParameterStatement statement, PositionalBindings bindings, ResultMapper<R> mapper, CollectionChunks chunks, CursorOptions cursor) {
+        super(statement, bindings, (s,b)->new MapQuery<>(s,b,mapper,chunks,cursor));
         Objects.requireNonNull(mapper, "mapper must not be null");
         this.mapper = mapper;
+        this.chunks = chunks;
+        this.cursor = cursor;
     }
 
     public <R2> MapQuery<R2> remap(Function<R, R2> remap){
-        return new MapQuery<>(statement, bindings, rs -> remap.apply(mapper.map(rs)));
+        return new MapQuery<>(statement, bindings, rs -> remap.apply(mapper.map(rs)), chunks, cursor);
+    }
+
+    /**
+     * @param rows hint for the number of rows fetched from the database at a time, {@code 0} for the driver's default
+     * @see java.sql.Statement#setFetchSize(int)
+     */
+    public MapQuery<R> fetchSize(int rows) {
+        return new MapQuery<>(statement, bindings, mapper, chunks, cursor.fetchSize(rows));
+    }
+
+    /**
+     * @param rows maximum number of rows read, further rows are silently dropped, {@code 0} for no limit
+     * @see java.sql.Statement#setMaxRows(int)
+     */
+    public MapQuery<R> maxRows(int rows) {
+        return new MapQuery<>(statement, bindings, mapper, chunks, cursor.maxRows(rows));
+    }
+
+    /**
+     * @param seconds how long the driver waits for the query to execute, {@code 0} for no limit
+     * @see java.sql.Statement#setQueryTimeout(int)
+     */
+    public MapQuery<R> queryTimeout(int seconds) {
+        return new MapQuery<>(statement, bindings, mapper, chunks, cursor.queryTimeout(seconds));
+    }
+
+    /**
+     * @param direction one of {@link java.sql.ResultSet#FETCH_FORWARD}, {@link java.sql.ResultSet#FETCH_REVERSE} or {@link java.sql.ResultSet#FETCH_UNKNOWN}
+     * @see java.sql.Statement#setFetchDirection(int)
+     */
+    public MapQuery<R> fetchDirection(int direction) {
+        return new MapQuery<>(statement, bindings, mapper, chunks, cursor.fetchDirection(direction));
+    }
+
+    /**
+     * @return query which streams rows from the database instead of reading the whole result at once
+     * @see StreamQuery#streaming()
+     */
+    public MapQuery<R> streaming() {
+        return new MapQuery<>(statement, bindings, mapper, chunks, cursor.streaming());
+    }
+
+    /**
+     * Executes once per chunk of at most chunkSize bindings when a collection binding is larger than chunkSize,
+     * for databases which limit the number of parameters in a statement. Results are concatenated in chunk order,
+     * so ordering, limits and aggregates in the sql only apply within each chunk.
+     * <p>
+     * Only one collection binding may be larger than chunkSize.
+     * @param chunkSize maximum number of bindings from a collection binding per execution
+     * @return query which executes chunks sequentially on one connection
+     */
+    public MapQuery<R> chunkCollections(int chunkSize) {
+        return chunkCollections(chunkSize, 1);
+    }
+
+    /**
+     * Like {@link #chunkCollections(int)}, but when executed with a {@link javax.sql.DataSource} or {@link io.github.randyp.jdbj.lambda.ConnectionSupplier}
+     * runs up to parallelism chunks at once, each on its own connection. Streams always execute chunks sequentially.
+     * @param chunkSize maximum number of bindings from a collection binding per execution
+     * @param parallelism maximum number of connections to execute chunks on at once
+     * @return query which executes chunks in parallel
+     */
+    public MapQuery<R> chunkCollections(int chunkSize, int parallelism) {
+        return new MapQuery<>(statement, bindings, mapper, new CollectionChunks(chunkSize, parallelism), cursor);
     }
 
     public StreamQuery<R> toStream() {
-        return new StreamQuery<>(statement, bindings, mapper);
+        return new StreamQuery<>(statement, bindings, mapper, chunks, false, cursor);
+    }
+
+    /**
+     * Like {@link #toStream()}, but streams are parallel. Rows are still read and mapped one batch at a time by a single thread,
+     * and each batch is handed to the fork join pool for downstream operations, see {@link ResultSetSpliterator#trySplit()}.
+     * Worthwhile when downstream operations are expensive compared to reading a row.
+     * <p>
+     * Queries with {@link #chunkCollections(int)} are streamed sequentially, since chunks share one connection.
+     * @return query which executes to parallel streams
+     */
+    public StreamQuery<R> toParallelStream() {
+        return new StreamQuery<>(statement, bindings, mapper, chunks, true, cursor);
+    }
+
+    /**
+     * Same as {@code toList().prepare(connection)}.
+     * @param connection connection to prepare on, not closed by the returned handle
+     * @return handle which executes this query as a list repeatedly on one {@link java.sql.PreparedStatement}
+     */
+    public PreparedExecuteQuery<List<R>> prepare(Connection connection) {
+        return toList().prepare(connection);
     }
 
     public ExecuteQuery<List<R>> toList(){
@@ -53,9 +148,42 @@ public final class MapQuery<R> extends PositionalBindingsBuilder<MapQuery<R>> {
                 results.add(mapper.map(rs));
             }
             return results;
-        });
+        }, chunks, chunkResults -> {
+            final List<R> results = new ArrayList<>();
+            for (List<R> chunkResult : chunkResults) {
+                results.addAll(chunkResult);
+            }
+            return results;
+        }, cursor, new QueryCache.Result<>(Collections::unmodifiableList, "toList", mapper));
+    }
+
+    /**
+     * Like {@link #toList()}, but holds at most maxRows rows, or about maxBytes of column values, in memory.
+     * Further rows are written to a temp file and read back from it, see {@link SpillingList}.
+     * <p>
+     * Estimating bytes reads every column of the in memory rows with {@link java.sql.ResultSet#getObject(int)}, pass {@link Long#MAX_VALUE} to only limit rows.
+     * Does not support {@link #chunkCollections(int)}.
+     * @param maxRows rows mapped and held in memory
+     * @param maxBytes estimated bytes of column values held in memory
+     * @return query returning a list, which should be closed
+     */
+    public ExecuteQuery<SpillingList<R>> toSpillingList(int maxRows, long maxBytes) {
+        if (maxRows < 0) {
+            throw new IllegalArgumentException("maxRows must not be negative");
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        if (chunks != CollectionChunks.NONE) {
+            throw new IllegalStateException("toSpillingList does not support chunkCollections");
+        }
+        return new ExecuteQuery<>(statement, bindings, rs -> SpillingList.read(rs, mapper, maxRows, maxBytes),
+                chunks, chunkResults -> chunkResults.get(0), cursor, new QueryCache.Result<>(list -> list, "toSpillingList", mapper, maxRows, maxBytes));
     }
 
+    /**
+     * Also sets {@link #maxRows(int)} to {@code 1}, so the database and driver can stop after the first row.
+     */
     public ExecuteQuery<Optional<R>> first() {
         return new ExecuteQuery<>(statement, bindings, rs -> {
             Optional<R> result = Optional.empty();
@@ -63,7 +191,13 @@ public final class MapQuery<R> extends PositionalBindingsBuilder<MapQuery<R>> {
                 result = Optional.ofNullable(mapper.map(rs));
             }
             return result;
-        });
-
+        }, chunks, chunkResults -> {
+            for (Optional<R> chunkResult : chunkResults) {
+                if (chunkResult.isPresent()) {
+                    return chunkResult;
+                }
+            }
+            return Optional.empty();
+        }, cursor.maxRows(1), new QueryCache.Result<>(first -> first, "first", mapper));
     }
 }
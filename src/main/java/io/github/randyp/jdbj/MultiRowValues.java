@@ -0,0 +1,135 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Rewrites a single row {@code INSERT ... VALUES (:a, :b)} into multi-row {@code INSERT ... VALUES (?,?),(?,?),...} statements,
+ * so a batch is executed in a few round trips, each row still bound by name.
+ * Rows per statement are limited by {@link #maxRows} and by the number of parameters the database allows in one statement, see {@link Dialect}.
+ * @see BatchedExecute#rewriteValues(int)
+ */
+@Immutable
+@ThreadSafe
+final class MultiRowValues {
+
+    static final int DEFAULT_MAX_ROWS = 1000;
+
+    /**
+     * Receives the result of each executed statement.
+     */
+    interface Executed {
+        /**
+         * @param ps statement executed, for {@link PreparedStatement#getGeneratedKeys()}
+         * @param from index of the first row of the statement
+         * @param rows number of rows in the statement
+         * @param updateCount result of {@link PreparedStatement#executeUpdate()}
+         */
+        void executed(PreparedStatement ps, int from, int rows, int updateCount) throws SQLException;
+    }
+
+    /**
+     * @return rewriter for statement, null if statement is not a single row {@code INSERT ... VALUES (...)} with every named parameter in the row
+     */
+    static @Nullable MultiRowValues of(NamedParameterStatement statement, int maxRows) {
+        Objects.requireNonNull(statement, "statement must not be null");
+        final String sql = statement.getSql();
+        final int[] row = SqlScanner.valuesRow(sql);
+        if (row == null) {
+            return null;
+        }
+        final NamedParameterStatement rowStatement = NamedParameterStatement.parse(sql.substring(row[0], row[1]));
+        if (rowStatement.getParameterCount() != statement.getParameterCount()) {
+            return null;
+        }
+        return new MultiRowValues(sql.substring(0, row[0]), rowStatement, sql.substring(row[1]), maxRows);
+    }
+
+    private final String prefix;
+    private final NamedParameterStatement row;
+    private final String suffix;
+    private final int maxRows;
+
+    private MultiRowValues(String prefix, NamedParameterStatement row, String suffix, int maxRows) {
+        if (maxRows <= 0) {
+            throw new IllegalArgumentException("maxRows must be positive");
+        }
+        this.prefix = prefix;
+        this.row = row;
+        this.suffix = suffix;
+        this.maxRows = maxRows;
+    }
+
+    int rowsPerStatement(Dialect dialect) {
+        final int parameters = row.getParameterCount();
+        if (parameters == 0) {
+            return maxRows;
+        }
+        return Math.max(1, Math.min(maxRows, dialect.maxParameters / parameters));
+    }
+
+    String jdbcSql(String rowSql, int rows) {
+        final StringBuilder builder = new StringBuilder(prefix.length() + (rowSql.length() + 1) * rows + suffix.length());
+        builder.append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(rowSql);
+        }
+        return builder.append(suffix).toString();
+    }
+
+    /**
+     * Executes rows in order, in statements of {@link #rowsPerStatement(Dialect)} rows. The statement for a full chunk is prepared once and reused.
+     * @param rows complete bindings of at least one row
+     */
+    void execute(Connection connection, List<ValueBindings> rows, Dialect dialect, boolean returnGeneratedKeys, Executed executed) throws SQLException {
+        final int rowsPerStatement = rowsPerStatement(dialect);
+        final String rowSql = row.jdbcSql(rows.get(0));
+        PreparedStatement full = null;
+        try {
+            for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+                final int count = Math.min(rowsPerStatement, rows.size() - from);
+                if (count == rowsPerStatement) {
+                    if (full == null) {
+                        full = prepare(connection, jdbcSql(rowSql, count), returnGeneratedKeys);
+                    }
+                    execute(full, rows, from, count, executed);
+                } else {
+                    try (PreparedStatement last = prepare(connection, jdbcSql(rowSql, count), returnGeneratedKeys)) {
+                        execute(last, rows, from, count, executed);
+                    }
+                }
+            }
+        } finally {
+            if (full != null) {
+                full.close();
+            }
+        }
+    }
+
+    private void execute(PreparedStatement ps, List<ValueBindings> rows, int from, int count, Executed executed) throws SQLException {
+        final PreparedColumn preparedColumn = new PreparedColumn(ps, 1);
+        int parameterIndex = 1;
+        for (int i = from; i < from + count; i++) {
+            parameterIndex = row.bind(preparedColumn, rows.get(i), parameterIndex);
+        }
+        executed.executed(ps, from, count, ps.executeUpdate());
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, boolean returnGeneratedKeys) throws SQLException {
+        return returnGeneratedKeys
+                ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(sql);
+    }
+}
@@ -1,50 +1,164 @@
 package io.github.randyp.jdbj;
 
-import io.github.randyp.jdbj.lexer.NamedParameterStatementLexer;
-import org.antlr.v4.runtime.ANTLRInputStream;
-import org.antlr.v4.runtime.Token;
-
-import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Knows the named parameters in a jdbj sql statement, generates jdbc sql and binds to a {@link PreparedStatement} given a complete {@link PositionalBindings}.
  * <p>
  * Encapsulates tokenized jdbj SQL so we know the named parameters and where to bind them.
+ * <p>
+ * Remembers generated jdbc sql per collection shape, so is not immutable, but is safe to share between threads.
  */
-@Immutable
 @ThreadSafe
 public final class NamedParameterStatement {
 
+    /**
+     * maximum number of collection shapes to keep generated sql for, per statement
+     */
+    static final int MAXIMUM_SHAPES = 16;
+
+    /**
+     * {@link ObjectBinder} by jdbj sql, in a {@link ClassValue} rather than on the statement,
+     * so that statements in {@link NamedParameterStatementCache#GLOBAL} do not keep bound classes and their class loaders from being unloaded
+     */
+    private static final ClassValue<ConcurrentMap<String, ObjectBinder<?>>> BINDERS = new ClassValue<ConcurrentMap<String, ObjectBinder<?>>>() {
+        @Override
+        protected ConcurrentMap<String, ObjectBinder<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * @param sql jdbj sql
+     * @return statement from {@link JDBJ#statementCache()}, tokenizing sql only if it is not already cached
+     */
     public static NamedParameterStatement make(String sql){
-        final NamedParameterStatementLexer lexer = new NamedParameterStatementLexer(new ANTLRInputStream(sql));
-        //noinspection unchecked
-        final List<Token> tokens = (List<Token>) lexer.getAllTokens();
-        final Set<String> namedParameters = tokens.stream()
-                .filter(t -> t.getType() == NamedParameterStatementLexer.NAMED_PARAM)
-                .map(Token::getText)
-                .collect(Collectors.toSet());
+        return NamedParameterStatementCache.GLOBAL.get(sql);
+    }
 
-        return new NamedParameterStatement(namedParameters, tokens);
+    static NamedParameterStatement parse(String sql){
+        Objects.requireNonNull(sql, "sql must not be null");
+        final List<String> fragments = new ArrayList<>();
+        final List<String> parametersToBind = new ArrayList<>();
+        SqlScanner.namedParameters(sql, fragments, parametersToBind);
+        return new NamedParameterStatement(sql, fragments, parametersToBind);
     }
 
+    private final String sql;
     private final Set<String> namedParameters;
-    private final List<Token> tokens;
-    private final List<String> parametersToBind;
+    private final List<String> fragments;
+    /**
+     * distinct named parameters, in order of first occurrence, index is the slot of the named parameter
+     */
+    private final String[] slots;
+    /**
+     * slot for each occurrence of a named parameter in the sql
+     */
+    private final int[] occurrences;
+    /**
+     * whether every occurrence of the named parameter in the slot is the list of an {@code IN}
+     */
+    private final boolean[] inLists;
+    /**
+     * jdbc sql when every named parameter is bound to a single value
+     */
+    private final String valueSql;
+    @GuardedBy("sqlByShape")
+    private final LinkedHashMap<Shape, String> sqlByShape = new LinkedHashMap<Shape, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Shape, String> eldest) {
+            return size() > MAXIMUM_SHAPES;
+        }
+    };
+
+    private NamedParameterStatement(String sql, List<String> fragments, List<String> parametersToBind) {
+        this.sql = sql;
+        final Map<String, Integer> slotsByName = new LinkedHashMap<>();
+        this.occurrences = new int[parametersToBind.size()];
+        for (int i = 0; i < occurrences.length; i++) {
+            final String name = parametersToBind.get(i);
+            Integer slot = slotsByName.get(name);
+            if (slot == null) {
+                slot = slotsByName.size();
+                slotsByName.put(name, slot);
+            }
+            occurrences[i] = slot;
+        }
+        this.namedParameters = Collections.unmodifiableSet(slotsByName.keySet());
+        this.slots = slotsByName.keySet().toArray(new String[slotsByName.size()]);
+        this.fragments = Collections.unmodifiableList(fragments);
+        this.inLists = new boolean[slots.length];
+        Arrays.fill(inLists, true);
+        for (int i = 0; i < occurrences.length; i++) {
+            inLists[occurrences[i]] &= SqlScanner.endsWithIn(fragments.get(i));
+        }
+
+        final int[] valueShape = new int[slots.length];
+        Arrays.fill(valueShape, PositionalBinding.VALUE_SHAPE);
+        this.valueSql = buildJdbcSql(valueShape);
+    }
+
+    /**
+     * @return jdbj sql this statement was parsed from
+     */
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return number of occurrences of named parameters, which is the number of jdbc parameters when every named parameter is bound to a single value
+     */
+    int getParameterCount() {
+        return occurrences.length;
+    }
 
-    private NamedParameterStatement(Set<String> namedParameters, List<Token> tokens) {
-        this.namedParameters = Collections.unmodifiableSet(namedParameters);
-        this.tokens = Collections.unmodifiableList(tokens);
-        this.parametersToBind = Collections.unmodifiableList(
-                tokens.stream()
-                        .filter(t -> t.getType() == NamedParameterStatementLexer.NAMED_PARAM)
-                        .map(Token::getText)
-                        .collect(Collectors.toList())
-        );
+    /**
+     * @return binder matching the named parameters of this statement to the properties of type, created once per type and sql
+     * @throws IllegalArgumentException if type is not public or has no property for any named parameter
+     */
+    <T> ObjectBinder<T> binder(Class<T> type) {
+        Objects.requireNonNull(type, "type must not be null");
+        final ConcurrentMap<String, ObjectBinder<?>> binders = BINDERS.get(type);
+        //noinspection unchecked
+        final ObjectBinder<T> cached = (ObjectBinder<T>) binders.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        final ObjectBinder<T> binder = new ObjectBinder<>(this, type, slots);
+        //noinspection unchecked
+        final ObjectBinder<T> raced = (ObjectBinder<T>) binders.putIfAbsent(sql, binder);
+        return raced == null ? binder : raced;
+    }
+
+    /**
+     * @return slot of the named parameter
+     */
+    int slot(String name) {
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (slots[slot].equals(name)) {
+                return slot;
+            }
+        }
+        throw new IllegalArgumentException("\"" + name + "\" is not a named parameter");
+    }
+
+    /**
+     * @return whether every occurrence of the named parameter directly follows {@code IN}, as in {@code x IN :xs},
+     * so a collection bound to it may be bound as an array, see {@link PositionalBindings#collectionsAsArrays(int)}
+     */
+    boolean isInList(String name) {
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (slots[slot].equals(name)) {
+                return inLists[slot];
+            }
+        }
+        return false;
     }
 
     public boolean containsParameter(String name) {
@@ -52,36 +166,115 @@ public final class NamedParameterStatement {
         return namedParameters.contains(name);
     }
 
+    /**
+     * Generated sql only depends on the number of bindings in each collection binding,
+     * so it is remembered by shape and the same {@link String} instance is returned for bindings of the same shape.
+     * @param bindings complete bindings
+     * @return jdbc sql, with each named parameter replaced by {@code '?'} or {@code "(?,?,...,?)"}
+     */
     public String jdbcSql(Bindings bindings) {
         Objects.requireNonNull(bindings, "bindings must not be null");
-        final StringBuilder builder = new StringBuilder();
+        if (bindings instanceof ObjectBindings) {
+            //only value bindings
+            checkAllBindingsPresent(bindings);
+            return valueSql;
+        }
+        final SlotBindings resolved = resolve(bindings);
+        int[] shape = null;
+        for (int slot = 0; slot < slots.length; slot++) {
+            final int slotShape = resolved.slot(slot).shape();
+            if (slotShape != PositionalBinding.VALUE_SHAPE) {
+                if (shape == null) {
+                    shape = new int[slots.length];
+                    Arrays.fill(shape, PositionalBinding.VALUE_SHAPE);
+                }
+                shape[slot] = slotShape;
+            }
+        }
+        if (shape == null) {
+            return valueSql;
+        }
 
-        for (Token token : tokens) {
-            if(token.getType() == NamedParameterStatementLexer.NAMED_PARAM){
-                final PositionalBinding positionalBinding = bindings.get(token.getText());
-                positionalBinding.appendPositionalParametersToQueryString(builder);
-            }else{
-                builder.append(token.getText());
+        final Shape key = new Shape(shape);
+        synchronized (sqlByShape) {
+            final String cached = sqlByShape.get(key);
+            if (cached != null) {
+                return cached;
             }
         }
+        final String sql = buildJdbcSql(shape);
+        synchronized (sqlByShape) {
+            final String raced = sqlByShape.putIfAbsent(key, sql);
+            return raced == null ? sql : raced;
+        }
+    }
 
+    private String buildJdbcSql(int[] shape) {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(fragments.get(0));
+        for (int i = 0; i < occurrences.length; i++) {
+            PositionalBinding.appendPositionalParameters(builder, shape[occurrences[i]]);
+            builder.append(fragments.get(i + 1));
+        }
         return builder.toString();
     }
 
     public void bind(PreparedStatement ps, Bindings bindings) throws SQLException {
+        bindAndEstimate(ps, bindings);
+    }
+
+    /**
+     * Same as {@link #bind(PreparedStatement, Bindings)}.
+     * @return rough estimate of the size of the bound values in bytes, see {@link PreparedColumn#getEstimatedBytes()}
+     */
+    long bindAndEstimate(PreparedStatement ps, Bindings bindings) throws SQLException {
         Objects.requireNonNull(ps, "ps must not be null");
         Objects.requireNonNull(bindings, "bindings must not be null");
-        int parameterIndex = 1;
-        for (String namedParameter : parametersToBind) {
-            final PositionalBinding binding = bindings.get(namedParameter);
-            parameterIndex = binding.bind(ps, parameterIndex);
+        final PreparedColumn preparedColumn = new PreparedColumn(ps, 1);
+        bind(preparedColumn, bindings, 1);
+        return preparedColumn.getEstimatedBytes();
+    }
+
+    /**
+     * Binds the named parameters starting at parameterIndex, so several rows can be bound to one statement.
+     * @return parameter index after the last parameter bound
+     */
+    int bind(PreparedColumn preparedColumn, Bindings bindings, int parameterIndex) throws SQLException {
+        if (bindings instanceof ObjectBindings && ((ObjectBindings) bindings).isFor(this)) {
+            return ((ObjectBindings) bindings).bind(preparedColumn, occurrences, slots, parameterIndex);
         }
+        final SlotBindings resolved = resolve(bindings);
+        for (int slot : occurrences) {
+            parameterIndex = resolved.slot(slot).bind(preparedColumn, parameterIndex);
+        }
+        return parameterIndex;
+    }
+
+    /**
+     * Looks up each named parameter once, no matter how many times it occurs in the sql.
+     * Pass the result to both {@link #jdbcSql(Bindings)} and {@link #bind(PreparedStatement, Bindings)}, so an execution only looks up its bindings once.
+     * @param bindings complete bindings
+     * @return bindings indexed by slot, bindings itself if already indexed by slot
+     */
+    SlotBindings resolve(Bindings bindings) {
+        if (bindings instanceof SlotBindings && ((SlotBindings) bindings).isFor(this)) {
+            return (SlotBindings) bindings;
+        }
+        final PositionalBinding[] resolved = new PositionalBinding[slots.length];
+        for (int slot = 0; slot < slots.length; slot++) {
+            resolved[slot] = bindings.get(slots[slot]);
+        }
+        return new SlotBindings(this, bindings, resolved);
     }
 
     public void checkAllBindingsPresent(Bindings bindings) {
         Objects.requireNonNull(bindings, "bindings must not be null");
-        final Set<String> missingBindings = new HashSet<>(namedParameters);
-        missingBindings.removeAll(bindings.keys());
+        final Set<String> missingBindings = new LinkedHashSet<>();
+        for (String name : slots) {
+            if (!bindings.containsBinding(name)) {
+                missingBindings.add(name);
+            }
+        }
         if(!missingBindings.isEmpty()){
             throw new IllegalStateException("missing bindings, cannot proceed: " + missingBindings);
         }
@@ -89,10 +282,37 @@ public final class NamedParameterStatement {
 
     public void checkNoExtraBindings(Bindings bindings) {
         Objects.requireNonNull(bindings, "bindings must not be null");
-        final HashSet<String> extraKeys = new HashSet<>(bindings.keys());
-        extraKeys.removeAll(namedParameters);
+        final Set<String> extraKeys = new LinkedHashSet<>();
+        for (String name : bindings.keys()) {
+            if (!namedParameters.contains(name)) {
+                extraKeys.add(name);
+            }
+        }
         if(!extraKeys.isEmpty()){
             throw new IllegalStateException("extra bindings not present in statement, cannot proceed: " + extraKeys);
         }
     }
+
+    /**
+     * {@link PositionalBinding#shape()} of each slot
+     */
+    private static final class Shape {
+        private final int[] shape;
+        private final int hashCode;
+
+        Shape(int[] shape) {
+            this.shape = shape;
+            this.hashCode = Arrays.hashCode(shape);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Shape && Arrays.equals(shape, ((Shape) o).shape);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded, least recently used cache of {@link NamedParameterStatement} keyed by jdbj sql, so that each distinct statement is only tokenized once.
+ * <p>
+ * {@link NamedParameterStatement} is {@link ThreadSafe}, so cached instances are shared between all callers and threads.
+ * <p>
+ * Set the maximum size to {@code 0} to turn caching off:
+ * <pre>
+ * {@code
+ * JDBJ.statementCache().setMaximumSize(0);
+ * }
+ * </pre>
+ * @see JDBJ#statementCache()
+ * @see NamedParameterStatement#make(String)
+ */
+@ThreadSafe
+public final class NamedParameterStatementCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    static final NamedParameterStatementCache GLOBAL = new NamedParameterStatementCache();
+
+    @GuardedBy("this")
+    private final LinkedHashMap<String, NamedParameterStatement> statements = new LinkedHashMap<String, NamedParameterStatement>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, NamedParameterStatement> eldest) {
+            final boolean remove = size() > maximumSize;
+            if (remove) {
+                evictions++;
+            }
+            return remove;
+        }
+    };
+
+    @GuardedBy("this")
+    private int maximumSize;
+    @GuardedBy("this")
+    private long hits;
+    @GuardedBy("this")
+    private long misses;
+    @GuardedBy("this")
+    private long evictions;
+
+    public NamedParameterStatementCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public NamedParameterStatementCache(int maximumSize) {
+        checkMaximumSize(maximumSize);
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the cached statement for {@code sql}, tokenizing and caching it on a miss.
+     * <p>
+     * Tokenizing happens outside of the lock, so concurrent misses for the same sql may tokenize more than once.
+     * @param sql jdbj sql
+     * @return statement for sql
+     */
+    NamedParameterStatement get(String sql) {
+        Objects.requireNonNull(sql, "sql must not be null");
+        synchronized (this) {
+            final NamedParameterStatement cached = statements.get(sql);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            if (maximumSize == 0) {
+                return NamedParameterStatement.parse(sql);
+            }
+        }
+
+        final NamedParameterStatement parsed = NamedParameterStatement.parse(sql);
+        synchronized (this) {
+            final NamedParameterStatement raced = statements.putIfAbsent(sql, parsed);
+            return raced == null ? parsed : raced;
+        }
+    }
+
+    public synchronized int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @param maximumSize maximum number of statements to keep, {@code 0} turns off caching
+     */
+    public synchronized void setMaximumSize(int maximumSize) {
+        checkMaximumSize(maximumSize);
+        this.maximumSize = maximumSize;
+        final Iterator<String> eldest = statements.keySet().iterator();
+        while (statements.size() > maximumSize) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    public synchronized long evictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Removes all cached statements, does not reset counters.
+     */
+    public synchronized void clear() {
+        statements.clear();
+    }
+
+    private static void checkMaximumSize(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative");
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.*;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Binds the properties of a {@link T} to the named parameters of one {@link NamedParameterStatement}, see {@link NamedParameterStatement#binder(Class)}.
+ * <p>
+ * Named parameters are matched once against public getters ({@code getX()}, {@code isX()}), public accessors named like a field of the class
+ * ({@code x()} for a field {@code x}, as records have) and public fields, ignoring case and underscores, so {@code :first_name} binds {@code getFirstName()}.
+ * Other methods, such as {@code size()} or an overridden {@code hashCode()}, are not properties. A named parameter matching more than one getter,
+ * such as {@code getX()} and {@code isX()}, is rejected rather than bound to either.
+ * Each matched slot gets one {@link MethodHandle} reading the property and calling the {@link PreparedColumn} setter for its type,
+ * so binding does not allocate a {@link io.github.randyp.jdbj.lambda.Binding} per parameter.
+ * @param <T> type of bound objects
+ */
+@Immutable
+@ThreadSafe
+final class ObjectBinder<T> {
+
+    private static final Map<Class<?>, String> WRITERS = new HashMap<>();
+
+    static {
+        WRITERS.put(boolean.class, "setBooleanPrimitive");
+        WRITERS.put(Boolean.class, "setBoolean");
+        WRITERS.put(byte.class, "setBytePrimitive");
+        WRITERS.put(Byte.class, "setByte");
+        WRITERS.put(short.class, "setShortPrimitive");
+        WRITERS.put(Short.class, "setShort");
+        WRITERS.put(int.class, "setIntegerPrimitive");
+        WRITERS.put(Integer.class, "setInteger");
+        WRITERS.put(long.class, "setLongPrimitive");
+        WRITERS.put(Long.class, "setLong");
+        WRITERS.put(float.class, "setFloatPrimitive");
+        WRITERS.put(Float.class, "setFloat");
+        WRITERS.put(double.class, "setDoublePrimitive");
+        WRITERS.put(Double.class, "setDouble");
+        WRITERS.put(String.class, "setString");
+        WRITERS.put(BigDecimal.class, "setBigDecimal");
+        WRITERS.put(byte[].class, "setBytes");
+        WRITERS.put(Date.class, "setDate");
+        WRITERS.put(Time.class, "setTime");
+        WRITERS.put(Timestamp.class, "setTimestamp");
+        WRITERS.put(Array.class, "setArray");
+        WRITERS.put(Blob.class, "setBlob");
+        WRITERS.put(Clob.class, "setClob");
+        WRITERS.put(NClob.class, "setNClob");
+        WRITERS.put(SQLXML.class, "setSQLXML");
+        WRITERS.put(URL.class, "setURL");
+    }
+
+    private static final MethodType WRITER_TYPE = MethodType.methodType(void.class, PreparedColumn.class, Object.class);
+
+    private final NamedParameterStatement statement;
+    private final Class<T> type;
+    /**
+     * (PreparedColumn, Object)void for each slot of the statement, null if no property matches
+     */
+    private final MethodHandle[] writers;
+    /**
+     * named parameter of each slot
+     */
+    private final String[] slots;
+    private final Set<String> names;
+
+    ObjectBinder(NamedParameterStatement statement, Class<T> type, String[] slots) {
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                throw new IllegalArgumentException(type.getName() + " must be public");
+            }
+        }
+        final Set<String> fieldNames = new HashSet<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fieldNames.add(field.getName());
+                }
+            }
+        }
+        final Map<String, Method> getters = new HashMap<>();
+        final Set<String> ambiguous = new HashSet<>();
+        final Map<String, Method> accessors = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (method.getParameterCount() != 0 || method.getReturnType() == void.class || Modifier.isStatic(method.getModifiers())
+                    || method.isBridge() || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            final String name = method.getName();
+            String property = null;
+            if (name.length() > 3 && name.startsWith("get")) {
+                property = normalize(name.substring(3));
+            } else if (name.length() > 2 && name.startsWith("is") && method.getReturnType() == boolean.class) {
+                property = normalize(name.substring(2));
+            }
+            if (property != null) {
+                final Method other = getters.put(property, method);
+                if (other != null && !other.getName().equals(name)) {
+                    ambiguous.add(property);
+                }
+            }
+            if (fieldNames.contains(name)) {
+                accessors.put(normalize(name), method);
+            }
+        }
+        final Map<String, Field> fields = new HashMap<>();
+        for (Field field : type.getFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields.put(normalize(field.getName()), field);
+            }
+        }
+
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        final MethodHandle[] writers = new MethodHandle[slots.length];
+        final Set<String> names = new LinkedHashSet<>();
+        try {
+            for (int slot = 0; slot < slots.length; slot++) {
+                final String name = normalize(slots[slot].startsWith(":") ? slots[slot].substring(1) : slots[slot]);
+                final MethodHandle getter;
+                if (ambiguous.contains(name)) {
+                    throw new IllegalArgumentException(type.getName() + " has more than one getter for named parameter \"" + slots[slot] + "\"");
+                } else if (getters.containsKey(name)) {
+                    getter = lookup.unreflect(getters.get(name));
+                } else if (accessors.containsKey(name)) {
+                    getter = lookup.unreflect(accessors.get(name));
+                } else if (fields.containsKey(name)) {
+                    getter = lookup.unreflectGetter(fields.get(name));
+                } else {
+                    continue;
+                }
+                writers[slot] = MethodHandles.filterArguments(writer(getter.type().returnType()), 1, getter).asType(WRITER_TYPE);
+                names.add(slots[slot]);
+            }
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalArgumentException("cannot bind properties of " + type.getName(), e);
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException(type.getName() + " has no property for any named parameter of: " + statement.getSql());
+        }
+        this.statement = statement;
+        this.type = type;
+        this.writers = writers;
+        this.slots = slots;
+        this.names = Collections.unmodifiableSet(names);
+    }
+
+    NamedParameterStatement getStatement() {
+        return statement;
+    }
+
+    /**
+     * @return whether slots of this binder are the slots of statement, which is true for every statement parsed from the same sql
+     */
+    boolean isFor(NamedParameterStatement statement) {
+        return this.statement == statement || this.statement.getSql().equals(statement.getSql());
+    }
+
+    /**
+     * Binds the properties of value to bindings slot by slot, for {@link PositionalBindingsBuilder#bindObject(Object)}.
+     * @throws IllegalArgumentException if a named parameter bound from a property is already bound
+     */
+    PositionalBindings bind(PositionalBindings bindings, Object value) {
+        for (int slot = 0; slot < writers.length; slot++) {
+            final MethodHandle writer = writers[slot];
+            if (writer != null) {
+                bindings = bindings.bind(slots[slot], pc -> write(writer, pc, value));
+            }
+        }
+        return bindings;
+    }
+
+    Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return named parameters bound from properties
+     */
+    Set<String> names() {
+        return names;
+    }
+
+    @Nullable
+    MethodHandle writer(int slot) {
+        return writers[slot];
+    }
+
+    /**
+     * Binds the property of value for slot, to the column preparedColumn is at.
+     */
+    static void write(MethodHandle writer, PreparedColumn preparedColumn, Object value) throws SQLException {
+        try {
+            writer.invokeExact(preparedColumn, value);
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new SQLException("failed to read property of " + value.getClass().getName(), t);
+        }
+        preparedColumn.setNullIfNotSet();
+    }
+
+    /**
+     * @return handle of type (PreparedColumn, valueType)void
+     */
+    private static MethodHandle writer(Class<?> valueType) throws IllegalAccessException, NoSuchMethodException {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (WRITERS.containsKey(valueType)) {
+            return lookup.findVirtual(PreparedColumn.class, WRITERS.get(valueType), MethodType.methodType(void.class, valueType));
+        } else if (valueType.isEnum()) {
+            final MethodHandle setString = lookup.findVirtual(PreparedColumn.class, "setString", MethodType.methodType(void.class, String.class));
+            final MethodHandle name = lookup.findStatic(ObjectBinder.class, "name", MethodType.methodType(String.class, Enum.class));
+            return MethodHandles.filterArguments(setString, 1, name).asType(MethodType.methodType(void.class, PreparedColumn.class, valueType));
+        } else {
+            return lookup.findVirtual(PreparedColumn.class, "setObject", MethodType.methodType(void.class, Object.class))
+                    .asType(MethodType.methodType(void.class, PreparedColumn.class, valueType));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.Binding;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.invoke.MethodHandle;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * {@link ValueBindings} binding named parameters from the properties of an object with an {@link ObjectBinder}, plus any other value bindings.
+ * <p>
+ * {@link NamedParameterStatement} binds these straight to the statement by slot with {@link #bind(PreparedColumn, int[], String[], int)},
+ * so a batch row of an object is this one instance.
+ */
+@Immutable
+@ThreadSafe
+final class ObjectBindings extends ValueBindings {
+
+    private final ObjectBinder<?> binder;
+    private final Object value;
+    private final ValueBindings values;
+    /**
+     * {@link ObjectBinder#names()} when there are no other bindings, so a batch row does not allocate a set
+     */
+    private final Set<String> keys;
+
+    ObjectBindings(ObjectBinder<?> binder, Object value, ValueBindings values) {
+        Objects.requireNonNull(binder, "binder must not be null");
+        Objects.requireNonNull(value, "value must not be null");
+        Objects.requireNonNull(values, "values must not be null");
+        final Set<String> valueKeys = values.keys();
+        for (String name : valueKeys) {
+            checkNotFromValue(binder, name);
+        }
+        this.binder = binder;
+        this.value = value;
+        this.values = values;
+        if (valueKeys.isEmpty()) {
+            this.keys = binder.names();
+        } else {
+            final Set<String> keys = new LinkedHashSet<>(binder.names());
+            keys.addAll(valueKeys);
+            this.keys = Collections.unmodifiableSet(keys);
+        }
+    }
+
+    /**
+     * @param statement statement to bind to
+     * @param bindings bindings so far
+     * @param value object to bind properties of
+     * @return bindings with the properties of value
+     */
+    static ValueBindings bindObject(NamedParameterStatement statement, ValueBindings bindings, Object value) {
+        Objects.requireNonNull(value, "value must not be null");
+        final ObjectBinder<?> binder = statement.binder(value.getClass());
+        if (bindings instanceof ObjectBindings) {
+            return bindings.addAll(new ObjectBindings(binder, value, new ValueBindings()));
+        }
+        return new ObjectBindings(binder, value, bindings);
+    }
+
+    /**
+     * @return true if {@link #bind(PreparedColumn, int[], String[], int)} can bind to statement
+     */
+    boolean isFor(NamedParameterStatement statement) {
+        return binder.isFor(statement);
+    }
+
+    /**
+     * Binds each occurrence of a named parameter starting at parameterIndex, properties are read and bound without looking up by name.
+     * @return parameter index after the last parameter bound
+     */
+    int bind(PreparedColumn preparedColumn, int[] occurrences, String[] slots, int parameterIndex) throws SQLException {
+        for (int slot : occurrences) {
+            final MethodHandle writer = binder.writer(slot);
+            if (writer != null) {
+                ObjectBinder.write(writer, preparedColumn.moveTo(parameterIndex), value);
+                parameterIndex++;
+            } else {
+                parameterIndex = values.get(slots[slot]).bind(preparedColumn, parameterIndex);
+            }
+        }
+        return parameterIndex;
+    }
+
+    @Override
+    public ValueBindings bind(String name, Binding binding) {
+        checkNotFromValue(binder, name);
+        return new ObjectBindings(binder, value, values.bind(name, binding));
+    }
+
+    @Override
+    public ValueBindings addAll(ValueBindings bindings) {
+        Objects.requireNonNull(bindings, "bindings must not be null");
+        ValueBindings newValues = values;
+        for (String name : bindings.keys()) {
+            checkNotFromValue(binder, name);
+            newValues = newValues.bind(name, bindings.get(name).getBinding());
+        }
+        return new ObjectBindings(binder, value, newValues);
+    }
+
+    @Override
+    public Map<String, Binding> asMap() {
+        final Map<String, Binding> map = new LinkedHashMap<>();
+        for (String name : keys()) {
+            map.put(name, get(name).getBinding());
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public boolean containsBinding(String name) {
+        Objects.requireNonNull(name, "name must not be null");
+        return binder.names().contains(name) || values.containsBinding(name);
+    }
+
+    @Override
+    public Set<String> keys() {
+        return keys;
+    }
+
+    @Override
+    public ValueBinding get(String namedParameter) {
+        Objects.requireNonNull(namedParameter, "namedParameter must not be null");
+        if (binder.names().contains(namedParameter)) {
+            final MethodHandle writer = binder.writer(binder.getStatement().slot(namedParameter));
+            return new ValueBinding(pc -> ObjectBinder.write(writer, pc, value));
+        }
+        return values.get(namedParameter);
+    }
+
+    private static void checkNotFromValue(ObjectBinder<?> binder, String name) {
+        if (binder.names().contains(name)) {
+            throw new IllegalArgumentException("named parameter \"" + name + "\" already has a binding from " + binder.getType().getName());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.randyp.jdbj;
+
+/**
+ * How each partition of a batch executed on several connections at once is committed.
+ * <p>
+ * In either mode every partition is executed, and a {@link PartitionedBatchException} reports the partitions that failed.
+ * @see BatchedExecuteUpdate#executeParallel(javax.sql.DataSource, int, PartitionMode)
+ * @see BatchedExecuteInsert#executeParallel(javax.sql.DataSource, int, PartitionMode)
+ */
+public enum PartitionMode {
+    /**
+     * All or nothing per partition: each partition is executed in its own transaction,
+     * so a failed partition is rolled back completely while the other partitions are committed.
+     */
+    TRANSACTION_PER_PARTITION,
+    /**
+     * Each partition is executed as is, usually in auto commit mode, so rows of a failed partition may be committed up to the failure.
+     */
+    BEST_EFFORT
+}
@@ -0,0 +1,134 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.Nullable;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when at least one partition of a batch executed on several connections failed. The other partitions were executed, and committed according to the {@link PartitionMode}.
+ * <p>
+ * Cause is the failure of the first failed partition, failures of later partitions are suppressed.
+ * @see BatchedExecuteUpdate#executeParallel(javax.sql.DataSource, int, PartitionMode)
+ * @see BatchedExecuteInsert#executeParallel(javax.sql.DataSource, int, PartitionMode)
+ */
+public class PartitionedBatchException extends SQLException {
+
+    /**
+     * Rows of one partition, in the order batches were added.
+     */
+    public static final class Partition {
+        private final int index;
+        private final int fromRow;
+        private final int toRow;
+        @Nullable
+        private final Object result;
+        @Nullable
+        private final Throwable failure;
+
+        Partition(int index, int fromRow, int toRow, @Nullable Object result, @Nullable Throwable failure) {
+            this.index = index;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.result = result;
+            this.failure = failure;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return index of the first batch in this partition
+         */
+        public int getFromRow() {
+            return fromRow;
+        }
+
+        /**
+         * @return index after the last batch in this partition
+         */
+        public int getToRow() {
+            return toRow;
+        }
+
+        public boolean isFailed() {
+            return failure != null;
+        }
+
+        /**
+         * @return update counts ({@code int[]}) or generated keys ({@code List}) of a successful partition, null if the partition failed
+         */
+        @Nullable
+        public Object getResult() {
+            return result;
+        }
+
+        @Nullable
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        @Override
+        public String toString() {
+            return "Partition{" + index + ", rows " + fromRow + " to " + toRow + (failure == null ? "" : ", failed: " + failure) + "}";
+        }
+    }
+
+    private final List<Partition> partitions;
+
+    PartitionedBatchException(List<Partition> partitions) {
+        super(message(partitions), firstFailure(partitions));
+        this.partitions = Collections.unmodifiableList(new ArrayList<>(partitions));
+        boolean first = true;
+        for (Partition partition : partitions) {
+            if (partition.isFailed()) {
+                if (!first) {
+                    addSuppressed(partition.getFailure());
+                }
+                first = false;
+            }
+        }
+    }
+
+    /**
+     * @return every partition, in order
+     */
+    public List<Partition> getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * @return the partitions which failed, in order
+     */
+    public List<Partition> getFailedPartitions() {
+        final List<Partition> failed = new ArrayList<>();
+        for (Partition partition : partitions) {
+            if (partition.isFailed()) {
+                failed.add(partition);
+            }
+        }
+        return failed;
+    }
+
+    private static String message(List<Partition> partitions) {
+        final List<Integer> failed = new ArrayList<>();
+        for (Partition partition : partitions) {
+            if (partition.isFailed()) {
+                failed.add(partition.getIndex());
+            }
+        }
+        return failed.size() + " of " + partitions.size() + " partitions failed: " + failed;
+    }
+
+    @Nullable
+    private static Throwable firstFailure(List<Partition> partitions) {
+        for (Partition partition : partitions) {
+            if (partition.isFailed()) {
+                return partition.getFailure();
+            }
+        }
+        return null;
+    }
+}
@@ -12,17 +12,52 @@ import java.sql.SQLException;
  */
 interface PositionalBinding  {
 
+    int VALUE_SHAPE = -1;
     /**
-     * @param ps the prepared statement
+     * largest shape of an {@link ArrayBinding}
+     */
+    int ARRAY_SHAPE = -2;
+
+    /**
+     * @param preparedColumn column of the prepared statement, moved to each parameter index before binding
      * @param parameterIndex index of prepared statement to bind to
      * @return new parameter index
      * @throws SQLException
      */
-    int bind(PreparedStatement ps, int parameterIndex) throws SQLException;
+    int bind(PreparedColumn preparedColumn, int parameterIndex) throws SQLException;
+
+    /**
+     * Generated sql depends only on the shape of each binding, see {@link NamedParameterStatement#jdbcSql(Bindings)}.
+     * @return {@link #VALUE_SHAPE} for a single binding, {@link #ARRAY_SHAPE} or less for an array, otherwise the number of bindings in the collection
+     */
+    int shape();
 
     /**
      * Either appends a {@code '?'} representing a single binding or appends {@code "(?,?,...,?)"} for a collection binding 
      * @param builder
      */
     void appendPositionalParametersToQueryString(StringBuilder builder);
+
+    /**
+     * @param builder appended to
+     * @param shape {@link #VALUE_SHAPE} appends {@code '?'}, array shapes append their array parameter, otherwise appends {@code "(?,?,...,?)"} with shape parameters
+     */
+    static void appendPositionalParameters(StringBuilder builder, int shape) {
+        if (shape == VALUE_SHAPE) {
+            builder.append('?');
+            return;
+        }
+        if (shape <= ARRAY_SHAPE) {
+            ArrayBinding.appendPositionalParameters(builder, shape);
+            return;
+        }
+        builder.append('(');
+        for (int i = 0; i < shape; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append('?');
+        }
+        builder.append(')');
+    }
 }
@@ -3,7 +3,9 @@ package io.github.randyp.jdbj;
 import io.github.randyp.jdbj.lambda.Binding;
 import jdk.nashorn.internal.ir.annotations.Immutable;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
+import java.sql.Connection;
 import java.util.*;
 
 /**
@@ -17,47 +19,89 @@ import java.util.*;
 @ThreadSafe
 public class PositionalBindings implements Bindings, ValueBindingsBuilder<PositionalBindings>, CollectionBindingsBuilder<PositionalBindings> {
 
-    private final Map<String, Binding> valueBindings;
-    private final Map<String, List<Binding>> collectionBindings;
-    private final Set<String> keys;
+    /**
+     * Default minimum size of a collection binding to bind as an array, see {@link #collectionsAsArrays(int)}
+     */
+    public static final int DEFAULT_ARRAY_THRESHOLD = 64;
+
+    private final BindingChain<PositionalBinding> bindings;
+    private final CollectionPadding padding;
+    private final int arrayThreshold;
+    /**
+     * size of the largest collection binding which may be bound as an array
+     */
+    private final int maxArraySize;
 
     /**
      * New Empty PositionalBindings
      */
     public PositionalBindings(){
-        this(new HashMap<>(), new HashMap<>());
+        this(BindingChain.empty(), CollectionPadding.NONE, DEFAULT_ARRAY_THRESHOLD, 0);
+    }
+
+    private PositionalBindings(BindingChain<PositionalBinding> bindings, CollectionPadding padding, int arrayThreshold, int maxArraySize) {
+        this.bindings = bindings;
+        this.padding = padding;
+        this.arrayThreshold = arrayThreshold;
+        this.maxArraySize = maxArraySize;
+    }
+
+    /**
+     * Pads collections bound before and after this call. Added collections are padded with the padding of the bindings they are added to.
+     * @param padding padding for collection bindings, {@link CollectionPadding#NONE} for none
+     * @return bindings padding collection bindings
+     */
+    public PositionalBindings padCollections(CollectionPadding padding) {
+        Objects.requireNonNull(padding, "padding must not be null");
+        PositionalBindings newBindings = new PositionalBindings(BindingChain.empty(), padding, arrayThreshold, 0);
+        for (Map.Entry<String, PositionalBinding> entry : bindings.asMap().entrySet()) {
+            newBindings = newBindings.put(entry.getKey(), entry.getValue());
+        }
+        return newBindings;
     }
 
-    PositionalBindings(Map<String, Binding> valueBindings,
-                               Map<String, List<Binding>> collectionBindings) {
-        this.valueBindings = valueBindings;
-        this.collectionBindings = collectionBindings;
+    public CollectionPadding getPadding() {
+        return padding;
+    }
 
-        {
-            final Set<String> keys = new HashSet<>(valueBindings.keySet());
-            keys.addAll(collectionBindings.keySet());
-            this.keys = Collections.unmodifiableSet(keys);
+    /**
+     * Collections of longs, integers or strings with at least minimumSize elements are bound as a single array parameter
+     * on databases which support it (PostgreSQL, HSQLDB and H2), so {@code x IN :xs} is executed with one parameter instead of {@code "(?,?,...,?)"}.
+     * Only named parameters which directly follow {@code IN} everywhere they occur are bound as arrays, since the array parameter is a subquery.
+     * Other databases, other collections, other uses of a collection (such as the row of {@code VALUES :row}) and smaller collections are expanded as usual.
+     * <p>
+     * Defaults to {@link #DEFAULT_ARRAY_THRESHOLD}.
+     * @param minimumSize minimum size of a collection to bind as an array, {@link Integer#MAX_VALUE} to never bind as an array
+     * @return bindings using minimumSize
+     */
+    public PositionalBindings collectionsAsArrays(int minimumSize) {
+        if (minimumSize <= 0) {
+            throw new IllegalArgumentException("minimumSize must be positive");
         }
+        return new PositionalBindings(bindings, padding, minimumSize, maxArraySize);
+    }
+
+    public int getArrayThreshold() {
+        return arrayThreshold;
     }
 
     public PositionalBindings addAll(PositionalBindings bindings) {
         Objects.requireNonNull(bindings, "bindings must not be null");
-        PositionalBindings newBindings = this;
-        for (Map.Entry<String, Binding> entry : bindings.valueBindings.entrySet()) {
-            newBindings = newBindings.bind(entry.getKey(), entry.getValue());
+        if (keys().isEmpty() && padding == bindings.padding && arrayThreshold == bindings.arrayThreshold) {
+            return bindings;
         }
-        for (Map.Entry<String, List<Binding>> entry : bindings.collectionBindings.entrySet()) {
-            newBindings = newBindings.bindCollection(entry.getKey(), entry.getValue());
+        PositionalBindings newBindings = this;
+        for (Map.Entry<String, PositionalBinding> entry : bindings.bindings.asMap().entrySet()) {
+            newBindings = newBindings.put(entry.getKey(), entry.getValue());
         }
-        
         return newBindings;
     }
 
     public PositionalBindings addAll(ValueBindings bindings) {
         Objects.requireNonNull(bindings, "bindings must not be null");
         PositionalBindings newBindings = this;
-        for (Map.Entry<String, Binding> entry : bindings.asMap().entrySet()) {
-            newBindings = newBindings.bind(entry.getKey(), entry.getValue());
+        for (String name : bindings.keys()) {
+            newBindings = newBindings.put(name, bindings.get(name));
         }
         return newBindings;
     }
@@ -65,64 +109,99 @@ public class PositionalBindings implements Bindings, ValueBindingsBuilder<Positi
     @Override
     public boolean containsBinding(String name) {
         Objects.requireNonNull(name, "name must not be null");
-        return valueBindings.containsKey(name) || collectionBindings.containsKey(name);
+        return bindings.containsKey(name);
     }
 
     @Override
     public PositionalBindings bind(String name, Binding binding) {
         Objects.requireNonNull(binding, "binding must not be null");
-        
-        if (containsBinding(name)) {
-            throw new IllegalArgumentException("named parameter \"" + name + "\" already has a binding");
-        }
-
-        final Map<String, Binding> newValueBindings = new HashMap<>(valueBindings);
-        newValueBindings.put(name, binding);
-
-        return new PositionalBindings(
-                newValueBindings,
-                collectionBindings
-        );
+        return put(name, new ValueBinding(binding));
     }
 
     @Override
     public PositionalBindings bindCollection(String name, List<Binding> bindings) {
         Objects.requireNonNull(bindings, "bindings must not be null");
         checkBindings(bindings);
-
-        if (containsBinding(name)) {
-            throw new IllegalArgumentException("named parameter \"" + name + "\" already has a binding");
-        }
-
-        final Map<String, List<Binding>> newListBindings = new HashMap<>(collectionBindings);
-        newListBindings.put(name, bindings);
-
-        return new PositionalBindings(
-                valueBindings,
-                newListBindings
-        );
+        return put(name, new ListBinding(bindings));
     }
 
     @Override
     public PositionalBinding get(String namedParameter) {
-        final PositionalBinding toReturn;
-        if (valueBindings.containsKey(namedParameter)) {
-            toReturn = new ValueBinding(valueBindings.get(namedParameter));
-        } else if (collectionBindings.containsKey(namedParameter)) {
-            toReturn = new ListBinding(collectionBindings.get(namedParameter));
-        } else {
+        final PositionalBinding binding = bindings.get(namedParameter);
+        if (binding == null) {
             throw new IllegalArgumentException("no such binding: \"" + namedParameter + "\"");
         }
-        return toReturn;
+        return binding;
     }
 
     @Override
     public Set<String> keys() {
-        return keys;
+        return bindings.keys();
+    }
+
+    /**
+     * @return bindings with the collection binding for name replaced by its bindings from (inclusive) to (exclusive), padded like this
+     */
+    PositionalBindings sliceCollection(String name, int from, int to) {
+        PositionalBindings newBindings = new PositionalBindings(BindingChain.empty(), padding, arrayThreshold, 0);
+        for (Map.Entry<String, PositionalBinding> entry : bindings.asMap().entrySet()) {
+            final PositionalBinding binding = entry.getKey().equals(name) ? ((ListBinding) entry.getValue()).slice(from, to) : entry.getValue();
+            newBindings = newBindings.put(entry.getKey(), binding);
+        }
+        return newBindings;
+    }
+
+    /**
+     * @return whether {@link #forDialect(Dialect, NamedParameterStatement)} needs the dialect, because a collection may be bound as an array
+     */
+    boolean needsDialect() {
+        return maxArraySize >= arrayThreshold;
+    }
+
+    /**
+     * @param dialect dialect of the database executing, see {@link Dialect#forExecuting(Connection, PositionalBindings, CursorOptions)}
+     * @return bindings with collections at least {@link #getArrayThreshold()} in size, which are the list of an {@code IN} in statement,
+     * bound as arrays if the database supports it
+     */
+    PositionalBindings forDialect(@Nullable Dialect dialect, NamedParameterStatement statement) {
+        if (!needsDialect() || dialect == null || !dialect.bindsArrays()) {
+            return this;
+        }
+        BindingChain<PositionalBinding> newBindings = BindingChain.empty();
+        boolean changed = false;
+        for (Map.Entry<String, PositionalBinding> entry : bindings.asMap().entrySet()) {
+            PositionalBinding binding = entry.getValue();
+            if (binding instanceof ListBinding) {
+                final ValueList values = ((ListBinding) binding).getValues();
+                if (values != null && values.getType().isArrayElement() && values.size() >= arrayThreshold && statement.isInList(entry.getKey())) {
+                    binding = new ArrayBinding(dialect, values);
+                    changed = true;
+                }
+            }
+            newBindings = newBindings.put(entry.getKey(), binding);
+        }
+        return changed ? new PositionalBindings(newBindings, padding, arrayThreshold, 0) : this;
+    }
+
+    private PositionalBindings put(String name, PositionalBinding binding) {
+        Objects.requireNonNull(name, "name must not be null");
+        int newMaxArraySize = maxArraySize;
+        if (binding instanceof ListBinding) {
+            final ListBinding listBinding = (ListBinding) binding;
+            final ValueList values = listBinding.getValues();
+            if (values != null && values.getType().isArrayElement()) {
+                newMaxArraySize = Math.max(newMaxArraySize, values.size());
+            }
+            binding = listBinding.pad(padding);
+        }
+        return new PositionalBindings(bindings.put(name, binding), padding, arrayThreshold, newMaxArraySize);
     }
 
     private static void checkBindings(List<Binding> bindings) {
         Objects.requireNonNull(bindings, "bindings must not be null");
+        if (bindings instanceof ValueList) {
+            return;
+        }
         for (Binding binding : bindings) {
             Objects.requireNonNull(binding, "bindings cannot contain null elements");
         }
@@ -5,6 +5,7 @@ import io.github.randyp.jdbj.lambda.Binding;
 
 import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.List;
@@ -46,18 +47,58 @@ public abstract class PositionalBindingsBuilder<P extends PositionalBindingsBuil
         statement.bind(ps, bindings);
     }
 
+    /**
+     * @return bindings to execute with on connection, large collections may be bound as arrays
+     * @see PositionalBindings#collectionsAsArrays(int)
+     */
+    PositionalBindings bindingsFor(Connection connection) throws SQLException {
+        return bindings.forDialect(Dialect.forExecuting(connection, bindings, CursorOptions.DEFAULT), statement);
+    }
+
     public P bind(Supplier<PositionalBindings> supplier) throws SQLException {
         final PositionalBindings bindings = supplier.get();
         statement.checkNoExtraBindings(bindings);
         return factory.make(statement, this.bindings.addAll(bindings));
     }
 
+    /**
+     * @param padding padding for collection bindings, see {@link PositionalBindings#padCollections(CollectionPadding)}
+     * @return builder padding collection bindings
+     */
+    public P padCollections(CollectionPadding padding) {
+        return factory.make(statement, bindings.padCollections(padding));
+    }
+
+    /**
+     * @param minimumSize minimum size of a collection to bind as an array, see {@link PositionalBindings#collectionsAsArrays(int)}
+     * @return builder using minimumSize
+     */
+    public P collectionsAsArrays(int minimumSize) {
+        return factory.make(statement, bindings.collectionsAsArrays(minimumSize));
+    }
+
     public P bindValues(Supplier<ValueBindings> supplier) {
         final ValueBindings bindings = supplier.get();
         statement.checkNoExtraBindings(bindings);
         return factory.make(statement, this.bindings.addAll(bindings));
     }
     
+    /**
+     * Binds named parameters from the properties of value: public getters, record style accessors ({@code x()} for a field {@code x}) and public fields,
+     * matched to named parameters ignoring case and underscores, so {@code :first_name} binds {@code getFirstName()}.
+     * Named parameters without a matching property can be bound as usual.
+     * <p>
+     * Properties are matched once per class and sql, see {@code Batch#bindObject(Object)} of {@link BatchedExecuteInsert} and {@link BatchedExecuteUpdate} for binding many rows.
+     * @param value public class with a property for at least one named parameter
+     * @return builder with the properties of value bound
+     * @throws IllegalArgumentException if value is not of a public class, has no property for any named parameter,
+     * or has more than one getter for a named parameter, such as {@code getX()} and {@code isX()}
+     */
+    public P bindObject(Object value) {
+        Objects.requireNonNull(value, "value must not be null");
+        return factory.make(statement, statement.binder(value.getClass()).bind(bindings, value));
+    }
+
     @Override
     public P bind(String name, Binding binding){
         if(!statement.containsParameter(name)){
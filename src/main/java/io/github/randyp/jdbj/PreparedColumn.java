@@ -18,15 +18,32 @@ import java.util.Calendar;
  */
 public class PreparedColumn {
 
+    /**
+     * estimated size of a value whose size is not known without reading it, such as a {@link Blob}, or not worth computing, such as a {@link BigDecimal}
+     */
+    static final long REFERENCE_BYTES = 16;
+
     private boolean set;
+    private long estimatedBytes;
     private final PreparedStatement ps;
-    private final int parameterIndex;
+    private int parameterIndex;
 
     public PreparedColumn(PreparedStatement ps, int parameterIndex) {
         this.ps = ps;
         this.parameterIndex = parameterIndex;
     }
 
+    /**
+     * Re-targets this column to another parameter index, so one instance can be reused for every parameter of a statement.
+     * @param parameterIndex index of prepared statement to bind to
+     * @return this
+     */
+    PreparedColumn moveTo(int parameterIndex) {
+        this.parameterIndex = parameterIndex;
+        this.set = false;
+        return this;
+    }
+
     public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
         return ps.getConnection().createArrayOf(typeName, elements);
     }
@@ -51,59 +68,66 @@ public class PreparedColumn {
         return set;
     }
 
+    /**
+     * @return rough estimate of the size of all values bound through this column since creation, used to size batches
+     */
+    long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
     public void setArray( Array x) throws SQLException {
         ps.setArray(parameterIndex, x);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setAsciiStream( InputStream x) throws SQLException {
         ps.setAsciiStream(parameterIndex, x);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setAsciiStream( InputStream x, int length) throws SQLException {
         ps.setAsciiStream(parameterIndex, x, length);
-        set=true;
+        set(length);
     }
 
     public void setAsciiStream( InputStream x, long length) throws SQLException {
         ps.setAsciiStream(parameterIndex, x, length);
-        set=true;
+        set(length);
     }
 
     public void setBigDecimal( BigDecimal x) throws SQLException {
         ps.setBigDecimal(parameterIndex, x);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setBinaryStream( InputStream x) throws SQLException {
         ps.setBinaryStream(parameterIndex, x);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setBinaryStream( InputStream x, int length) throws SQLException {
         ps.setBinaryStream(parameterIndex, x, length);
-        set=true;
+        set(length);
     }
 
     public void setBinaryStream( InputStream x, long length) throws SQLException {
         ps.setBinaryStream(parameterIndex, x, length);
-        set=true;
+        set(length);
     }
 
     public void setBlob( Blob x) throws SQLException {
         ps.setBlob(parameterIndex, x);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setBlob( InputStream inputStream) throws SQLException {
         ps.setBlob(parameterIndex, inputStream);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setBlob( InputStream inputStream, long length) throws SQLException {
         ps.setBlob(parameterIndex, inputStream, length);
-        set=true;
+        set(length);
     }
 
     public void setBoolean( Boolean x) throws SQLException {
@@ -112,12 +136,12 @@ public class PreparedColumn {
         }else {
             ps.setBoolean(parameterIndex, x);
         }
-        set=true;
+        set(1);
     }
 
     public void setBooleanPrimitive( boolean x) throws SQLException {
         ps.setBoolean(parameterIndex, x);
-        set=true;
+        set(1);
     }
 
     public void setByte( Byte x) throws SQLException {
@@ -126,57 +150,57 @@ public class PreparedColumn {
         }else {
             ps.setByte(parameterIndex, x);
         }
-        set=true;
+        set(1);
     }
 
     public void setBytePrimitive( byte x) throws SQLException {
         ps.setByte(parameterIndex, x);
-        set=true;
+        set(1);
     }
 
     public void setBytes( byte[] x) throws SQLException {
         ps.setBytes(parameterIndex, x);
-        set=true;
+        set(estimate(x));
     }
 
     public void setCharacterStream( Reader reader) throws SQLException {
         ps.setCharacterStream(parameterIndex, reader);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setCharacterStream( Reader reader, int length) throws SQLException {
         ps.setCharacterStream(parameterIndex, reader, length);
-        set=true;
+        set(length);
     }
 
     public void setCharacterStream( Reader reader, long length) throws SQLException {
         ps.setCharacterStream(parameterIndex, reader, length);
-        set=true;
+        set(length);
     }
 
     public void setClob( Clob x) throws SQLException {
         ps.setClob(parameterIndex, x);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setClob( Reader reader) throws SQLException {
         ps.setClob(parameterIndex, reader);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setClob( Reader reader, long length) throws SQLException {
         ps.setClob(parameterIndex, reader, length);
-        set=true;
+        set(length);
     }
 
     public void setDate( Date x) throws SQLException {
         ps.setDate(parameterIndex, x);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setDate( Date x, Calendar cal) throws SQLException {
         ps.setDate(parameterIndex, x, cal);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setDouble( Double x) throws SQLException {
@@ -185,12 +209,12 @@ public class PreparedColumn {
         }else{
             ps.setDouble(parameterIndex, x);
         }
-        set=true;
+        set(8);
     }
 
     public void setDoublePrimitive( double x) throws SQLException {
         ps.setDouble(parameterIndex, x);
-        set=true;
+        set(8);
     }
 
     public void setFloat( Float x) throws SQLException {
@@ -199,12 +223,12 @@ public class PreparedColumn {
         }else{
             ps.setFloat(parameterIndex, x);
         }
-        set=true;
+        set(4);
     }
 
     public void setFloatPrimitive( float x) throws SQLException {
         ps.setFloat(parameterIndex, x);
-        set=true;
+        set(4);
     }
 
     public void setInteger( Integer x) throws SQLException {
@@ -213,7 +237,7 @@ public class PreparedColumn {
         }else{
             ps.setInt(parameterIndex, x);
         }
-        set=true;
+        set(4);
     }
 
     public void setIntegerPrimitive( int x) throws SQLException {
@@ -222,7 +246,7 @@ public class PreparedColumn {
 
     public void setInt( int x) throws SQLException {
         ps.setInt(parameterIndex, x);
-        set=true;
+        set(4);
     }
 
     public void setLong( Long x) throws SQLException {
@@ -231,77 +255,77 @@ public class PreparedColumn {
         }else{
             ps.setLong(parameterIndex, x);
         }
-        set=true;
+        set(8);
     }
 
     public void setLongPrimitive( long x) throws SQLException {
         ps.setLong(parameterIndex, x);
-        set=true;
+        set(8);
     }
 
     public void setNCharacterStream( Reader value) throws SQLException {
         ps.setNCharacterStream(parameterIndex, value);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setNCharacterStream( Reader value, long length) throws SQLException {
         ps.setNCharacterStream(parameterIndex, value, length);
-        set=true;
+        set(length);
     }
 
     public void setNClob( NClob value) throws SQLException {
         ps.setNClob(parameterIndex, value);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setNClob( Reader reader) throws SQLException {
         ps.setNClob(parameterIndex, reader);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setNClob( Reader reader, long length) throws SQLException {
         ps.setNClob(parameterIndex, reader, length);
-        set=true;
+        set(length);
     }
 
     public void setNString( String value) throws SQLException {
         ps.setNString(parameterIndex, value);
-        set=true;
+        set(estimate(value));
     }
 
     public void setNull(int sqlType) throws SQLException {
         ps.setNull(parameterIndex, sqlType);
-        set=true;
+        set(1);
     }
 
     public void setNull( int sqlType, String typeName) throws SQLException {
         ps.setNull(parameterIndex, sqlType, typeName);
-        set=true;
+        set(1);
     }
 
     public void setObject( Object x) throws SQLException {
         ps.setObject(parameterIndex, x);
-        set=true;
+        set(estimate(x));
     }
 
     public void setObject( Object x, int targetSqlType) throws SQLException {
         ps.setObject(parameterIndex, x, targetSqlType);
-        set=true;
+        set(estimate(x));
     }
 
     public void setObject( Object x, SQLType targetSqlType) throws SQLException {
         ps.setObject(parameterIndex, x, targetSqlType);
-        set=true;
+        set(estimate(x));
     }
 
     public void setObject( Object x, int targetSqlType, int scaleOrLength) throws SQLException {
         ps.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
-        set=true;
+        set(estimate(x));
     }
 
     public void setObject( Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
         ps.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
-        set=true;
+        set(estimate(x));
     }
 
     public void setShort( Short x) throws SQLException {
@@ -310,47 +334,47 @@ public class PreparedColumn {
         }else{
             ps.setShort(parameterIndex, x);
         }
-        set=true;
+        set(2);
     }
 
     public void setShortPrimitive( short x) throws SQLException {
         ps.setShort(parameterIndex, x);
-        set=true;
+        set(2);
     }
 
     public void setSQLXML( SQLXML xmlObject) throws SQLException {
         ps.setSQLXML(parameterIndex, xmlObject);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setString( String x) throws SQLException {
         ps.setString(parameterIndex, x);
-        set=true;
+        set(estimate(x));
     }
 
     public void setTime( Time x) throws SQLException {
         ps.setTime(parameterIndex, x);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setTime( Time x, Calendar cal) throws SQLException {
         ps.setTime(parameterIndex, x, cal);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setTimestamp( Timestamp x) throws SQLException {
         ps.setTimestamp(parameterIndex, x);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setTimestamp( Timestamp x, Calendar cal) throws SQLException {
         ps.setTimestamp(parameterIndex, x, cal);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setURL( URL x) throws SQLException {
         ps.setURL(parameterIndex, x);
-        set=true;
+        set(REFERENCE_BYTES);
     }
 
     public void setNullIfNotSet() throws SQLException {
@@ -359,4 +383,19 @@ public class PreparedColumn {
             set = true;
         }
     }
+
+    private void set(long estimatedBytes) {
+        this.set = true;
+        this.estimatedBytes += estimatedBytes;
+    }
+
+    private static long estimate(Object x) {
+        if (x instanceof String) {
+            return 2L * ((String) x).length();
+        }
+        if (x instanceof byte[]) {
+            return ((byte[]) x).length;
+        }
+        return x == null ? 1 : REFERENCE_BYTES;
+    }
 }
@@ -0,0 +1,65 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.ResultMapper;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Executes an insert repeatedly on one open {@link PreparedStatement}, so each execution only binds, executes and reads the generated keys. Example:
+ * <pre>
+ * {@code
+ * ExecuteInsert<Long> insert = JDBJ.insert("INSERT INTO student(first_name, last_name, gpa)" +
+ *     " VALUES (:first_name, :last_name, :gpa)", rs -> rs.getLong(1));
+ * try (PreparedExecuteInsert<Long> prepared = insert.prepare(connection)) {
+ *     for (NewStudent newStudent : newStudents) {
+ *         List<Long> keys = prepared.bindValues(newStudent::bindings).execute();
+ *     }
+ * }
+ * }
+ * </pre>
+ * Bindings made before {@link ExecuteInsert#prepare(Connection)} are used for every execution, bindings made on this handle only for the next execution.
+ * <p>
+ * Is mutable, close to close the {@link PreparedStatement}.
+ * @param <K> type of the returned keys
+ * @see ExecuteInsert#prepare(Connection)
+ */
+@NotThreadSafe
+public class PreparedExecuteInsert<K> extends PreparedHandle<PreparedExecuteInsert<K>, List<K>> {
+
+    private final ResultMapper<K> keysMapper;
+
+    PreparedExecuteInsert(NamedParameterStatement statement, PositionalBindings prepared, ResultMapper<K> keysMapper, Connection connection) {
+        super(statement, prepared, connection);
+        Objects.requireNonNull(keysMapper, "keysMapper must not be null");
+        this.keysMapper = keysMapper;
+    }
+
+    @Override
+    PreparedExecuteInsert<K> chainThis() {
+        return this;
+    }
+
+    @Override
+    PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        return connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    }
+
+    @Override
+    List<K> execute(PreparedStatement ps) throws SQLException {
+        ps.executeUpdate();
+        final List<K> keys = new ArrayList<>();
+        try (SmartResultSet generatedKeys = new SmartResultSet(ps.getGeneratedKeys())) {
+            while (generatedKeys.next()) {
+                keys.add(keysMapper.map(generatedKeys));
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Executes a query repeatedly on one open {@link PreparedStatement}, so each execution only binds, executes and reads the results. Example:
+ * <pre>
+ * {@code
+ * MapQuery<Student> byId = JDBJ.query("SELECT * FROM student WHERE id = :id").map(Student::from);
+ * try (PreparedExecuteQuery<List<Student>> query = byId.prepare(connection)) {
+ *     for (long id : ids) {
+ *         List<Student> students = query.bindLong(":id", id).execute();
+ *     }
+ * }
+ * }
+ * </pre>
+ * Bindings made before {@link ExecuteQuery#prepare(Connection)} are used for every execution, bindings made on this handle only for the next execution.
+ * Collection bindings larger than {@link MapQuery#chunkCollections(int)} are executed in chunks on the same connection.
+ * <p>
+ * Uses the cursor settings of the {@link ExecuteQuery} it was prepared from.
+ * <p>
+ * Is mutable, close to close the {@link PreparedStatement}.
+ * @param <R> result type
+ * @see ExecuteQuery#prepare(Connection)
+ * @see MapQuery#prepare(Connection)
+ */
+@NotThreadSafe
+public class PreparedExecuteQuery<R> extends PreparedHandle<PreparedExecuteQuery<R>, R> {
+
+    private final ResultSetToResult<R> toResult;
+    private final CollectionChunks chunks;
+    private final Function<List<R>, R> mergeChunks;
+    private final CursorOptions cursor;
+
+    PreparedExecuteQuery(NamedParameterStatement statement, PositionalBindings prepared, ResultSetToResult<R> toResult, CollectionChunks chunks, Function<List<R>, R> mergeChunks,
+                         CursorOptions cursor, Connection connection) {
+        super(statement, prepared, connection);
+        Objects.requireNonNull(toResult, "toResult must not be null");
+        Objects.requireNonNull(cursor, "cursor must not be null");
+        this.toResult = toResult;
+        this.chunks = chunks;
+        this.mergeChunks = mergeChunks;
+        this.cursor = cursor;
+    }
+
+    @Override
+    R execute(PositionalBindings bindings) throws SQLException {
+        final List<PositionalBindings> split = chunks.split(bindings);
+        if (split.size() == 1) {
+            return super.execute(bindings);
+        }
+        return mergeChunks.apply(chunks.execute(connection, split, (connection, chunk) -> super.execute(chunk)));
+    }
+
+    @Override
+    PreparedExecuteQuery<R> chainThis() {
+        return this;
+    }
+
+    @Override
+    PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        return connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    @Override
+    R execute(PreparedStatement ps) throws SQLException {
+        final boolean autoCommitTurnedOff = cursor.apply(connection, ps, cursor.needsDialect() ? dialect() : null);
+        try (SmartResultSet rs = new SmartResultSet(ps.executeQuery())) {
+            return toResult.from(rs);
+        } finally {
+            CursorOptions.restore(connection, autoCommitTurnedOff);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Executes an update repeatedly on one open {@link PreparedStatement}, so each execution only binds and executes. Example:
+ * <pre>
+ * {@code
+ * ExecuteUpdate updateGPA = JDBJ.update("UPDATE student set gpa = :gpa WHERE id = :id").bindBigDecimal(":gpa", BigDecimal.ZERO);
+ * try (PreparedExecuteUpdate update = updateGPA.prepare(connection)) {
+ *     for (long id : ids) {
+ *         update.bindLong(":id", id).execute();
+ *     }
+ * }
+ * }
+ * </pre>
+ * Bindings made before {@link ExecuteUpdate#prepare(Connection)} are used for every execution, bindings made on this handle only for the next execution.
+ * <p>
+ * Is mutable, close to close the {@link PreparedStatement}.
+ * @see ExecuteUpdate#prepare(Connection)
+ */
+@NotThreadSafe
+public class PreparedExecuteUpdate extends PreparedHandle<PreparedExecuteUpdate, Integer> {
+
+    PreparedExecuteUpdate(NamedParameterStatement statement, PositionalBindings prepared, Connection connection) {
+        super(statement, prepared, connection);
+    }
+
+    @Override
+    PreparedExecuteUpdate chainThis() {
+        return this;
+    }
+
+    @Override
+    PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        return connection.prepareStatement(sql);
+    }
+
+    @Override
+    Integer execute(PreparedStatement ps) throws SQLException {
+        return ps.executeUpdate();
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.Binding;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Abstract class to encapsulate executing one statement repeatedly on one open {@link PreparedStatement}, for {@link PreparedExecuteUpdate}, {@link PreparedExecuteInsert} and {@link PreparedExecuteQuery}.
+ * <p>
+ * Bindings made before preparing are used for every execution. Bindings made on the handle are used for the next {@link #execute()} only.
+ * The statement is prepared again only when the generated sql changes, which happens only when the size of a collection binding changes.
+ * <p>
+ * Is mutable, and must be closed to close the {@link PreparedStatement}. The connection is not closed.
+ * @param <H> chaining type, so that binding methods can return {@code this} as the subclass.
+ * @param <R> result type of {@link #execute()}
+ */
+@NotThreadSafe
+abstract class PreparedHandle<H, R> implements AutoCloseable, ValueBindingsBuilder<H>, CollectionBindingsBuilder<H> {
+
+    final NamedParameterStatement statement;
+    final Connection connection;
+    private final PositionalBindings prepared;
+    private PositionalBindings bindings;
+
+    private PreparedStatement ps;
+    private String sql;
+    private boolean closed;
+    @Nullable
+    private Dialect dialect;
+    private boolean dialectResolved;
+
+    PreparedHandle(NamedParameterStatement statement, PositionalBindings prepared, Connection connection) {
+        Objects.requireNonNull(statement, "statement must not be null");
+        Objects.requireNonNull(prepared, "prepared must not be null");
+        Objects.requireNonNull(connection, "connection must not be null");
+        this.statement = statement;
+        this.prepared = prepared;
+        this.bindings = prepared;
+        this.connection = connection;
+    }
+
+    @Override
+    public H bind(String name, Binding binding) {
+        if (!statement.containsParameter(name)) {
+            throw new IllegalArgumentException("\"" + name + "\" is not a named parameter");
+        }
+        bindings = bindings.bind(name, binding);
+        return chainThis();
+    }
+
+    @Override
+    public H bindCollection(String name, List<Binding> bindings) {
+        if (!statement.containsParameter(name)) {
+            throw new IllegalArgumentException("\"" + name + "\" is not a named parameter");
+        }
+        this.bindings = this.bindings.bindCollection(name, bindings);
+        return chainThis();
+    }
+
+    public H bind(Supplier<PositionalBindings> supplier) {
+        final PositionalBindings bindings = supplier.get();
+        statement.checkNoExtraBindings(bindings);
+        this.bindings = this.bindings.addAll(bindings);
+        return chainThis();
+    }
+
+    public H bindValues(Supplier<ValueBindings> supplier) {
+        final ValueBindings bindings = supplier.get();
+        statement.checkNoExtraBindings(bindings);
+        this.bindings = this.bindings.addAll(bindings);
+        return chainThis();
+    }
+
+    /**
+     * Executes with the bindings made since the last execution, which are then cleared even if execution fails.
+     * @return result of execution
+     */
+    public R execute() throws SQLException {
+        if (closed) {
+            throw new IllegalStateException("already closed");
+        }
+        final PositionalBindings toExecute = bindings;
+        bindings = prepared;
+        statement.checkAllBindingsPresent(toExecute);
+        return execute(toExecute);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (ps != null) {
+            ps.close();
+        }
+    }
+
+    /**
+     * Default execution of complete bindings.
+     */
+    R execute(PositionalBindings bindings) throws SQLException {
+        return execute(bind(bindings.forDialect(bindings.needsDialect() ? dialect() : null, statement)));
+    }
+
+    /**
+     * @return dialect of the connection, looked up once per handle
+     */
+    @Nullable
+    Dialect dialect() throws SQLException {
+        if (!dialectResolved) {
+            dialect = Dialect.of(connection);
+            dialectResolved = true;
+        }
+        return dialect;
+    }
+
+    /**
+     * @return the open statement, prepared again if the sql for connectionBindings changed, with parameters cleared and connectionBindings bound
+     */
+    PreparedStatement bind(PositionalBindings connectionBindings) throws SQLException {
+        final SlotBindings resolved = statement.resolve(connectionBindings);
+        final String jdbcSql = statement.jdbcSql(resolved);
+        if (ps == null || !jdbcSql.equals(sql)) {
+            if (ps != null) {
+                ps.close();
+                ps = null;
+            }
+            ps = prepare(connection, jdbcSql);
+            sql = jdbcSql;
+        } else {
+            ps.clearParameters();
+        }
+        statement.bind(ps, resolved);
+        return ps;
+    }
+
+    abstract H chainThis();
+
+    abstract PreparedStatement prepare(Connection connection, String sql) throws SQLException;
+
+    abstract R execute(PreparedStatement ps) throws SQLException;
+}
@@ -0,0 +1,155 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.reflect.Array;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Cursor options, chunking and array collection shared by {@link LongMapQuery}, {@link IntMapQuery} and {@link DoubleMapQuery},
+ * which only differ in their mapper, array type and terminal methods.
+ * @param <Q> query type
+ * @param <M> mapper type, such as {@link io.github.randyp.jdbj.lambda.LongResultMapper}
+ * @param <A> array type, such as {@code long[]}
+ */
+@Immutable
+@ThreadSafe
+abstract class PrimitiveMapQuery<Q extends PrimitiveMapQuery<Q, M, A>, M, A> extends PositionalBindingsBuilder<Q> {
+
+    static final int MAX_BLOCK = 1024;
+
+    final M mapper;
+    final CollectionChunks chunks;
+    final CursorOptions cursor;
+
+    PrimitiveMapQuery(NamedParameterStatement statement, PositionalBindings bindings, PositionalBindingsBuilderFactory<Q> factory,
+                      M mapper, CollectionChunks chunks, CursorOptions cursor) {
+        super(statement, bindings, factory);
+        Objects.requireNonNull(mapper, "mapper must not be null");
+        this.mapper = mapper;
+        this.chunks = chunks;
+        this.cursor = cursor;
+    }
+
+    /**
+     * @see MapQuery#fetchSize(int)
+     */
+    public Q fetchSize(int rows) {
+        return with(chunks, cursor.fetchSize(rows));
+    }
+
+    /**
+     * @see MapQuery#maxRows(int)
+     */
+    public Q maxRows(int rows) {
+        return with(chunks, cursor.maxRows(rows));
+    }
+
+    /**
+     * @see MapQuery#queryTimeout(int)
+     */
+    public Q queryTimeout(int seconds) {
+        return with(chunks, cursor.queryTimeout(seconds));
+    }
+
+    /**
+     * @see MapQuery#fetchDirection(int)
+     */
+    public Q fetchDirection(int direction) {
+        return with(chunks, cursor.fetchDirection(direction));
+    }
+
+    /**
+     * @see MapQuery#streaming()
+     */
+    public Q streaming() {
+        return with(chunks, cursor.streaming());
+    }
+
+    /**
+     * @see MapQuery#chunkCollections(int)
+     */
+    public Q chunkCollections(int chunkSize) {
+        return chunkCollections(chunkSize, 1);
+    }
+
+    /**
+     * @see MapQuery#chunkCollections(int, int)
+     */
+    public Q chunkCollections(int chunkSize, int parallelism) {
+        return with(new CollectionChunks(chunkSize, parallelism), cursor);
+    }
+
+    /**
+     * Reads every row into an array with exactly one element per row. Rows are read into blocks of at most {@value #MAX_BLOCK} elements,
+     * which are copied once into the result, instead of regrowing one array.
+     * @param name terminal method, part of the {@link QueryCache} key
+     * @param copy copies a cached array before it is handed out
+     */
+    final ExecuteQuery<A> toArray(String name, UnaryOperator<A> copy) {
+        return new ExecuteQuery<>(statement, bindings, this::read, chunks, this::concat, cursor, new QueryCache.Result<>(copy, name, mapper));
+    }
+
+    abstract Q with(CollectionChunks chunks, CursorOptions cursor);
+
+    abstract A newArray(int length);
+
+    /**
+     * Maps the current row of rs into block[i].
+     */
+    abstract void map(SmartResultSet rs, A block, int i) throws SQLException;
+
+    private A read(SmartResultSet rs) throws SQLException {
+        final List<A> full = new ArrayList<>();
+        int length = 16;
+        A block = newArray(length);
+        int j = 0;
+        while (rs.next()) {
+            if (j == length) {
+                full.add(block);
+                length = Math.min(length << 1, MAX_BLOCK);
+                block = newArray(length);
+                j = 0;
+            }
+            map(rs, block, j++);
+        }
+        if (full.isEmpty() && j == length) {
+            return block;
+        }
+        full.add(block);
+        return concat(full, j);
+    }
+
+    private A concat(List<A> parts) {
+        return concat(parts, parts.isEmpty() ? 0 : Array.getLength(parts.get(parts.size() - 1)));
+    }
+
+    /**
+     * @param lastLength number of elements used in the last part, every other part is used in full
+     */
+    private A concat(List<A> parts, int lastLength) {
+        final int last = parts.size() - 1;
+        int size = lastLength;
+        for (int i = 0; i < last; i++) {
+            size += Array.getLength(parts.get(i));
+        }
+        final A results = newArray(size);
+        int offset = 0;
+        for (int i = 0; i < last; i++) {
+            final A part = parts.get(i);
+            final int length = Array.getLength(part);
+            System.arraycopy(part, 0, results, offset, length);
+            offset += length;
+        }
+        if (last >= 0) {
+            System.arraycopy(parts.get(last), 0, results, offset, lastLength);
+        }
+        return results;
+    }
+}
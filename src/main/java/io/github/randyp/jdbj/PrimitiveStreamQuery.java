@@ -0,0 +1,126 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.ConnectionSupplier;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Cursor options, chunking and executing shared by {@link LongStreamQuery}, {@link IntStreamQuery} and {@link DoubleStreamQuery},
+ * which only differ in their mapper and stream type.
+ * @param <Q> query type
+ * @param <M> mapper type, such as {@link io.github.randyp.jdbj.lambda.LongResultMapper}
+ * @param <S> stream type, such as {@link java.util.stream.LongStream}
+ */
+@Immutable
+@ThreadSafe
+abstract class PrimitiveStreamQuery<Q extends PrimitiveStreamQuery<Q, M, S>, M, S extends BaseStream<?, S>> extends PositionalBindingsBuilder<Q> {
+
+    final M mapper;
+    final CollectionChunks chunks;
+    final boolean parallel;
+    final CursorOptions cursor;
+
+    PrimitiveStreamQuery(NamedParameterStatement statement, PositionalBindings bindings, PositionalBindingsBuilderFactory<Q> factory,
+                         M mapper, CollectionChunks chunks, boolean parallel, CursorOptions cursor) {
+        super(statement, bindings, factory);
+        Objects.requireNonNull(mapper, "mapper must not be null");
+        Objects.requireNonNull(cursor, "cursor must not be null");
+        this.mapper = mapper;
+        this.chunks = chunks;
+        this.parallel = parallel;
+        this.cursor = cursor;
+    }
+
+    /**
+     * @see StreamQuery#fetchSize(int)
+     */
+    public Q fetchSize(int rows) {
+        return with(cursor.fetchSize(rows));
+    }
+
+    /**
+     * @see StreamQuery#maxRows(int)
+     */
+    public Q maxRows(int rows) {
+        return with(cursor.maxRows(rows));
+    }
+
+    /**
+     * @see StreamQuery#queryTimeout(int)
+     */
+    public Q queryTimeout(int seconds) {
+        return with(cursor.queryTimeout(seconds));
+    }
+
+    /**
+     * @see StreamQuery#fetchDirection(int)
+     */
+    public Q fetchDirection(int direction) {
+        return with(cursor.fetchDirection(direction));
+    }
+
+    /**
+     * @see StreamQuery#streaming()
+     */
+    public Q streaming() {
+        return with(cursor.streaming());
+    }
+
+    public S execute(DataSource db) throws SQLException {
+        return execute(db::getConnection);
+    }
+
+    public S execute(ConnectionSupplier db) throws SQLException {
+        checkAllBindingsPresent();
+        final Connection connection = db.getConnection();
+        return execute(connection).onClose( ()->{
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                //ignore
+            }
+        });
+    }
+
+    public S execute(Connection connection) throws SQLException {
+        checkAllBindingsPresent();
+        final List<PositionalBindings> split = chunks.split(bindings);
+        if (split.size() == 1) {
+            return execute(connection, bindings);
+        }
+        return flatten(split.stream().map(chunk -> {
+            try {
+                return execute(connection, chunk);
+            } catch (SQLException e) {
+                throw new AdvanceFailedException(e);
+            }
+        }));
+    }
+
+    abstract Q with(CursorOptions cursor);
+
+    /**
+     * @return stream mapping every row of rs
+     */
+    abstract S stream(ResultSet rs);
+
+    /**
+     * @return concatenation of the chunk streams, each closed once consumed
+     */
+    abstract S flatten(Stream<S> chunkStreams);
+
+    private S execute(Connection connection, PositionalBindings chunk) throws SQLException {
+        return StreamQuery.execute(connection, statement, chunk, cursor, this::stream);
+    }
+}
@@ -0,0 +1,469 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.time.Duration;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caches results of {@link ExecuteQuery}, see {@link ExecuteQuery#cached(QueryCache, Duration, String...)}.
+ * <pre>
+ * {@code
+ * QueryCache cache = new QueryCache(1000);
+ * ExecuteQuery<List<Grade>> grades = JDBJ.query("SELECT * FROM grade WHERE year = :year").map(Grade::from).toList()
+ *         .cached(cache, Duration.ofMinutes(5), "grade");
+ * List<Grade> thisYear = grades.bindLong(":year", 2016L).execute(db); //from the database
+ * List<Grade> again = grades.bindLong(":year", 2016L).execute(db); //from the cache, without getting a connection
+ * cache.invalidate("grade"); //after updating the grade table
+ * }
+ * </pre>
+ * Results are keyed by what the query makes of its rows (such as {@link MapQuery#toList()} with its {@link io.github.randyp.jdbj.lambda.ResultMapper}),
+ * its cursor settings and {@link MapQuery#chunkCollections(int)}, the jdbc sql, and the values bound to each parameter,
+ * recorded by binding to a stand in {@link PreparedStatement}. Mappers are compared with equals, which for lambdas is identity:
+ * lambdas and method references which capture nothing are in practice the same object every time, so a query built again for every request
+ * still finds the results of earlier requests, while a lambda capturing a variable only matches the query it was built into.
+ * Queries binding streams, lobs, arrays or other values without value equality are never cached.
+ * <p>
+ * Holds at most maxEntries results, evicting the least recently used. Concurrent executions of a query not yet cached wait for one execution,
+ * so a result is loaded once. Results are shared, so lists are returned as unmodifiable views and arrays are copied for each execution.
+ */
+@ThreadSafe
+public final class QueryCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> tagged = new HashMap<>();
+    private long hits;
+    private long misses;
+    private long uncacheable;
+    private long loadFailures;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * @param maxEntries maximum number of results held
+     */
+    public QueryCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Removes results of queries cached with tag, ignoring case, such as the name of a table the queries read.
+     * Executions already loading still return their result, but do not cache it.
+     * @return number of results removed
+     */
+    public synchronized int invalidate(String tag) {
+        final Set<Key> keys = tagged.remove(normalize(tag));
+        if (keys == null) {
+            return 0;
+        }
+        for (Key key : new ArrayList<>(keys)) {
+            remove(entries.remove(key));
+        }
+        invalidations += keys.size();
+        return keys.size();
+    }
+
+    /**
+     * Removes every result.
+     */
+    public synchronized void invalidateAll() {
+        invalidations += entries.size();
+        entries.clear();
+        tagged.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, uncacheable, loadFailures, evictions, expirations, invalidations);
+    }
+
+    /**
+     * @return cached result for key, otherwise the result of loader, which is cached for ttl
+     */
+    @Nullable
+    <R> R get(@Nullable Key key, Policy policy, Loader<R> loader) throws SQLException {
+        if (key == null) {
+            synchronized (this) {
+                uncacheable++;
+            }
+            return loader.load();
+        }
+        Entry cached = null;
+        final Entry entry;
+        synchronized (this) {
+            final Entry existing = entries.get(key);
+            if (existing != null && existing.value.isDone() && System.nanoTime() - existing.expiresAt >= 0) {
+                remove(entries.remove(key));
+                expirations++;
+            } else if (existing != null) {
+                hits++;
+                cached = existing;
+            }
+            if (cached == null) {
+                misses++;
+                entry = new Entry(key, policy.tags);
+                entries.put(key, entry);
+                for (String tag : entry.tags) {
+                    tagged.computeIfAbsent(tag, t -> new HashSet<>()).add(key);
+                }
+                final Iterator<Entry> eldest = entries.values().iterator();
+                while (entries.size() > maxEntries) {
+                    remove(eldest.next());
+                    eldest.remove();
+                    evictions++;
+                }
+            } else {
+                entry = null;
+            }
+        }
+        if (cached != null) {
+            return await(cached); //outside the lock, may wait for another execution to load
+        }
+        final R result;
+        try {
+            result = loader.load();
+        } catch (SQLException | RuntimeException | Error e) {
+            synchronized (this) {
+                loadFailures++;
+                if (entries.get(key) == entry) {
+                    remove(entries.remove(key));
+                }
+            }
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+        entry.expiresAt = System.nanoTime() + policy.ttlNanos;
+        entry.value.complete(result);
+        return result;
+    }
+
+    /**
+     * @param name name the query was cached under, null if none
+     * @param result what the query makes of its rows
+     * @param chunks how the query splits collection bindings
+     * @param cursor cursor settings of the query
+     * @return key of executing statement with bindings, null if a bound value can not be a key
+     */
+    @Nullable
+    static Key key(@Nullable String name, Result<?> result, CollectionChunks chunks, CursorOptions cursor,
+                   NamedParameterStatement statement, PositionalBindings bindings) throws SQLException {
+        final List<Object> values = new ArrayList<>();
+        final PreparedStatement recorder = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("set") || args == null || !(args[0] instanceof Integer)) {
+                        throw new Uncacheable();
+                    }
+                    values.add(method.getName());
+                    for (Object arg : args) {
+                        values.add(value(arg));
+                    }
+                    return null;
+                });
+        final SlotBindings resolved = statement.resolve(bindings);
+        try {
+            statement.bind(recorder, resolved);
+        } catch (Uncacheable e) {
+            return null;
+        }
+        return new Key(name, result, chunks, cursor, statement.jdbcSql(resolved), values);
+    }
+
+    @Nullable
+    private static Object value(@Nullable Object arg) {
+        if (arg == null || arg instanceof String || arg instanceof Boolean || arg instanceof Character
+                || arg instanceof Byte || arg instanceof Short || arg instanceof Integer || arg instanceof Long
+                || arg instanceof Float || arg instanceof Double || arg instanceof BigDecimal || arg instanceof BigInteger
+                || arg instanceof UUID || arg instanceof Enum || arg instanceof SQLType) {
+            return arg;
+        } else if (arg instanceof TemporalAccessor && arg.getClass().getName().startsWith("java.time.")) {
+            return arg;
+        } else if (arg instanceof byte[]) {
+            return ByteBuffer.wrap(((byte[]) arg).clone());
+        } else if (arg instanceof java.util.Date) {
+            return ((java.util.Date) arg).clone();
+        }
+        throw new Uncacheable();
+    }
+
+    private static String normalize(String tag) {
+        return tag.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Removes entry, already removed from entries, from its tags.
+     */
+    private void remove(@Nullable Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        for (String tag : entry.tags) {
+            final Set<Key> keys = tagged.get(tag);
+            if (keys != null) {
+                keys.remove(entry.key);
+                if (keys.isEmpty()) {
+                    tagged.remove(tag);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static <R> R await(Entry entry) throws SQLException {
+        try {
+            //noinspection unchecked
+            return (R) entry.value.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted waiting for cached query", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw new SQLException(cause.getMessage(), ((SQLException) cause).getSQLState(), ((SQLException) cause).getErrorCode(), cause);
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    /**
+     * Not intended for external use.
+     * <p>
+     * How an {@link ExecuteQuery} is cached.
+     */
+    @Immutable
+    static final class Policy {
+        final QueryCache cache;
+        @Nullable
+        final String name;
+        final long ttlNanos;
+        final Set<String> tags;
+
+        Policy(QueryCache cache, @Nullable String name, Duration ttl, String... tags) {
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("ttl must be positive");
+            }
+            final Set<String> normalized = new HashSet<>();
+            for (String tag : tags) {
+                normalized.add(normalize(tag));
+            }
+            this.cache = cache;
+            this.name = name;
+            this.ttlNanos = ttl.toNanos();
+            this.tags = Collections.unmodifiableSet(normalized);
+        }
+    }
+
+    interface Loader<R> {
+        @Nullable R load() throws SQLException;
+    }
+
+    /**
+     * Not intended for external use.
+     * <p>
+     * What an {@link ExecuteQuery} makes of its rows: the kind of result, and the mapper and arguments used, compared with equals.
+     * @param <R> result type
+     */
+    @Immutable
+    static final class Result<R> {
+        private final UnaryOperator<R> share;
+        private final List<Object> parts;
+
+        /**
+         * @param share returns the cached result to one execution, such as an unmodifiable view or a copy, since the result is shared by every execution
+         * @param parts the kind of result, and the mapper and arguments used
+         */
+        Result(UnaryOperator<R> share, Object... parts) {
+            this.share = share;
+            this.parts = Arrays.asList(parts);
+        }
+
+        @Nullable
+        R share(@Nullable R cached) {
+            return cached == null ? null : share.apply(cached);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Result && parts.equals(((Result<?>) o).parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return parts.hashCode();
+        }
+    }
+
+    @Immutable
+    static final class Key {
+        @Nullable
+        private final String name;
+        private final Result<?> result;
+        private final CollectionChunks chunks;
+        private final CursorOptions cursor;
+        private final String sql;
+        private final List<Object> values;
+        private final int hash;
+
+        private Key(@Nullable String name, Result<?> result, CollectionChunks chunks, CursorOptions cursor, String sql, List<Object> values) {
+            this.name = name;
+            this.result = result;
+            this.chunks = chunks;
+            this.cursor = cursor;
+            this.sql = sql;
+            this.values = values;
+            this.hash = Arrays.hashCode(new Object[]{name, result, chunks, cursor, sql, values});
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Key key = (Key) o;
+            return hash == key.hash && Objects.equals(name, key.name) && result.equals(key.result) && chunks.equals(key.chunks)
+                    && cursor.equals(key.cursor) && sql.equals(key.sql) && values.equals(key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        final Key key;
+        final Set<String> tags;
+        final CompletableFuture<Object> value = new CompletableFuture<>();
+        volatile long expiresAt;
+
+        Entry(Key key, Set<String> tags) {
+            this.key = key;
+            this.tags = tags;
+        }
+    }
+
+    /**
+     * Thrown binding a value which can not be part of a key.
+     */
+    private static final class Uncacheable extends RuntimeException {
+        Uncacheable() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Counts since the cache was created.
+     */
+    @Immutable
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long uncacheable;
+        private final long loadFailures;
+        private final long evictions;
+        private final long expirations;
+        private final long invalidations;
+
+        Stats(long hits, long misses, long uncacheable, long loadFailures, long evictions, long expirations, long invalidations) {
+            this.hits = hits;
+            this.misses = misses;
+            this.uncacheable = uncacheable;
+            this.loadFailures = loadFailures;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+
+        /**
+         * @return executions answered from the cache, including ones waiting for another execution to load
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return executions which executed the query to load the cache
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return executions not cached because of a bound value, see {@link QueryCache}
+         */
+        public long getUncacheable() {
+            return uncacheable;
+        }
+
+        public long getLoadFailures() {
+            return loadFailures;
+        }
+
+        /**
+         * @return results removed to stay within maxEntries
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * @return results removed because their ttl passed
+         */
+        public long getExpirations() {
+            return expirations;
+        }
+
+        /**
+         * @return results removed by {@link #invalidate(String)} or {@link #invalidateAll()}
+         */
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        /**
+         * @return hits / (hits + misses), {@code 0} before any execution
+         */
+        public double hitRate() {
+            final long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hits=" + hits + ", misses=" + misses + ", uncacheable=" + uncacheable + ", loadFailures=" + loadFailures +
+                    ", evictions=" + evictions + ", expirations=" + expirations + ", invalidations=" + invalidations + '}';
+        }
+    }
+}
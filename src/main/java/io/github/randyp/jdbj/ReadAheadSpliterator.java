@@ -0,0 +1,236 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.ResultMapper;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * {@link Spliterator} for {@link StreamQuery#readAhead()}, a background thread reads and maps rows into batches while the caller consumes earlier batches,
+ * so fetching from the database overlaps with processing rows.
+ * <p>
+ * At most {@code batches} mapped batches wait in a bounded queue, after which the background thread waits for the caller.
+ * Exceptions reading or mapping rows are thrown from {@link #tryAdvance(Consumer)} as {@link AdvanceFailedException} once the batches before them are consumed.
+ * <p>
+ * {@link #close()} must be called before the {@link ResultSet} is closed, it stops reading and waits for the background thread to stop using the {@link ResultSet},
+ * which takes at most the current {@link ResultSet#next()} and one row. The background thread is never interrupted, since some drivers close their connection when interrupted.
+ * <p>
+ * The background thread is a virtual thread when running on a jvm with {@code Thread.startVirtualThread}, otherwise a daemon platform thread.
+ * @param <E> element type
+ */
+@NotThreadSafe
+final class ReadAheadSpliterator<E> implements Spliterator<E>, AutoCloseable {
+
+    static final int DEFAULT_BATCH_SIZE = 256;
+    static final int DEFAULT_BATCHES = 4;
+
+    private static final Object END = new Object();
+    @Nullable
+    private static final Method START_VIRTUAL_THREAD = startVirtualThreadMethod();
+
+    private final SmartResultSet rs;
+    private final ResultMapper<E> mapper;
+    private final int batchSize;
+    private final BlockingQueue<Object> queue;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile boolean closed;
+
+    private Object[] batch = new Object[0];
+    private int index;
+    private boolean ended;
+
+    ReadAheadSpliterator(ResultSet rs, ResultMapper<E> mapper, int batchSize, int batches) {
+        Objects.requireNonNull(rs, "rs must not be null");
+        Objects.requireNonNull(mapper, "mapper must not be null");
+        checkReadAhead(batchSize, batches);
+        this.rs = new SmartResultSet(rs);
+        this.mapper = mapper;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(batches);
+        start(this::readAhead);
+    }
+
+    static void checkReadAhead(int batchSize, int batches) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        if (batches < 1) {
+            throw new IllegalArgumentException("batches must be at least 1");
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+        if (index == batch.length && !nextBatch()) {
+            return false;
+        }
+        @SuppressWarnings("unchecked") final E row = (E) batch[index];
+        batch[index++] = null;
+        action.accept(row);
+        return true;
+    }
+
+    /**
+     * @return spliterator over what is left of the current batch, or over the next batch
+     */
+    @Override
+    public @Nullable Spliterator<E> trySplit() {
+        if (index == batch.length && !nextBatch()) {
+            return null;
+        }
+        final Spliterator<E> split = Spliterators.spliterator(batch, index, batch.length, characteristics());
+        batch = new Object[0];
+        index = 0;
+        return split;
+    }
+
+    @Override
+    public long estimateSize() {
+        return ended && index == batch.length ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.IMMUTABLE | Spliterator.ORDERED;
+    }
+
+    /**
+     * Stops reading ahead, and waits for the background thread to stop using the {@link ResultSet}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                stopped.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean nextBatch() {
+        if (ended) {
+            return false;
+        }
+        if (closed) {
+            throw new IllegalStateException("already closed");
+        }
+        final Object taken;
+        try {
+            taken = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdvanceFailedException(e);
+        }
+        if (taken == END) {
+            ended = true;
+            return false;
+        }
+        if (taken instanceof Failure) {
+            ended = true;
+            final Throwable failure = ((Failure) taken).cause;
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw new AdvanceFailedException(failure);
+        }
+        batch = (Object[]) taken;
+        index = 0;
+        return true;
+    }
+
+    /**
+     * Runs on the background thread.
+     */
+    private void readAhead() {
+        try {
+            while (!closed) {
+                Object[] rows = new Object[batchSize];
+                int size = 0;
+                while (size < batchSize && !closed && rs.next()) {
+                    rows[size++] = mapper.map(rs);
+                }
+                if (size < batchSize) {
+                    if (size > 0) {
+                        put(Arrays.copyOf(rows, size));
+                    }
+                    put(END);
+                    return;
+                }
+                put(rows);
+            }
+        } catch (Throwable t) {
+            put(new Failure(t));
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Waits for room in the queue unless closed, {@link #close()} clears the queue to wake this up.
+     */
+    private void put(Object item) {
+        boolean interrupted = false;
+        while (!closed) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void start(Runnable runnable) {
+        if (START_VIRTUAL_THREAD != null) {
+            try {
+                START_VIRTUAL_THREAD.invoke(null, runnable);
+                return;
+            } catch (ReflectiveOperationException e) {
+                //fall back to a platform thread
+            }
+        }
+        final Thread thread = new Thread(runnable, "jdbj-read-ahead");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Nullable
+    private static Method startVirtualThreadMethod() {
+        try {
+            return Thread.class.getMethod("startVirtualThread", Runnable.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static final class Failure {
+        private final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -1,54 +1,196 @@
 package io.github.randyp.jdbj;
 
+import io.github.randyp.jdbj.lambda.DoubleResultMapper;
+import io.github.randyp.jdbj.lambda.IntResultMapper;
+import io.github.randyp.jdbj.lambda.LongResultMapper;
 import io.github.randyp.jdbj.lambda.ResultMapper;
 
-import javax.annotation.Nullable;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 
 /**
  * Wrapper around {@link ResultSet} and {@link ResultMapper} to create a {@link Spliterator} or {@link E}.
  * <p>
+ * Like {@link Spliterators#spliteratorUnknownSize(java.util.Iterator, int)}, {@link #trySplit()} maps a batch of rows into an array
+ * and hands off a spliterator over that array, with batches growing by {@value #BATCH_UNIT} rows each split.
+ * So in a parallel stream the {@link ResultSet} is only read and mapped by the thread splitting, while downstream operations run across the fork join pool.
+ * <p>
  * Does not close the {@link ResultSet}.
- * @param <E> element type     
+ * <p>
+ * {@link OfLong}, {@link OfInt} and {@link OfDouble} do the same for primitive mappers, sharing the cursor and batch splitting of {@link BatchingSpliterator}.
+ * @param <E> element type
  * @see StreamQuery
+ * @see MapQuery#toParallelStream()
  */
-public class ResultSetSpliterator<E> implements Spliterator<E> {
+public class ResultSetSpliterator<E> extends BatchingSpliterator<Object[], Spliterator<E>> implements Spliterator<E> {
+
+    static final int BATCH_UNIT = 1 << 10;
+    static final int MAX_BATCH = 1 << 25;
 
-    private final SmartResultSet rs;
     private final ResultMapper<E> mapper;
 
     public ResultSetSpliterator(ResultSet rs, ResultMapper<E> mapper) {
-        this.rs = new SmartResultSet(rs);
+        super(rs);
         this.mapper = mapper;
     }
 
     @Override
     public boolean tryAdvance(Consumer<? super E> action) {
+        if (!next()) {
+            return false;
+        }
         try {
-            final boolean advanced = rs.next();
-            if (advanced) {
-                action.accept(mapper.map(rs));
-            }
-            return advanced;
+            action.accept(mapper.map(rs));
         } catch (Exception e) {
             throw new AdvanceFailedException(e);
         }
+        return true;
     }
 
     @Override
-    public @Nullable Spliterator<E> trySplit() {
-        return null;
+    Object[] newBatch(int size) {
+        return new Object[size];
     }
 
     @Override
-    public long estimateSize() {
-        return Long.MAX_VALUE;
+    void map(Object[] rows, int i) throws SQLException {
+        rows[i] = mapper.map(rs);
     }
 
     @Override
-    public int characteristics() {
-        return Spliterator.IMMUTABLE;
+    Spliterator<E> spliterator(Object[] rows, int size) {
+        return Spliterators.spliterator(rows, 0, size, characteristics());
+    }
+
+    /**
+     * Like {@link ResultSetSpliterator}, but for a {@link LongResultMapper}, so values are never boxed. Splits into {@code long[]} batches.
+     * @see LongStreamQuery
+     */
+    public static class OfLong extends BatchingSpliterator<long[], Spliterator.OfLong> implements Spliterator.OfLong {
+
+        private final LongResultMapper mapper;
+
+        public OfLong(ResultSet rs, LongResultMapper mapper) {
+            super(rs);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (!next()) {
+                return false;
+            }
+            try {
+                action.accept(mapper.map(rs));
+            } catch (Exception e) {
+                throw new AdvanceFailedException(e);
+            }
+            return true;
+        }
+
+        @Override
+        long[] newBatch(int size) {
+            return new long[size];
+        }
+
+        @Override
+        void map(long[] rows, int i) throws SQLException {
+            rows[i] = mapper.map(rs);
+        }
+
+        @Override
+        Spliterator.OfLong spliterator(long[] rows, int size) {
+            return Spliterators.spliterator(rows, 0, size, characteristics());
+        }
+    }
+
+    /**
+     * Like {@link ResultSetSpliterator}, but for an {@link IntResultMapper}, so values are never boxed. Splits into {@code int[]} batches.
+     * @see IntStreamQuery
+     */
+    public static class OfInt extends BatchingSpliterator<int[], Spliterator.OfInt> implements Spliterator.OfInt {
+
+        private final IntResultMapper mapper;
+
+        public OfInt(ResultSet rs, IntResultMapper mapper) {
+            super(rs);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (!next()) {
+                return false;
+            }
+            try {
+                action.accept(mapper.map(rs));
+            } catch (Exception e) {
+                throw new AdvanceFailedException(e);
+            }
+            return true;
+        }
+
+        @Override
+        int[] newBatch(int size) {
+            return new int[size];
+        }
+
+        @Override
+        void map(int[] rows, int i) throws SQLException {
+            rows[i] = mapper.map(rs);
+        }
+
+        @Override
+        Spliterator.OfInt spliterator(int[] rows, int size) {
+            return Spliterators.spliterator(rows, 0, size, characteristics());
+        }
+    }
+
+    /**
+     * Like {@link ResultSetSpliterator}, but for a {@link DoubleResultMapper}, so values are never boxed. Splits into {@code double[]} batches.
+     * @see DoubleStreamQuery
+     */
+    public static class OfDouble extends BatchingSpliterator<double[], Spliterator.OfDouble> implements Spliterator.OfDouble {
+
+        private final DoubleResultMapper mapper;
+
+        public OfDouble(ResultSet rs, DoubleResultMapper mapper) {
+            super(rs);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (!next()) {
+                return false;
+            }
+            try {
+                action.accept(mapper.map(rs));
+            } catch (Exception e) {
+                throw new AdvanceFailedException(e);
+            }
+            return true;
+        }
+
+        @Override
+        double[] newBatch(int size) {
+            return new double[size];
+        }
+
+        @Override
+        void map(double[] rows, int i) throws SQLException {
+            rows[i] = mapper.map(rs);
+        }
+
+        @Override
+        Spliterator.OfDouble spliterator(double[] rows, int size) {
+            return Spliterators.spliterator(rows, 0, size, characteristics());
+        }
     }
 }
@@ -1,5 +1,8 @@
 package io.github.randyp.jdbj;
 
+import io.github.randyp.jdbj.lambda.DoubleResultMapper;
+import io.github.randyp.jdbj.lambda.IntResultMapper;
+import io.github.randyp.jdbj.lambda.LongResultMapper;
 import io.github.randyp.jdbj.lambda.ResultSetRunnable;
 import io.github.randyp.jdbj.lambda.ResultMapper;
 
@@ -31,6 +34,55 @@ public final class ReturnsQuery extends PositionalBindingsBuilder<ReturnsQuery>
         return new MapQuery<>(statement, bindings, mapper);
     }
 
+    /**
+     * Maps each row to a new {@link R} by column label, without writing a {@link ResultMapper}.
+     * <p>
+     * Works for types with a public no argument constructor and setters or public fields, types with a public constructor taking every column,
+     * and single column results of types {@link SmartResult} can read. Names match ignoring case and underscores.
+     * Columns are matched once per result set and compiled to a {@link java.lang.invoke.MethodHandle}, so rows are not mapped with reflection.
+     * @param type public class to map rows to
+     * @param <R> return type
+     * @return query mapping rows to type
+     */
+    public <R> MapQuery<R> mapTo(Class<R> type){
+        return map(CompiledResultMapper.of(type));
+    }
+
+    /**
+     * Like {@link #map(ResultMapper)}, but for {@code long} results, which are never boxed.
+     * @see LongMapQuery#toStream()
+     * @see LongMapQuery#toLongArray()
+     */
+    public LongMapQuery mapToLong(LongResultMapper mapper){
+        return new LongMapQuery(statement, bindings, mapper);
+    }
+
+    /**
+     * Like {@link #map(ResultMapper)}, but for {@code int} results, which are never boxed.
+     * @see IntMapQuery#toStream()
+     * @see IntMapQuery#toIntArray()
+     */
+    public IntMapQuery mapToInt(IntResultMapper mapper){
+        return new IntMapQuery(statement, bindings, mapper);
+    }
+
+    /**
+     * Like {@link #map(ResultMapper)}, but for {@code double} results, which are never boxed.
+     * @see DoubleMapQuery#toStream()
+     * @see DoubleMapQuery#toDoubleArray()
+     */
+    public DoubleMapQuery mapToDouble(DoubleResultMapper mapper){
+        return new DoubleMapQuery(statement, bindings, mapper);
+    }
+
+    /**
+     * Reads the whole result into {@link Columns}, one array per column instead of one object per row.
+     * @return query returning the result as columns
+     */
+    public ExecuteQuery<Columns> toColumns(){
+        return new ExecuteQuery<>(statement, bindings, rs -> Columns.read(rs.rs()));
+    }
+
     public ExecuteQueryRunnable run(ResultSetRunnable runnable){
         return new ExecuteQueryRunnable(statement, bindings, runnable);
     }
@@ -0,0 +1,32 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Daemon threads shared by every parallel execution, so executing chunks in parallel reuses threads instead of starting and stopping a pool each time.
+ * Threads idle for a minute are stopped. Callers bound their own concurrency, such as {@link CollectionChunks#parallelism}, and the pool never queues,
+ * starting a thread whenever none is idle.
+ */
+@ThreadSafe
+final class SharedExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    static final ExecutorService POOL = new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+        final Thread thread = new Thread(runnable, "jdbj-worker-" + THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SharedExecutor() {
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Set;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Complete bindings of one {@link NamedParameterStatement}, looked up once and indexed by slot, see {@link NamedParameterStatement#resolve(Bindings)}.
+ * <p>
+ * {@link NamedParameterStatement#jdbcSql(Bindings)} and {@link NamedParameterStatement#bind(java.sql.PreparedStatement, Bindings)}
+ * read the slots directly, so the bindings of an execution are only looked up by name once.
+ */
+@Immutable
+@ThreadSafe
+final class SlotBindings implements Bindings {
+
+    private final NamedParameterStatement statement;
+    private final Bindings bindings;
+    /**
+     * binding of each slot of {@link #statement}
+     */
+    private final PositionalBinding[] slots;
+
+    SlotBindings(NamedParameterStatement statement, Bindings bindings, PositionalBinding[] slots) {
+        this.statement = statement;
+        this.bindings = bindings;
+        this.slots = slots;
+    }
+
+    /**
+     * @return true if {@link #slot(int)} is indexed by the slots of statement
+     */
+    boolean isFor(NamedParameterStatement statement) {
+        return this.statement == statement;
+    }
+
+    PositionalBinding slot(int slot) {
+        return slots[slot];
+    }
+
+    @Override
+    public boolean containsBinding(String name) {
+        return bindings.containsBinding(name);
+    }
+
+    @Override
+    public Set<String> keys() {
+        return bindings.keys();
+    }
+
+    @Override
+    public PositionalBinding get(String namedParameter) {
+        return bindings.get(namedParameter);
+    }
+}
@@ -2,6 +2,7 @@ package io.github.randyp.jdbj;
 
 import java.io.InputStream;
 import java.io.Reader;
+import java.lang.invoke.MethodHandle;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.*;
@@ -20,7 +21,7 @@ public abstract class SmartResult {
     }
 
     public <A> A[] getArray(String columnLabel) throws SQLException {
-        final Array array = rs().getArray(columnLabel);
+        final Array array = rs().getArray(column(columnLabel));
         //noinspection unchecked
         return array == null || rs().wasNull() ? null : (A[]) array.getArray();
     }
@@ -30,7 +31,7 @@ public abstract class SmartResult {
     }
 
     public Array getSQLArray(String columnLabel) throws SQLException {
-        return rs().getArray(columnLabel);
+        return rs().getArray(column(columnLabel));
     }
 
     public InputStream getAsciiStream(int columnIndex) throws SQLException {
@@ -38,7 +39,7 @@ public abstract class SmartResult {
     }
 
     public InputStream getAsciiStream(String columnLabel) throws SQLException {
-        return rs().getAsciiStream(columnLabel);
+        return rs().getAsciiStream(column(columnLabel));
     }
 
     public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
@@ -46,7 +47,7 @@ public abstract class SmartResult {
     }
 
     public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
-        return rs().getBigDecimal(columnLabel);
+        return rs().getBigDecimal(column(columnLabel));
     }
 
     public InputStream getBinaryStream(int columnIndex) throws SQLException {
@@ -54,7 +55,7 @@ public abstract class SmartResult {
     }
 
     public InputStream getBinaryStream(String columnLabel) throws SQLException {
-        return rs().getBinaryStream(columnLabel);
+        return rs().getBinaryStream(column(columnLabel));
     }
 
     public Blob getBlob(int columnIndex) throws SQLException {
@@ -62,7 +63,7 @@ public abstract class SmartResult {
     }
 
     public Blob getBlob(String columnLabel) throws SQLException {
-        return rs().getBlob(columnLabel);
+        return rs().getBlob(column(columnLabel));
     }
 
     public Boolean getBoolean(int columnIndex) throws SQLException {
@@ -71,7 +72,7 @@ public abstract class SmartResult {
     }
 
     public Boolean getBoolean(String columnLabel) throws SQLException {
-        final boolean toReturn = rs().getBoolean(columnLabel);
+        final boolean toReturn = rs().getBoolean(column(columnLabel));
         return rs().wasNull() ? null : toReturn ;
     }
 
@@ -82,7 +83,7 @@ public abstract class SmartResult {
     }
 
     public boolean getBooleanPrimitive(String columnLabel) throws SQLException {
-        final boolean toReturn = rs().getBoolean(columnLabel);
+        final boolean toReturn = rs().getBoolean(column(columnLabel));
         nullCheckForPrimitive(columnLabel);
         return toReturn;
     }
@@ -93,7 +94,7 @@ public abstract class SmartResult {
     }
 
     public Byte getByte(String columnLabel) throws SQLException {
-        final byte toReturn = rs().getByte(columnLabel);
+        final byte toReturn = rs().getByte(column(columnLabel));
         return rs().wasNull() ? null : toReturn;
     }
 
@@ -104,7 +105,7 @@ public abstract class SmartResult {
     }
 
     public byte getBytePrimitive(String columnLabel) throws SQLException {
-        final byte toReturn = rs().getByte(columnLabel);
+        final byte toReturn = rs().getByte(column(columnLabel));
         nullCheckForPrimitive(columnLabel);
         return toReturn;
     }
@@ -114,7 +115,7 @@ public abstract class SmartResult {
     }
 
     public byte[] getBytes(String columnLabel) throws SQLException {
-        return rs().getBytes(columnLabel);
+        return rs().getBytes(column(columnLabel));
     }
 
     public Reader getCharacterStream(int columnIndex) throws SQLException {
@@ -122,7 +123,7 @@ public abstract class SmartResult {
     }
 
     public Reader getCharacterStream(String columnLabel) throws SQLException {
-        return rs().getCharacterStream(columnLabel);
+        return rs().getCharacterStream(column(columnLabel));
     }
 
     public Clob getClob(int columnIndex) throws SQLException {
@@ -130,7 +131,7 @@ public abstract class SmartResult {
     }
 
     public Clob getClob(String columnLabel) throws SQLException {
-        return rs().getClob(columnLabel);
+        return rs().getClob(column(columnLabel));
     }
 
     public Date getDate(int columnIndex) throws SQLException {
@@ -138,7 +139,7 @@ public abstract class SmartResult {
     }
 
     public Date getDate(String columnLabel) throws SQLException {
-        return rs().getDate(columnLabel);
+        return rs().getDate(column(columnLabel));
     }
 
     public Date getDate(int columnIndex, Calendar cal) throws SQLException {
@@ -146,7 +147,7 @@ public abstract class SmartResult {
     }
 
     public Date getDate(String columnLabel, Calendar cal) throws SQLException {
-        return rs().getDate(columnLabel, cal);
+        return rs().getDate(column(columnLabel), cal);
     }
 
     public Double getDouble(int columnIndex) throws SQLException {
@@ -155,7 +156,7 @@ public abstract class SmartResult {
     }
 
     public Double getDouble(String columnLabel) throws SQLException {
-        final double toReturn = rs().getDouble(columnLabel);
+        final double toReturn = rs().getDouble(column(columnLabel));
         return rs().wasNull() ? null : toReturn;
     }
 
@@ -166,13 +167,13 @@ public abstract class SmartResult {
     }
 
     public double getDoublePrimitive(String columnLabel) throws SQLException {
-        final double toReturn = rs().getDouble(columnLabel);
+        final double toReturn = rs().getDouble(column(columnLabel));
         nullCheckForPrimitive(columnLabel);
         return toReturn;
     }
 
     public <T extends Enum<T>> T getEnum(String columnLabel, Class<T> enumType) throws SQLException {
-        String enumName = rs().getString(columnLabel);
+        String enumName = rs().getString(column(columnLabel));
         return Enum.valueOf(enumType, enumName);
     }
 
@@ -187,7 +188,7 @@ public abstract class SmartResult {
     }
 
     public Float getFloat(String columnLabel) throws SQLException {
-        final float toReturn = rs().getFloat(columnLabel);
+        final float toReturn = rs().getFloat(column(columnLabel));
         return rs().wasNull() ? null : toReturn;
     }
 
@@ -198,7 +199,7 @@ public abstract class SmartResult {
     }
 
     public float getFloatPrimitive(String columnLabel) throws SQLException {
-        final float toReturn = rs().getFloat(columnLabel);
+        final float toReturn = rs().getFloat(column(columnLabel));
         nullCheckForPrimitive(columnLabel);
         return toReturn;
     }
@@ -209,7 +210,7 @@ public abstract class SmartResult {
     }
 
     public Integer getInteger(String columnLabel) throws SQLException {
-        final int toReturn = rs().getInt(columnLabel);
+        final int toReturn = rs().getInt(column(columnLabel));
         return rs().wasNull() ? null : toReturn;
     }
 
@@ -228,7 +229,7 @@ public abstract class SmartResult {
     }
 
     public int getInt(String columnLabel) throws SQLException {
-        final int toReturn = rs().getInt(columnLabel);
+        final int toReturn = rs().getInt(column(columnLabel));
         nullCheckForPrimitive(columnLabel);
         return toReturn;
     }
@@ -239,7 +240,7 @@ public abstract class SmartResult {
     }
 
     public Long getLong(String columnLabel) throws SQLException {
-        final long toReturn = rs().getLong(columnLabel);
+        final long toReturn = rs().getLong(column(columnLabel));
         return rs().wasNull() ? null : toReturn;
     }
 
@@ -250,7 +251,7 @@ public abstract class SmartResult {
     }
 
     public long getLongPrimitive(String columnLabel) throws SQLException {
-        final long toReturn = rs().getLong(columnLabel);
+        final long toReturn = rs().getLong(column(columnLabel));
         nullCheckForPrimitive(columnLabel);
         return toReturn;
     }
@@ -260,7 +261,7 @@ public abstract class SmartResult {
     }
 
     public Reader getNCharacterStream(String columnLabel) throws SQLException {
-        return rs().getNCharacterStream(columnLabel);
+        return rs().getNCharacterStream(column(columnLabel));
     }
 
     public NClob getNClob(int columnIndex) throws SQLException {
@@ -268,7 +269,7 @@ public abstract class SmartResult {
     }
 
     public NClob getNClob(String columnLabel) throws SQLException {
-        return rs().getNClob(columnLabel);
+        return rs().getNClob(column(columnLabel));
     }
 
     public String getNString(int columnIndex) throws SQLException {
@@ -276,7 +277,7 @@ public abstract class SmartResult {
     }
 
     public String getNString(String columnLabel) throws SQLException {
-        return rs().getNString(columnLabel);
+        return rs().getNString(column(columnLabel));
     }
 
     public Object getObject(int columnIndex) throws SQLException {
@@ -284,7 +285,7 @@ public abstract class SmartResult {
     }
 
     public Object getObject(String columnLabel) throws SQLException {
-        return rs().getObject(columnLabel);
+        return rs().getObject(column(columnLabel));
     }
 
     public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
@@ -292,7 +293,7 @@ public abstract class SmartResult {
     }
 
     public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
-        return rs().getObject(columnLabel, map);
+        return rs().getObject(column(columnLabel), map);
     }
 
     public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
@@ -300,7 +301,7 @@ public abstract class SmartResult {
     }
 
     public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
-        return rs().getObject(columnLabel, type);
+        return rs().getObject(column(columnLabel), type);
     }
 
     public Short getShort(int columnIndex) throws SQLException {
@@ -309,7 +310,7 @@ public abstract class SmartResult {
     }
 
     public Short getShort(String columnLabel) throws SQLException {
-        final short toReturn = rs().getShort(columnLabel);
+        final short toReturn = rs().getShort(column(columnLabel));
         return rs().wasNull() ? null : toReturn;
     }
 
@@ -320,7 +321,7 @@ public abstract class SmartResult {
     }
 
     public short getShortPrimitive(String columnLabel) throws SQLException {
-        final short toReturn = rs().getShort(columnLabel);
+        final short toReturn = rs().getShort(column(columnLabel));
         nullCheckForPrimitive(columnLabel);
         return toReturn;
     }
@@ -334,11 +335,11 @@ public abstract class SmartResult {
     }
 
     public SQLXML getSQLXML(String columnLabel) throws SQLException {
-        return rs().getSQLXML(columnLabel);
+        return rs().getSQLXML(column(columnLabel));
     }
 
     public String getString(String columnLabel) throws SQLException {
-        return rs().getString(columnLabel);
+        return rs().getString(column(columnLabel));
     }
 
     public Time getTime(int columnIndex) throws SQLException {
@@ -346,7 +347,7 @@ public abstract class SmartResult {
     }
 
     public Time getTime(String columnLabel) throws SQLException {
-        return rs().getTime(columnLabel);
+        return rs().getTime(column(columnLabel));
     }
 
     public Time getTime(int columnIndex, Calendar cal) throws SQLException {
@@ -354,7 +355,7 @@ public abstract class SmartResult {
     }
 
     public Time getTime(String columnLabel, Calendar cal) throws SQLException {
-        return rs().getTime(columnLabel, cal);
+        return rs().getTime(column(columnLabel), cal);
     }
 
     public Timestamp getTimestamp(int columnIndex) throws SQLException {
@@ -362,7 +363,7 @@ public abstract class SmartResult {
     }
 
     public Timestamp getTimestamp(String columnLabel) throws SQLException {
-        return rs().getTimestamp(columnLabel);
+        return rs().getTimestamp(column(columnLabel));
     }
 
     public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
@@ -370,7 +371,7 @@ public abstract class SmartResult {
     }
 
     public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
-        return rs().getTimestamp(columnLabel, cal);
+        return rs().getTimestamp(column(columnLabel), cal);
     }
 
     public URL getURL(int columnIndex) throws SQLException {
@@ -378,7 +379,7 @@ public abstract class SmartResult {
     }
 
     public URL getURL(String columnLabel) throws SQLException {
-        return rs().getURL(columnLabel);
+        return rs().getURL(column(columnLabel));
     }
 
     public SQLWarning getWarnings() throws SQLException {
@@ -391,6 +392,16 @@ public abstract class SmartResult {
     
     abstract ResultSet rs();
 
+    /**
+     * @return index of the column with the label, label getters read by index
+     */
+    abstract int column(String columnLabel) throws SQLException;
+
+    /**
+     * @return handle mapper compiled for the columns of this result
+     */
+    abstract MethodHandle compiled(CompiledResultMapper<?> mapper) throws SQLException;
+
     private void nullCheckForPrimitive(int columnIndex) throws SQLException {
         if (rs().getObject(columnIndex) == null){
             throw new SQLException("tried to get primitive for column " + columnIndex + " but was null");
@@ -1,7 +1,11 @@
 package io.github.randyp.jdbj;
 
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -10,11 +14,17 @@ import java.util.Objects;
  * Must be closed {@link SmartResultSet#close()}.
  * <p>
  * Wraps {@link java.sql.ResultSet} to accomplish this behaviour.
+ * Column labels are resolved with {@link ResultSet#findColumn(String)} once, then read by index.
  * @see SmartResult
  */
 public class SmartResultSet extends SmartResult implements AutoCloseable {
 
     private final ResultSet rs;
+    private final Map<String, Integer> columns = new HashMap<>();
+    @Nullable
+    private CompiledResultMapper<?> compiledFor;
+    @Nullable
+    private MethodHandle compiled;
 
     public SmartResultSet(ResultSet rs) {
         Objects.requireNonNull(rs, "rs must not be null");
@@ -22,7 +32,7 @@ public class SmartResultSet extends SmartResult implements AutoCloseable {
     }
 
     public int findColumn(String columnLabel) throws SQLException {
-        return rs.findColumn(columnLabel);
+        return column(columnLabel);
     }
 
     public boolean next() throws SQLException {
@@ -38,4 +48,25 @@ public class SmartResultSet extends SmartResult implements AutoCloseable {
     ResultSet rs() {
         return rs;
     }
+
+    @Override
+    int column(String columnLabel) throws SQLException {
+        //mappers pass the same constant labels every row, so equals is usually identity and the hash is cached
+        final Integer cached = columns.get(columnLabel);
+        if (cached != null) {
+            return cached;
+        }
+        final int column = rs.findColumn(columnLabel);
+        columns.put(columnLabel, column);
+        return column;
+    }
+
+    @Override
+    MethodHandle compiled(CompiledResultMapper<?> mapper) throws SQLException {
+        if (compiledFor != mapper) {
+            compiled = mapper.compile(rs.getMetaData());
+            compiledFor = mapper;
+        }
+        return compiled;
+    }
 }
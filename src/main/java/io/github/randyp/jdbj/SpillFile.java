@@ -0,0 +1,467 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Rows of raw column values in a temp file, see {@link SpillingList}.
+ * <p>
+ * Each row is a varint length followed by each value as a tag byte and a compact encoding:
+ * zig zag varints for integers, utf-8 for strings, unscaled bytes for decimals and millis for dates.
+ * Rows never straddle a segment boundary, the rest of a segment is zero padding, so the file is read back as memory mapped segments.
+ * The offset of every {@value #INDEX_INTERVAL}th row is kept, so getting a row skips at most that many rows.
+ */
+@ThreadSafe
+final class SpillFile implements Closeable {
+
+    static final int SEGMENT_SHIFT = 30;
+    static final int INDEX_INTERVAL = 64;
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte INT = 2;
+    private static final byte SHORT = 3;
+    private static final byte BYTE = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte TRUE = 7;
+    private static final byte FALSE = 8;
+    private static final byte STRING = 9;
+    private static final byte BIG_DECIMAL = 10;
+    private static final byte BIG_INTEGER = 11;
+    private static final byte BYTES = 12;
+    private static final byte DATE = 13;
+    private static final byte TIME = 14;
+    private static final byte TIMESTAMP = 15;
+    private static final byte UUID_ = 16;
+
+    private final Path path;
+    private final int columns;
+    private final int rows;
+    private final int segmentShift;
+    private final long[] index;
+    private final MappedByteBuffer[] segments;
+    private volatile boolean closed;
+
+    private SpillFile(Path path, int columns, int rows, int segmentShift, long[] index, MappedByteBuffer[] segments) {
+        this.path = path;
+        this.columns = columns;
+        this.rows = rows;
+        this.segmentShift = segmentShift;
+        this.index = index;
+        this.segments = segments;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    /**
+     * @param row first row read
+     * @return cursor reading rows sequentially, not thread safe
+     */
+    Cursor cursor(int row) {
+        if (row < 0 || row > rows) {
+            throw new IndexOutOfBoundsException("row " + row + " not in [0, " + rows + "]");
+        }
+        final Cursor cursor = new Cursor(row / INDEX_INTERVAL * INDEX_INTERVAL);
+        while (cursor.row < row) {
+            cursor.skip();
+        }
+        return cursor;
+    }
+
+    /**
+     * Deletes the file, the mapped segments are released once unreachable.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            //windows refuses to delete mapped files
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    final class Cursor {
+        private int row;
+        private int segmentIndex;
+        private ByteBuffer segment;
+
+        private Cursor(int row) {
+            this.row = row;
+            if (row < rows) {
+                final long offset = index[row / INDEX_INTERVAL];
+                segmentIndex = (int) (offset >>> segmentShift);
+                segment = segments[segmentIndex].duplicate();
+                segment.position((int) (offset & ((1L << segmentShift) - 1)));
+            }
+        }
+
+        boolean hasNext() {
+            return row < rows;
+        }
+
+        int row() {
+            return row;
+        }
+
+        /**
+         * @param values filled with the values of the next row
+         */
+        void next(Object[] values) {
+            checkNext();
+            readVarLong(segment);
+            for (int i = 0; i < columns; i++) {
+                values[i] = readValue(segment);
+            }
+            row++;
+        }
+
+        private void skip() {
+            checkNext();
+            final int length = (int) readVarLong(segment);
+            segment.position(segment.position() + length);
+            row++;
+        }
+
+        private void checkNext() {
+            if (closed) {
+                throw new IllegalStateException("spill file already closed");
+            }
+            if (row >= rows) {
+                throw new IndexOutOfBoundsException("no row " + row);
+            }
+            if (!segment.hasRemaining() || segment.get(segment.position()) == 0) {
+                //rest of the segment is padding
+                segment = segments[++segmentIndex].duplicate();
+            }
+        }
+    }
+
+    /**
+     * Writes rows, {@link #finish()} maps the file for reading, {@link #close()} deletes the file if not finished.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final int columns;
+        private final int segmentShift;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        private byte[] row = new byte[256];
+        private int rowLength;
+        private long position;
+        private long flushed;
+        private int rows;
+        private long[] index = new long[16];
+        private boolean finished;
+
+        Writer(ResultSetMetaData metaData) throws SQLException, IOException {
+            this(metaData.getColumnCount(), SEGMENT_SHIFT);
+        }
+
+        Writer(int columns, int segmentShift) throws IOException {
+            this.path = Files.createTempFile("jdbj-", ".rows");
+            this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.columns = columns;
+            this.segmentShift = segmentShift;
+        }
+
+        Path path() {
+            return path;
+        }
+
+        /**
+         * Writes the values of the current row of rs.
+         */
+        void write(ResultSet rs) throws SQLException, IOException {
+            rowLength = 0;
+            for (int i = 1; i <= columns; i++) {
+                writeValue(rs.getObject(i), i);
+            }
+            final int headerLength = varLongLength(rowLength);
+            final long length = headerLength + rowLength;
+            final long segmentSize = 1L << segmentShift;
+            if (length > segmentSize) {
+                throw new SQLException("row of " + length + " bytes is too large to spill");
+            }
+            if ((position >>> segmentShift) != ((position + length - 1) >>> segmentShift)) {
+                flush();
+                position = (position + segmentSize) & -segmentSize;
+                flushed = position;
+            }
+            if (rows % INDEX_INTERVAL == 0) {
+                if (rows / INDEX_INTERVAL == index.length) {
+                    index = Arrays.copyOf(index, index.length << 1);
+                }
+                index[rows / INDEX_INTERVAL] = position;
+            }
+            if (buffer.remaining() < length) {
+                flush();
+            }
+            if (buffer.remaining() < length) {
+                final ByteBuffer large = ByteBuffer.allocate((int) length);
+                writeVarLong(large, rowLength);
+                large.put(row, 0, rowLength);
+                large.flip();
+                while (large.hasRemaining()) {
+                    flushed += channel.write(large, flushed);
+                }
+            } else {
+                writeVarLong(buffer, rowLength);
+                buffer.put(row, 0, rowLength);
+            }
+            position += length;
+            rows++;
+        }
+
+        SpillFile finish() throws IOException {
+            flush();
+            final long segmentSize = 1L << segmentShift;
+            final MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((position + segmentSize - 1) >>> segmentShift)];
+            for (int i = 0; i < segments.length; i++) {
+                final long start = (long) i << segmentShift;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, position - start));
+            }
+            channel.close();
+            finished = true;
+            return new SpillFile(path, columns, rows, segmentShift, Arrays.copyOf(index, (rows + INDEX_INTERVAL - 1) / INDEX_INTERVAL), segments);
+        }
+
+        /**
+         * Deletes the file unless {@link #finish()} was called.
+         */
+        @Override
+        public void close() throws IOException {
+            if (finished) {
+                return;
+            }
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(path);
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer, flushed);
+            }
+            buffer.clear();
+        }
+
+        private void writeValue(Object value, int columnIndex) throws SQLException {
+            if (value == null) {
+                putByte(NULL);
+            } else if (value instanceof Long) {
+                putByte(LONG);
+                putVarLong(zigZag((Long) value));
+            } else if (value instanceof Integer) {
+                putByte(INT);
+                putVarLong(zigZag((Integer) value));
+            } else if (value instanceof Short) {
+                putByte(SHORT);
+                putVarLong(zigZag((Short) value));
+            } else if (value instanceof Byte) {
+                putByte(BYTE);
+                putByte((Byte) value);
+            } else if (value instanceof Double) {
+                putByte(DOUBLE);
+                putLong(Double.doubleToRawLongBits((Double) value));
+            } else if (value instanceof Float) {
+                putByte(FLOAT);
+                putInt(Float.floatToRawIntBits((Float) value));
+            } else if (value instanceof Boolean) {
+                putByte((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof String) {
+                putByte(STRING);
+                putBytes(((String) value).getBytes(StandardCharsets.UTF_8));
+            } else if (value instanceof BigDecimal) {
+                putByte(BIG_DECIMAL);
+                putVarLong(zigZag(((BigDecimal) value).scale()));
+                putBytes(((BigDecimal) value).unscaledValue().toByteArray());
+            } else if (value instanceof BigInteger) {
+                putByte(BIG_INTEGER);
+                putBytes(((BigInteger) value).toByteArray());
+            } else if (value instanceof byte[]) {
+                putByte(BYTES);
+                putBytes((byte[]) value);
+            } else if (value instanceof Timestamp) {
+                putByte(TIMESTAMP);
+                putVarLong(zigZag(((Timestamp) value).getTime()));
+                putVarLong(((Timestamp) value).getNanos());
+            } else if (value instanceof Date) {
+                putByte(DATE);
+                putVarLong(zigZag(((Date) value).getTime()));
+            } else if (value instanceof Time) {
+                putByte(TIME);
+                putVarLong(zigZag(((Time) value).getTime()));
+            } else if (value instanceof UUID) {
+                putByte(UUID_);
+                putLong(((UUID) value).getMostSignificantBits());
+                putLong(((UUID) value).getLeastSignificantBits());
+            } else {
+                throw new SQLException("cannot spill " + value.getClass().getName() + " of column " + columnIndex);
+            }
+        }
+
+        private void ensure(int length) {
+            if (rowLength + length > row.length) {
+                row = Arrays.copyOf(row, Math.max(row.length << 1, rowLength + length));
+            }
+        }
+
+        private void putByte(byte b) {
+            ensure(1);
+            row[rowLength++] = b;
+        }
+
+        private void putInt(int value) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                row[rowLength++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void putLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                row[rowLength++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                row[rowLength++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            row[rowLength++] = (byte) value;
+        }
+
+        private void putBytes(byte[] bytes) {
+            putVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, row, rowLength, bytes.length);
+            rowLength += bytes.length;
+        }
+    }
+
+    private static Object readValue(ByteBuffer in) {
+        final byte tag = in.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case LONG:
+                return unZigZag(readVarLong(in));
+            case INT:
+                return (int) unZigZag(readVarLong(in));
+            case SHORT:
+                return (short) unZigZag(readVarLong(in));
+            case BYTE:
+                return in.get();
+            case DOUBLE:
+                return Double.longBitsToDouble(in.getLong());
+            case FLOAT:
+                return Float.intBitsToFloat(in.getInt());
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case BIG_DECIMAL:
+                final int scale = (int) unZigZag(readVarLong(in));
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case BYTES:
+                return readBytes(in);
+            case TIMESTAMP:
+                final Timestamp timestamp = new Timestamp(unZigZag(readVarLong(in)));
+                timestamp.setNanos((int) readVarLong(in));
+                return timestamp;
+            case DATE:
+                return new Date(unZigZag(readVarLong(in)));
+            case TIME:
+                return new Time(unZigZag(readVarLong(in)));
+            case UUID_:
+                return new UUID(in.getLong(), in.getLong());
+            default:
+                throw new IllegalStateException("unknown tag " + tag);
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        final byte[] bytes = new byte[(int) readVarLong(in)];
+        in.get(bytes);
+        return bytes;
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static void writeVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int varLongLength(long value) {
+        int length = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
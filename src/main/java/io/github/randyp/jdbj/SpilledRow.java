@@ -0,0 +1,257 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * {@link SmartResult} over values read back from a {@link SpillFile}, so the {@link io.github.randyp.jdbj.lambda.ResultMapper} of a query maps spilled rows too.
+ * <p>
+ * Getters convert the values {@link ResultSet#getObject(int)} returned when the row was spilled, like most drivers would:
+ * numbers to other numbers and strings, strings parsed to numbers and dates, and dates to other date types.
+ * Streams, lobs, arrays and the like are not supported.
+ */
+final class SpilledRow extends SmartResult {
+
+    private static final Map<Class<?>, Class<?>> BOXES = new HashMap<>();
+
+    static {
+        BOXES.put(boolean.class, Boolean.class);
+        BOXES.put(byte.class, Byte.class);
+        BOXES.put(short.class, Short.class);
+        BOXES.put(int.class, Integer.class);
+        BOXES.put(long.class, Long.class);
+        BOXES.put(float.class, Float.class);
+        BOXES.put(double.class, Double.class);
+    }
+
+    private final Header header;
+    private final ResultSet rs;
+    private final Object[] values;
+    private boolean wasNull;
+    @Nullable
+    private CompiledResultMapper<?> compiledFor;
+    @Nullable
+    private MethodHandle compiled;
+
+    SpilledRow(Header header) {
+        this.header = header;
+        this.rs = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, (proxy, method, args) -> invoke(method, args));
+        this.values = new Object[header.labels.length];
+    }
+
+    /**
+     * @return values of the current row, filled by the caller
+     */
+    Object[] values() {
+        return values;
+    }
+
+    @Override
+    ResultSet rs() {
+        return rs;
+    }
+
+    @Override
+    int column(String columnLabel) throws SQLException {
+        final Integer column = header.indexes.get(columnLabel.toLowerCase(Locale.ROOT));
+        if (column == null) {
+            throw new SQLException("no column labeled \"" + columnLabel + "\"");
+        }
+        return column;
+    }
+
+    @Override
+    MethodHandle compiled(CompiledResultMapper<?> mapper) throws SQLException {
+        if (compiledFor != mapper) {
+            compiled = mapper.compile(header.metaData);
+            compiledFor = mapper;
+        }
+        return compiled;
+    }
+
+    private Object invoke(Method method, @Nullable Object[] args) throws Throwable {
+        final String name = method.getName();
+        switch (name) {
+            case "wasNull":
+                return wasNull;
+            case "getMetaData":
+                return header.metaData;
+            case "getWarnings":
+                return null;
+            case "findColumn":
+                return column((String) args[0]);
+            case "isClosed":
+                return false;
+            case "toString":
+                return "SpilledRow";
+            case "hashCode":
+                return System.identityHashCode(this);
+            case "equals":
+                return rs == args[0];
+        }
+        if (name.startsWith("get") && args != null && (args.length == 1 || (args.length == 2 && args[1] instanceof Class))) {
+            final int columnIndex = args[0] instanceof String ? column((String) args[0]) : (Integer) args[0];
+            if (columnIndex < 1 || columnIndex > values.length) {
+                throw new SQLException("columnIndex " + columnIndex + " not in [1, " + values.length + "]");
+            }
+            final Object value = values[columnIndex - 1];
+            wasNull = value == null;
+            return convert(value, args.length == 2 ? (Class<?>) args[1] : method.getReturnType());
+        }
+        throw new SQLFeatureNotSupportedException(name + " is not supported for spilled rows");
+    }
+
+    @Nullable
+    private static Object convert(@Nullable Object value, Class<?> type) throws SQLException {
+        if (value == null) {
+            return type.isPrimitive() ? zero(type) : null;
+        }
+        final Class<?> boxed = type.isPrimitive() ? BOXES.get(type) : type;
+        if (boxed.isInstance(value)) {
+            return value;
+        }
+        try {
+            if (boxed == String.class) {
+                return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+            }
+            if (value instanceof Boolean) {
+                value = (Boolean) value ? 1 : 0;
+            }
+            if (value instanceof String) {
+                final String string = ((String) value).trim();
+                if (boxed == Boolean.class) {
+                    return "true".equalsIgnoreCase(string) || "1".equals(string);
+                } else if (boxed == Date.class || boxed == LocalDate.class) {
+                    value = Date.valueOf(string);
+                } else if (boxed == Time.class || boxed == LocalTime.class) {
+                    value = Time.valueOf(string);
+                } else if (boxed == Timestamp.class || boxed == LocalDateTime.class) {
+                    value = Timestamp.valueOf(string);
+                } else {
+                    value = new BigDecimal(string);
+                }
+                if (boxed.isInstance(value)) {
+                    return value;
+                }
+            }
+            if (value instanceof Number) {
+                final Number number = (Number) value;
+                if (boxed == Long.class) {
+                    return number.longValue();
+                } else if (boxed == Integer.class) {
+                    return number.intValue();
+                } else if (boxed == Short.class) {
+                    return number.shortValue();
+                } else if (boxed == Byte.class) {
+                    return number.byteValue();
+                } else if (boxed == Double.class) {
+                    return number.doubleValue();
+                } else if (boxed == Float.class) {
+                    return number.floatValue();
+                } else if (boxed == Boolean.class) {
+                    return number.doubleValue() != 0;
+                } else if (boxed == BigDecimal.class) {
+                    return number instanceof BigInteger ? new BigDecimal((BigInteger) number)
+                            : number instanceof Double || number instanceof Float ? BigDecimal.valueOf(number.doubleValue())
+                            : BigDecimal.valueOf(number.longValue());
+                } else if (boxed == BigInteger.class) {
+                    return number instanceof BigDecimal ? ((BigDecimal) number).toBigInteger() : BigInteger.valueOf(number.longValue());
+                }
+            }
+            if (value instanceof java.util.Date) {
+                final long millis = ((java.util.Date) value).getTime();
+                if (boxed == Date.class) {
+                    return new Date(millis);
+                } else if (boxed == Time.class) {
+                    return new Time(millis);
+                } else if (boxed == Timestamp.class) {
+                    return new Timestamp(millis);
+                } else if (boxed == LocalDate.class) {
+                    return new Date(millis).toLocalDate();
+                } else if (boxed == LocalTime.class) {
+                    return new Time(millis).toLocalTime();
+                } else if (boxed == LocalDateTime.class) {
+                    return (value instanceof Timestamp ? (Timestamp) value : new Timestamp(millis)).toLocalDateTime();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("cannot convert \"" + value + "\" to " + type.getName(), e);
+        }
+        throw new SQLException("cannot convert " + value.getClass().getName() + " to " + type.getName());
+    }
+
+    private static Object zero(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else {
+            return (byte) 0;
+        }
+    }
+
+    /**
+     * Labels and types of spilled columns, outliving the result set they came from.
+     */
+    static final class Header {
+        private final String[] labels;
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final ResultSetMetaData metaData;
+
+        Header(ResultSetMetaData source) throws SQLException {
+            labels = new String[source.getColumnCount()];
+            final int[] types = new int[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = source.getColumnLabel(i + 1);
+                types[i] = source.getColumnType(i + 1);
+                indexes.putIfAbsent(labels[i].toLowerCase(Locale.ROOT), i + 1);
+            }
+            metaData = (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getColumnCount":
+                        return labels.length;
+                    case "getColumnLabel":
+                    case "getColumnName":
+                        return labels[(Integer) args[0] - 1];
+                    case "getColumnType":
+                        return types[(Integer) args[0] - 1];
+                    case "toString":
+                        return "SpilledRow.Header";
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new SQLFeatureNotSupportedException(method.getName() + " is not supported for spilled rows");
+                }
+            });
+        }
+    }
+}
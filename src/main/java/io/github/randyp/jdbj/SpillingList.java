@@ -0,0 +1,199 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.ResultMapper;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Read only list of query results which keeps a bounded number of rows in memory, see {@link MapQuery#toSpillingList(int, long)}.
+ * Please close it, perhaps using try-with-resources, to delete the temp file of spilled rows:
+ * <pre>
+ * {@code
+ * try(SpillingList<Student> students = JDBJ.query("SELECT * FROM student").map(Student::from).toSpillingList(10000, 64 << 20).execute(db)){
+ *     for(Student student : students){
+ *         ...
+ *     }
+ * }
+ * }
+ * </pre>
+ * The first rows are mapped and held in memory like {@link MapQuery#toList()}. Once a limit is reached the remaining rows are written
+ * to a temp file as raw column values, and mapped by the query's {@link ResultMapper} every time they are read,
+ * so spilled elements are new objects on every {@link #get(int)}. Mappers see spilled columns through a {@link SmartResult}
+ * which converts the values {@link java.sql.ResultSet#getObject(int)} returned, streams, lobs and arrays can not be spilled.
+ * <p>
+ * Iterate rather than {@link #get(int)} spilled rows in order, {@link #get(int)} skips up to {@value SpillFile#INDEX_INTERVAL} rows to find a spilled row.
+ * Reading spilled rows may throw {@link AdvanceFailedException}.
+ * @param <R> return type
+ */
+@ThreadSafe
+public final class SpillingList<R> extends AbstractList<R> implements AutoCloseable {
+
+    private final List<R> memory;
+    @Nullable
+    private final SpillFile spilled;
+    @Nullable
+    private final SpilledRow.Header header;
+    private final ResultMapper<R> mapper;
+
+    private SpillingList(List<R> memory, @Nullable SpillFile spilled, @Nullable SpilledRow.Header header, ResultMapper<R> mapper) {
+        this.memory = memory;
+        this.spilled = spilled;
+        this.header = header;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Reads the remaining rows of rs, does not close it.
+     */
+    static <R> SpillingList<R> read(SmartResultSet rs, ResultMapper<R> mapper, int maxRows, long maxBytes) throws SQLException {
+        final List<R> memory = new ArrayList<>();
+        long bytes = 0;
+        while (memory.size() < maxRows && bytes < maxBytes) {
+            if (!rs.next()) {
+                return new SpillingList<>(memory, null, null, mapper);
+            }
+            if (maxBytes != Long.MAX_VALUE) {
+                bytes += estimate(rs);
+            }
+            memory.add(mapper.map(rs));
+        }
+        if (!rs.next()) {
+            return new SpillingList<>(memory, null, null, mapper);
+        }
+        final SpilledRow.Header header = new SpilledRow.Header(rs.getMetaData());
+        try (SpillFile.Writer writer = new SpillFile.Writer(rs.getMetaData())) {
+            do {
+                writer.write(rs.rs());
+            } while (rs.next());
+            return new SpillingList<>(memory, writer.finish(), header, mapper);
+        } catch (IOException e) {
+            throw new SQLException("failed to spill rows", e);
+        }
+    }
+
+    /**
+     * @return whether some rows were written to a temp file
+     */
+    public boolean isSpilled() {
+        return spilled != null;
+    }
+
+    @Nullable
+    Path spillPath() {
+        return spilled == null ? null : spilled.path();
+    }
+
+    @Override
+    public int size() {
+        return memory.size() + (spilled == null ? 0 : spilled.rows());
+    }
+
+    @Override
+    public R get(int index) {
+        if (index < memory.size()) {
+            return memory.get(index);
+        }
+        if (spilled == null) {
+            throw new IndexOutOfBoundsException("index " + index + " not in [0, " + size() + ")");
+        }
+        return new SpilledIterator(spilled.cursor(index - memory.size())).next();
+    }
+
+    @Override
+    public Iterator<R> iterator() {
+        if (spilled == null) {
+            return memory.iterator();
+        }
+        final Iterator<R> inMemory = memory.iterator();
+        final SpilledIterator onDisk = new SpilledIterator(spilled.cursor(0));
+        return new Iterator<R>() {
+            @Override
+            public boolean hasNext() {
+                return inMemory.hasNext() || onDisk.hasNext();
+            }
+
+            @Override
+            public R next() {
+                return inMemory.hasNext() ? inMemory.next() : onDisk.next();
+            }
+        };
+    }
+
+    /**
+     * Deletes the temp file of spilled rows, spilled rows can not be read afterwards.
+     */
+    @Override
+    public void close() {
+        if (spilled != null) {
+            try {
+                spilled.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Rough heap size of a row's column values.
+     */
+    private static long estimate(SmartResultSet rs) throws SQLException {
+        long bytes = 16;
+        final int columns = rs.getMetaData().getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+            final Object value = rs.getObject(i);
+            if (value instanceof String) {
+                bytes += 40 + 2L * ((String) value).length();
+            } else if (value instanceof byte[]) {
+                bytes += 16 + ((byte[]) value).length;
+            } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+                bytes += 64;
+            } else if (value != null) {
+                bytes += 24;
+            } else {
+                bytes += 4;
+            }
+        }
+        return bytes;
+    }
+
+    private final class SpilledIterator implements Iterator<R> {
+        private final SpillFile.Cursor cursor;
+        private final SpilledRow row;
+
+        SpilledIterator(SpillFile.Cursor cursor) {
+            this.cursor = cursor;
+            this.row = new SpilledRow(Objects.requireNonNull(header));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor.hasNext();
+        }
+
+        @Override
+        public R next() {
+            if (!cursor.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            cursor.next(row.values());
+            try {
+                return mapper.map(row);
+            } catch (Exception e) {
+                throw new AdvanceFailedException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.randyp.jdbj;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Single pass scanner over jdbj sql, finds named parameters for {@link NamedParameterStatement}, statement boundaries for {@link ExecuteScript},
+ * the row of single row inserts for {@link MultiRowValues} and named parameters which are the list of an {@code IN} for {@link ArrayBinding}.
+ * <p>
+ * Recognizes the same tokens as the original NamedParameterStatementLexer.g4 and StatementsLexer.g4 grammars:
+ * <ul>
+ *     <li>named parameters: {@code ':'} followed by one or more of {@code [a-zA-Z0-9_.#]}</li>
+ *     <li>quoted text: {@code '...'} where a quote may be escaped inside the text as {@code \'}</li>
+ *     <li>double quoted text: {@code "..."}</li>
+ *     <li>escaped text: {@code '\'} followed by any character</li>
+ *     <li>statement end: {@code ';'}</li>
+ * </ul>
+ * Named parameters and statement ends inside of quoted, double quoted or escaped text are ignored.
+ * <p>
+ * Unlike the grammars, text the grammars could not recognize (such as {@code '?'}, non-ascii characters or an unterminated quote) is kept as is instead of being dropped.
+ */
+final class SqlScanner {
+
+    /**
+     * Splits sql around its named parameters. When done {@code fragments.size() == parameters.size() + 1},
+     * and the sql is {@code fragments[0] + parameters[0] + fragments[1] + ... + fragments[n]}.
+     * @param sql jdbj sql
+     * @param fragments receives text between named parameters
+     * @param parameters receives named parameters, in order of occurrence and including the leading {@code ':'}
+     */
+    static void namedParameters(String sql, List<String> fragments, List<String> parameters) {
+        final int length = sql.length();
+        int fragmentStart = 0;
+        int i = 0;
+        while (i < length) {
+            final char c = sql.charAt(i);
+            if (c == ':') {
+                int end = i + 1;
+                while (end < length && isNamedParameterPart(sql.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 1) {
+                    fragments.add(sql.substring(fragmentStart, i));
+                    parameters.add(sql.substring(i, end));
+                    fragmentStart = end;
+                }
+                i = end;
+            } else {
+                i = skip(sql, i);
+            }
+        }
+        fragments.add(sql.substring(fragmentStart, length));
+    }
+
+    /**
+     * Splits script into statements at each {@code ';'}.
+     * @param script jdbj sql script
+     * @return statements, the {@code ';'} is not included. Always has one more element than the number of {@code ';'} found.
+     */
+    static List<String> statements(String script) {
+        final List<String> statements = new ArrayList<>();
+        final int length = script.length();
+        int statementStart = 0;
+        int i = 0;
+        while (i < length) {
+            if (script.charAt(i) == ';') {
+                statements.add(script.substring(statementStart, i));
+                statementStart = ++i;
+            } else {
+                i = skip(script, i);
+            }
+        }
+        statements.add(script.substring(statementStart, length));
+        return statements;
+    }
+
+    /**
+     * Finds the row of a single row {@code INSERT ... VALUES (...)} statement.
+     * @param sql jdbj sql
+     * @return start (the {@code '('}) and end (after the {@code ')'}) of the row following the first top level {@code VALUES},
+     * or null if sql is not an insert or does not have exactly one row
+     */
+    @Nullable
+    static int[] valuesRow(String sql) {
+        final int length = sql.length();
+        int i = 0;
+        while (i < length && (Character.isWhitespace(sql.charAt(i)) || commentEnd(sql, i) > i)) {
+            i = Math.max(i + 1, commentEnd(sql, i));
+        }
+        if (!isKeyword(sql, i, "INSERT")) {
+            return null;
+        }
+        int depth = 0;
+        while (i < length) {
+            final char c = sql.charAt(i);
+            if (commentEnd(sql, i) > i) {
+                i = commentEnd(sql, i);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && isKeyword(sql, i, "VALUES")) {
+                int start = i + "VALUES".length();
+                while (start < length && Character.isWhitespace(sql.charAt(start))) {
+                    start++;
+                }
+                if (start == length || sql.charAt(start) != '(') {
+                    return null;
+                }
+                final int end = closingParenthesisEnd(sql, start);
+                if (end < 0) {
+                    return null;
+                }
+                int next = end;
+                while (next < length && Character.isWhitespace(sql.charAt(next))) {
+                    next++;
+                }
+                return next < length && sql.charAt(next) == ',' ? null : new int[]{start, end};
+            }
+            i = skip(sql, i);
+        }
+        return null;
+    }
+
+    /**
+     * @param fragment text before a named parameter, see {@link #namedParameters(String, List, List)}
+     * @return whether fragment ends with the keyword {@code IN}, ignoring case and trailing whitespace, so the named parameter is the list of an {@code IN}
+     */
+    static boolean endsWithIn(String fragment) {
+        int end = fragment.length();
+        while (end > 0 && Character.isWhitespace(fragment.charAt(end - 1))) {
+            end--;
+        }
+        final int start = end - "IN".length();
+        return start >= 0 && isKeyword(fragment.substring(0, end), start, "IN");
+    }
+
+    private static boolean isKeyword(String sql, int i, String keyword) {
+        final int end = i + keyword.length();
+        return sql.regionMatches(true, i, keyword, 0, keyword.length())
+                && (i == 0 || !isNamedParameterPart(sql.charAt(i - 1)) && sql.charAt(i - 1) != ':')
+                && (end == sql.length() || !isNamedParameterPart(sql.charAt(end)));
+    }
+
+    /**
+     * @return index after the {@code "--"} or {@code "/*"} comment starting at {@code i}, otherwise {@code i}
+     */
+    private static int commentEnd(String sql, int i) {
+        if (sql.startsWith("--", i)) {
+            final int newLine = sql.indexOf('\n', i);
+            return newLine < 0 ? sql.length() : newLine + 1;
+        }
+        if (sql.startsWith("/*", i)) {
+            final int close = sql.indexOf("*/", i + 2);
+            return close < 0 ? sql.length() : close + 2;
+        }
+        return i;
+    }
+
+    /**
+     * @return index after the {@code ')'} matching the {@code '('} at start, -1 if there is none
+     */
+    private static int closingParenthesisEnd(String sql, int start) {
+        final int length = sql.length();
+        int depth = 0;
+        int i = start;
+        while (i < length) {
+            final char c = sql.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i = skip(sql, i);
+        }
+        return -1;
+    }
+
+    /**
+     * @return index after the quoted, double quoted or escaped text starting at {@code i}, otherwise {@code i + 1}
+     */
+    private static int skip(String sql, int i) {
+        switch (sql.charAt(i)) {
+            case '\'':
+                return quotedTextEnd(sql, i);
+            case '"':
+                return doubleQuotedTextEnd(sql, i);
+            case '\\':
+                return Math.min(i + 2, sql.length());
+            default:
+                return i + 1;
+        }
+    }
+
+    /**
+     * Matches the longest {@code '\'' ( '\\\'' | ~'\'' )* '\''}, so every quote inside the text must be preceded by a backslash.
+     */
+    private static int quotedTextEnd(String sql, int start) {
+        final int length = sql.length();
+        int end = length;
+        for (int i = start + 1; i < length; i++) {
+            if (sql.charAt(i) == '\'') {
+                end = i + 1;
+                if (i == start + 1 || sql.charAt(i - 1) != '\\') {
+                    break;
+                }
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Matches {@code '"' ( ~'"' )+ '"'}.
+     */
+    private static int doubleQuotedTextEnd(String sql, int start) {
+        final int close = sql.indexOf('"', start + 1);
+        return close < 0 ? sql.length() : close + 1;
+    }
+
+    private static boolean isNamedParameterPart(char c) {
+        return ('a' <= c && c <= 'z')
+                || ('A' <= c && c <= 'Z')
+                || ('0' <= c && c <= '9')
+                || c == '_'
+                || c == '.'
+                || c == '#';
+    }
+
+    private SqlScanner() {
+    }
+}
@@ -0,0 +1,584 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.ConnectionSupplier;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Decorates a source of connections so that each connection keeps a bounded, least recently used cache of open {@link PreparedStatement}s.
+ * Closing a statement returns it to the cache of its connection, and preparing the same sql again on that connection reuses it:
+ * <pre>
+ * {@code
+ * StatementCachingDataSource cached = new StatementCachingDataSource(dataSource, 64);
+ * try (Connection connection = cached.getConnection()) {
+ *     for (long id : ids) {
+ *         //prepareStatement is only called on the driver's connection for the first id
+ *         Student student = query.bind("id", id).execute(connection);
+ *     }
+ * }
+ * }
+ * </pre>
+ * Statements are keyed by sql, result set type, concurrency, holdability and generated keys flag, so
+ * {@link Connection#prepareStatement(String, int[])} and {@link Connection#prepareStatement(String, String[])} are not cached.
+ * A statement is reset with {@link PreparedStatement#clearParameters()}, and {@link PreparedStatement#clearBatch()} if rows were added to a batch
+ * which was not executed, before it is cached again, and statement level settings
+ * such as {@link Statement#setMaxRows(int)} are set back to their values when prepared. Statements are closed instead of cached
+ * after settings which can not be read back, such as {@link Statement#setCursorName(String)}.
+ * <p>
+ * Cached statements are closed when their connection is closed, so wrap the source of physical connections and put any pool on top of it,
+ * otherwise the cache only lives as long as each borrowed connection.
+ * <p>
+ * Hit, miss and eviction counts are the totals for every connection.
+ * <p>
+ * Only implements {@link DataSource}, since also implementing {@link ConnectionSupplier} would make every {@code execute(db)} call ambiguous.
+ * @see ConnectionPool
+ */
+@ThreadSafe
+public final class StatementCachingDataSource implements DataSource {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 64;
+
+    /**
+     * Statement level settings which can not be read back, so make a statement unsafe to reuse once changed.
+     */
+    private static final Set<String> SETTINGS = new HashSet<>(Arrays.asList(
+            "setCursorName",
+            "setEscapeProcessing",
+            "closeOnCompletion"
+    ));
+
+    /**
+     * Statement level settings which are set back to their original value before a statement is cached again, by name of the getter.
+     */
+    private static final Map<String, String> RESTORED_SETTINGS = new HashMap<>();
+
+    static {
+        RESTORED_SETTINGS.put("setFetchDirection", "getFetchDirection");
+        RESTORED_SETTINGS.put("setFetchSize", "getFetchSize");
+        RESTORED_SETTINGS.put("setLargeMaxRows", "getLargeMaxRows");
+        RESTORED_SETTINGS.put("setMaxFieldSize", "getMaxFieldSize");
+        RESTORED_SETTINGS.put("setMaxRows", "getMaxRows");
+        RESTORED_SETTINGS.put("setPoolable", "isPoolable");
+        RESTORED_SETTINGS.put("setQueryTimeout", "getQueryTimeout");
+    }
+
+    private final ConnectionSupplier db;
+    @Nullable
+    private final DataSource dataSource;
+    private final int maximumSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public StatementCachingDataSource(DataSource dataSource) {
+        this(dataSource, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param dataSource source of physical connections
+     * @param maximumSize maximum number of idle statements to keep per connection, {@code 0} turns off caching
+     */
+    public StatementCachingDataSource(DataSource dataSource, int maximumSize) {
+        this(dataSource::getConnection, dataSource, maximumSize);
+    }
+
+    /**
+     * {@link DataSource} methods other than {@link #getConnection()} throw {@link SQLFeatureNotSupportedException}.
+     * @param db source of physical connections
+     * @param maximumSize maximum number of idle statements to keep per connection, {@code 0} turns off caching
+     */
+    public StatementCachingDataSource(ConnectionSupplier db, int maximumSize) {
+        this(db, null, maximumSize);
+    }
+
+    private StatementCachingDataSource(ConnectionSupplier db, @Nullable DataSource dataSource, int maximumSize) {
+        Objects.requireNonNull(db, "db must not be null");
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative");
+        }
+        this.db = db;
+        this.dataSource = dataSource;
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return cache(db.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return cache(dataSource().getConnection(username, password));
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return number of prepares answered from a cache
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of prepares passed on to the driver, including prepares which can not be cached
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of idle statements closed to stay within {@link #getMaximumSize()}
+     */
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return dataSource().getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        dataSource().setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        dataSource().setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return dataSource().getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        if (dataSource == null) {
+            throw new SQLFeatureNotSupportedException("not decorating a DataSource");
+        }
+        return dataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return dataSource().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || dataSource != null && dataSource.isWrapperFor(iface);
+    }
+
+    private DataSource dataSource() throws SQLFeatureNotSupportedException {
+        if (dataSource == null) {
+            throw new SQLFeatureNotSupportedException("not decorating a DataSource");
+        }
+        return dataSource;
+    }
+
+    private Connection cache(Connection connection) {
+        Objects.requireNonNull(connection, "connection must not be null");
+        final CachingConnection handler = new CachingConnection(connection);
+        return handler.proxy;
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Key of a cached statement, {@code null} for prepares which are not cached.
+     */
+    @Nullable
+    private static Key key(Method method, Object[] args) {
+        final Class<?>[] types = method.getParameterTypes();
+        for (int i = 1; i < types.length; i++) {
+            if (types[i] != int.class) {
+                return null;
+            }
+        }
+        final String sql = (String) args[0];
+        switch (types.length) {
+            case 1:
+                return new Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, -1, Statement.NO_GENERATED_KEYS);
+            case 2:
+                return new Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, -1, (int) args[1]);
+            case 3:
+                return new Key(sql, (int) args[1], (int) args[2], -1, Statement.NO_GENERATED_KEYS);
+            case 4:
+                return new Key(sql, (int) args[1], (int) args[2], (int) args[3], Statement.NO_GENERATED_KEYS);
+            default:
+                return null;
+        }
+    }
+
+    private static final class Key {
+        private final String sql;
+        private final int resultSetType;
+        private final int resultSetConcurrency;
+        private final int resultSetHoldability;
+        private final int autoGeneratedKeys;
+
+        Key(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.resultSetType = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+            this.resultSetHoldability = resultSetHoldability;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Key key = (Key) o;
+            return resultSetType == key.resultSetType
+                    && resultSetConcurrency == key.resultSetConcurrency
+                    && resultSetHoldability == key.resultSetHoldability
+                    && autoGeneratedKeys == key.autoGeneratedKeys
+                    && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = sql.hashCode();
+            result = 31 * result + resultSetType;
+            result = 31 * result + resultSetConcurrency;
+            result = 31 * result + resultSetHoldability;
+            result = 31 * result + autoGeneratedKeys;
+            return result;
+        }
+    }
+
+    /**
+     * Connection handed out to callers, owns the idle statements of one physical connection.
+     */
+    private final class CachingConnection implements InvocationHandler {
+
+        private final Connection connection;
+        private final Connection proxy;
+
+        @GuardedBy("this")
+        private final LinkedHashMap<Key, PreparedStatement> idle = new LinkedHashMap<>(16, 0.75f, true);
+        @GuardedBy("this")
+        private boolean closed;
+
+        CachingConnection(Connection connection) {
+            this.connection = connection;
+            this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    final Key key = key(method, args);
+                    if (key == null) {
+                        misses.incrementAndGet();
+                        return delegate(connection, method, args);
+                    }
+                    return checkOut(key, method, args);
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "StatementCachingDataSource connection to " + connection;
+                default:
+                    return delegate(connection, method, args);
+            }
+        }
+
+        private PreparedStatement checkOut(Key key, Method method, Object[] args) throws Throwable {
+            PreparedStatement ps;
+            synchronized (this) {
+                if (closed) {
+                    throw new SQLException("connection is closed");
+                }
+                ps = idle.remove(key);
+            }
+            if (ps != null) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                ps = (PreparedStatement) delegate(connection, method, args);
+            }
+            return new CachedStatement(this, key, ps).proxy;
+        }
+
+        /**
+         * Resets and caches ps, or closes it if the connection is closed, ps can not be reset or an equivalent statement is already idle.
+         */
+        void checkIn(Key key, PreparedStatement ps, boolean reusable, List<ResultSet> resultSets) throws SQLException {
+            SQLException failed = null;
+            for (ResultSet rs : resultSets) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    failed = suppress(failed, e);
+                }
+            }
+            boolean cache = reusable && failed == null && maximumSize > 0 && !ps.isClosed();
+            if (cache) {
+                try {
+                    ps.clearParameters();
+                    ps.clearWarnings();
+                } catch (SQLException e) {
+                    failed = e;
+                    cache = false;
+                }
+            }
+
+            final List<PreparedStatement> toClose = new ArrayList<>(1);
+            synchronized (this) {
+                if (cache && !closed && !idle.containsKey(key)) {
+                    idle.put(key, ps);
+                    final Iterator<PreparedStatement> eldest = idle.values().iterator();
+                    while (idle.size() > maximumSize) {
+                        toClose.add(eldest.next());
+                        eldest.remove();
+                        evictions.incrementAndGet();
+                    }
+                } else {
+                    toClose.add(ps);
+                }
+            }
+            for (PreparedStatement statement : toClose) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    failed = suppress(failed, e);
+                }
+            }
+            if (failed != null) {
+                throw failed;
+            }
+        }
+
+        private void close() throws SQLException {
+            final List<PreparedStatement> toClose;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                toClose = new ArrayList<>(idle.values());
+                idle.clear();
+            }
+            SQLException failed = null;
+            for (PreparedStatement ps : toClose) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                    failed = suppress(failed, e);
+                }
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                failed = suppress(failed, e);
+            }
+            if (failed != null) {
+                throw failed;
+            }
+        }
+
+        private boolean isClosed() throws SQLException {
+            synchronized (this) {
+                if (closed) {
+                    return true;
+                }
+            }
+            return connection.isClosed();
+        }
+    }
+
+    /**
+     * Statement handed out to callers, closing it returns the physical statement to its connection.
+     */
+    private static final class CachedStatement implements InvocationHandler {
+
+        private final CachingConnection connection;
+        private final Key key;
+        private final PreparedStatement ps;
+        private final PreparedStatement proxy;
+
+        /**
+         * Executing a statement closes its previous results, so only the latest of each needs closing when checked in.
+         */
+        @Nullable
+        private ResultSet results;
+        @Nullable
+        private ResultSet generatedKeys;
+        /**
+         * original values of changed settings, by setter
+         */
+        @Nullable
+        private Map<Method, Object> originals;
+        /**
+         * whether rows were added since the batch was last executed or cleared
+         */
+        private boolean batchPending;
+        private boolean reusable = true;
+        private volatile boolean closed;
+
+        CachedStatement(CachingConnection connection, Key key, PreparedStatement ps) {
+            this.connection = connection;
+            this.key = key;
+            this.ps = ps;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        final List<ResultSet> resultSets = new ArrayList<>(2);
+                        if (results != null) {
+                            resultSets.add(results);
+                        }
+                        if (generatedKeys != null) {
+                            resultSets.add(generatedKeys);
+                        }
+                        restoreSettings();
+                        clearPendingBatch();
+                        connection.checkIn(key, ps, reusable, resultSets);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || ps.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "cached " + ps;
+                default:
+                    if (closed) {
+                        throw new SQLException("statement is closed");
+                    }
+                    if (name.equals("getConnection")) {
+                        return connection.proxy;
+                    }
+                    if (SETTINGS.contains(name)) {
+                        reusable = false;
+                    } else if (RESTORED_SETTINGS.containsKey(name)) {
+                        rememberSetting(method);
+                    } else if (name.equals("addBatch")) {
+                        batchPending = true;
+                    }
+                    final Object result = delegate(ps, method, args);
+                    if (name.equals("executeBatch") || name.equals("executeLargeBatch") || name.equals("clearBatch")) {
+                        batchPending = false;
+                    }
+                    if (name.equals("getGeneratedKeys")) {
+                        generatedKeys = (ResultSet) result;
+                    } else if (result instanceof ResultSet) {
+                        results = (ResultSet) result;
+                    }
+                    return result;
+            }
+        }
+
+        private void rememberSetting(Method setter) {
+            if (!reusable || originals != null && originals.containsKey(setter)) {
+                return;
+            }
+            try {
+                final Method getter = PreparedStatement.class.getMethod(RESTORED_SETTINGS.get(setter.getName()));
+                if (originals == null) {
+                    originals = new LinkedHashMap<>();
+                }
+                originals.put(setter, delegate(ps, getter, null));
+            } catch (Throwable t) {
+                reusable = false;
+            }
+        }
+
+        private void restoreSettings() {
+            if (!reusable || originals == null) {
+                return;
+            }
+            //undo in reverse, drivers check some settings against others (fetch size against max rows)
+            final List<Map.Entry<Method, Object>> changed = new ArrayList<>(originals.entrySet());
+            for (int i = changed.size() - 1; i >= 0; i--) {
+                final Map.Entry<Method, Object> original = changed.get(i);
+                try {
+                    delegate(ps, original.getKey(), new Object[]{original.getValue()});
+                } catch (Throwable t) {
+                    reusable = false;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Clears rows added to a batch which failed or was never executed, so they are not executed by the next user of the statement.
+         */
+        private void clearPendingBatch() {
+            if (!reusable || !batchPending) {
+                return;
+            }
+            try {
+                ps.clearBatch();
+            } catch (SQLException | RuntimeException e) {
+                reusable = false;
+            }
+        }
+    }
+
+    private static SQLException suppress(@Nullable SQLException failed, SQLException e) {
+        if (failed == null) {
+            return e;
+        }
+        failed.addSuppressed(e);
+        return failed;
+    }
+}
@@ -10,9 +10,10 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Objects;
-import java.util.Spliterator;
 import java.util.function.Function;
+import java.util.stream.BaseStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -34,6 +35,8 @@ import java.util.stream.StreamSupport;
  * Streams created with {@link StreamQuery#execute(Connection)} and similar methods will throw {@link AdvanceFailedException} if there is any unexpected exception while consuming from stream, so be sure to 
  * <p>     
  * Encapsulates executing {@link PreparedStatement#executeQuery()}, providing a stream of the results, and calling {@link ResultSet#close()} {@link PreparedStatement#close()} when caller calls {@link Stream#close()}.
+ * <p>
+ * Use {@link #readAhead()} to overlap fetching rows with consuming them.
  * @param <R> return type
  * @see MapQuery
  * @see ResultMapper
@@ -43,11 +46,103 @@ import java.util.stream.StreamSupport;
 public final class StreamQuery<R> extends PositionalBindingsBuilder<StreamQuery<R>> {
 
     private final ResultMapper<R> mapper;
+    private final CollectionChunks chunks;
+    private final boolean parallel;
+    private final CursorOptions cursor;
+    private final int readAheadBatchSize;
+    private final int readAheadBatches;
 
     StreamQuery(NamedParameterStatement statement, PositionalBindings bindings, ResultMapper<R> mapper) {
-        super(statement, bindings, ((s, b) -> new StreamQuery<>(s, b, mapper)));
+        this(statement, bindings, mapper, CollectionChunks.NONE, false, CursorOptions.DEFAULT);
+    }
+
+    /**
+     * @param chunks how to split oversized collection bindings, chunks are always streamed sequentially
+     * @param parallel whether streams of an unchunked query are parallel, see {@link ResultSetSpliterator#trySplit()}
+     * @param cursor statement settings for fetching rows
+     */
+    StreamQuery(NamedParameterStatement statement, PositionalBindings bindings, ResultMapper<R> mapper, CollectionChunks chunks, boolean parallel, CursorOptions cursor) {
+        this(statement, bindings, mapper, chunks, parallel, cursor, 0, 0);
+    }
+
+    /**
+     * @param readAheadBatchSize rows per batch read ahead, {@code 0} to read rows as they are consumed
+     */
+    private StreamQuery(NamedParameterStatement statement, PositionalBindings bindings, ResultMapper<R> mapper, CollectionChunks chunks, boolean parallel,
+                        CursorOptions cursor, int readAheadBatchSize, int readAheadBatches) {
+        super(statement, bindings, ((s, b) -> new StreamQuery<>(s, b, mapper, chunks, parallel, cursor, readAheadBatchSize, readAheadBatches)));
         Objects.requireNonNull(mapper, "mapper must not be null");
+        Objects.requireNonNull(cursor, "cursor must not be null");
         this.mapper = mapper;
+        this.chunks = chunks;
+        this.parallel = parallel;
+        this.cursor = cursor;
+        this.readAheadBatchSize = readAheadBatchSize;
+        this.readAheadBatches = readAheadBatches;
+    }
+
+    /**
+     * @param rows hint for the number of rows fetched from the database at a time, {@code 0} for the driver's default
+     * @see java.sql.Statement#setFetchSize(int)
+     */
+    public StreamQuery<R> fetchSize(int rows) {
+        return withCursor(cursor.fetchSize(rows));
+    }
+
+    /**
+     * @param rows maximum number of rows read, further rows are silently dropped, {@code 0} for no limit
+     * @see java.sql.Statement#setMaxRows(int)
+     */
+    public StreamQuery<R> maxRows(int rows) {
+        return withCursor(cursor.maxRows(rows));
+    }
+
+    /**
+     * @param seconds how long the driver waits for the query to execute, {@code 0} for no limit
+     * @see java.sql.Statement#setQueryTimeout(int)
+     */
+    public StreamQuery<R> queryTimeout(int seconds) {
+        return withCursor(cursor.queryTimeout(seconds));
+    }
+
+    /**
+     * @param direction one of {@link ResultSet#FETCH_FORWARD}, {@link ResultSet#FETCH_REVERSE} or {@link ResultSet#FETCH_UNKNOWN}
+     * @see java.sql.Statement#setFetchDirection(int)
+     */
+    public StreamQuery<R> fetchDirection(int direction) {
+        return withCursor(cursor.fetchDirection(direction));
+    }
+
+    /**
+     * Fetches rows in batches of {@link #fetchSize(int)}, default {@value CursorOptions#DEFAULT_STREAMING_FETCH_SIZE}, instead of the whole result at once,
+     * doing what each driver needs: Connector/J (MySQL) fetches row by row, and PostgreSQL runs the query with auto commit off, turning it back on when the stream is closed.
+     * @return query which streams rows from the database
+     */
+    public StreamQuery<R> streaming() {
+        return withCursor(cursor.streaming());
+    }
+
+    /**
+     * Same as {@code readAhead(256, 4)}.
+     * @return query which reads ahead
+     */
+    public StreamQuery<R> readAhead() {
+        return readAhead(ReadAheadSpliterator.DEFAULT_BATCH_SIZE, ReadAheadSpliterator.DEFAULT_BATCHES);
+    }
+
+    /**
+     * Reads and maps rows on a background thread while the stream is consumed, so waiting on the database overlaps with processing rows.
+     * The background thread is a virtual thread on jvms which have them.
+     * <p>
+     * At most batches mapped batches are held waiting for the stream to catch up. Closing the stream stops the background thread,
+     * so always close streams from this query, otherwise the background thread waits forever once the queue is full.
+     * @param batchSize rows per batch handed from the background thread to the stream
+     * @param batches maximum number of batches read ahead of the stream
+     * @return query which reads ahead
+     */
+    public StreamQuery<R> readAhead(int batchSize, int batches) {
+        ReadAheadSpliterator.checkReadAhead(batchSize, batches);
+        return new StreamQuery<>(statement, bindings, mapper, chunks, parallel, cursor, batchSize, batches);
     }
 
     public Stream<R> execute(DataSource db) throws SQLException {
@@ -68,17 +163,58 @@ public final class StreamQuery<R> extends PositionalBindingsBuilder<StreamQuery<
 
     public Stream<R> execute(Connection connection) throws SQLException {
         checkAllBindingsPresent();
+        final List<PositionalBindings> split = chunks.split(bindings);
+        if (split.size() == 1) {
+            return execute(connection, bindings);
+        }
+        return split.stream().flatMap(chunk -> {
+            try {
+                return execute(connection, chunk);
+            } catch (SQLException e) {
+                throw new AdvanceFailedException(e);
+            }
+        });
+    }
+
+    private Stream<R> execute(Connection connection, PositionalBindings chunk) throws SQLException {
+        return execute(connection, statement, chunk, cursor, rs -> {
+            if (readAheadBatchSize > 0) {
+                //stops the background thread before the result set is closed
+                final ReadAheadSpliterator<R> readAhead = new ReadAheadSpliterator<>(rs, mapper, readAheadBatchSize, readAheadBatches);
+                return StreamSupport.stream(readAhead, parallel).onClose(readAhead::close);
+            }
+            return StreamSupport.stream(new ResultSetSpliterator<>(rs, mapper), parallel);
+        });
+    }
 
+    /**
+     * Executes chunk and streams the results, closing the {@link ResultSet} and {@link PreparedStatement} when the stream is closed.
+     * Shared with the primitive stream queries, such as {@link LongStreamQuery}.
+     * @param toStream stream of the result set, called once the query is executed
+     * @param <S> stream type
+     */
+    static <S extends BaseStream<?, S>> S execute(Connection connection, NamedParameterStatement statement, PositionalBindings chunk, CursorOptions cursor,
+                                                  Function<ResultSet, S> toStream) throws SQLException {
+        final Dialect dialect = Dialect.forExecuting(connection, chunk, cursor);
+        final SlotBindings connectionBindings = statement.resolve(chunk.forDialect(dialect, statement));
         final PreparedStatement ps = connection.prepareStatement(
-                buildSql(),
+                statement.jdbcSql(connectionBindings),
                 ResultSet.TYPE_FORWARD_ONLY,
                 ResultSet.CONCUR_READ_ONLY
         );
-        bindToStatement(ps);
-        final ResultSet rs = ps.executeQuery();
-        final Spliterator<R> rsplit = new ResultSetSpliterator<>(rs, mapper);
-
-        return StreamSupport.stream(rsplit, false)
+        boolean turnedOff = false;
+        final ResultSet rs;
+        try {
+            statement.bind(ps, connectionBindings);
+            turnedOff = cursor.apply(connection, ps, dialect);
+            rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            ps.close();
+            CursorOptions.restore(connection, turnedOff);
+            throw e;
+        }
+        final boolean autoCommitTurnedOff = turnedOff;
+        return toStream.apply(rs)
                 .onClose(() -> {
                     try {
                         rs.close();
@@ -92,6 +228,17 @@ public final class StreamQuery<R> extends PositionalBindingsBuilder<StreamQuery<
                     } catch (SQLException e) {
                         //ignore
                     }
+                })
+                .onClose(() -> {
+                    try {
+                        CursorOptions.restore(connection, autoCommitTurnedOff);
+                    } catch (SQLException e) {
+                        //ignore
+                    }
                 });
     }
+
+    private StreamQuery<R> withCursor(CursorOptions cursor) {
+        return new StreamQuery<>(statement, bindings, mapper, chunks, parallel, cursor, readAheadBatchSize, readAheadBatches);
+    }
 }
@@ -0,0 +1,249 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.Binding;
+import io.github.randyp.jdbj.lambda.ConnectionSupplier;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Abstract class to encapsulate streaming batch behaviour for {@link StreamingBatchedExecuteInsert}, {@link StreamingBatchedExecuteUpdate}.
+ * <p>
+ * Rows are bound to one open {@link PreparedStatement} as they are added, and {@link PreparedStatement#executeBatch()} is called every {@link #flushEvery(int)} rows
+ * or every {@link #flushEveryBytes(long)} bytes of estimated payload, whichever comes first. So memory use does not grow with the number of rows, except for the results.
+ * <p>
+ * Is mutable, instances of {@link Batch} are {@link Immutable}.
+ * @param <P> chaining type, so that {@link Batch} can return {@code this} as the subclass.
+ * @param <R> result type of {@link #execute()}
+ */
+@NotThreadSafe
+abstract class StreamingBatchedExecute<P, R> implements AutoCloseable {
+
+    public static final int DEFAULT_FLUSH_ROWS = 1000;
+    public static final long DEFAULT_FLUSH_BYTES = 4L * 1024 * 1024;
+
+    final NamedParameterStatement statement;
+    private final ConnectionSupplier db;
+    private final boolean closeConnection;
+
+    private int flushRows = DEFAULT_FLUSH_ROWS;
+    private long flushBytes = DEFAULT_FLUSH_BYTES;
+
+    private Connection connection;
+    private PreparedStatement ps;
+    private int pendingRows;
+    private long pendingBytes;
+    private boolean closed;
+
+    /**
+     * @param db supplies the connection when the first row is added
+     * @param closeConnection whether {@link #close()} closes the supplied connection
+     */
+    StreamingBatchedExecute(NamedParameterStatement statement, ConnectionSupplier db, boolean closeConnection) {
+        Objects.requireNonNull(statement, "statement must not be null");
+        Objects.requireNonNull(db, "db must not be null");
+        this.statement = statement;
+        this.db = db;
+        this.closeConnection = closeConnection;
+    }
+
+    /**
+     * @param rows maximum number of rows per {@link PreparedStatement#executeBatch()}, defaults to {@link #DEFAULT_FLUSH_ROWS}
+     * @return this
+     */
+    public P flushEvery(int rows) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("rows must be positive");
+        }
+        this.flushRows = rows;
+        return chainThis();
+    }
+
+    /**
+     * @param bytes maximum estimated size of the bound values per {@link PreparedStatement#executeBatch()}, defaults to {@link #DEFAULT_FLUSH_BYTES}
+     * @return this
+     */
+    public P flushEveryBytes(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("bytes must be positive");
+        }
+        this.flushBytes = bytes;
+        return chainThis();
+    }
+
+    public Batch startBatch() {
+        return new Batch();
+    }
+
+    /**
+     * Binds row to the statement, flushing if the batch is full.
+     * @param row bindings for every named parameter
+     * @return this
+     */
+    public P add(ValueBindings row) throws SQLException {
+        Objects.requireNonNull(row, "row must not be null");
+        checkNotClosed();
+        statement.checkAllBindingsPresent(row);
+        if (ps == null) {
+            if (connection == null) {
+                connection = db.getConnection();
+            }
+            ps = prepare(connection, statement.jdbcSql(row));
+        }
+        pendingBytes += statement.bindAndEstimate(ps, row);
+        ps.addBatch();
+        pendingRows++;
+        if (pendingRows >= flushRows || pendingBytes >= flushBytes) {
+            flush();
+        }
+        return chainThis();
+    }
+
+    public P addAll(Iterator<ValueBindings> rows) throws SQLException {
+        Objects.requireNonNull(rows, "rows must not be null");
+        while (rows.hasNext()) {
+            add(rows.next());
+        }
+        return chainThis();
+    }
+
+    /**
+     * Consumes rows, closing the stream.
+     * @return this
+     */
+    public P addAll(Stream<ValueBindings> rows) throws SQLException {
+        Objects.requireNonNull(rows, "rows must not be null");
+        try (Stream<ValueBindings> closing = rows) {
+            return addAll(closing.iterator());
+        }
+    }
+
+    /**
+     * Executes the rows added since the last flush, if any.
+     * @return this
+     */
+    public P flush() throws SQLException {
+        checkNotClosed();
+        if (pendingRows > 0) {
+            pendingRows = 0;
+            pendingBytes = 0;
+            flushed(ps, ps.executeBatch());
+        }
+        return chainThis();
+    }
+
+    /**
+     * Flushes the remaining rows and closes.
+     * @return results of all flushed rows, in the order rows were added
+     * @throws IllegalStateException if no rows were added
+     */
+    public R execute() throws SQLException {
+        try {
+            if (ps == null) {
+                throw new IllegalStateException("no batches to insert");
+            }
+            flush();
+            return result();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Closes the statement, and the connection if it was obtained from a {@link javax.sql.DataSource}. Rows added since the last flush are not executed.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pendingRows = 0;
+        SQLException failed = null;
+        if (ps != null) {
+            try {
+                ps.close();
+            } catch (SQLException e) {
+                failed = e;
+            }
+        }
+        if (closeConnection) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                if (failed == null) {
+                    failed = e;
+                } else {
+                    failed.addSuppressed(e);
+                }
+            }
+        }
+        if (failed != null) {
+            throw failed;
+        }
+    }
+
+    abstract P chainThis();
+
+    abstract PreparedStatement prepare(Connection connection, String sql) throws SQLException;
+
+    /**
+     * Collects results of one {@link PreparedStatement#executeBatch()}.
+     */
+    abstract void flushed(PreparedStatement ps, int[] updateCounts) throws SQLException;
+
+    abstract R result();
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("already closed");
+        }
+    }
+
+    @Immutable
+    @NotThreadSafe
+    public class Batch implements ValueBindingsBuilder<Batch> {
+
+        private final ValueBindings batch;
+
+        Batch() {
+            this(new ValueBindings());
+        }
+
+        Batch(ValueBindings batch) {
+            this.batch = batch;
+        }
+
+        public Batch bindValues(Supplier<ValueBindings> supplier) {
+            return new Batch(batch.addAll(supplier.get()));
+        }
+
+        /**
+         * Binds named parameters from the properties of value, see {@link PositionalBindingsBuilder#bindObject(Object)}.
+         * Properties are read and bound straight to the statement when the batch is executed, without a binding per named parameter.
+         * @param value public class with a property for at least one named parameter
+         * @return batch with the properties of value bound
+         */
+        public Batch bindObject(Object value) {
+            return new Batch(ObjectBindings.bindObject(statement, batch, value));
+        }
+
+        @Override
+        public Batch bind(String name, Binding binding) {
+            return new Batch(batch.bind(name, binding));
+        }
+
+        public P addBatch() throws SQLException {
+            return add(batch);
+        }
+    }
+}
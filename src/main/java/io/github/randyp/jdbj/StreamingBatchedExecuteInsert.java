@@ -0,0 +1,78 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.ConnectionSupplier;
+import io.github.randyp.jdbj.lambda.ResultMapper;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Inserts any number of rows using jdbc batch functionality, executing the batch every {@link #flushEvery(int)} rows
+ * instead of holding every row in memory like {@link BatchedExecuteInsert}. Example:
+ * <pre>
+ * {@code
+ * ExecuteInsert<Long> insert = JDBJ.insert("INSERT INTO student(first_name, last_name, gpa)" +
+ * " VALUES (:first_name, :last_name, :gpa)", rs -> rs.getLong(1));
+ * try (StreamingBatchedExecuteInsert<Long> batch = insert.asStreamingBatch(db).flushEvery(500)) {
+ *     batch.addAll(newStudents.stream().map(NewStudent::bindings));
+ *     List<Long> generatedKeys = batch.execute();
+ * }
+ * }
+ * </pre>
+ * Generated keys are read after each flush, so only the keys are held in memory. The same driver caveats as {@link BatchedExecuteInsert} apply.
+ * <p>
+ * Worth noting: {@link StreamingBatchedExecuteInsert} is Mutable, but individual batches {@link Batch} are {@link javax.annotation.concurrent.Immutable}.
+ * @param <K> type of the returned keys
+ * @see ExecuteInsert#asStreamingBatch(Connection)
+ * @see StreamingBatchedExecuteUpdate
+ */
+@NotThreadSafe
+public class StreamingBatchedExecuteInsert<K> extends StreamingBatchedExecute<StreamingBatchedExecuteInsert<K>, List<K>> {
+
+    private final ResultMapper<K> keysMapper;
+    private final List<K> keys = new ArrayList<>();
+
+    StreamingBatchedExecuteInsert(NamedParameterStatement statement, ResultMapper<K> keysMapper, ConnectionSupplier db, boolean closeConnection) {
+        super(statement, db, closeConnection);
+        Objects.requireNonNull(keysMapper, "keysMapper must not be null");
+        this.keysMapper = keysMapper;
+    }
+
+    /**
+     * @return keys generated by the rows flushed so far
+     */
+    public List<K> getKeys() {
+        return Collections.unmodifiableList(keys);
+    }
+
+    @Override
+    StreamingBatchedExecuteInsert<K> chainThis() {
+        return this;
+    }
+
+    @Override
+    PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        return connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    }
+
+    @Override
+    void flushed(PreparedStatement ps, int[] updateCounts) throws SQLException {
+        try (SmartResultSet generatedKeys = new SmartResultSet(ps.getGeneratedKeys())) {
+            while (generatedKeys.next()) {
+                keys.add(keysMapper.map(generatedKeys));
+            }
+        }
+    }
+
+    @Override
+    List<K> result() {
+        return new ArrayList<>(keys);
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.ConnectionSupplier;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Updates any number of rows using jdbc batch functionality, executing the batch every {@link #flushEvery(int)} rows
+ * instead of holding every row in memory like {@link BatchedExecuteUpdate}. Example:
+ * <pre>
+ * {@code
+ * ExecuteUpdate insert = JDBJ.update("INSERT INTO student(first_name, last_name, gpa) VALUES (:first_name, :last_name, :gpa)");
+ * try (StreamingBatchedExecuteUpdate batch = insert.asStreamingBatch(db).flushEvery(500)) {
+ *     batch.addAll(newStudents.stream().map(NewStudent::bindings));
+ *     int[] updateCounts = batch.execute();
+ * }
+ * }
+ * </pre>
+ * Rows of a flushed batch are committed when the connection is in auto commit mode, use a {@link Transaction} to insert all or nothing.
+ * <p>
+ * Worth noting: {@link StreamingBatchedExecuteUpdate} is Mutable, but individual batches {@link Batch} are {@link javax.annotation.concurrent.Immutable}.
+ * @see ExecuteUpdate#asStreamingBatch(Connection)
+ * @see StreamingBatchedExecuteInsert
+ */
+@NotThreadSafe
+public class StreamingBatchedExecuteUpdate extends StreamingBatchedExecute<StreamingBatchedExecuteUpdate, int[]> {
+
+    private int[] updateCounts = new int[16];
+    private int size;
+
+    StreamingBatchedExecuteUpdate(NamedParameterStatement statement, ConnectionSupplier db, boolean closeConnection) {
+        super(statement, db, closeConnection);
+    }
+
+    /**
+     * @return update counts of the rows flushed so far
+     */
+    public int[] getUpdateCounts() {
+        return Arrays.copyOf(updateCounts, size);
+    }
+
+    @Override
+    StreamingBatchedExecuteUpdate chainThis() {
+        return this;
+    }
+
+    @Override
+    PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        return connection.prepareStatement(sql);
+    }
+
+    @Override
+    void flushed(PreparedStatement ps, int[] counts) {
+        if (size + counts.length > updateCounts.length) {
+            updateCounts = Arrays.copyOf(updateCounts, Math.max(updateCounts.length * 2, size + counts.length));
+        }
+        System.arraycopy(counts, 0, updateCounts, size, counts.length);
+        size += counts.length;
+    }
+
+    @Override
+    int[] result() {
+        return getUpdateCounts();
+    }
+}
@@ -2,7 +2,6 @@ package io.github.randyp.jdbj;
 
 import io.github.randyp.jdbj.lambda.Binding;
 
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
 /**
@@ -21,16 +20,20 @@ final class ValueBinding implements PositionalBinding {
     }
 
     @Override
-    public int bind(PreparedStatement ps, int parameterIndex) throws SQLException {
-        final PreparedColumn preparedColumn = new PreparedColumn(ps, parameterIndex);
-        binding.bind(preparedColumn);
+    public int bind(PreparedColumn preparedColumn, int parameterIndex) throws SQLException {
+        binding.bind(preparedColumn.moveTo(parameterIndex));
         preparedColumn.setNullIfNotSet();
         return parameterIndex+1;
     }
 
+    @Override
+    public int shape() {
+        return VALUE_SHAPE;
+    }
+
     @Override
     public void appendPositionalParametersToQueryString(StringBuilder builder) {
-        builder.append("?");
+        PositionalBinding.appendPositionalParameters(builder, shape());
     }
 
 }
@@ -13,45 +13,42 @@ import java.util.*;
 @ThreadSafe
 public class ValueBindings implements Bindings, ValueBindingsBuilder<ValueBindings> {
 
-    private final Map<String, Binding> valueBindings;
-    private final Set<String> keys;
+    private final BindingChain<ValueBinding> valueBindings;
 
     /**
      * New empty value bindings
      */
     public ValueBindings() {
-        this(new HashMap<>());
+        this(BindingChain.empty());
     }
 
-    ValueBindings(Map<String, Binding> valueBindings) {
+    private ValueBindings(BindingChain<ValueBinding> valueBindings) {
         this.valueBindings = valueBindings;
-        this.keys = Collections.unmodifiableSet(valueBindings.keySet());
     }
 
     public ValueBindings bind(String name, Binding binding) {
         Objects.requireNonNull(binding, "binding must not be null");
-
-        if (containsBinding(name)) {
-            throw new IllegalArgumentException("named parameter \"" + name + "\" already has a binding");
-        }
-
-        final Map<String, Binding> newValueBindings = new HashMap<>(valueBindings);
-        newValueBindings.put(name, binding);
-
-        return new ValueBindings(newValueBindings);
+        return put(name, new ValueBinding(binding));
     }
 
     public ValueBindings addAll(ValueBindings bindings) {
         Objects.requireNonNull(bindings, "bindings must not be null");
+        if (keys().isEmpty()) {
+            return bindings;
+        }
         ValueBindings newBindings = this;
-        for (Map.Entry<String, Binding> entry : bindings.valueBindings.entrySet()) {
-            newBindings = newBindings.bind(entry.getKey(), entry.getValue());
+        for (String name : bindings.keys()) {
+            newBindings = newBindings.put(name, bindings.get(name));
         }
         return newBindings;
     }
 
     public Map<String, Binding> asMap(){
-        return Collections.unmodifiableMap(valueBindings);
+        final Map<String, Binding> map = new LinkedHashMap<>();
+        for (Map.Entry<String, ValueBinding> entry : valueBindings.asMap().entrySet()) {
+            map.put(entry.getKey(), entry.getValue().getBinding());
+        }
+        return Collections.unmodifiableMap(map);
     }
  
     @Override
@@ -62,17 +59,22 @@ public class ValueBindings implements Bindings, ValueBindingsBuilder<ValueBindin
 
     @Override
     public Set<String> keys() {
-        return keys;
+        return valueBindings.keys();
     }
 
     @Override
     public ValueBinding get(String namedParameter) {
         Objects.requireNonNull(namedParameter, "namedParameter must not be null");
-        final Binding binding = valueBindings.get(namedParameter);
+        final ValueBinding binding = valueBindings.get(namedParameter);
         if (binding  == null) {
             throw new IllegalArgumentException("no such binding: \"" + namedParameter + "\"");
         }
-        return new ValueBinding(binding);
+        return binding;
+    }
+
+    private ValueBindings put(String name, ValueBinding binding) {
+        Objects.requireNonNull(name, "name must not be null");
+        return new ValueBindings(valueBindings.put(name, binding));
     }
 
 }
@@ -0,0 +1,512 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.Binding;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * Not intended for external use.
+ * <p>
+ * Bindings for a collection of values of one {@link ElementType}, created by methods such as {@link CollectionBindingsBuilder#bindLongs(String, long...)}.
+ * <p>
+ * Backed directly by the values, a primitive array where possible, so that {@link ListBinding} binds each element with {@link #bind(PreparedColumn, int)}
+ * instead of creating a {@link Binding} per element. Also keeps the values so that {@link PositionalBindings} can bind them as a single array parameter on databases which support it.
+ * <p>
+ * Implementations are {@link Immutable}, arrays and collections passed to the factory methods are copied once.
+ * @see ArrayBinding
+ */
+@Immutable
+@ThreadSafe
+abstract class ValueList extends AbstractList<Binding> implements RandomAccess {
+
+    /**
+     * Element types, and how to bind a boxed element of the type.
+     */
+    enum ElementType {
+        BOOLEAN(null) {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setBoolean((Boolean) value);
+            }
+        },
+        TINYINT(null) {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setByte((Byte) value);
+            }
+        },
+        SMALLINT(null) {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setShort((Short) value);
+            }
+        },
+        INTEGER("integer") {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setInteger((Integer) value);
+            }
+        },
+        BIGINT("bigint") {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setLong((Long) value);
+            }
+        },
+        REAL(null) {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setFloat((Float) value);
+            }
+        },
+        DOUBLE(null) {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setDouble((Double) value);
+            }
+        },
+        VARCHAR("varchar") {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setString((String) value);
+            }
+        },
+        DATE(null) {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setDate((Date) value);
+            }
+        },
+        TIME(null) {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setTime((Time) value);
+            }
+        },
+        TIMESTAMP(null) {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setTimestamp((Timestamp) value);
+            }
+        },
+        OBJECT(null) {
+            @Override
+            void set(PreparedColumn pc, Object value) throws SQLException {
+                pc.setObject(value);
+            }
+        };
+
+        /**
+         * sql type name for {@link java.sql.Connection#createArrayOf(String, Object[])}, null if not bound as an array
+         */
+        final String typeName;
+
+        ElementType(String typeName) {
+            this.typeName = typeName;
+        }
+
+        boolean isArrayElement() {
+            return typeName != null;
+        }
+
+        abstract void set(PreparedColumn pc, Object value) throws SQLException;
+    }
+
+    static ValueList of(boolean[] xs) {
+        return new Booleans(xs.clone());
+    }
+
+    static ValueList of(byte[] xs) {
+        return new Bytes(xs.clone());
+    }
+
+    static ValueList of(short[] xs) {
+        return new Shorts(xs.clone());
+    }
+
+    static ValueList of(int[] xs) {
+        return new Ints(xs.clone());
+    }
+
+    static ValueList of(long[] xs) {
+        return new Longs(xs.clone());
+    }
+
+    static ValueList of(float[] xs) {
+        return new Floats(xs.clone());
+    }
+
+    static ValueList of(double[] xs) {
+        return new Doubles(xs.clone());
+    }
+
+    /**
+     * @param values boxed values of type, may contain null
+     */
+    static ValueList of(ElementType type, Object[] values) {
+        return new Boxed(type, values.clone());
+    }
+
+    /**
+     * Copies values once, straight into a primitive array where type has one and values contains no null.
+     * @param values boxed values of type, may contain null
+     */
+    static ValueList of(ElementType type, Collection<?> values) {
+        final Primitives primitives = Primitives.of(type, values.size());
+        if (primitives == null) {
+            return new Boxed(type, values.toArray());
+        }
+        int i = 0;
+        for (Object value : values) {
+            if (value == null || i == primitives.size()) {
+                return new Boxed(type, values.toArray());
+            }
+            primitives.unbox(i++, value);
+        }
+        return i == primitives.size() ? primitives : new Boxed(type, values.toArray());
+    }
+
+    private final ElementType type;
+
+    private ValueList(ElementType type) {
+        this.type = type;
+    }
+
+    ElementType getType() {
+        return type;
+    }
+
+    /**
+     * Binds one element, without allocating.
+     * @param pc column to bind to
+     * @param index index of element
+     */
+    abstract void bind(PreparedColumn pc, int index) throws SQLException;
+
+    /**
+     * @return new array of the (boxed) values
+     */
+    abstract Object[] toValueArray();
+
+    @Override
+    public Binding get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size());
+        }
+        return pc -> bind(pc, index);
+    }
+
+    @Override
+    public abstract ValueList subList(int fromIndex, int toIndex);
+
+    /**
+     * Primitive values, which subclasses bind, box and slice by index.
+     */
+    private abstract static class Primitives extends ValueList {
+        private final int size;
+
+        Primitives(ElementType type, int size) {
+            super(type);
+            this.size = size;
+        }
+
+        /**
+         * @return new list of size elements of type, filled with {@link #unbox(int, Object)}, or null if type is not primitive
+         */
+        @Nullable
+        static Primitives of(ElementType type, int size) {
+            switch (type) {
+                case BOOLEAN:
+                    return new Booleans(new boolean[size]);
+                case TINYINT:
+                    return new Bytes(new byte[size]);
+                case SMALLINT:
+                    return new Shorts(new short[size]);
+                case INTEGER:
+                    return new Ints(new int[size]);
+                case BIGINT:
+                    return new Longs(new long[size]);
+                case REAL:
+                    return new Floats(new float[size]);
+                case DOUBLE:
+                    return new Doubles(new double[size]);
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Only called by the factory, before the list is shared.
+         * @param value non null boxed value
+         */
+        abstract void unbox(int index, Object value);
+
+        abstract Object box(int index);
+
+        abstract ValueList slice(int fromIndex, int toIndex);
+
+        @Override
+        Object[] toValueArray() {
+            final Object[] boxed = new Object[size];
+            for (int i = 0; i < size; i++) {
+                boxed[i] = box(i);
+            }
+            return boxed;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public ValueList subList(int fromIndex, int toIndex) {
+            return slice(fromIndex, toIndex);
+        }
+    }
+
+    private static final class Booleans extends Primitives {
+        private final boolean[] values;
+
+        Booleans(boolean[] values) {
+            super(ElementType.BOOLEAN, values.length);
+            this.values = values;
+        }
+
+        @Override
+        void bind(PreparedColumn pc, int index) throws SQLException {
+            pc.setBooleanPrimitive(values[index]);
+        }
+
+        @Override
+        void unbox(int index, Object value) {
+            values[index] = (Boolean) value;
+        }
+
+        @Override
+        Object box(int index) {
+            return values[index];
+        }
+
+        @Override
+        ValueList slice(int fromIndex, int toIndex) {
+            return new Booleans(Arrays.copyOfRange(values, fromIndex, toIndex));
+        }
+    }
+
+    private static final class Bytes extends Primitives {
+        private final byte[] values;
+
+        Bytes(byte[] values) {
+            super(ElementType.TINYINT, values.length);
+            this.values = values;
+        }
+
+        @Override
+        void bind(PreparedColumn pc, int index) throws SQLException {
+            pc.setBytePrimitive(values[index]);
+        }
+
+        @Override
+        void unbox(int index, Object value) {
+            values[index] = (Byte) value;
+        }
+
+        @Override
+        Object box(int index) {
+            return values[index];
+        }
+
+        @Override
+        ValueList slice(int fromIndex, int toIndex) {
+            return new Bytes(Arrays.copyOfRange(values, fromIndex, toIndex));
+        }
+    }
+
+    private static final class Shorts extends Primitives {
+        private final short[] values;
+
+        Shorts(short[] values) {
+            super(ElementType.SMALLINT, values.length);
+            this.values = values;
+        }
+
+        @Override
+        void bind(PreparedColumn pc, int index) throws SQLException {
+            pc.setShortPrimitive(values[index]);
+        }
+
+        @Override
+        void unbox(int index, Object value) {
+            values[index] = (Short) value;
+        }
+
+        @Override
+        Object box(int index) {
+            return values[index];
+        }
+
+        @Override
+        ValueList slice(int fromIndex, int toIndex) {
+            return new Shorts(Arrays.copyOfRange(values, fromIndex, toIndex));
+        }
+    }
+
+    private static final class Ints extends Primitives {
+        private final int[] values;
+
+        Ints(int[] values) {
+            super(ElementType.INTEGER, values.length);
+            this.values = values;
+        }
+
+        @Override
+        void bind(PreparedColumn pc, int index) throws SQLException {
+            pc.setInt(values[index]);
+        }
+
+        @Override
+        void unbox(int index, Object value) {
+            values[index] = (Integer) value;
+        }
+
+        @Override
+        Object box(int index) {
+            return values[index];
+        }
+
+        @Override
+        ValueList slice(int fromIndex, int toIndex) {
+            return new Ints(Arrays.copyOfRange(values, fromIndex, toIndex));
+        }
+    }
+
+    private static final class Longs extends Primitives {
+        private final long[] values;
+
+        Longs(long[] values) {
+            super(ElementType.BIGINT, values.length);
+            this.values = values;
+        }
+
+        @Override
+        void bind(PreparedColumn pc, int index) throws SQLException {
+            pc.setLongPrimitive(values[index]);
+        }
+
+        @Override
+        void unbox(int index, Object value) {
+            values[index] = (Long) value;
+        }
+
+        @Override
+        Object box(int index) {
+            return values[index];
+        }
+
+        @Override
+        ValueList slice(int fromIndex, int toIndex) {
+            return new Longs(Arrays.copyOfRange(values, fromIndex, toIndex));
+        }
+    }
+
+    private static final class Floats extends Primitives {
+        private final float[] values;
+
+        Floats(float[] values) {
+            super(ElementType.REAL, values.length);
+            this.values = values;
+        }
+
+        @Override
+        void bind(PreparedColumn pc, int index) throws SQLException {
+            pc.setFloatPrimitive(values[index]);
+        }
+
+        @Override
+        void unbox(int index, Object value) {
+            values[index] = (Float) value;
+        }
+
+        @Override
+        Object box(int index) {
+            return values[index];
+        }
+
+        @Override
+        ValueList slice(int fromIndex, int toIndex) {
+            return new Floats(Arrays.copyOfRange(values, fromIndex, toIndex));
+        }
+    }
+
+    private static final class Doubles extends Primitives {
+        private final double[] values;
+
+        Doubles(double[] values) {
+            super(ElementType.DOUBLE, values.length);
+            this.values = values;
+        }
+
+        @Override
+        void bind(PreparedColumn pc, int index) throws SQLException {
+            pc.setDoublePrimitive(values[index]);
+        }
+
+        @Override
+        void unbox(int index, Object value) {
+            values[index] = (Double) value;
+        }
+
+        @Override
+        Object box(int index) {
+            return values[index];
+        }
+
+        @Override
+        ValueList slice(int fromIndex, int toIndex) {
+            return new Doubles(Arrays.copyOfRange(values, fromIndex, toIndex));
+        }
+    }
+
+    /**
+     * Boxed values or references, may contain null.
+     */
+    private static final class Boxed extends ValueList {
+        private final Object[] values;
+
+        Boxed(ElementType type, Object[] values) {
+            super(type);
+            this.values = values;
+        }
+
+        @Override
+        void bind(PreparedColumn pc, int index) throws SQLException {
+            getType().set(pc, values[index]);
+        }
+
+        @Override
+        Object[] toValueArray() {
+            return values.clone();
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public ValueList subList(int fromIndex, int toIndex) {
+            return new Boxed(getType(), Arrays.copyOfRange(values, fromIndex, toIndex));
+        }
+    }
+}
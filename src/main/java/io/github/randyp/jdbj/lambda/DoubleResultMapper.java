@@ -0,0 +1,16 @@
+package io.github.randyp.jdbj.lambda;
+
+import io.github.randyp.jdbj.ReturnsQuery;
+import io.github.randyp.jdbj.SmartResult;
+
+import java.sql.SQLException;
+
+/**
+ * Maps a {@link SmartResult} to a {@code double}, without boxing.
+ * @see ReturnsQuery#mapToDouble(DoubleResultMapper)
+ */
+public interface DoubleResultMapper {
+
+    double map(SmartResult result) throws SQLException;
+
+}
@@ -0,0 +1,125 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ArrayBindingTest {
+
+    @ClassRule
+    public static final H2Rule db = new H2Rule();
+
+    private static final String sql = "SELECT X FROM SYSTEM_RANGE(1, 10) WHERE X IN :xs ORDER BY X";
+    private static final NamedParameterStatement statement = NamedParameterStatement.make(sql);
+
+    @Test
+    public void aboveThreshold() throws Exception {
+        final PositionalBindings bindings = new PositionalBindings()
+                .collectionsAsArrays(3)
+                .bindLongs(":xs", 2L, 3L, 20L);
+        try (Connection connection = db.getConnection()) {
+            final PositionalBindings connectionBindings = bindings.forDialect(Dialect.of(connection), statement);
+            assertTrue(connectionBindings.get(":xs") instanceof ArrayBinding);
+            assertEquals("SELECT X FROM SYSTEM_RANGE(1, 10) WHERE X IN (SELECT X FROM TABLE(X BIGINT = ?)) ORDER BY X",
+                    NamedParameterStatement.make(sql).jdbcSql(connectionBindings));
+        }
+        assertEquals(Arrays.asList(2L, 3L), select(bindings));
+    }
+
+    @Test
+    public void belowThreshold() throws Exception {
+        final PositionalBindings bindings = new PositionalBindings()
+                .collectionsAsArrays(4)
+                .bindLongs(":xs", 2L, 3L, 20L);
+        try (Connection connection = db.getConnection()) {
+            assertSame(bindings, bindings.forDialect(Dialect.of(connection), statement));
+        }
+        assertEquals(Arrays.asList(2L, 3L), select(bindings));
+    }
+
+    @Test
+    public void strings() throws Exception {
+        final PositionalBindings bindings = new PositionalBindings()
+                .collectionsAsArrays(1)
+                .bindStrings(":xs", "4", null);
+        assertEquals(Arrays.asList(4L), select(bindings));
+    }
+
+    @Test
+    public void integersWithNull() throws Exception {
+        final PositionalBindings bindings = new PositionalBindings()
+                .collectionsAsArrays(1)
+                .bindIntegers(":xs", Arrays.asList(5, null, 6));
+        assertEquals(Arrays.asList(5L, 6L), select(bindings));
+    }
+
+    @Test
+    public void arbitraryBindingsNotArrays() throws Exception {
+        final PositionalBindings bindings = new PositionalBindings()
+                .collectionsAsArrays(1)
+                .bindCollection(":xs", Arrays.asList(pc -> pc.setLong(7L), pc -> pc.setLong(8L)));
+        try (Connection connection = db.getConnection()) {
+            assertSame(bindings, bindings.forDialect(Dialect.of(connection), statement));
+        }
+    }
+
+    @Test
+    public void sameShapeSameSql() throws Exception {
+        try (Connection connection = db.getConnection()) {
+            final String first = statement.jdbcSql(new PositionalBindings().collectionsAsArrays(1).bindLongs(":xs", 1L).forDialect(Dialect.of(connection), statement));
+            final String second = statement.jdbcSql(new PositionalBindings().collectionsAsArrays(1).bindLongs(":xs", 1L, 2L, 3L).forDialect(Dialect.of(connection), statement));
+            assertSame(first, second);
+        }
+    }
+
+    @Test
+    public void onlyInLists() throws Exception {
+        final PositionalBindings bindings = new PositionalBindings()
+                .collectionsAsArrays(1)
+                .bindLongs(":row", 1L, 2L, 3L);
+        final NamedParameterStatement values = NamedParameterStatement.make("SELECT * FROM (VALUES :row)");
+        try (Connection connection = db.getConnection()) {
+            assertSame(bindings, bindings.forDialect(Dialect.of(connection), values));
+        }
+        final List<Long> row = new ExecuteQuery<>(values, bindings, rs -> {
+            rs.next();
+            return Arrays.asList(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+        }).execute(db);
+        assertEquals(Arrays.asList(1L, 2L, 3L), row);
+    }
+
+    @Test
+    public void everyOccurrenceInList() throws Exception {
+        final PositionalBindings bindings = new PositionalBindings()
+                .collectionsAsArrays(1)
+                .bindLongs(":xs", 1L, 2L);
+        final NamedParameterStatement notIn = NamedParameterStatement.make("SELECT X FROM SYSTEM_RANGE(1, 3) WHERE X not in\n:xs");
+        final NamedParameterStatement mixed = NamedParameterStatement.make("SELECT X FROM SYSTEM_RANGE(1, 3) WHERE X IN :xs OR (X, X) = :xs");
+        try (Connection connection = db.getConnection()) {
+            assertTrue(bindings.forDialect(Dialect.of(connection), notIn).get(":xs") instanceof ArrayBinding);
+            assertSame(bindings, bindings.forDialect(Dialect.of(connection), mixed));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void thresholdNotPositive() throws Exception {
+        new PositionalBindings().collectionsAsArrays(0);
+    }
+
+    private static List<Long> select(PositionalBindings bindings) throws Exception {
+        return new ExecuteQuery<>(NamedParameterStatement.make(sql), bindings, rs -> {
+            final List<Long> xs = new ArrayList<>();
+            while (rs.next()) {
+                xs.add(rs.getLong(1));
+            }
+            return xs;
+        }).execute(db);
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lambda.Binding;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class BindingChainTest {
+
+    private static final ValueBinding BINDING = new ValueBinding(pc -> pc.setInt(1));
+
+    @Test
+    public void empty() throws Exception {
+        final BindingChain<ValueBinding> empty = BindingChain.empty();
+        assertEquals(0, empty.size());
+        assertFalse(empty.containsKey(":a"));
+        assertNull(empty.get(":a"));
+        assertTrue(empty.keys().isEmpty());
+    }
+
+    @Test
+    public void putDoesNotModify() throws Exception {
+        final BindingChain<ValueBinding> empty = BindingChain.empty();
+        final BindingChain<ValueBinding> a = empty.put(":a", BINDING);
+        assertFalse(empty.containsKey(":a"));
+        assertSame(BINDING, a.get(":a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void alreadyBound() throws Exception {
+        BindingChain.<ValueBinding>empty().put(":a", BINDING).put(":a", BINDING);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void alreadyBoundIndexed() throws Exception {
+        chain("", 50).put(":p0", BINDING);
+    }
+
+    @Test
+    public void keysInBindOrder() throws Exception {
+        assertEquals(Arrays.asList(":p0", ":p1", ":p2"), new ArrayList<>(chain("", 3).keys()));
+        assertEquals(Arrays.asList(":p0", ":p1", ":p2"), new ArrayList<>(chain("", 3).asMap().keySet()));
+        assertEquals(50, chain("", 50).keys().size());
+    }
+
+    @Test
+    public void indexedDoesNotSeeLaterBindings() throws Exception {
+        final BindingChain<ValueBinding> twenty = chain("", 20);
+        final BindingChain<ValueBinding> fifty = chain(twenty, "", 20, 50);
+        assertTrue(fifty.containsKey(":p49"));
+        assertFalse(twenty.containsKey(":p20"));
+        assertFalse(twenty.containsKey(":p49"));
+        assertEquals(20, twenty.keys().size());
+    }
+
+    @Test
+    public void forks() throws Exception {
+        final BindingChain<ValueBinding> prototype = chain("", 20);
+        final BindingChain<ValueBinding> left = chain(prototype, "left", 0, 20);
+        final BindingChain<ValueBinding> right = chain(prototype, "right", 0, 20);
+        final BindingChain<ValueBinding> leftAgain = prototype.put(":leftp0", BINDING);
+
+        assertTrue(left.containsKey(":leftp19"));
+        assertFalse(left.containsKey(":rightp0"));
+        assertTrue(right.containsKey(":rightp19"));
+        assertFalse(right.containsKey(":leftp0"));
+        assertTrue(leftAgain.containsKey(":leftp0"));
+        assertFalse(leftAgain.containsKey(":leftp1"));
+        assertFalse(prototype.containsKey(":leftp0"));
+        assertFalse(prototype.containsKey(":rightp0"));
+        for (BindingChain<ValueBinding> chain : Arrays.asList(left, right, leftAgain)) {
+            assertTrue(chain.containsKey(":p0"));
+            assertTrue(chain.containsKey(":p19"));
+        }
+    }
+
+    @Test
+    public void concurrentForks() throws Exception {
+        final BindingChain<ValueBinding> prototype = chain("", 20);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<BindingChain<ValueBinding>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                final String prefix = "t" + thread + "_";
+                futures.add(executor.submit(() -> chain(prototype, prefix, 0, 100)));
+            }
+            for (int thread = 0; thread < 8; thread++) {
+                final BindingChain<ValueBinding> chain = futures.get(thread).get();
+                assertEquals(120, chain.size());
+                assertEquals(120, chain.keys().size());
+                for (int i = 0; i < 100; i++) {
+                    assertTrue(chain.containsKey(":t" + thread + "_p" + i));
+                }
+                assertFalse(chain.containsKey(":t" + ((thread + 1) % 8) + "_p0"));
+            }
+            assertEquals(20, prototype.keys().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static BindingChain<ValueBinding> chain(String prefix, int size) {
+        return chain(BindingChain.empty(), prefix, 0, size);
+    }
+
+    private static BindingChain<ValueBinding> chain(BindingChain<ValueBinding> chain, String prefix, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final Binding binding = pc -> pc.setInt(1);
+            chain = chain.put(":" + prefix + "p" + i, new ValueBinding(binding));
+        }
+        return chain;
+    }
+}
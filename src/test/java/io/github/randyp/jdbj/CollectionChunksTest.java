@@ -0,0 +1,96 @@
+package io.github.randyp.jdbj;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class CollectionChunksTest {
+
+    @Test
+    public void notOversized() throws Exception {
+        final PositionalBindings bindings = new PositionalBindings().bindIntegers(":ids", 1, 2, 3);
+        final List<PositionalBindings> chunks = new CollectionChunks(3, 1).split(bindings);
+        assertEquals(1, chunks.size());
+        assertSame(bindings, chunks.get(0));
+    }
+
+    @Test
+    public void split() throws Exception {
+        final PositionalBindings bindings = new PositionalBindings()
+                .bind(":id", pc -> pc.setInt(1))
+                .bindIntegers(":ids", 1, 2, 3, 4, 5, 6, 7)
+                .bindIntegers(":small", 1);
+        final List<PositionalBindings> chunks = new CollectionChunks(3, 1).split(bindings);
+        assertEquals(3, chunks.size());
+        assertEquals(Arrays.asList(3, 3, 1), Arrays.asList(chunks.get(0).get(":ids").shape(), chunks.get(1).get(":ids").shape(), chunks.get(2).get(":ids").shape()));
+        for (PositionalBindings chunk : chunks) {
+            assertSame(bindings.get(":id"), chunk.get(":id"));
+            assertSame(bindings.get(":small"), chunk.get(":small"));
+            assertEquals(bindings.keys(), chunk.keys());
+        }
+    }
+
+    @Test
+    public void chunksPadded() throws Exception {
+        final PositionalBindings bindings = new PositionalBindings()
+                .padCollections(CollectionPadding.powersOfTwo())
+                .bindIntegers(":ids", 1, 2, 3, 4, 5, 6, 7);
+        final List<PositionalBindings> chunks = new CollectionChunks(4, 1).split(bindings);
+        assertEquals(4, chunks.get(0).get(":ids").shape());
+        assertEquals(4, chunks.get(1).get(":ids").shape());
+    }
+
+    @Test
+    public void parallelOnSharedThreads() throws Exception {
+        final CollectionChunks chunks = new CollectionChunks(1, 2);
+        final List<PositionalBindings> split = chunks.split(new PositionalBindings().bindIntegers(":ids", 1, 2, 3, 4));
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 2; i++) {
+            final List<Integer> results = chunks.execute(() -> null, split, (connection, chunk) -> {
+                threads.add(Thread.currentThread().getName());
+                return split.indexOf(chunk);
+            });
+            assertEquals(Arrays.asList(0, 1, 2, 3), results);
+        }
+        for (String thread : threads) {
+            assertTrue(thread, thread.startsWith("jdbj-worker-"));
+        }
+    }
+
+    @Test
+    public void parallelFailure() throws Exception {
+        final CollectionChunks chunks = new CollectionChunks(1, 2);
+        final List<PositionalBindings> split = chunks.split(new PositionalBindings().bindIntegers(":ids", 1, 2, 3, 4));
+        try {
+            chunks.execute(() -> null, split, (connection, chunk) -> {
+                throw new SQLException("chunk failed");
+            });
+            fail("expected SQLException");
+        } catch (SQLException e) {
+            assertEquals("chunk failed", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void twoOversized() throws Exception {
+        new CollectionChunks(1, 1).split(new PositionalBindings()
+                .bindIntegers(":a", 1, 2)
+                .bindIntegers(":b", 1, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void chunkSizeNotPositive() throws Exception {
+        new CollectionChunks(0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelismNotPositive() throws Exception {
+        new CollectionChunks(1, 0);
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.randyp.jdbj;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Enclosed.class)
+public class CollectionPaddingTest {
+
+    public static class None {
+        @Test
+        public void unchanged() throws Exception {
+            assertEquals(7, CollectionPadding.NONE.paddedSize(7));
+        }
+    }
+
+    public static class PowersOfTwo {
+        @Test
+        public void rounds() throws Exception {
+            final CollectionPadding padding = CollectionPadding.powersOfTwo();
+            assertEquals(1, padding.paddedSize(1));
+            assertEquals(2, padding.paddedSize(2));
+            assertEquals(4, padding.paddedSize(3));
+            assertEquals(1024, padding.paddedSize(513));
+            assertEquals(1 << 30, padding.paddedSize(1 << 30));
+            assertEquals((1 << 30) + 1, padding.paddedSize((1 << 30) + 1));
+        }
+
+        @Test
+        public void logarithmicShapes() throws Exception {
+            final CollectionPadding padding = CollectionPadding.powersOfTwo();
+            final Set<Integer> sizes = new HashSet<>();
+            for (int size = 1; size <= 1000; size++) {
+                final int padded = padding.paddedSize(size);
+                assertTrue(padded >= size);
+                sizes.add(padded);
+            }
+            assertEquals(11, sizes.size());
+        }
+    }
+
+    public static class Ladder {
+        @Test
+        public void rounds() throws Exception {
+            final CollectionPadding padding = CollectionPadding.ladder(10, 50, 100);
+            assertEquals(10, padding.paddedSize(1));
+            assertEquals(10, padding.paddedSize(10));
+            assertEquals(50, padding.paddedSize(42));
+            assertEquals(100, padding.paddedSize(100));
+            assertEquals(200, padding.paddedSize(150));
+            assertEquals(400, padding.paddedSize(201));
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void empty() throws Exception {
+            CollectionPadding.ladder();
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void notPositive() throws Exception {
+            CollectionPadding.ladder(0, 10);
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void notAscending() throws Exception {
+            CollectionPadding.ladder(10, 10);
+        }
+
+        @Test(expected = NullPointerException.class)
+        public void nullSizes() throws Exception {
+            CollectionPadding.ladder((int[]) null);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ColumnsTest {
+
+    @ClassRule
+    public static final H2Rule db = new H2Rule();
+
+    private static final String SELECT = "SELECT x AS id, CAST(x AS int) AS i, CAST(x AS double) / 2 AS d, " +
+            "CASE WHEN MOD(x, 2) = 0 THEN 'even' WHEN x = 3 THEN NULL ELSE 'odd' END AS parity, " +
+            "CAST(x AS DECIMAL(4, 1)) AS n FROM SYSTEM_RANGE(1, 100)";
+
+    @Test
+    public void types() throws Exception {
+        final Columns columns = JDBJ.query(SELECT).toColumns().execute(db);
+        assertEquals(100, columns.rows());
+        assertEquals(5, columns.getColumns().size());
+        assertTrue(columns.column(1) instanceof Column.OfLong);
+        assertTrue(columns.column(2) instanceof Column.OfInt);
+        assertTrue(columns.column(3) instanceof Column.OfDouble);
+        assertTrue(columns.column(4) instanceof Column.OfString);
+        assertTrue(columns.column(5) instanceof Column.OfObject);
+
+        final Column.OfLong ids = columns.column("ID", Column.OfLong.class);
+        final Column.OfInt ints = columns.column("i", Column.OfInt.class);
+        final Column.OfDouble doubles = columns.column("d", Column.OfDouble.class);
+        for (int row = 0; row < columns.rows(); row++) {
+            assertEquals(row + 1, ids.getLong(row));
+            assertEquals(row + 1, ints.getInt(row));
+            assertEquals((row + 1) / 2.0, doubles.getDouble(row), 0);
+        }
+        assertEquals(new BigDecimal("7.0"), columns.column("n").getObject(6));
+        assertEquals(Long.valueOf(5), ids.getObject(4));
+    }
+
+    @Test
+    public void manyBlocks() throws Exception {
+        final int rows = 3 * Column.BLOCK + 7;
+        final Columns columns = JDBJ.query("SELECT x, CASE WHEN MOD(x, 3) = 0 THEN NULL ELSE 'v' || MOD(x, 5) END AS s FROM SYSTEM_RANGE(1, " + rows + ")")
+                .toColumns()
+                .execute(db);
+        assertEquals(rows, columns.rows());
+        final Column.OfLong xs = columns.column("x", Column.OfLong.class);
+        final Column.OfString strings = columns.column("s", Column.OfString.class);
+        for (int row = 0; row < rows; row++) {
+            final long x = row + 1;
+            assertEquals(x, xs.getLong(row));
+            assertEquals(x % 3 == 0 ? null : "v" + x % 5, strings.getString(row));
+        }
+        assertEquals(5, strings.getDictionary().size());
+    }
+
+    @Test
+    public void dictionary() throws Exception {
+        final Column.OfString parity = JDBJ.query(SELECT).toColumns().execute(db).column("parity", Column.OfString.class);
+        assertEquals(Arrays.asList("odd", "even"), parity.getDictionary());
+        assertEquals("odd", parity.getString(0));
+        assertEquals(1, parity.getCode(1));
+        assertEquals("even", parity.getObject(1));
+        assertTrue(parity.isNull(2));
+        assertEquals(-1, parity.getCode(2));
+        assertNull(parity.getString(2));
+        assertFalse(parity.isNull(3));
+    }
+
+    @Test
+    public void nulls() throws Exception {
+        final Columns columns = JDBJ.query("SELECT CAST(NULL AS bigint) AS l, CAST(NULL AS double) AS d, CAST(NULL AS date) AS o").toColumns().execute(db);
+        assertEquals(1, columns.rows());
+        for (Column column : columns.getColumns()) {
+            assertTrue(column.isNull(0));
+            assertNull(column.getObject(0));
+        }
+        assertEquals(0, columns.column("l", Column.OfLong.class).getLong(0));
+    }
+
+    @Test
+    public void empty() throws Exception {
+        final Columns columns = JDBJ.query(SELECT + " WHERE x < 0").toColumns().execute(db);
+        assertEquals(0, columns.rows());
+        assertEquals(0, columns.column("id").rows());
+    }
+
+    @Test
+    public void bindingsAndCursor() throws Exception {
+        final Columns columns = JDBJ.query("SELECT x FROM SYSTEM_RANGE(1, 10) WHERE x > :min")
+                .bindLong(":min", 5L)
+                .toColumns()
+                .maxRows(2)
+                .execute(db);
+        assertEquals(2, columns.rows());
+        assertEquals(6L, columns.column(1).getObject(0));
+    }
+
+    @Test
+    public void unsigned() throws Exception {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT CAST(4294967295 AS BIGINT) AS i, CAST(18446744073709551615 AS DECIMAL(20)) AS l");
+             ResultSet rs = ps.executeQuery()) {
+            final Columns columns = Columns.read(unsigned(rs));
+            assertEquals(4294967295L, columns.column("i", Column.OfLong.class).getLong(0));
+            assertEquals(new BigDecimal("18446744073709551615"), columns.column("l", Column.OfObject.class).getObject(0));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noSuchLabel() throws Exception {
+        JDBJ.query(SELECT).toColumns().execute(db).column("missing");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongType() throws Exception {
+        JDBJ.query(SELECT).toColumns().execute(db).column("id", Column.OfDouble.class);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rowOutOfBounds() throws Exception {
+        JDBJ.query(SELECT).toColumns().execute(db).column("id", Column.OfLong.class).getLong(100);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void columnOutOfBounds() throws Exception {
+        JDBJ.query(SELECT).toColumns().execute(db).column(0);
+    }
+
+    /**
+     * @return rs, with metadata reporting unsigned INT and BIGINT as MySQL does
+     */
+    private static ResultSet unsigned(ResultSet rs) throws Exception {
+        final ResultSetMetaData metaData = rs.getMetaData();
+        final ResultSetMetaData unsigned = proxy(ResultSetMetaData.class, metaData, (method, args) -> {
+            switch (method.getName()) {
+                case "isSigned":
+                    return false;
+                case "getColumnType":
+                    return (Integer) args[0] == 1 ? Types.INTEGER : Types.BIGINT;
+                default:
+                    return null;
+            }
+        });
+        return proxy(ResultSet.class, rs, (method, args) -> method.getName().equals("getMetaData") ? unsigned : null);
+    }
+
+    private interface Intercept {
+        Object invoke(java.lang.reflect.Method method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, T delegate, Intercept intercept) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            final Object intercepted = intercept.invoke(method, args);
+            if (intercepted != null) {
+                return intercepted;
+            }
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }));
+    }
+}
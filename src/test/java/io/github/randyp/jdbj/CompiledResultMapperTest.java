@@ -0,0 +1,173 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class CompiledResultMapperTest {
+
+    @ClassRule
+    public static final H2Rule db = new H2Rule();
+
+    public enum Grade {
+        A, B
+    }
+
+    public static class Bean {
+        private long id;
+        private String firstName;
+        public Grade grade;
+        public Integer score;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public Bean setFirstName(String firstName) {
+            this.firstName = firstName;
+            return this;
+        }
+    }
+
+    public static class Immutable {
+        final String name;
+        final BigDecimal gpa;
+
+        public Immutable(String name, BigDecimal gpa) {
+            this.name = name;
+            this.gpa = gpa;
+        }
+    }
+
+    public static class Ambiguous {
+        public Ambiguous(String a, String b) {
+        }
+
+        public Ambiguous(Long a, Long b) {
+        }
+    }
+
+    static class Hidden {
+    }
+
+    @Test
+    public void bean() throws Exception {
+        final List<Bean> beans = JDBJ.query("SELECT x AS id, 'first' || x AS first_name, CASE WHEN x = 1 THEN 'A' ELSE 'B' END AS grade, " +
+                "CASE WHEN x = 1 THEN NULL ELSE x END AS score FROM SYSTEM_RANGE(1, 2)")
+                .mapTo(Bean.class)
+                .toList()
+                .execute(db);
+        assertEquals(2, beans.size());
+        assertEquals(1, beans.get(0).getId());
+        assertEquals("first1", beans.get(0).getFirstName());
+        assertEquals(Grade.A, beans.get(0).grade);
+        assertNull(beans.get(0).score);
+        assertEquals(2, beans.get(1).getId());
+        assertEquals(Grade.B, beans.get(1).grade);
+        assertEquals(Integer.valueOf(2), beans.get(1).score);
+    }
+
+    @Test
+    public void beanNullEnum() throws Exception {
+        final Optional<Bean> bean = JDBJ.query("SELECT CAST(NULL AS varchar) AS grade")
+                .mapTo(Bean.class)
+                .first()
+                .execute(db);
+        assertTrue(bean.isPresent());
+        assertNull(bean.get().grade);
+    }
+
+    @Test
+    public void constructorByPosition() throws Exception {
+        final Optional<Immutable> immutable = JDBJ.query("SELECT 'Ada' AS n, 3.5 AS g")
+                .mapTo(Immutable.class)
+                .first()
+                .execute(db);
+        assertTrue(immutable.isPresent());
+        assertEquals("Ada", immutable.get().name);
+        assertEquals(new BigDecimal("3.5"), immutable.get().gpa);
+    }
+
+    @Test
+    public void singleColumn() throws Exception {
+        final List<Long> values = JDBJ.query("SELECT x FROM SYSTEM_RANGE(1, 3)")
+                .mapTo(Long.class)
+                .toList()
+                .execute(db);
+        assertEquals(Arrays.asList(1L, 2L, 3L), values);
+    }
+
+    @Test
+    public void compiledOncePerShape() throws Exception {
+        final CompiledResultMapper<Bean> mapper = CompiledResultMapper.of(Bean.class);
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT 1 AS id");
+             SmartResultSet first = new SmartResultSet(ps.executeQuery());
+             PreparedStatement other = connection.prepareStatement("SELECT 2 AS id");
+             SmartResultSet second = new SmartResultSet(other.executeQuery())) {
+            final MethodHandle compiled = first.compiled(mapper);
+            assertSame(compiled, first.compiled(mapper));
+            assertSame(compiled, second.compiled(mapper));
+            assertSame(compiled, second.compiled(CompiledResultMapper.of(Bean.class)));
+        }
+    }
+
+    @Test
+    public void missingProperty() throws Exception {
+        try {
+            JDBJ.query("SELECT 1 AS id, 2 AS missing").mapTo(Bean.class).first().execute(db);
+            fail("expected SQLException");
+        } catch (SQLException e) {
+            assertEquals(Bean.class.getName() + " has no public setter or field for column \"MISSING\"", e.getMessage());
+        }
+    }
+
+    @Test(expected = SQLException.class)
+    public void nullPrimitive() throws Exception {
+        JDBJ.query("SELECT CAST(NULL AS bigint) AS id").mapTo(Bean.class).first().execute(db);
+    }
+
+    @Test(expected = SQLException.class)
+    public void ambiguousConstructor() throws Exception {
+        JDBJ.query("SELECT 1 AS a, 2 AS b").mapTo(Ambiguous.class).first().execute(db);
+    }
+
+    @Test(expected = SQLException.class)
+    public void singleColumnTypeManyColumns() throws Exception {
+        JDBJ.query("SELECT 1 AS a, 2 AS b").mapTo(Long.class).first().execute(db);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notPublic() throws Exception {
+        CompiledResultMapper.of(Hidden.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void primitive() throws Exception {
+        CompiledResultMapper.of(long.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void abstractClass() throws Exception {
+        CompiledResultMapper.of(Number.class);
+    }
+}
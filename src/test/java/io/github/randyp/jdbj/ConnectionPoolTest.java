@@ -0,0 +1,209 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class ConnectionPoolTest {
+
+    @ClassRule
+    public static final H2Rule db = new H2Rule();
+
+    private final List<Connection> opened = new ArrayList<>();
+
+    private ConnectionPool.Builder builder() {
+        return ConnectionPool.builder(() -> {
+            final Connection connection = db.getConnection();
+            synchronized (opened) {
+                opened.add(connection);
+            }
+            return connection;
+        });
+    }
+
+    @Test
+    public void reusesConnection() throws Exception {
+        final ExecuteQuery<Optional<Long>> query = JDBJ.query("SELECT :id AS id").map(rs -> rs.getLong(1)).first();
+        try (ConnectionPool pool = builder().build()) {
+            for (long id = 0; id < 10; id++) {
+                assertEquals(Optional.of(id), query.bindLong(":id", id).execute(pool));
+            }
+            assertEquals(1, opened.size());
+            assertEquals(1, pool.openCount());
+            assertEquals(1, pool.idleCount());
+        }
+        assertTrue(opened.get(0).isClosed());
+    }
+
+    @Test
+    public void minSize() throws Exception {
+        try (ConnectionPool pool = builder().minSize(2).maxSize(3).build()) {
+            assertEquals(2, opened.size());
+            assertEquals(2, pool.idleCount());
+            try (Connection a = pool.getConnection(); Connection b = pool.getConnection(); Connection c = pool.getConnection()) {
+                assertEquals(3, pool.openCount());
+                assertEquals(0, pool.idleCount());
+            }
+            assertEquals(3, pool.idleCount());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void minSizeGreaterThanMaxSize() throws Exception {
+        builder().minSize(2).maxSize(1).build();
+    }
+
+    @Test
+    public void borrowTimeout() throws Exception {
+        try (ConnectionPool pool = builder().maxSize(1).borrowTimeout(10, TimeUnit.MILLISECONDS).build();
+             Connection borrowed = pool.getConnection()) {
+            try {
+                pool.getConnection();
+                fail("expected SQLTimeoutException");
+            } catch (SQLTimeoutException e) {
+                assertEquals("timed out after 10ms waiting for one of 1 connections", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void waitsForReturn() throws Exception {
+        try (ConnectionPool pool = builder().maxSize(1).build()) {
+            final Connection borrowed = pool.getConnection();
+            final CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+                try (Connection connection = pool.getConnection()) {
+                    return connection.isValid(1);
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            Thread.sleep(20);
+            assertFalse(waiting.isDone());
+            borrowed.close();
+            assertTrue(waiting.get(5, TimeUnit.SECONDS));
+            assertEquals(1, opened.size());
+        }
+    }
+
+    @Test
+    public void resetsAutoCommitAndIsolation() throws Exception {
+        try (ConnectionPool pool = builder().build()) {
+            final int isolation;
+            try (Connection connection = pool.getConnection()) {
+                isolation = connection.getTransactionIsolation();
+                connection.setAutoCommit(false);
+                connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            }
+            try (Connection connection = pool.getConnection()) {
+                assertTrue(connection.getAutoCommit());
+                assertEquals(isolation, connection.getTransactionIsolation());
+            }
+            assertEquals(1, opened.size());
+        }
+    }
+
+    @Test
+    public void validatesIdleConnection() throws Exception {
+        try (ConnectionPool pool = builder().validateAfterIdle(0, TimeUnit.MILLISECONDS).build()) {
+            pool.getConnection().close();
+            opened.get(0).close();
+            try (Connection connection = pool.getConnection()) {
+                assertTrue(connection.isValid(1));
+            }
+            assertEquals(2, opened.size());
+            assertEquals(1, pool.openCount());
+        }
+    }
+
+    @Test
+    public void replacesInvalidConnections() throws Exception {
+        try (ConnectionPool pool = builder().minSize(2).maxSize(3).validateAfterIdle(0, TimeUnit.MILLISECONDS).build()) {
+            opened.get(0).close();
+            opened.get(1).close();
+            try (Connection connection = pool.getConnection()) {
+                assertTrue(connection.isValid(1));
+                assertEquals(2, pool.openCount());
+            }
+            assertEquals(2, pool.openCount());
+            assertEquals(2, pool.idleCount());
+        }
+    }
+
+    @Test
+    public void replacesAbortedConnection() throws Exception {
+        try (ConnectionPool pool = builder().minSize(2).maxSize(3).build()) {
+            pool.getConnection().abort(Runnable::run);
+            assertEquals(3, opened.size());
+            assertEquals(2, pool.openCount());
+            assertEquals(2, pool.idleCount());
+            assertTrue(opened.get(1).isClosed());
+        }
+    }
+
+    @Test
+    public void closedConnection() throws Exception {
+        try (ConnectionPool pool = builder().build()) {
+            final Connection connection = pool.getConnection();
+            connection.close();
+            connection.close();
+            assertTrue(connection.isClosed());
+            assertFalse(opened.get(0).isClosed());
+            assertEquals(1, pool.idleCount());
+            try {
+                connection.createStatement();
+                fail("expected SQLException");
+            } catch (SQLException e) {
+                assertEquals("connection is closed", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void close() throws Exception {
+        final ConnectionPool pool = builder().minSize(1).build();
+        final Connection borrowed = pool.getConnection();
+        pool.getConnection().close();
+        pool.close();
+
+        assertTrue(pool.isClosed());
+        assertTrue(opened.get(1).isClosed());
+        assertFalse(opened.get(0).isClosed());
+        borrowed.close();
+        assertTrue(opened.get(0).isClosed());
+        assertEquals(0, pool.openCount());
+        try {
+            pool.getConnection();
+            fail("expected SQLException");
+        } catch (SQLException e) {
+            assertEquals("pool is closed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void leakDetection() throws Exception {
+        try (ConnectionPool pool = builder().leakDetectionThreshold(10, TimeUnit.MILLISECONDS).build()) {
+            final Stream<Long> leaked = JDBJ.query("SELECT 1 AS id").map(rs -> rs.getLong(1)).toStream().execute(pool);
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (pool.leakCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, pool.leakCount());
+            leaked.close();
+            Thread.sleep(50);
+            assertEquals(1, pool.leakCount());
+            assertEquals(1, pool.idleCount());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLFeatureNotSupportedException;
+
+import static org.junit.Assert.*;
+
+public class CursorOptionsTest {
+
+    @ClassRule
+    public static final H2Rule db = new H2Rule();
+
+    @Test
+    public void defaultLeavesStatement() throws Exception {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT 1")) {
+            final int fetchSize = ps.getFetchSize();
+            assertFalse(CursorOptions.DEFAULT.apply(connection, ps, null));
+            assertEquals(fetchSize, ps.getFetchSize());
+            assertEquals(0, ps.getMaxRows());
+            assertEquals(0, ps.getQueryTimeout());
+        }
+    }
+
+    @Test
+    public void apply() throws Exception {
+        final CursorOptions cursor = CursorOptions.DEFAULT
+                .fetchSize(5)
+                .maxRows(10)
+                .queryTimeout(30)
+                .fetchDirection(ResultSet.FETCH_FORWARD);
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT 1")) {
+            assertFalse(cursor.apply(connection, ps, null));
+            assertEquals(5, ps.getFetchSize());
+            assertEquals(10, ps.getMaxRows());
+            assertEquals(30, ps.getQueryTimeout());
+            assertEquals(ResultSet.FETCH_FORWARD, ps.getFetchDirection());
+        }
+    }
+
+    @Test
+    public void streaming() throws Exception {
+        final CursorOptions cursor = CursorOptions.DEFAULT.streaming();
+        assertTrue(cursor.isStreaming());
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT 1")) {
+            assertEquals(Dialect.H2, Dialect.of(connection));
+            assertFalse(cursor.apply(connection, ps, Dialect.of(connection)));
+            assertEquals(CursorOptions.DEFAULT_STREAMING_FETCH_SIZE, ps.getFetchSize());
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    @Test
+    public void immutable() throws Exception {
+        final CursorOptions cursor = CursorOptions.DEFAULT.fetchSize(5);
+        assertEquals(0, CursorOptions.DEFAULT.getFetchSize());
+        assertEquals(5, cursor.getFetchSize());
+        assertEquals(1, cursor.maxRows(1).getMaxRows());
+        assertEquals(0, cursor.getMaxRows());
+    }
+
+    @Test
+    public void equalSettingsEqual() throws Exception {
+        final CursorOptions cursor = CursorOptions.DEFAULT.fetchSize(5).fetchDirection(ResultSet.FETCH_FORWARD).streaming();
+        assertEquals(cursor, CursorOptions.DEFAULT.streaming().fetchDirection(ResultSet.FETCH_FORWARD).fetchSize(5));
+        assertEquals(cursor.hashCode(), CursorOptions.DEFAULT.streaming().fetchDirection(ResultSet.FETCH_FORWARD).fetchSize(5).hashCode());
+        assertEquals(CursorOptions.DEFAULT, CursorOptions.DEFAULT.maxRows(0));
+        assertNotEquals(cursor, cursor.maxRows(1));
+        assertNotEquals(CursorOptions.DEFAULT, CursorOptions.DEFAULT.fetchDirection(ResultSet.FETCH_FORWARD));
+    }
+
+    @Test
+    public void dialectFetchSize() throws Exception {
+        assertEquals(Integer.MIN_VALUE, Dialect.MYSQL.streamingFetchSize(1000));
+        assertEquals(1000, Dialect.POSTGRESQL.streamingFetchSize(1000));
+        assertTrue(Dialect.POSTGRESQL.streamingRequiresTransaction);
+        assertFalse(Dialect.H2.streamingRequiresTransaction);
+    }
+
+    @Test
+    public void failedSettingRestoresAutoCommit() throws Exception {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = failingFetchDirection(connection.prepareStatement("SELECT 1"))) {
+            try {
+                CursorOptions.DEFAULT.streaming().fetchDirection(ResultSet.FETCH_REVERSE).apply(connection, ps, Dialect.POSTGRESQL);
+                fail("expected SQLFeatureNotSupportedException");
+            } catch (SQLFeatureNotSupportedException expected) {
+                //expected
+            }
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    @Test
+    public void failedSettingRestoresAutoCommitWhenExecuting() throws Exception {
+        final MapQuery<Long> query = JDBJ.query("SELECT 1").map(rs -> rs.getLong(1)).streaming().fetchDirection(ResultSet.FETCH_REVERSE);
+        try (Connection connection = postgreSqlFailingFetchDirection(db.getConnection())) {
+            try {
+                query.toList().execute(connection);
+                fail("expected SQLFeatureNotSupportedException");
+            } catch (SQLFeatureNotSupportedException expected) {
+                //expected
+            }
+            assertTrue(connection.getAutoCommit());
+            try {
+                query.toStream().execute(connection);
+                fail("expected SQLFeatureNotSupportedException");
+            } catch (SQLFeatureNotSupportedException expected) {
+                //expected
+            }
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    /**
+     * @return connection which reports itself as PostgreSQL, so streaming turns auto commit off, and whose statements fail {@link PreparedStatement#setFetchDirection(int)}
+     */
+    private static Connection postgreSqlFailingFetchDirection(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getMetaData":
+                    return proxy(DatabaseMetaData.class, (metaDataProxy, metaDataMethod, metaDataArgs) ->
+                            "getDatabaseProductName".equals(metaDataMethod.getName()) ? "PostgreSQL" : invoke(connection.getMetaData(), metaDataMethod, metaDataArgs));
+                case "prepareStatement":
+                    return failingFetchDirection((PreparedStatement) invoke(connection, method, args));
+                default:
+                    return invoke(connection, method, args);
+            }
+        });
+    }
+
+    private static PreparedStatement failingFetchDirection(PreparedStatement ps) {
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            if ("setFetchDirection".equals(method.getName())) {
+                throw new SQLFeatureNotSupportedException("setFetchDirection");
+            }
+            return invoke(ps, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object delegate, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeQueryTimeout() throws Exception {
+        CursorOptions.DEFAULT.queryTimeout(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeFetchSize() throws Exception {
+        CursorOptions.DEFAULT.fetchSize(-1);
+    }
+}
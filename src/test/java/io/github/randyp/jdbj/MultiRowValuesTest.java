@@ -0,0 +1,96 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(Enclosed.class)
+public class MultiRowValuesTest {
+
+    public static class Of {
+
+        @Test
+        public void notInsert() throws Exception {
+            assertNull(MultiRowValues.of(NamedParameterStatement.parse("SELECT :a"), 10));
+        }
+
+        @Test
+        public void parameterOutsideRow() throws Exception {
+            assertNull(MultiRowValues.of(NamedParameterStatement.parse("INSERT INTO t(a) VALUES (:a) ON DUPLICATE KEY UPDATE a = :b"), 10));
+        }
+
+        @Test
+        public void jdbcSql() throws Exception {
+            final MultiRowValues values = MultiRowValues.of(NamedParameterStatement.parse("INSERT INTO t(a, b) VALUES (:a, :b) RETURNING id"), 10);
+            assertNotNull(values);
+            assertEquals("INSERT INTO t(a, b) VALUES (?, ?),(?, ?),(?, ?) RETURNING id", values.jdbcSql("(?, ?)", 3));
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void maxRowsNotPositive() throws Exception {
+            MultiRowValues.of(NamedParameterStatement.parse("INSERT INTO t(a) VALUES (:a)"), 0);
+        }
+    }
+
+    public static class RowsPerStatement {
+
+        @Test
+        public void limitedByMaxRows() throws Exception {
+            final MultiRowValues values = MultiRowValues.of(NamedParameterStatement.parse("INSERT INTO t(a, b) VALUES (:a, :b)"), 10);
+            assertNotNull(values);
+            assertEquals(10, values.rowsPerStatement(Dialect.H2));
+        }
+
+        @Test
+        public void limitedByMaxParameters() throws Exception {
+            final MultiRowValues values = MultiRowValues.of(NamedParameterStatement.parse("INSERT INTO t(a, b, c) VALUES (:a, :b, :c)"), 1000);
+            assertNotNull(values);
+            assertEquals(333, values.rowsPerStatement(Dialect.SQLITE));
+        }
+    }
+
+    public static class Execute {
+
+        @ClassRule
+        public static final H2Rule db = new H2Rule();
+
+        @Test
+        public void rowsInOrder() throws Exception {
+            final MultiRowValues values = MultiRowValues.of(NamedParameterStatement.parse("INSERT INTO t(id, name) VALUES (:id, 'n' || :id)"), 2);
+            assertNotNull(values);
+            final List<ValueBindings> rows = new ArrayList<>();
+            for (long id = 0; id < 5; id++) {
+                rows.add(new ValueBindings().bindLong(":id", id));
+            }
+
+            final List<Integer> executed = new ArrayList<>();
+            try (Connection connection = db.getConnection()) {
+                try (PreparedStatement ps = connection.prepareStatement("CREATE TABLE t(id BIGINT, name VARCHAR)")) {
+                    ps.execute();
+                }
+                values.execute(connection, rows, Dialect.H2, false, (ps, from, count, updateCount) -> {
+                    assertEquals(count, updateCount);
+                    executed.add(from);
+                    executed.add(count);
+                });
+
+                final List<String> names = JDBJ.query("SELECT name FROM t ORDER BY id").map(rs -> rs.getString(1)).toList().execute(connection);
+                assertEquals(Arrays.asList("n0", "n1", "n2", "n3", "n4"), names);
+                try (PreparedStatement ps = connection.prepareStatement("DROP TABLE t")) {
+                    ps.execute();
+                }
+            }
+            assertEquals(Arrays.asList(0, 2, 2, 2, 4, 1), executed);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.randyp.jdbj;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NamedParameterStatementCacheTest {
+
+    @Test
+    public void hit() throws Exception {
+        final NamedParameterStatementCache cache = new NamedParameterStatementCache();
+        final NamedParameterStatement first = cache.get("SELECT * FROM student WHERE id = :id");
+        final NamedParameterStatement second = cache.get("SELECT * FROM student WHERE id = :id");
+        assertSame(first, second);
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws Exception {
+        final NamedParameterStatementCache cache = new NamedParameterStatementCache(2);
+        final NamedParameterStatement a = cache.get("SELECT :a");
+        cache.get("SELECT :b");
+        assertSame(a, cache.get("SELECT :a"));
+        cache.get("SELECT :c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+        assertSame(a, cache.get("SELECT :a"));
+        assertEquals(4, cache.missCount() + cache.evictionCount());
+    }
+
+    @Test
+    public void shrink() throws Exception {
+        final NamedParameterStatementCache cache = new NamedParameterStatementCache(3);
+        cache.get("SELECT :a");
+        cache.get("SELECT :b");
+        cache.get("SELECT :c");
+        cache.setMaximumSize(1);
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.evictionCount());
+        assertEquals(1, cache.getMaximumSize());
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        final NamedParameterStatementCache cache = new NamedParameterStatementCache(0);
+        final NamedParameterStatement first = cache.get("SELECT :a");
+        final NamedParameterStatement second = cache.get("SELECT :a");
+        assertNotSame(first, second);
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    public void clear() throws Exception {
+        final NamedParameterStatementCache cache = new NamedParameterStatementCache();
+        cache.get("SELECT :a");
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeMaximumSize() throws Exception {
+        new NamedParameterStatementCache(-1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullSql() throws Exception {
+        new NamedParameterStatementCache().get(null);
+    }
+
+    @Test
+    public void global() throws Exception {
+        assertSame(JDBJ.statementCache(), NamedParameterStatementCache.GLOBAL);
+        final String sql = "SELECT * FROM student WHERE id = :global_cache_test";
+        assertSame(NamedParameterStatement.make(sql), JDBJ.string(sql).query().statement);
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.randyp.jdbj;
 
 import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import io.github.randyp.jdbj.lambda.Binding;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
@@ -8,12 +9,18 @@ import org.junit.runner.RunWith;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(Enclosed.class)
@@ -80,6 +87,48 @@ public class NamedParameterStatementTest {
             assertEquals("select id from agent_secret WHERE status in (?,?)", statement.jdbcSql(bindings));
         }
 
+        @Test
+        public void sameShapeSameInstance() throws Exception {
+            final NamedParameterStatement statement = NamedParameterStatement.parse("select id from agent_secret WHERE status in :statuses and id = :id");
+            final String first = statement.jdbcSql(new PositionalBindings()
+                    .bindCollection(":statuses", Arrays.asList(pc -> pc.setString("ACTIVE"), pc -> pc.setString("MIA")))
+                    .bind(":id", pc -> pc.setInt(1)));
+            final String second = statement.jdbcSql(new PositionalBindings()
+                    .bindCollection(":statuses", Arrays.asList(pc -> pc.setString("KIA"), pc -> pc.setString("MIA")))
+                    .bind(":id", pc -> pc.setInt(2)));
+            final String singleton = statement.jdbcSql(new PositionalBindings()
+                    .bindCollection(":statuses", Collections.singletonList(pc -> pc.setString("ACTIVE")))
+                    .bind(":id", pc -> pc.setInt(2)));
+            final String value = statement.jdbcSql(new PositionalBindings()
+                    .bind(":statuses", pc -> pc.setString("ACTIVE"))
+                    .bind(":id", pc -> pc.setInt(2)));
+
+            assertEquals("select id from agent_secret WHERE status in (?,?) and id = ?", first);
+            assertSame(first, second);
+            assertEquals("select id from agent_secret WHERE status in (?) and id = ?", singleton);
+            assertEquals("select id from agent_secret WHERE status in ? and id = ?", value);
+            assertSame(value, statement.jdbcSql(new PositionalBindings()
+                    .bind(":statuses", pc -> pc.setString("MIA"))
+                    .bind(":id", pc -> pc.setInt(3))));
+        }
+
+        @Test
+        public void shapesBounded() throws Exception {
+            final NamedParameterStatement statement = NamedParameterStatement.parse("select id from agent_secret WHERE id in :ids");
+            final List<Binding> ids = new ArrayList<>();
+            String first = null;
+            for (int i = 0; i <= NamedParameterStatement.MAXIMUM_SHAPES; i++) {
+                final String sql = statement.jdbcSql(new PositionalBindings().bindCollection(":ids", ids));
+                if (first == null) {
+                    first = sql;
+                }
+                ids.add(pc -> pc.setInt(1));
+            }
+            final String regenerated = statement.jdbcSql(new PositionalBindings().bindCollection(":ids", Collections.emptyList()));
+            assertEquals(first, regenerated);
+            assertNotSame(first, regenerated);
+        }
+
         @Test(expected = NullPointerException.class)
         public void Null() throws Exception {
             NamedParameterStatement.make("select id from agent_secret WHERE status in :statuses")
@@ -109,6 +158,65 @@ public class NamedParameterStatementTest {
                 statement.bind(ps, null);
             }
         }
+
+        @Test
+        public void repeatedParameter() throws Exception {
+            final NamedParameterStatement statement = NamedParameterStatement.make("SELECT :a, :b, :a");
+            final PositionalBindings bindings = new PositionalBindings()
+                    .bind(":a", pc -> pc.setInt(1))
+                    .bindCollection(":b", Arrays.asList(pc -> pc.setInt(2), pc -> pc.setInt(3)));
+            assertEquals("SELECT ?, (?,?), ?", statement.jdbcSql(bindings));
+            try(Connection connection = db.getConnection();
+                PreparedStatement ps = connection.prepareStatement("SELECT ?, ?, ?, ?")){
+                statement.bind(ps, bindings);
+                try(ResultSet rs = ps.executeQuery()){
+                    assertTrue(rs.next());
+                    assertEquals(1, rs.getInt(1));
+                    assertEquals(2, rs.getInt(2));
+                    assertEquals(3, rs.getInt(3));
+                    assertEquals(1, rs.getInt(4));
+                }
+            }
+        }
+
+        @Test
+        public void resolvedOnce() throws Exception {
+            final NamedParameterStatement statement = NamedParameterStatement.make("SELECT :a, :b, :a");
+            final PositionalBindings bindings = new PositionalBindings()
+                    .bind(":a", pc -> pc.setInt(1))
+                    .bindCollection(":b", Arrays.asList(pc -> pc.setInt(2), pc -> pc.setInt(3)));
+            final AtomicInteger lookups = new AtomicInteger();
+            final Bindings counting = new Bindings() {
+                @Override
+                public boolean containsBinding(String name) {
+                    return bindings.containsBinding(name);
+                }
+
+                @Override
+                public Set<String> keys() {
+                    return bindings.keys();
+                }
+
+                @Override
+                public PositionalBinding get(String namedParameter) {
+                    lookups.incrementAndGet();
+                    return bindings.get(namedParameter);
+                }
+            };
+
+            final SlotBindings resolved = statement.resolve(counting);
+            assertSame(resolved, statement.resolve(resolved));
+            assertEquals("SELECT ?, (?,?), ?", statement.jdbcSql(resolved));
+            try(Connection connection = db.getConnection();
+                PreparedStatement ps = connection.prepareStatement(statement.jdbcSql(resolved))){
+                statement.bind(ps, resolved);
+                try(ResultSet rs = ps.executeQuery()){
+                    assertTrue(rs.next());
+                    assertEquals(1, rs.getInt(3));
+                }
+            }
+            assertEquals(2, lookups.get());
+        }
     }
 
     public static class CheckAllBindingsPresent {
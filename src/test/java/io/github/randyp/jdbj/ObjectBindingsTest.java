@@ -0,0 +1,232 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class ObjectBindingsTest {
+
+    @ClassRule
+    public static final H2Rule db = new H2Rule();
+
+    public enum Grade {
+        A, B
+    }
+
+    public static class Bean {
+        private final long id;
+        private final String firstName;
+        private final boolean active;
+        public Grade grade = Grade.A;
+        public BigDecimal gpa;
+
+        public Bean(long id, String firstName, boolean active) {
+            this.id = id;
+            this.firstName = firstName;
+            this.active = active;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+    }
+
+    /**
+     * record style accessors
+     */
+    public static class Point {
+        private final int x;
+        private final Integer y;
+
+        public Point(int x, Integer y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        public int x() {
+            return x;
+        }
+
+        public Integer y() {
+            return y;
+        }
+    }
+
+    /**
+     * methods which are not properties
+     */
+    public static class NotProperties implements Iterable<Long> {
+        public long id = 1;
+
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public Iterator<Long> iterator() {
+            return Arrays.asList(id).iterator();
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+    }
+
+    public static class GetAndIs {
+        public Boolean getActive() {
+            return true;
+        }
+
+        public boolean isActive() {
+            return false;
+        }
+    }
+
+    static class Hidden {
+        public long getId() {
+            return 1;
+        }
+    }
+
+    @Test
+    public void query() throws Exception {
+        final Bean bean = new Bean(5, "Ada", true);
+        bean.gpa = new BigDecimal("3.5");
+        final Optional<String> result = JDBJ.query("SELECT :first_name || '-' || :id || '-' || :active || '-' || :grade || '-' || :gpa AS s")
+                .bindObject(bean)
+                .map(rs -> rs.getString(1))
+                .first()
+                .execute(db);
+        assertEquals(Optional.of("ADA-5-TRUE-A-3.5"), result.map(String::toUpperCase));
+    }
+
+    @Test
+    public void accessorsAndOtherBindings() throws Exception {
+        final Optional<Long> result = JDBJ.query("SELECT :x + COALESCE(:y, 0) + :z AS sum")
+                .bindObject(new Point(1, null))
+                .bindLong(":z", 10L)
+                .map(rs -> rs.getLong(1))
+                .first()
+                .execute(db);
+        assertEquals(Optional.of(11L), result);
+    }
+
+    @Test
+    public void batchBindsBySlot() throws Exception {
+        final NamedParameterStatement statement = NamedParameterStatement.make("SELECT :x, :y, :x, :z");
+        final ValueBindings bindings = ObjectBindings.bindObject(statement, new ValueBindings(), new Point(1, 2))
+                .bindLong(":z", 3L);
+        assertTrue(bindings instanceof ObjectBindings);
+        assertEquals(Arrays.asList(":x", ":y", ":z"), Arrays.asList(bindings.keys().toArray()));
+        assertEquals("SELECT ?, ?, ?, ?", statement.jdbcSql(bindings));
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement(statement.jdbcSql(bindings))) {
+            statement.bind(ps, bindings);
+            try (SmartResultSet rs = new SmartResultSet(ps.executeQuery())) {
+                assertTrue(rs.next());
+                assertEquals(1L, rs.getLongPrimitive(1));
+                assertEquals(2L, rs.getLongPrimitive(2));
+                assertEquals(1L, rs.getLongPrimitive(3));
+                assertEquals(3L, rs.getLongPrimitive(4));
+            }
+        }
+    }
+
+    @Test
+    public void batch() throws Exception {
+        final BatchedExecuteUpdate update = JDBJ.update("INSERT INTO bound_points(x, y) VALUES (:x, :y)").asBatch();
+        JDBJ.statement("CREATE TABLE bound_points(x INT, y INT)").execute(db);
+        try {
+            for (Point point : Arrays.asList(new Point(1, 2), new Point(3, null))) {
+                update.startBatch().bindObject(point).addBatch();
+            }
+            update.execute(db);
+            final List<String> points = JDBJ.query("SELECT x, y FROM bound_points ORDER BY x")
+                    .map(rs -> rs.getInt(1) + "," + rs.getInteger(2))
+                    .toList()
+                    .execute(db);
+            assertEquals(Arrays.asList("1,2", "3,null"), points);
+        } finally {
+            JDBJ.statement("DROP TABLE bound_points").execute(db);
+        }
+    }
+
+    @Test
+    public void binderCachedPerClass() throws Exception {
+        final NamedParameterStatement statement = NamedParameterStatement.make("SELECT :x");
+        assertSame(statement.binder(Point.class), statement.binder(Point.class));
+        assertEquals(Arrays.asList(":x"), Arrays.asList(statement.binder(Point.class).names().toArray()));
+    }
+
+    @Test
+    public void binderCachedPerClassAndSql() throws Exception {
+        final NamedParameterStatement parsed = NamedParameterStatement.parse("SELECT :x, :y");
+        final NamedParameterStatement reparsed = NamedParameterStatement.parse("SELECT :x, :y");
+        assertSame(parsed.binder(Point.class), reparsed.binder(Point.class));
+        assertNotSame(parsed.binder(Point.class), NamedParameterStatement.parse("SELECT :x").binder(Point.class));
+
+        final ValueBindings bindings = ObjectBindings.bindObject(reparsed, new ValueBindings(), new Point(1, 2));
+        assertTrue(((ObjectBindings) bindings).isFor(reparsed));
+        assertSame(bindings.keys(), bindings.keys());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void alreadyBound() throws Exception {
+        JDBJ.query("SELECT :x").bindInt(":x", 1).bindObject(new Point(1, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchAlreadyBound() throws Exception {
+        JDBJ.update("UPDATE t SET x = :x").asBatch().startBatch().bindObject(new Point(1, 2)).bindInt(":x", 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noProperties() throws Exception {
+        JDBJ.query("SELECT :a").bindObject(new Point(1, 2));
+    }
+
+    @Test
+    public void onlyAccessorsOfFields() throws Exception {
+        final NamedParameterStatement statement = NamedParameterStatement.make("SELECT :id, :size, :iterator, :hashcode");
+        assertEquals(Arrays.asList(":id"), Arrays.asList(statement.binder(NotProperties.class).names().toArray()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getAndIsAmbiguous() throws Exception {
+        JDBJ.query("SELECT :active").bindObject(new GetAndIs());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notPublic() throws Exception {
+        JDBJ.query("SELECT :id").bindObject(new Hidden());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullValue() throws Exception {
+        JDBJ.query("SELECT :x").bindObject(null);
+    }
+}
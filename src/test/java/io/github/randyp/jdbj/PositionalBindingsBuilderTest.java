@@ -11,6 +11,9 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -90,6 +93,31 @@ public class PositionalBindingsBuilderTest {
         }
     }
 
+    public static class PadCollections {
+        @Test
+        public void sameResultFewerShapes() throws Exception {
+            final NamedParameterStatement statement = NamedParameterStatement.make("SELECT COUNT(*), SUM(X) FROM SYSTEM_RANGE(1, 100) WHERE X IN :binding");
+            final Set<String> sqls = new HashSet<>();
+            try (Connection connection = db.getConnection()) {
+                for (int size = 1; size <= 100; size++) {
+                    final List<Long> xs = new ArrayList<>();
+                    for (long x = 1; x <= size; x++) {
+                        xs.add(x);
+                    }
+                    final TestBuilder builder = new TestBuilder(statement, new PositionalBindings())
+                            .padCollections(CollectionPadding.powersOfTwo())
+                            .bindLongs(":binding", xs);
+                    sqls.add(builder.buildSql());
+
+                    final long expectedSum = (long) size * (size + 1) / 2;
+                    final long[] selected = builder.execute(connection, rs -> new long[]{rs.getLong(1), rs.getLong(2)});
+                    assertArrayEquals(new long[]{size, expectedSum}, selected);
+                }
+            }
+            assertEquals(8, sqls.size());
+        }
+    }
+
     private static class TestBuilder extends PositionalBindingsBuilder<TestBuilder> {
 
         TestBuilder() {
@@ -6,6 +6,7 @@ import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -41,6 +42,13 @@ public class PositionalBindingsTest {
             assertSame(expected, ((ValueBinding) positionalBinding).getBinding());
         }
 
+        @Test
+        public void getDoesNotWrap() throws Exception {
+            final PositionalBindings positionalBindings = new PositionalBindings()
+                    .bind(":id", pc -> pc.setInt(1));
+            assertSame(positionalBindings.get(":id"), positionalBindings.get(":id"));
+        }
+
         @Test(expected = IllegalArgumentException.class)
         public void alreadyBound() throws Exception {
             new PositionalBindings()
@@ -81,6 +89,70 @@ public class PositionalBindingsTest {
         }
     }
 
+    public static class PadCollections {
+
+        private final List<Binding> three = Arrays.asList(pc -> pc.setInt(1), pc -> pc.setInt(2), pc -> pc.setInt(3));
+
+        @Test
+        public void padsAfter() throws Exception {
+            final PositionalBindings bindings = new PositionalBindings()
+                    .padCollections(CollectionPadding.powersOfTwo())
+                    .bindCollection(":ids", three);
+            assertEquals(4, bindings.get(":ids").shape());
+            assertEquals(3, ((ListBinding) bindings.get(":ids")).getBindings().size());
+        }
+
+        @Test
+        public void padsBefore() throws Exception {
+            final PositionalBindings bindings = new PositionalBindings()
+                    .bindCollection(":ids", three)
+                    .bind(":id", pc -> pc.setInt(1))
+                    .padCollections(CollectionPadding.powersOfTwo());
+            assertEquals(4, bindings.get(":ids").shape());
+            assertEquals(PositionalBinding.VALUE_SHAPE, bindings.get(":id").shape());
+            assertEquals(Arrays.asList(":ids", ":id"), new ArrayList<>(bindings.keys()));
+        }
+
+        @Test
+        public void none() throws Exception {
+            final PositionalBindings bindings = new PositionalBindings()
+                    .padCollections(CollectionPadding.powersOfTwo())
+                    .bindCollection(":ids", three)
+                    .padCollections(CollectionPadding.NONE);
+            assertEquals(3, bindings.get(":ids").shape());
+        }
+
+        @Test
+        public void emptyNotPadded() throws Exception {
+            final PositionalBindings bindings = new PositionalBindings()
+                    .padCollections(CollectionPadding.ladder(10))
+                    .bindCollection(":ids", new ArrayList<>());
+            assertEquals(0, bindings.get(":ids").shape());
+        }
+
+        @Test
+        public void addedPaddedByTarget() throws Exception {
+            final PositionalBindings added = new PositionalBindings().bindCollection(":ids", three);
+            final PositionalBindings bindings = new PositionalBindings()
+                    .padCollections(CollectionPadding.ladder(10))
+                    .addAll(added);
+            assertEquals(10, bindings.get(":ids").shape());
+            assertEquals(3, added.get(":ids").shape());
+        }
+
+        @Test(expected = IllegalStateException.class)
+        public void shrinks() throws Exception {
+            new PositionalBindings()
+                    .padCollections(size -> size - 1)
+                    .bindCollection(":ids", three);
+        }
+
+        @Test(expected = NullPointerException.class)
+        public void nullPadding() throws Exception {
+            new PositionalBindings().padCollections(null);
+        }
+    }
+
     public static class AddAll {
 
         @Test
@@ -32,6 +32,24 @@ public class PreparedColumnTest {
             }
         }
 
+        @Test
+        public void estimatedBytes() throws Exception {
+            try(Connection connection = db.getConnection();
+                PreparedStatement ps = connection.prepareStatement("SELECT ? as binding")){
+
+                final PreparedColumn pc = new PreparedColumn(ps, 1);
+                assertEquals(0, pc.getEstimatedBytes());
+                pc.setLongPrimitive(1L);
+                assertEquals(8, pc.getEstimatedBytes());
+                pc.setString("abcd");
+                assertEquals(16, pc.getEstimatedBytes());
+                pc.setBytes(new byte[10]);
+                assertEquals(26, pc.getEstimatedBytes());
+                pc.setObject(null);
+                assertEquals(27, pc.getEstimatedBytes());
+            }
+        }
+
         @Test
         public void createBlob() throws Exception {
             final byte[] expected = "abcde".getBytes();
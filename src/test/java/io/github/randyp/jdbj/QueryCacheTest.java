@@ -0,0 +1,341 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import io.github.randyp.jdbj.lambda.ConnectionSupplier;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class QueryCacheTest {
+
+    @ClassRule
+    public static final H2Rule db = new H2Rule();
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ConnectionSupplier counting = () -> {
+        connections.incrementAndGet();
+        return db.getConnection();
+    };
+
+    private static ExecuteQuery<List<Long>> range(QueryCache cache, Duration ttl, String... tags) {
+        return JDBJ.query("SELECT x FROM SYSTEM_RANGE(1, :n)").map(rs -> rs.getLong(1)).toList().cached(cache, ttl, tags);
+    }
+
+    private static ExecuteQuery<List<Long>> range(QueryCache cache, String name, String... tags) {
+        return JDBJ.query("SELECT x FROM SYSTEM_RANGE(1, :n)").map(rs -> rs.getLong(1)).toList().cached(cache, name, TTL, tags);
+    }
+
+    @Test
+    public void hitDoesNotGetConnection() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final ExecuteQuery<List<Long>> query = range(cache, TTL);
+
+        final List<Long> first = query.bindLong(":n", 3L).execute(counting);
+        final List<Long> second = query.bindLong(":n", 3L).execute(counting);
+        assertEquals(Arrays.asList(1L, 2L, 3L), first);
+        assertEquals(first, second);
+        assertEquals(1, connections.get());
+
+        final QueryCache.Stats stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.hitRate(), 0);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void sharedBetweenQueriesBuiltSeparately() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+
+        final List<Long> first = range(cache, TTL).bindLong(":n", 3L).execute(counting);
+        final List<Long> second = range(cache, TTL).bindLong(":n", 3L).execute(counting);
+        assertEquals(first, second);
+        assertEquals(1, connections.get());
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void keyedByMapper() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final String sql = "SELECT x FROM SYSTEM_RANGE(1, 2)";
+
+        assertEquals(Arrays.asList(1L, 2L), JDBJ.query(sql).map(rs -> rs.getLong(1)).toList().cached(cache, TTL).execute(db));
+        assertEquals(Arrays.asList("1", "2"), JDBJ.query(sql).map(rs -> rs.getString(1)).toList().cached(cache, TTL).execute(db));
+        assertEquals(Arrays.asList(1L, 2L), JDBJ.query(sql).mapTo(Long.class).toList().cached(cache, TTL).execute(db));
+        assertEquals(Arrays.asList("1", "2"), JDBJ.query(sql).mapTo(String.class).toList().cached(cache, TTL).execute(db));
+        assertEquals(4, cache.stats().getMisses());
+
+        assertEquals(Arrays.asList("1", "2"), JDBJ.query(sql).mapTo(String.class).toList().cached(cache, TTL).execute(db));
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(Arrays.asList("x1", "x2"), JDBJ.query(sql).mapTo(String.class).remap(x -> "x" + x).toList().cached(cache, TTL).execute(db));
+        assertEquals(5, cache.stats().getMisses());
+    }
+
+    @Test
+    public void keyedByName() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+
+        range(cache, "a").bindLong(":n", 1L).execute(db);
+        range(cache, "b").bindLong(":n", 1L).execute(db);
+        range(cache, "a").bindLong(":n", 1L).execute(db);
+        assertEquals(2, cache.stats().getMisses());
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    @Test
+    public void keyedByChunks() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final MapQuery<Long> max = JDBJ.query("SELECT MAX(x) FROM SYSTEM_RANGE(1, 10) WHERE x IN :xs")
+                .bindLongs(":xs", 1L, 2L, 3L, 4L)
+                .map(rs -> rs.getLong(1));
+
+        assertEquals(Collections.singletonList(4L), max.toList().cached(cache, TTL).execute(db));
+        assertEquals(Arrays.asList(2L, 4L), max.chunkCollections(2).toList().cached(cache, TTL).execute(db));
+        assertEquals(2, cache.stats().getMisses());
+    }
+
+    @Test
+    public void listsUnmodifiable() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final List<Long> cached = range(cache, TTL).bindLong(":n", 1L).execute(db);
+        try {
+            cached.add(2L);
+            fail("expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException expected) {
+            //expected
+        }
+        assertEquals(Collections.singletonList(1L), range(cache, TTL).bindLong(":n", 1L).execute(db));
+    }
+
+    @Test
+    public void arraysCopied() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final ExecuteQuery<long[]> query = JDBJ.query("SELECT x FROM SYSTEM_RANGE(1, 2)").mapToLong(rs -> rs.getLongPrimitive(1)).toLongArray().cached(cache, TTL);
+
+        final long[] first = query.execute(db);
+        first[0] = 5;
+        assertArrayEquals(new long[]{1, 2}, query.execute(db));
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    @Test
+    public void keyedByBindings() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final ExecuteQuery<List<Long>> query = range(cache, TTL);
+
+        assertEquals(Arrays.asList(1L, 2L), query.bindLong(":n", 2L).execute(db));
+        assertEquals(Arrays.asList(1L, 2L, 3L), query.bindLong(":n", 3L).execute(db));
+        assertEquals(Arrays.asList(1L, 2L), query.bindLong(":n", 2L).execute(db));
+        assertEquals(2, cache.stats().getMisses());
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    @Test
+    public void keyedByCollectionValues() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final ExecuteQuery<List<Long>> query = JDBJ.query("SELECT x FROM SYSTEM_RANGE(1, 10) WHERE x IN :xs ORDER BY x")
+                .map(rs -> rs.getLong(1))
+                .toList()
+                .cached(cache, TTL);
+
+        assertEquals(Arrays.asList(2L, 4L), query.bindLongs(":xs", 2L, 4L).execute(db));
+        assertEquals(Arrays.asList(2L, 5L), query.bindLongs(":xs", 2L, 5L).execute(db));
+        assertEquals(Arrays.asList(2L, 4L), query.bindLongs(":xs", 4L, 2L).execute(db));
+        assertEquals(Arrays.asList(2L, 4L), query.bindLongs(":xs", 2L, 4L).execute(db));
+        assertEquals(3, cache.stats().getMisses());
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    @Test
+    public void separateResultsPerQuery() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final MapQuery<Long> map = JDBJ.query("SELECT x FROM SYSTEM_RANGE(1, 3)").map(rs -> rs.getLong(1));
+        final ExecuteQuery<List<Long>> list = map.toList().cached(cache, TTL);
+        final ExecuteQuery<Optional<Long>> first = map.first().cached(cache, TTL);
+        final ExecuteQuery<List<Long>> limited = list.maxRows(2);
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), list.execute(db));
+        assertEquals(Optional.of(1L), first.execute(db));
+        assertEquals(Arrays.asList(1L, 2L), limited.execute(db));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void expires() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final ExecuteQuery<List<Long>> query = range(cache, Duration.ofMillis(50)).bindLong(":n", 1L);
+
+        query.execute(counting);
+        query.execute(counting);
+        assertEquals(1, connections.get());
+        Thread.sleep(100);
+        query.execute(counting);
+        assertEquals(2, connections.get());
+        assertEquals(1, cache.stats().getExpirations());
+        assertEquals(2, cache.stats().getMisses());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws Exception {
+        final QueryCache cache = new QueryCache(2);
+        final ExecuteQuery<List<Long>> query = range(cache, TTL);
+
+        query.bindLong(":n", 1L).execute(counting);
+        query.bindLong(":n", 2L).execute(counting);
+        query.bindLong(":n", 1L).execute(counting);
+        query.bindLong(":n", 3L).execute(counting);
+        assertEquals(3, connections.get());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().getEvictions());
+
+        query.bindLong(":n", 1L).execute(counting);
+        assertEquals(3, connections.get());
+        query.bindLong(":n", 2L).execute(counting);
+        assertEquals(4, connections.get());
+    }
+
+    @Test
+    public void invalidateByTag() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final ExecuteQuery<List<Long>> student = range(cache, "student", "Student").bindLong(":n", 1L);
+        final ExecuteQuery<List<Long>> both = range(cache, "both", "student", "grade").bindLong(":n", 1L);
+        final ExecuteQuery<List<Long>> grade = range(cache, "grade", "grade").bindLong(":n", 1L);
+        student.execute(db);
+        both.execute(db);
+        grade.execute(db);
+        assertEquals(3, cache.size());
+
+        assertEquals(2, cache.invalidate("STUDENT"));
+        assertEquals(0, cache.invalidate("student"));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.stats().getInvalidations());
+
+        student.execute(db);
+        grade.execute(db);
+        assertEquals(4, cache.stats().getMisses());
+        assertEquals(1, cache.stats().getHits());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.invalidate("grade"));
+    }
+
+    @Test
+    public void loadsOnceConcurrently() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final int threads = 8;
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+        final ExecuteQuery<List<Long>> query = JDBJ.query("SELECT x FROM SYSTEM_RANGE(1, 3)").map(rs -> rs.getLong(1)).toList().cached(cache, TTL);
+        final ConnectionSupplier slow = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new SQLException(e);
+            }
+            return db.getConnection();
+        };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<List<Long>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> query.execute(slow)));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> query.execute(slow)));
+            }
+            while (cache.stats().getHits() < threads - 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<List<Long>> result : results) {
+                assertEquals(Arrays.asList(1L, 2L, 3L), result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getMisses());
+        assertEquals(threads - 1, cache.stats().getHits());
+    }
+
+    @Test
+    public void failuresNotCached() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final ExecuteQuery<List<Long>> query = JDBJ.query("SELECT x FROM no_such_table WHERE x = :x").map(rs -> rs.getLong(1)).toList()
+                .cached(cache, TTL)
+                .bindLong(":x", 1L);
+        for (int i = 0; i < 2; i++) {
+            try {
+                query.execute(db);
+                fail("expected SQLException");
+            } catch (SQLException expected) {
+                //expected
+            }
+        }
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.stats().getMisses());
+        assertEquals(2, cache.stats().getLoadFailures());
+    }
+
+    @Test
+    public void streamsNotCached() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final ExecuteQuery<List<Long>> query = JDBJ.query("SELECT LENGTH(:b)").map(rs -> rs.getLong(1)).toList().cached(cache, TTL);
+
+        for (int i = 0; i < 2; i++) {
+            final List<Long> lengths = query.bindBinaryStream(":b", new ByteArrayInputStream(new byte[]{1, 2, 3})).execute(counting);
+            assertEquals(Collections.singletonList(3L), lengths);
+        }
+        assertEquals(2, connections.get());
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.stats().getUncacheable());
+        assertEquals(0, cache.stats().getMisses());
+    }
+
+    @Test
+    public void byteArraysCopied() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final ExecuteQuery<List<Long>> query = JDBJ.query("SELECT LENGTH(:b)").map(rs -> rs.getLong(1)).toList().cached(cache, TTL);
+        final byte[] bytes = {1, 2, 3};
+
+        query.bindByteArray(":b", bytes).execute(db);
+        bytes[0] = 4;
+        query.bindByteArray(":b", bytes).execute(db);
+        query.bindByteArray(":b", new byte[]{4, 2, 3}).execute(db);
+        assertEquals(2, cache.stats().getMisses());
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxEntriesAtLeastOne() {
+        new QueryCache(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ttlPositive() {
+        range(new QueryCache(1), Duration.ZERO);
+    }
+}
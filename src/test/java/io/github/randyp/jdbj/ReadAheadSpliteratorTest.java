@@ -0,0 +1,158 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.*;
+
+public class ReadAheadSpliteratorTest {
+
+    @ClassRule
+    public static final H2Rule db = new H2Rule();
+
+    @Test
+    public void noResults() throws Exception {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 10) WHERE false");
+             ResultSet rs = ps.executeQuery();
+             ReadAheadSpliterator<Long> spliterator = new ReadAheadSpliterator<>(rs, r -> r.getLong(1), 4, 2)) {
+            assertFalse(spliterator.tryAdvance(x -> {}));
+            assertNull(spliterator.trySplit());
+            assertEquals(0, spliterator.estimateSize());
+        }
+    }
+
+    @Test
+    public void someResults() throws Exception {
+        final List<Long> rows = new ArrayList<>();
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 10)");
+             ResultSet rs = ps.executeQuery();
+             ReadAheadSpliterator<Long> spliterator = new ReadAheadSpliterator<>(rs, r -> r.getLong(1), 4, 1)) {
+            spliterator.forEachRemaining(rows::add);
+        }
+        assertEquals(10, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(Long.valueOf(i + 1), rows.get(i));
+        }
+    }
+
+    @Test
+    public void backpressure() throws Exception {
+        final AtomicInteger mapped = new AtomicInteger();
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 100)");
+             ResultSet rs = ps.executeQuery();
+             ReadAheadSpliterator<Long> spliterator = new ReadAheadSpliterator<>(rs, r -> {
+                 mapped.incrementAndGet();
+                 return r.getLong(1);
+             }, 5, 2)) {
+            Thread.sleep(100);
+            //two batches queued, and one batch being put
+            assertEquals(15, mapped.get());
+            assertTrue(spliterator.tryAdvance(x -> assertEquals(Long.valueOf(1), x)));
+        }
+    }
+
+    @Test
+    public void trySplit() throws Exception {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 10)");
+             ResultSet rs = ps.executeQuery();
+             ReadAheadSpliterator<Long> spliterator = new ReadAheadSpliterator<>(rs, r -> r.getLong(1), 4, 2)) {
+            assertTrue(spliterator.tryAdvance(x -> assertEquals(Long.valueOf(1), x)));
+
+            final Spliterator<Long> rest = spliterator.trySplit();
+            assertNotNull(rest);
+            assertEquals(3, rest.estimateSize());
+
+            final Spliterator<Long> next = spliterator.trySplit();
+            assertNotNull(next);
+            assertEquals(4, next.estimateSize());
+            assertTrue(next.tryAdvance(x -> assertEquals(Long.valueOf(5), x)));
+        }
+    }
+
+    @Test
+    public void parallelStream() throws Exception {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 10000)");
+             ResultSet rs = ps.executeQuery();
+             ReadAheadSpliterator<Long> spliterator = new ReadAheadSpliterator<>(rs, r -> r.getLong(1), 64, 4)) {
+            final List<Long> doubled = StreamSupport.stream(spliterator, true)
+                    .map(x -> x * 2)
+                    .collect(Collectors.toList());
+            assertEquals(10000, doubled.size());
+            for (int i = 0; i < doubled.size(); i++) {
+                assertEquals(Long.valueOf(2L * (i + 1)), doubled.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void exceptionAfterEarlierRows() throws Exception {
+        final List<Long> rows = new ArrayList<>();
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 10)");
+             ResultSet rs = ps.executeQuery();
+             ReadAheadSpliterator<Long> spliterator = new ReadAheadSpliterator<>(rs, r -> {
+                 final long x = r.getLong(1);
+                 if (x == 7) {
+                     throw new SQLException("bad row");
+                 }
+                 return x;
+             }, 4, 2)) {
+            try {
+                spliterator.forEachRemaining(rows::add);
+                fail("expected AdvanceFailedException");
+            } catch (AdvanceFailedException e) {
+                assertEquals("bad row", e.getCause().getMessage());
+            }
+            assertFalse(spliterator.tryAdvance(rows::add));
+        }
+        assertEquals(4, rows.size());
+    }
+
+    @Test
+    public void closeEarly() throws Exception {
+        final AtomicInteger mapped = new AtomicInteger();
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 100000)");
+             ResultSet rs = ps.executeQuery()) {
+            final ReadAheadSpliterator<Long> spliterator = new ReadAheadSpliterator<>(rs, r -> {
+                mapped.incrementAndGet();
+                return r.getLong(1);
+            }, 10, 1);
+            assertTrue(spliterator.tryAdvance(x -> {}));
+            spliterator.close();
+
+            final int mappedAtClose = mapped.get();
+            assertTrue(mappedAtClose < 100);
+            Thread.sleep(50);
+            assertEquals(mappedAtClose, mapped.get());
+            assertTrue(rs.next());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchSizeZero() throws Exception {
+        ReadAheadSpliterator.checkReadAhead(0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchesZero() throws Exception {
+        ReadAheadSpliterator.checkReadAhead(1, 0);
+    }
+}
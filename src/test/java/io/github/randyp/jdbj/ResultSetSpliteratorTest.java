@@ -11,9 +11,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 public class ResultSetSpliteratorTest {
@@ -59,10 +62,104 @@ public class ResultSetSpliteratorTest {
     @Test
     public void trySplit() throws Exception {
         try(final Connection connection = db.getConnection();
-            final PreparedStatement ps = connection.prepareStatement("SELECT * FROM INFORMATION_SCHEMA.TABLES ORDER BY table_name ASC");
+            final PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 5000)");
             final ResultSet rs = ps.executeQuery()){
-            final ResultSetSpliterator<String> spliterator = new ResultSetSpliterator<>(rs, r -> r.getString("table_name"));
+            final ResultSetSpliterator<Long> spliterator = new ResultSetSpliterator<>(rs, r -> r.getLong(1));
+
+            final Spliterator<Long> first = spliterator.trySplit();
+            assertNotNull(first);
+            assertEquals(ResultSetSpliterator.BATCH_UNIT, first.estimateSize());
+            first.tryAdvance(x -> assertEquals(Long.valueOf(1), x));
+
+            final Spliterator<Long> second = spliterator.trySplit();
+            assertNotNull(second);
+            assertEquals(2 * ResultSetSpliterator.BATCH_UNIT, second.estimateSize());
+
+            final List<Long> rest = new ArrayList<>();
+            spliterator.forEachRemaining(rest::add);
+            assertEquals(5000 - 3 * ResultSetSpliterator.BATCH_UNIT, rest.size());
+            assertEquals(Long.valueOf(3 * ResultSetSpliterator.BATCH_UNIT + 1), rest.get(0));
             assertNull(spliterator.trySplit());
+            assertEquals(0, spliterator.estimateSize());
+        }
+    }
+
+    @Test
+    public void trySplitLastBatch() throws Exception {
+        try(final Connection connection = db.getConnection();
+            final PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 10)");
+            final ResultSet rs = ps.executeQuery()){
+            final ResultSetSpliterator<Long> spliterator = new ResultSetSpliterator<>(rs, r -> r.getLong(1));
+
+            final Spliterator<Long> all = spliterator.trySplit();
+            assertNotNull(all);
+            assertEquals(10, all.estimateSize());
+            assertNull(spliterator.trySplit());
+            assertFalse(spliterator.tryAdvance(x -> {}));
+        }
+    }
+
+    @Test
+    public void parallelStream() throws Exception {
+        try(final Connection connection = db.getConnection();
+            final PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 10000) ORDER BY x");
+            final ResultSet rs = ps.executeQuery()){
+            final List<Long> doubled = StreamSupport.stream(new ResultSetSpliterator<>(rs, r -> r.getLong(1)), true)
+                    .map(x -> x * 2)
+                    .collect(Collectors.toList());
+            assertEquals(10000, doubled.size());
+            for (int i = 0; i < doubled.size(); i++) {
+                assertEquals(Long.valueOf(2L * (i + 1)), doubled.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void ofLongTrySplit() throws Exception {
+        try(final Connection connection = db.getConnection();
+            final PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 5000)");
+            final ResultSet rs = ps.executeQuery()){
+            final ResultSetSpliterator.OfLong spliterator = new ResultSetSpliterator.OfLong(rs, r -> r.getLongPrimitive(1));
+
+            final Spliterator.OfLong first = spliterator.trySplit();
+            assertNotNull(first);
+            assertEquals(ResultSetSpliterator.BATCH_UNIT, first.estimateSize());
+            first.tryAdvance((long x) -> assertEquals(1L, x));
+
+            final Spliterator.OfLong second = spliterator.trySplit();
+            assertNotNull(second);
+            assertEquals(2 * ResultSetSpliterator.BATCH_UNIT, second.estimateSize());
+
+            final long[] rest = StreamSupport.longStream(spliterator, false).toArray();
+            assertEquals(5000 - 3 * ResultSetSpliterator.BATCH_UNIT, rest.length);
+            assertEquals(3 * ResultSetSpliterator.BATCH_UNIT + 1, rest[0]);
+            assertNull(spliterator.trySplit());
+            assertEquals(0, spliterator.estimateSize());
+        }
+    }
+
+    @Test
+    public void ofIntParallelStream() throws Exception {
+        try(final Connection connection = db.getConnection();
+            final PreparedStatement ps = connection.prepareStatement("SELECT x FROM SYSTEM_RANGE(1, 10000) ORDER BY x");
+            final ResultSet rs = ps.executeQuery()){
+            final int[] doubled = StreamSupport.intStream(new ResultSetSpliterator.OfInt(rs, r -> r.getIntegerPrimitive(1)), true)
+                    .map(x -> x * 2)
+                    .toArray();
+            assertEquals(10000, doubled.length);
+            for (int i = 0; i < doubled.length; i++) {
+                assertEquals(2 * (i + 1), doubled[i]);
+            }
+        }
+    }
+
+    @Test(expected = AdvanceFailedException.class)
+    public void ofDoubleExceptionInAdvance() throws Exception {
+        try(final Connection connection = db.getConnection();
+            final PreparedStatement ps = connection.prepareStatement("SELECT CAST(NULL AS double)");
+            final ResultSet rs = ps.executeQuery()){
+            final ResultSetSpliterator.OfDouble spliterator = new ResultSetSpliterator.OfDouble(rs, r -> r.getDoublePrimitive(1));
+            spliterator.tryAdvance((double x) -> {});
         }
     }
 
@@ -82,7 +179,7 @@ public class ResultSetSpliteratorTest {
             final PreparedStatement ps = connection.prepareStatement("SELECT * FROM INFORMATION_SCHEMA.TABLES ORDER BY table_name ASC");
             final ResultSet rs = ps.executeQuery()){
             final ResultSetSpliterator<String> spliterator = new ResultSetSpliterator<>(rs, r -> r.getString("table_name"));
-            assertEquals(Spliterator.IMMUTABLE, spliterator.characteristics());
+            assertEquals(Spliterator.IMMUTABLE | Spliterator.ORDERED, spliterator.characteristics());
         }
     }
 }
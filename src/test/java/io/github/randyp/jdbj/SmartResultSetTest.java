@@ -11,6 +11,8 @@ import org.junit.runner.RunWith;
 
 import javax.sql.DataSource;
 import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.nio.charset.Charset;
@@ -18,6 +20,7 @@ import java.sql.*;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -1317,6 +1320,65 @@ public class SmartResultSetTest {
         }
     }
 
+    public static class FindColumn {
+
+        @ClassRule
+        public static final H2Rule db = new H2Rule();
+
+        @Test
+        public void resolvedOncePerLabel() throws Exception {
+            final AtomicInteger findColumn = new AtomicInteger();
+            try (Connection connection = db.getConnection();
+                 PreparedStatement ps = connection.prepareStatement("SELECT x AS id, CAST(x AS varchar) AS name FROM SYSTEM_RANGE(1, 10)");
+                 SmartResultSet rs = new SmartResultSet(countFindColumn(ps.executeQuery(), findColumn))) {
+                long expected = 1;
+                while (rs.next()) {
+                    assertEquals(expected, rs.getLongPrimitive("id"));
+                    assertEquals(Long.toString(expected), rs.getString("name"));
+                    assertEquals(1, rs.findColumn("id"));
+                    expected++;
+                }
+                assertEquals(11, expected);
+            }
+            assertEquals(2, findColumn.get());
+        }
+
+        @Test
+        public void caseInsensitive() throws Exception {
+            try (Connection connection = db.getConnection();
+                 PreparedStatement ps = connection.prepareStatement("SELECT 1 AS id, 2 AS other");
+                 SmartResultSet rs = new SmartResultSet(ps.executeQuery())) {
+                assertTrue(rs.next());
+                assertEquals(Integer.valueOf(1), rs.getInteger("id"));
+                assertEquals(Integer.valueOf(1), rs.getInteger("ID"));
+                assertEquals(2, rs.findColumn("Other"));
+            }
+        }
+
+        @Test(expected = SQLException.class)
+        public void missingLabel() throws Exception {
+            try (Connection connection = db.getConnection();
+                 PreparedStatement ps = connection.prepareStatement("SELECT 1 AS id");
+                 SmartResultSet rs = new SmartResultSet(ps.executeQuery())) {
+                assertTrue(rs.next());
+                rs.getInteger("missing");
+            }
+        }
+
+        private static ResultSet countFindColumn(ResultSet rs, AtomicInteger findColumn) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class[]{ResultSet.class}, (proxy, method, args) -> {
+                if (method.getName().equals("findColumn")) {
+                    findColumn.incrementAndGet();
+                }
+                try {
+                    return method.invoke(rs, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+
     private static void assertResults(Binding binding, ResultSetAssertions assertions, DataSource db) throws SQLException {
         final String castType = "varchar";
         assertResults(binding, assertions, castType, db);
@@ -0,0 +1,195 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import io.github.randyp.jdbj.lambda.ResultMapper;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SpillingListTest {
+
+    @ClassRule
+    public static final H2Rule db = new H2Rule();
+
+    private static final MapQuery<String> ROWS = JDBJ.query("SELECT x, 'row' || x AS s FROM SYSTEM_RANGE(1, 1000) ORDER BY x")
+            .map(rs -> rs.getLongPrimitive("x") + ":" + rs.getString("s"));
+
+    public static class Bean {
+        private long id;
+        public String name;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+    }
+
+    @Test
+    public void inMemory() throws Exception {
+        try (SpillingList<String> rows = ROWS.toSpillingList(1000, Long.MAX_VALUE).execute(db)) {
+            assertFalse(rows.isSpilled());
+            assertNull(rows.spillPath());
+            assertEquals(ROWS.toList().execute(db), rows);
+        }
+    }
+
+    @Test
+    public void spillsBeyondMaxRows() throws Exception {
+        final List<String> expected = ROWS.toList().execute(db);
+        final Path path;
+        try (SpillingList<String> rows = ROWS.toSpillingList(10, Long.MAX_VALUE).execute(db)) {
+            assertTrue(rows.isSpilled());
+            path = rows.spillPath();
+            assertNotNull(path);
+            assertTrue(Files.exists(path));
+            assertEquals(1000, rows.size());
+            assertEquals(expected, new ArrayList<>(rows));
+            for (int index : new int[]{9, 10, 11, 73, 74, 75, 999}) {
+                assertEquals(expected.get(index), rows.get(index));
+            }
+        }
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    public void spillsBeyondMaxBytes() throws Exception {
+        try (SpillingList<String> rows = ROWS.toSpillingList(Integer.MAX_VALUE, 1).execute(db)) {
+            assertTrue(rows.isSpilled());
+            assertEquals(ROWS.toList().execute(db), rows);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closed() throws Exception {
+        final SpillingList<String> rows = ROWS.toSpillingList(0, Long.MAX_VALUE).execute(db);
+        rows.close();
+        rows.get(0);
+    }
+
+    @Test
+    public void values() throws Exception {
+        final MapQuery<List<Object>> query = JDBJ.query("SELECT x, CAST(x AS int) AS i, CAST(x AS double) / 4 AS d, CAST(x AS varchar) AS s, " +
+                "CAST(x AS DECIMAL(10, 2)) / 3 AS n, DATEADD('DAY', x, DATE '2016-01-01') AS dt, " +
+                "DATEADD('SECOND', x, TIMESTAMP '2016-01-01 10:00:00.123456') AS ts, X'CAFE' AS b, MOD(x, 2) = 0 AS bool, " +
+                "CASE WHEN x = 2 THEN NULL ELSE x END AS maybe, CAST('0f0e0d0c-0b0a-0908-0706-050403020100' AS UUID) AS u FROM SYSTEM_RANGE(1, 3) ORDER BY x")
+                .map(rs -> Arrays.asList(rs.getLongPrimitive("x"), rs.getIntegerPrimitive("i"), rs.getDoublePrimitive("d"), rs.getString("s"),
+                        rs.getBigDecimal("n"), rs.getDate("dt"), rs.getTimestamp("ts"), Arrays.toString(rs.getBytes("b")),
+                        rs.getBooleanPrimitive("bool"), rs.getLong("maybe"), rs.getString("x"), rs.getBigDecimal("s"), rs.getLongPrimitive("i"), rs.getObject("u")));
+        final List<List<Object>> expected = query.toList().execute(db);
+        try (SpillingList<List<Object>> rows = query.toSpillingList(0, Long.MAX_VALUE).execute(db)) {
+            assertTrue(rows.isSpilled());
+            assertEquals(expected, rows);
+        }
+        assertEquals(Date.valueOf("2016-01-02"), expected.get(0).get(5));
+        assertEquals(Timestamp.valueOf("2016-01-01 10:00:01.123456"), expected.get(0).get(6));
+        assertNull(expected.get(1).get(9));
+        assertEquals(UUID.fromString("0f0e0d0c-0b0a-0908-0706-050403020100"), expected.get(0).get(13));
+    }
+
+    @Test
+    public void mapTo() throws Exception {
+        final MapQuery<Bean> query = JDBJ.query("SELECT x AS id, 'name' || x AS name FROM SYSTEM_RANGE(1, 5) ORDER BY x").mapTo(Bean.class);
+        try (SpillingList<Bean> rows = query.toSpillingList(2, Long.MAX_VALUE).execute(db)) {
+            assertEquals(5, rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                assertEquals(i + 1, rows.get(i).getId());
+                assertEquals("name" + (i + 1), rows.get(i).name);
+            }
+        }
+    }
+
+    @Test
+    public void mapperFailsOnSpilledRow() throws Exception {
+        final ResultMapper<Long> mapper = rs -> rs.getLongPrimitive("v");
+        try (SpillingList<Long> rows = JDBJ.query("SELECT CASE WHEN x = 2 THEN NULL ELSE x END AS v FROM SYSTEM_RANGE(1, 2) ORDER BY x")
+                .map(mapper)
+                .toSpillingList(1, Long.MAX_VALUE)
+                .execute(db)) {
+            assertEquals(Long.valueOf(1), rows.get(0));
+            try {
+                rows.get(1);
+                fail("expected AdvanceFailedException");
+            } catch (AdvanceFailedException e) {
+                assertTrue(e.getCause() instanceof SQLException);
+            }
+        }
+    }
+
+    @Test
+    public void segments() throws Exception {
+        final List<String> expected = new ArrayList<>();
+        final SpillFile file;
+        final SpilledRow.Header header;
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT x, REPEAT('s', MOD(x, 50)) FROM SYSTEM_RANGE(1, 500) ORDER BY x");
+             SmartResultSet rs = new SmartResultSet(ps.executeQuery());
+             SpillFile.Writer writer = new SpillFile.Writer(2, 8)) {
+            while (rs.next()) {
+                expected.add(rs.getLongPrimitive(1) + rs.getString(2));
+                writer.write(rs.rs());
+            }
+            file = writer.finish();
+            header = new SpilledRow.Header(rs.getMetaData());
+            assertTrue(Files.size(writer.path()) > 500 * 8);
+        }
+        try {
+            final SpilledRow row = new SpilledRow(header);
+            final SpillFile.Cursor all = file.cursor(0);
+            final List<String> actual = new ArrayList<>();
+            while (all.hasNext()) {
+                all.next(row.values());
+                actual.add(row.getLongPrimitive(1) + row.getString(2));
+            }
+            assertEquals(expected, actual);
+            for (int index : new int[]{63, 64, 65, 250, 499}) {
+                file.cursor(index).next(row.values());
+                assertEquals(expected.get(index), row.getLongPrimitive(1) + row.getString(2));
+            }
+        } finally {
+            file.close();
+        }
+        assertFalse(Files.exists(file.path()));
+    }
+
+    @Test(expected = SQLException.class)
+    public void rowLargerThanSegment() throws Exception {
+        try (Connection connection = db.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT REPEAT('s', 300)");
+             SmartResultSet rs = new SmartResultSet(ps.executeQuery());
+             SpillFile.Writer writer = new SpillFile.Writer(1, 8)) {
+            assertTrue(rs.next());
+            writer.write(rs.rs());
+        }
+    }
+
+    @Test(expected = SQLException.class)
+    public void unsupportedValue() throws Exception {
+        JDBJ.query("SELECT (1, 2) AS a FROM SYSTEM_RANGE(1, 2)").map(rs -> rs.getObject(1)).toSpillingList(1, Long.MAX_VALUE).execute(db);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void chunkCollections() throws Exception {
+        ROWS.chunkCollections(10).toSpillingList(10, Long.MAX_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeMaxRows() throws Exception {
+        ROWS.toSpillingList(-1, Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,292 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.lexer.NamedParameterStatementLexer;
+import io.github.randyp.jdbj.lexer.StatementsLexer;
+import org.antlr.v4.runtime.*;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(Enclosed.class)
+public class SqlScannerTest {
+
+    public static class NamedParameters {
+
+        @Test
+        public void namedParams() throws Exception {
+            assertNamedParameters("select id, name from students limit :limit offset :offset",
+                    Arrays.asList("select id, name from students limit ", " offset ", ""),
+                    Arrays.asList(":limit", ":offset"));
+        }
+
+        @Test
+        public void quotedStrings() throws Exception {
+            assertNamedParameters("select id, 'Mr :aa' || name from students limit :limit offset :offset",
+                    Arrays.asList("select id, 'Mr :aa' || name from students limit ", " offset ", ""),
+                    Arrays.asList(":limit", ":offset"));
+        }
+
+        @Test
+        public void doubleQuotedStrings() throws Exception {
+            assertNamedParameters("select id, \"Mr :aa\" || name from students limit :limit offset :offset",
+                    Arrays.asList("select id, \"Mr :aa\" || name from students limit ", " offset ", ""),
+                    Arrays.asList(":limit", ":offset"));
+        }
+
+        @Test
+        public void escapedQuote() throws Exception {
+            assertNamedParameters("select 'it\\'s :not' || :yes",
+                    Arrays.asList("select 'it\\'s :not' || ", ""),
+                    Collections.singletonList(":yes"));
+        }
+
+        @Test
+        public void escapedColon() throws Exception {
+            assertNamedParameters("select \\:not, :yes",
+                    Arrays.asList("select \\:not, ", ""),
+                    Collections.singletonList(":yes"));
+        }
+
+        @Test
+        public void unrecognizedTextKept() throws Exception {
+            assertNamedParameters("select ? : 'é' é, :yes",
+                    Arrays.asList("select ? : 'é' é, ", ""),
+                    Collections.singletonList(":yes"));
+        }
+
+        @Test
+        public void unterminatedQuote() throws Exception {
+            assertNamedParameters("select :yes, ':not",
+                    Arrays.asList("select ", ", ':not"),
+                    Collections.singletonList(":yes"));
+        }
+
+        private static void assertNamedParameters(String sql, List<String> expectedFragments, List<String> expectedParameters) {
+            final List<String> fragments = new ArrayList<>();
+            final List<String> parameters = new ArrayList<>();
+            SqlScanner.namedParameters(sql, fragments, parameters);
+            assertEquals(expectedFragments, fragments);
+            assertEquals(expectedParameters, parameters);
+        }
+    }
+
+    public static class Statements {
+
+        @Test
+        public void singleStatement() throws Exception {
+            assertEquals(Collections.singletonList("select id, name from students limit 0 offset 100"),
+                    SqlScanner.statements("select id, name from students limit 0 offset 100"));
+        }
+
+        @Test
+        public void singleStatementAndEnd() throws Exception {
+            assertEquals(Arrays.asList("select id, name from students limit 0 offset 100", ""),
+                    SqlScanner.statements("select id, name from students limit 0 offset 100;"));
+        }
+
+        @Test
+        public void multipleStatements() throws Exception {
+            assertEquals(Arrays.asList("select id, name from students limit 0 offset 100", " select 2"),
+                    SqlScanner.statements("select id, name from students limit 0 offset 100; select 2"));
+        }
+
+        @Test
+        public void quotedStrings() throws Exception {
+            assertEquals(Arrays.asList("select :id, 'Mr aa;' || name from students", " select 2"),
+                    SqlScanner.statements("select :id, 'Mr aa;' || name from students; select 2"));
+        }
+
+        @Test
+        public void doubleQuotedStrings() throws Exception {
+            assertEquals(Arrays.asList("select id, \"Mr aa;\" || name from students", " select 2"),
+                    SqlScanner.statements("select id, \"Mr aa;\" || name from students; select 2"));
+        }
+
+        @Test
+        public void escapedStatementEnd() throws Exception {
+            assertEquals(Arrays.asList("select ';' \\;", " select 2"),
+                    SqlScanner.statements("select ';' \\;; select 2"));
+        }
+    }
+
+    public static class EndsWithIn {
+
+        @Test
+        public void in() throws Exception {
+            assertTrue(SqlScanner.endsWithIn("select * from t where id IN "));
+            assertTrue(SqlScanner.endsWithIn("select * from t where id not in\n\t"));
+            assertTrue(SqlScanner.endsWithIn("IN"));
+        }
+
+        @Test
+        public void notIn() throws Exception {
+            assertFalse(SqlScanner.endsWithIn("select * from t where id = "));
+            assertFalse(SqlScanner.endsWithIn("select * from t where id IN ("));
+            assertFalse(SqlScanner.endsWithIn("insert into t values "));
+            assertFalse(SqlScanner.endsWithIn("select * from t where login "));
+            assertFalse(SqlScanner.endsWithIn("select * from t where x_in "));
+            assertFalse(SqlScanner.endsWithIn(""));
+        }
+    }
+
+    public static class ValuesRow {
+
+        @Test
+        public void singleRow() throws Exception {
+            assertValuesRow("(:a, :b)", "INSERT INTO t(a, b) VALUES (:a, :b)");
+        }
+
+        @Test
+        public void noSpaceLowerCaseAndSuffix() throws Exception {
+            assertValuesRow("(:a, f(:b))", "insert into t(a, b) values(:a, f(:b)) returning id");
+        }
+
+        @Test
+        public void comments() throws Exception {
+            assertValuesRow("(:a)", " -- insert.sql\n/* (x) */ INSERT INTO t(a) -- values (:b)\n VALUES (:a)");
+        }
+
+        @Test
+        public void quotedParenthesis() throws Exception {
+            assertValuesRow("(:a, ')')", "INSERT INTO t(a, b) VALUES (:a, ')')");
+        }
+
+        @Test
+        public void notInsert() throws Exception {
+            assertNull(SqlScanner.valuesRow("UPDATE t SET a = (SELECT 1 FROM (VALUES (:a)))"));
+        }
+
+        @Test
+        public void insertSelect() throws Exception {
+            assertNull(SqlScanner.valuesRow("INSERT INTO t(values_count) SELECT :a"));
+        }
+
+        @Test
+        public void namedParameterNamedValues() throws Exception {
+            assertNull(SqlScanner.valuesRow("INSERT INTO t(a) SELECT :values"));
+        }
+
+        @Test
+        public void multipleRows() throws Exception {
+            assertNull(SqlScanner.valuesRow("INSERT INTO t(a) VALUES (:a), (:b)"));
+        }
+
+        @Test
+        public void unterminatedRow() throws Exception {
+            assertNull(SqlScanner.valuesRow("INSERT INTO t(a) VALUES (:a"));
+        }
+
+        private static void assertValuesRow(String expected, String sql) {
+            final int[] row = SqlScanner.valuesRow(sql);
+            assertNotNull(row);
+            assertEquals(expected, sql.substring(row[0], row[1]));
+        }
+    }
+
+    /**
+     * Differential test against the original antlr grammars, for random input the grammars recognize without error.
+     */
+    public static class MatchesGrammars {
+
+        private static final char[] ALPHABET = {'a', 'B', '1', ' ', '\n', ':', ':', ';', '\'', '\'', '"', '\\', '.', '#', '_', ','};
+        private static final int RUNS = 5000;
+
+        @Test
+        public void namedParameters() throws Exception {
+            final Random random = new Random(29);
+            int compared = 0;
+            for (int run = 0; run < RUNS; run++) {
+                final String sql = randomSql(random);
+                final NamedParameterStatementLexer lexer = new NamedParameterStatementLexer(new ANTLRInputStream(sql));
+                final List<? extends Token> tokens = tokensWithoutErrors(lexer);
+                if (tokens == null) {
+                    continue;
+                }
+                compared++;
+
+                final List<String> expectedFragments = new ArrayList<>();
+                final List<String> expectedParameters = new ArrayList<>();
+                StringBuilder fragment = new StringBuilder();
+                for (Token token : tokens) {
+                    if (token.getType() == NamedParameterStatementLexer.NAMED_PARAM) {
+                        expectedFragments.add(fragment.toString());
+                        expectedParameters.add(token.getText());
+                        fragment = new StringBuilder();
+                    } else {
+                        fragment.append(token.getText());
+                    }
+                }
+                expectedFragments.add(fragment.toString());
+
+                final List<String> fragments = new ArrayList<>();
+                final List<String> parameters = new ArrayList<>();
+                SqlScanner.namedParameters(sql, fragments, parameters);
+                assertEquals(sql, expectedFragments, fragments);
+                assertEquals(sql, expectedParameters, parameters);
+            }
+            assertMeaningful(compared);
+        }
+
+        @Test
+        public void statements() throws Exception {
+            final Random random = new Random(31);
+            int compared = 0;
+            for (int run = 0; run < RUNS; run++) {
+                final String script = randomSql(random);
+                final StatementsLexer lexer = new StatementsLexer(new ANTLRInputStream(script));
+                final List<? extends Token> tokens = tokensWithoutErrors(lexer);
+                if (tokens == null) {
+                    continue;
+                }
+                compared++;
+
+                final List<String> expected = new ArrayList<>();
+                StringBuilder statement = new StringBuilder();
+                for (Token token : tokens) {
+                    if (token.getType() == StatementsLexer.STATEMENT_END) {
+                        expected.add(statement.toString());
+                        statement = new StringBuilder();
+                    } else {
+                        statement.append(token.getText());
+                    }
+                }
+                expected.add(statement.toString());
+
+                assertEquals(script, expected, SqlScanner.statements(script));
+            }
+            assertMeaningful(compared);
+        }
+
+        private static String randomSql(Random random) {
+            final int length = random.nextInt(24);
+            final StringBuilder builder = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                builder.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            return builder.toString();
+        }
+
+        private static List<? extends Token> tokensWithoutErrors(Lexer lexer) {
+            final boolean[] error = {false};
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(new BaseErrorListener() {
+                @Override
+                public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
+                    error[0] = true;
+                }
+            });
+            final List<? extends Token> tokens = lexer.getAllTokens();
+            return error[0] ? null : tokens;
+        }
+
+        private static void assertMeaningful(int compared) {
+            if (compared < RUNS / 10) {
+                throw new AssertionError("only " + compared + " of " + RUNS + " random inputs were recognized by the grammar");
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package io.github.randyp.jdbj;
+
+import io.github.randyp.jdbj.db.h2_1_4.H2Rule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class StatementCachingDataSourceTest {
+
+    @ClassRule
+    public static final H2Rule db = new H2Rule();
+
+    private final List<PreparedStatement> prepared = new ArrayList<>();
+
+    private final StatementCachingDataSource cached = new StatementCachingDataSource(() -> new FakeConnection(db.getConnection()) {
+        @Override
+        public PreparedStatement prepareStatement(String sql) throws SQLException {
+            return track(super.prepareStatement(sql));
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+            return track(super.prepareStatement(sql, autoGeneratedKeys));
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+            return track(super.prepareStatement(sql, resultSetType, resultSetConcurrency));
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+            return track(super.prepareStatement(sql, columnNames));
+        }
+    }, 2);
+
+    private PreparedStatement track(PreparedStatement ps) {
+        prepared.add(ps);
+        return ps;
+    }
+
+    @Test
+    public void executeQueryRepeatedly() throws Exception {
+        final ExecuteQuery<Optional<Long>> query = JDBJ.query("SELECT :id AS id").map(rs -> rs.getLong(1)).first();
+        try (Connection connection = cached.getConnection()) {
+            for (long id = 0; id < 10; id++) {
+                assertEquals(Optional.of(id), query.bindLong(":id", id).execute(connection));
+            }
+        }
+        assertEquals(1, prepared.size());
+        assertEquals(9, cached.hitCount());
+        assertEquals(1, cached.missCount());
+    }
+
+    @Test
+    public void executeWithDataSource() throws Exception {
+        final StatementCachingDataSource ds = new StatementCachingDataSource(db, 2);
+        final ExecuteQuery<Optional<Long>> query = JDBJ.query("SELECT :id AS id").map(rs -> rs.getLong(1)).first();
+        for (long id = 0; id < 3; id++) {
+            assertEquals(Optional.of(id), query.bindLong(":id", id).execute(ds));
+        }
+        assertEquals(3, ds.missCount());
+    }
+
+    @Test
+    public void pendingBatchCleared() throws Exception {
+        final StatementCachingDataSource ds = new StatementCachingDataSource(db, 2);
+        try (Connection connection = ds.getConnection()) {
+            JDBJ.statement("CREATE TABLE pending_batch(x INT)").execute(connection);
+            try {
+                try (PreparedStatement ps = connection.prepareStatement("INSERT INTO pending_batch(x) VALUES (?)")) {
+                    ps.setInt(1, 1);
+                    ps.addBatch();
+                }
+                try (PreparedStatement ps = connection.prepareStatement("INSERT INTO pending_batch(x) VALUES (?)")) {
+                    ps.setInt(1, 2);
+                    ps.addBatch();
+                    assertArrayEquals(new int[]{1}, ps.executeBatch());
+                }
+                assertEquals(1, ds.hitCount());
+                final List<Integer> xs = JDBJ.query("SELECT x FROM pending_batch").map(rs -> rs.getInt(1)).toList().execute(connection);
+                assertEquals(Collections.singletonList(2), xs);
+            } finally {
+                JDBJ.statement("DROP TABLE pending_batch").execute(connection);
+            }
+        }
+    }
+
+    @Test
+    public void keyedByGeneratedKeysFlag() throws Exception {
+        try (Connection connection = cached.getConnection()) {
+            connection.prepareStatement("SELECT 1").close();
+            connection.prepareStatement("SELECT 1", Statement.RETURN_GENERATED_KEYS).close();
+            connection.prepareStatement("SELECT 1", Statement.NO_GENERATED_KEYS).close();
+            connection.prepareStatement("SELECT 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY).close();
+        }
+        assertEquals(2, prepared.size());
+        assertEquals(2, cached.hitCount());
+    }
+
+    @Test
+    public void columnNamesNotCached() throws Exception {
+        try (Connection connection = cached.getConnection()) {
+            connection.prepareStatement("SELECT 1", new String[]{"id"}).close();
+            connection.prepareStatement("SELECT 1", new String[]{"id"}).close();
+        }
+        assertEquals(2, prepared.size());
+        assertTrue(prepared.get(0).isClosed());
+        assertEquals(0, cached.hitCount());
+        assertEquals(2, cached.missCount());
+    }
+
+    @Test
+    public void inUseNotShared() throws Exception {
+        try (Connection connection = cached.getConnection();
+             PreparedStatement first = connection.prepareStatement("SELECT 1");
+             PreparedStatement second = connection.prepareStatement("SELECT 1")) {
+            assertNotSame(first, second);
+            assertEquals(2, prepared.size());
+        }
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws Exception {
+        try (Connection connection = cached.getConnection()) {
+            connection.prepareStatement("SELECT 1").close();
+            connection.prepareStatement("SELECT 2").close();
+            connection.prepareStatement("SELECT 1").close();
+            connection.prepareStatement("SELECT 3").close();
+            assertEquals(1, cached.evictionCount());
+            assertTrue(prepared.get(1).isClosed());
+            assertFalse(prepared.get(0).isClosed());
+
+            connection.prepareStatement("SELECT 2").close();
+            assertEquals(4, prepared.size());
+        }
+    }
+
+    @Test
+    public void closedStatement() throws Exception {
+        try (Connection connection = cached.getConnection()) {
+            final PreparedStatement ps = connection.prepareStatement("SELECT 1");
+            assertSame(connection, ps.getConnection());
+            final ResultSet rs = ps.executeQuery();
+            ps.close();
+
+            assertTrue(ps.isClosed());
+            assertTrue(rs.isClosed());
+            assertFalse(prepared.get(0).isClosed());
+            try {
+                ps.executeQuery();
+                fail("expected SQLException");
+            } catch (SQLException e) {
+                assertEquals("statement is closed", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void changedSettingsRestored() throws Exception {
+        try (Connection connection = cached.getConnection()) {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT 1")) {
+                ps.setFetchSize(10);
+                ps.setMaxRows(20);
+                ps.setMaxRows(30);
+            }
+            assertFalse(prepared.get(0).isClosed());
+            try (PreparedStatement ps = connection.prepareStatement("SELECT 1")) {
+                assertEquals(0, ps.getMaxRows());
+                assertEquals(prepared.get(0).getFetchSize(), ps.getFetchSize());
+            }
+        }
+        assertEquals(1, prepared.size());
+        assertEquals(1, cached.hitCount());
+    }
+
+    @Test
+    public void unreadableSettingsNotReused() throws Exception {
+        try (Connection connection = cached.getConnection()) {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT 1")) {
+                ps.setEscapeProcessing(false);
+            }
+            assertTrue(prepared.get(0).isClosed());
+            connection.prepareStatement("SELECT 1").close();
+        }
+        assertEquals(2, prepared.size());
+        assertEquals(0, cached.hitCount());
+    }
+
+    @Test
+    public void firstWithMaxRowsReused() throws Exception {
+        final ExecuteQuery<Optional<Long>> query = JDBJ.query("SELECT x FROM SYSTEM_RANGE(1, 10)").map(rs -> rs.getLong(1)).first();
+        try (Connection connection = cached.getConnection()) {
+            assertEquals(Optional.of(1L), query.execute(connection));
+            assertEquals(Optional.of(1L), query.execute(connection));
+        }
+        assertEquals(1, prepared.size());
+        assertEquals(1, cached.hitCount());
+    }
+
+    @Test
+    public void closingConnectionClosesStatements() throws Exception {
+        final Connection connection = cached.getConnection();
+        final PreparedStatement inUse = connection.prepareStatement("SELECT 1");
+        connection.prepareStatement("SELECT 2").close();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertTrue(prepared.get(1).isClosed());
+        inUse.close();
+        assertTrue(prepared.get(0).isClosed());
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        final StatementCachingDataSource disabled = new StatementCachingDataSource(db, 0);
+        try (Connection connection = disabled.getConnection()) {
+            final PreparedStatement first = connection.prepareStatement("SELECT 1");
+            first.close();
+            connection.prepareStatement("SELECT 1").close();
+            assertEquals(0, disabled.hitCount());
+            assertEquals(2, disabled.missCount());
+        }
+    }
+
+    @Test
+    public void unwrap() throws Exception {
+        final StatementCachingDataSource dataSource = new StatementCachingDataSource(db);
+        assertSame(dataSource, dataSource.unwrap(StatementCachingDataSource.class));
+        assertTrue(dataSource.isWrapperFor(StatementCachingDataSource.class));
+        assertEquals(StatementCachingDataSource.DEFAULT_MAXIMUM_SIZE, dataSource.getMaximumSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeMaximumSize() throws Exception {
+        new StatementCachingDataSource(db, -1);
+    }
+}
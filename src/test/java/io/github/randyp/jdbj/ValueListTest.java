@@ -0,0 +1,88 @@
+package io.github.randyp.jdbj;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ValueListTest {
+
+    @Test
+    public void copiesPrimitives() throws Exception {
+        final long[] xs = {1L, 2L};
+        final ValueList values = ValueList.of(xs);
+        xs[0] = 3L;
+        assertArrayEquals(new Object[]{1L, 2L}, values.toValueArray());
+        assertEquals(ValueList.ElementType.BIGINT, values.getType());
+    }
+
+    @Test
+    public void copiesBoxed() throws Exception {
+        final Object[] xs = {"a", null};
+        final ValueList values = ValueList.of(ValueList.ElementType.VARCHAR, xs);
+        xs[0] = "b";
+        assertArrayEquals(new Object[]{"a", null}, values.toValueArray());
+    }
+
+    @Test
+    public void copiesCollectionsIntoPrimitives() throws Exception {
+        final List<Long> xs = new ArrayList<>(Arrays.asList(1L, 2L, 3L));
+        final ValueList values = ValueList.of(ValueList.ElementType.BIGINT, xs);
+        xs.set(0, 4L);
+        assertEquals("Longs", values.getClass().getSimpleName());
+        assertArrayEquals(new Object[]{1L, 2L, 3L}, values.toValueArray());
+        assertArrayEquals(new Object[]{2L, 3L}, values.subList(1, 3).toValueArray());
+    }
+
+    @Test
+    public void collectionsWithNullStayBoxed() throws Exception {
+        final ValueList values = ValueList.of(ValueList.ElementType.INTEGER, Arrays.asList(1, null));
+        assertEquals("Boxed", values.getClass().getSimpleName());
+        assertArrayEquals(new Object[]{1, null}, values.toValueArray());
+        assertArrayEquals(new Object[]{"a"}, ValueList.of(ValueList.ElementType.VARCHAR, Collections.singletonList("a")).toValueArray());
+    }
+
+    @Test
+    public void primitiveTypes() throws Exception {
+        assertEquals(ValueList.ElementType.BOOLEAN, ValueList.of(new boolean[]{true}).getType());
+        assertEquals(ValueList.ElementType.TINYINT, ValueList.of(new byte[]{1}).getType());
+        assertEquals(ValueList.ElementType.SMALLINT, ValueList.of(new short[]{1}).getType());
+        assertEquals(ValueList.ElementType.INTEGER, ValueList.of(new int[]{1}).getType());
+        assertEquals(ValueList.ElementType.REAL, ValueList.of(new float[]{1}).getType());
+        assertEquals(ValueList.ElementType.DOUBLE, ValueList.of(new double[]{1}).getType());
+    }
+
+    @Test
+    public void subList() throws Exception {
+        final ValueList values = ValueList.of(new int[]{1, 2, 3, 4});
+        final ValueList subList = values.subList(1, 3);
+        assertEquals(2, subList.size());
+        assertArrayEquals(new Object[]{2, 3}, subList.toValueArray());
+        assertEquals(ValueList.ElementType.INTEGER, subList.getType());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unmodifiable() throws Exception {
+        ValueList.of(new int[]{1}).clear();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getOutOfBounds() throws Exception {
+        ValueList.of(new int[]{1}).get(1);
+    }
+
+    @Test
+    public void collectionBuildersKeepValues() throws Exception {
+        final PositionalBindings bindings = new PositionalBindings()
+                .bindLongs(":longs", 1L, 2L)
+                .bindDoubles(":doubles", Arrays.asList(1.0, null))
+                .bindStrings(":strings", "a");
+        for (String name : bindings.keys()) {
+            assertTrue(name, ((ListBinding) bindings.get(name)).getBindings() instanceof ValueList);
+        }
+    }
+}
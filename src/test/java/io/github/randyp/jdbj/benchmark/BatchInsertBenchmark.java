@@ -0,0 +1,115 @@
+package io.github.randyp.jdbj.benchmark;
+
+import io.github.randyp.jdbj.BatchedExecuteUpdate;
+import io.github.randyp.jdbj.ExecuteUpdate;
+import io.github.randyp.jdbj.JDBJ;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting rows into H2 with {@link java.sql.PreparedStatement#executeBatch()}, against multi-row {@code VALUES} statements from {@link BatchedExecuteUpdate#rewriteValues()}.
+ * <p>
+ * H2 is in memory, so this mostly measures statement overhead per row, a networked database also saves the round trips.
+ * <p>
+ * {@code executeBatchBindObject} binds rows from objects with {@code bindObject} instead of a binding per named parameter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BatchInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Param({"10", "1000"})
+    public int rows;
+
+    private final ExecuteUpdate insert = JDBJ.update("INSERT INTO batch_insert(id, name) VALUES (:id, :name)");
+    private Connection connection;
+    private Row[] objects;
+
+    public static class Row {
+        final long id;
+        final String name;
+
+        Row(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:batch_insert_benchmark");
+        try (PreparedStatement ps = connection.prepareStatement("CREATE TABLE batch_insert(id BIGINT, name VARCHAR)")) {
+            ps.execute();
+        }
+        objects = new Row[rows];
+        for (int i = 0; i < rows; i++) {
+            objects[i] = new Row(i, "name" + i);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("TRUNCATE TABLE batch_insert")) {
+            ps.execute();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int[] executeBatch() throws SQLException {
+        return addRows(insert.asBatch()).execute(connection);
+    }
+
+    @Benchmark
+    public int[] rewriteValues() throws SQLException {
+        return addRows(insert.asBatch().rewriteValues()).execute(connection);
+    }
+
+    @Benchmark
+    public int[] executeBatchBindObject() throws SQLException {
+        final BatchedExecuteUpdate batch = insert.asBatch();
+        for (Row object : objects) {
+            batch.startBatch()
+                    .bindObject(object)
+                    .addBatch();
+        }
+        return batch.execute(connection);
+    }
+
+    private BatchedExecuteUpdate addRows(BatchedExecuteUpdate batch) {
+        for (int i = 0; i < rows; i++) {
+            batch.startBatch()
+                    .bindLong(":id", (long) i)
+                    .bindString(":name", "name" + i)
+                    .addBatch();
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.randyp.jdbj.benchmark;
+
+import io.github.randyp.jdbj.PositionalBindings;
+import io.github.randyp.jdbj.lambda.Binding;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building up bindings one parameter at a time, against the copy-on-bind map PositionalBindings used to be.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BindBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Param({"1", "10", "50"})
+    public int parameters;
+
+    private String[] names;
+    private final Binding binding = pc -> pc.setInt(1);
+
+    @Setup
+    public void setup() {
+        names = new String[parameters];
+        for (int i = 0; i < parameters; i++) {
+            names[i] = ":p" + i;
+        }
+    }
+
+    @Benchmark
+    public PositionalBindings positionalBindings() {
+        PositionalBindings bindings = new PositionalBindings();
+        for (String name : names) {
+            bindings = bindings.bind(name, binding);
+        }
+        return bindings;
+    }
+
+    @Benchmark
+    public PositionalBindings positionalBindingsFromPrototype(PrototypeState prototype) {
+        PositionalBindings bindings = prototype.prototype;
+        for (String name : names) {
+            bindings = bindings.bind(name, binding);
+        }
+        return bindings;
+    }
+
+    @Benchmark
+    public Map<String, Binding> copyOnBind() {
+        Map<String, Binding> bindings = new HashMap<>();
+        for (String name : names) {
+            if (bindings.containsKey(name)) {
+                throw new IllegalArgumentException(name);
+            }
+            final Map<String, Binding> copy = new HashMap<>(bindings);
+            copy.put(name, binding);
+            bindings = copy;
+        }
+        return bindings;
+    }
+
+    /**
+     * Bindings shared by every invocation, like a query reused as a template.
+     */
+    @State(Scope.Benchmark)
+    public static class PrototypeState {
+        PositionalBindings prototype;
+
+        @Setup
+        public void setup() {
+            prototype = new PositionalBindings()
+                    .bind(":shared0", pc -> pc.setInt(1))
+                    .bind(":shared1", pc -> pc.setInt(2));
+        }
+    }
+}
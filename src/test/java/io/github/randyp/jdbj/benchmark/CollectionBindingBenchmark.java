@@ -0,0 +1,77 @@
+package io.github.randyp.jdbj.benchmark;
+
+import io.github.randyp.jdbj.NamedParameterStatement;
+import io.github.randyp.jdbj.PositionalBindings;
+import io.github.randyp.jdbj.lambda.Binding;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of binding a collection of longs to an H2 statement, against a collection of per element {@link Binding} lambdas.
+ * <p>
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionBindingBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CollectionBindingBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Param({"10", "1000", "10000"})
+    public int size;
+
+    private long[] ids;
+    private NamedParameterStatement statement;
+    private Connection connection;
+    private PreparedStatement ps;
+
+    @Setup
+    public void setup() throws SQLException {
+        ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+        }
+        statement = NamedParameterStatement.make("SELECT X FROM SYSTEM_RANGE(1, 1) WHERE X IN :ids");
+        connection = DriverManager.getConnection("jdbc:h2:mem:collection_binding_benchmark");
+        final PositionalBindings bindings = new PositionalBindings().collectionsAsArrays(Integer.MAX_VALUE).bindLongs(":ids", ids);
+        ps = connection.prepareStatement(statement.jdbcSql(bindings));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        ps.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public PreparedStatement bindLongs() throws SQLException {
+        statement.bind(ps, new PositionalBindings().bindLongs(":ids", ids));
+        return ps;
+    }
+
+    @Benchmark
+    public PreparedStatement bindLambdas() throws SQLException {
+        final List<Binding> bindings = new ArrayList<>();
+        for (final long id : ids) {
+            bindings.add(pc -> pc.setLongPrimitive(id));
+        }
+        statement.bind(ps, new PositionalBindings().bindCollection(":ids", bindings));
+        return ps;
+    }
+}
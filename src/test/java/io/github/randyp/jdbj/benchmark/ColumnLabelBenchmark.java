@@ -0,0 +1,103 @@
+package io.github.randyp.jdbj.benchmark;
+
+import io.github.randyp.jdbj.SmartResultSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading 1000 rows of 6 columns by label through {@link SmartResultSet}, which resolves each label once,
+ * against reading by label from the driver's {@link ResultSet} directly, which resolves the label on every get.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnLabelBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ColumnLabelBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static final int ROWS = 1000;
+
+    @Param({"jdbc:h2:mem:column_label_benchmark", "jdbc:hsqldb:mem:column_label_benchmark"})
+    public String url;
+
+    private Connection connection;
+    private PreparedStatement ps;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE student(id BIGINT PRIMARY KEY, first_name VARCHAR(100), last_name VARCHAR(100), " +
+                    "grade INTEGER, gpa DOUBLE, enrolled BOOLEAN)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO student VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "first" + i);
+                insert.setString(3, "last" + i);
+                insert.setInt(4, i % 12);
+                insert.setDouble(5, i % 4);
+                insert.setBoolean(6, i % 2 == 0);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        ps = connection.prepareStatement("SELECT id, first_name, last_name, grade, gpa, enrolled FROM student");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        ps.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE student");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long smartResultSet() throws SQLException {
+        long checksum = 0;
+        try (SmartResultSet rs = new SmartResultSet(ps.executeQuery())) {
+            while (rs.next()) {
+                checksum += rs.getLongPrimitive("id");
+                checksum += rs.getString("first_name").length();
+                checksum += rs.getString("last_name").length();
+                checksum += rs.getIntegerPrimitive("grade");
+                checksum += (long) rs.getDoublePrimitive("gpa");
+                checksum += rs.getBoolean("enrolled") ? 1 : 0;
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long resultSet() throws SQLException {
+        long checksum = 0;
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                checksum += rs.getLong("id");
+                checksum += rs.getString("first_name").length();
+                checksum += rs.getString("last_name").length();
+                checksum += rs.getInt("grade");
+                checksum += (long) rs.getDouble("gpa");
+                checksum += rs.getBoolean("enrolled") ? 1 : 0;
+            }
+        }
+        return checksum;
+    }
+}
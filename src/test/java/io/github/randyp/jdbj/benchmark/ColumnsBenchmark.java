@@ -0,0 +1,107 @@
+package io.github.randyp.jdbj.benchmark;
+
+import io.github.randyp.jdbj.Column;
+import io.github.randyp.jdbj.Columns;
+import io.github.randyp.jdbj.ExecuteQuery;
+import io.github.randyp.jdbj.JDBJ;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading 10000 rows from H2 and averaging one column, as a list of objects against {@link io.github.randyp.jdbj.ReturnsQuery#toColumns()}.
+ * Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnsBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ColumnsBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static final String URL = "jdbc:h2:mem:columns_benchmark";
+    private static final String SELECT = "SELECT id, first_name, last_name, grade, gpa FROM student";
+    private static final int ROWS = 10000;
+
+    public static class Row {
+        final long id;
+        final String firstName;
+        final String lastName;
+        final int grade;
+        final double gpa;
+
+        public Row(long id, String firstName, String lastName, int grade, double gpa) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.grade = grade;
+            this.gpa = gpa;
+        }
+    }
+
+    private final ExecuteQuery<List<Row>> list = JDBJ.query(SELECT)
+            .map(rs -> new Row(rs.getLongPrimitive(1), rs.getString(2), rs.getString(3), rs.getIntegerPrimitive(4), rs.getDoublePrimitive(5)))
+            .toList();
+    private final ExecuteQuery<Columns> columns = JDBJ.query(SELECT).toColumns();
+
+    private Connection connection;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(URL);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE student(id BIGINT PRIMARY KEY, first_name VARCHAR(100), last_name VARCHAR(100), grade INTEGER, gpa DOUBLE)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO student VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "first" + i % 100);
+                insert.setString(3, "last" + i % 1000);
+                insert.setInt(4, i % 12);
+                insert.setDouble(5, i % 4);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public double list() throws SQLException {
+        final List<Row> rows = list.execute(connection);
+        double total = 0;
+        for (Row row : rows) {
+            total += row.gpa;
+        }
+        return total / rows.size();
+    }
+
+    @Benchmark
+    public double columns() throws SQLException {
+        final Columns result = columns.execute(connection);
+        final Column.OfDouble gpa = result.column("gpa", Column.OfDouble.class);
+        double total = 0;
+        for (int row = 0; row < result.rows(); row++) {
+            total += gpa.getDouble(row);
+        }
+        return total / result.rows();
+    }
+}
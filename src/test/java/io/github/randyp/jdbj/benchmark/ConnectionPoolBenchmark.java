@@ -0,0 +1,65 @@
+package io.github.randyp.jdbj.benchmark;
+
+import io.github.randyp.jdbj.ConnectionPool;
+import io.github.randyp.jdbj.ExecuteQuery;
+import io.github.randyp.jdbj.JDBJ;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executing a query against H2 through {@link ConnectionPool}, against opening a connection with {@link DriverManager} for every query,
+ * at 1 to 64 threads. The pool has 8 connections, so higher thread counts measure borrowers waiting on each other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:connection_pool_benchmark;DB_CLOSE_DELAY=-1";
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 4, 16, 64}) {
+            new Runner(new OptionsBuilder()
+                    .include(ConnectionPoolBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+
+    private final ExecuteQuery<Optional<Long>> query = JDBJ.query("SELECT :id AS id").map(rs -> rs.getLong(1)).first();
+    private Connection keepAlive;
+    private ConnectionPool pool;
+
+    @Setup
+    public void setup() throws SQLException {
+        keepAlive = DriverManager.getConnection(URL);
+        pool = ConnectionPool.builder(() -> DriverManager.getConnection(URL)).minSize(8).maxSize(8).build();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        pool.close();
+        keepAlive.close();
+    }
+
+    @Benchmark
+    public Optional<Long> pooled() throws SQLException {
+        return query.bindLong(":id", 1L).execute(pool);
+    }
+
+    @Benchmark
+    public Optional<Long> unpooled() throws SQLException {
+        return query.bindLong(":id", 1L).execute(() -> DriverManager.getConnection(URL));
+    }
+}
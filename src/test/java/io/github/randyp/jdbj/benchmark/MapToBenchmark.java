@@ -0,0 +1,118 @@
+package io.github.randyp.jdbj.benchmark;
+
+import io.github.randyp.jdbj.ExecuteQuery;
+import io.github.randyp.jdbj.JDBJ;
+import io.github.randyp.jdbj.SmartResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping 1000 rows from H2 with {@link io.github.randyp.jdbj.ReturnsQuery#mapTo(Class)}, against a hand written mapper
+ * and a mapper calling the constructor with reflection on every row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapToBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MapToBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static final String URL = "jdbc:h2:mem:map_to_benchmark";
+    private static final String SELECT = "SELECT id, first_name, last_name, grade, gpa FROM student";
+    private static final int ROWS = 1000;
+
+    public static class Row {
+        final long id;
+        final String firstName;
+        final String lastName;
+        final int grade;
+        final BigDecimal gpa;
+
+        public Row(long id, String firstName, String lastName, int grade, BigDecimal gpa) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.grade = grade;
+            this.gpa = gpa;
+        }
+    }
+
+    private final ExecuteQuery<List<Row>> handWritten = JDBJ.query(SELECT)
+            .map(rs -> new Row(rs.getLongPrimitive("id"), rs.getString("first_name"), rs.getString("last_name"),
+                    rs.getIntegerPrimitive("grade"), rs.getBigDecimal("gpa")))
+            .toList();
+    private final ExecuteQuery<List<Row>> mapTo = JDBJ.query(SELECT).mapTo(Row.class).toList();
+    private final ExecuteQuery<List<Row>> reflection = JDBJ.query(SELECT).map(MapToBenchmark::reflect).toList();
+
+    private Connection connection;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(URL);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE student(id BIGINT PRIMARY KEY, first_name VARCHAR(100), last_name VARCHAR(100), grade INTEGER, gpa DECIMAL(3, 2))");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO student VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "first" + i);
+                insert.setString(3, "last" + i);
+                insert.setInt(4, i % 12);
+                insert.setBigDecimal(5, new BigDecimal(i % 4));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Row> handWritten() throws SQLException {
+        return handWritten.execute(connection);
+    }
+
+    @Benchmark
+    public List<Row> mapTo() throws SQLException {
+        return mapTo.execute(connection);
+    }
+
+    @Benchmark
+    public List<Row> reflection() throws SQLException {
+        return reflection.execute(connection);
+    }
+
+    private static Row reflect(SmartResult rs) throws SQLException {
+        try {
+            final Constructor<?> constructor = Row.class.getConstructors()[0];
+            final Class<?>[] types = constructor.getParameterTypes();
+            final Object[] args = new Object[types.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = types[i].isPrimitive() ? rs.getObject(i + 1) : rs.getObject(i + 1, types[i]);
+            }
+            return (Row) constructor.newInstance(args);
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException(e);
+        }
+    }
+}
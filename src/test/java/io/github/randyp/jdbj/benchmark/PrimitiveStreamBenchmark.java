@@ -0,0 +1,87 @@
+package io.github.randyp.jdbj.benchmark;
+
+import io.github.randyp.jdbj.ExecuteQuery;
+import io.github.randyp.jdbj.JDBJ;
+import io.github.randyp.jdbj.LongMapQuery;
+import io.github.randyp.jdbj.StreamQuery;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Summing 10000 ids from H2 as boxed {@link Long}, against {@link io.github.randyp.jdbj.ReturnsQuery#mapToLong(io.github.randyp.jdbj.lambda.LongResultMapper)}.
+ * Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveStreamBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PrimitiveStreamBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static final String URL = "jdbc:h2:mem:primitive_stream_benchmark";
+    private static final String SELECT = "SELECT x FROM SYSTEM_RANGE(1000000000000, 1000000009999)";
+
+    private final ExecuteQuery<List<Long>> boxedList = JDBJ.query(SELECT).map(rs -> rs.getLongPrimitive(1)).toList();
+    private final StreamQuery<Long> boxedStream = JDBJ.query(SELECT).map(rs -> rs.getLongPrimitive(1)).toStream();
+    private final LongMapQuery primitive = JDBJ.query(SELECT).mapToLong(rs -> rs.getLongPrimitive(1));
+    private final ExecuteQuery<long[]> longArray = primitive.toLongArray();
+
+    private Connection connection;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(URL);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long boxedList() throws SQLException {
+        long sum = 0;
+        for (Long id : boxedList.execute(connection)) {
+            sum += id;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long boxedStream() throws SQLException {
+        try (Stream<Long> stream = boxedStream.execute(connection)) {
+            return stream.mapToLong(Long::longValue).sum();
+        }
+    }
+
+    @Benchmark
+    public long longStream() throws SQLException {
+        try (LongStream stream = primitive.toStream().execute(connection)) {
+            return stream.sum();
+        }
+    }
+
+    @Benchmark
+    public long longArray() throws SQLException {
+        long sum = 0;
+        for (long id : longArray.execute(connection)) {
+            sum += id;
+        }
+        return sum;
+    }
+}
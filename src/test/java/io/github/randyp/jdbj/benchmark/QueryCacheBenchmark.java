@@ -0,0 +1,81 @@
+package io.github.randyp.jdbj.benchmark;
+
+import io.github.randyp.jdbj.ExecuteQuery;
+import io.github.randyp.jdbj.JDBJ;
+import io.github.randyp.jdbj.QueryCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading 100 rows of one grade from H2, directly against
+ * through {@link ExecuteQuery#cached(QueryCache, Duration, String...)} with every grade cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryCacheBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(QueryCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static final String URL = "jdbc:h2:mem:query_cache_benchmark";
+    private static final int GRADES = 12;
+
+    private final ExecuteQuery<List<String>> uncached = JDBJ.query("SELECT last_name FROM student WHERE grade = :grade ORDER BY id")
+            .map(rs -> rs.getString(1))
+            .toList();
+    private final ExecuteQuery<List<String>> cached = uncached.cached(new QueryCache(GRADES), Duration.ofHours(1), "student");
+
+    private Connection connection;
+    private int grade;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(URL);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE student(id BIGINT PRIMARY KEY, last_name VARCHAR(100), grade INTEGER)");
+            statement.execute("CREATE INDEX student_grade ON student(grade)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO student VALUES (?, ?, ?)")) {
+            for (int i = 0; i < GRADES * 100; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "last" + i);
+                insert.setInt(3, i % GRADES);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<String> uncached() throws SQLException {
+        grade = (grade + 1) % GRADES;
+        return uncached.bindLong(":grade", (long) grade).execute(connection);
+    }
+
+    @Benchmark
+    public List<String> cached() throws SQLException {
+        grade = (grade + 1) % GRADES;
+        return cached.bindLong(":grade", (long) grade).execute(connection);
+    }
+}
@@ -58,6 +58,18 @@ public class QueriesTest {
         public void insertBatches() throws Exception {
             super.insertBatches();
         }
+
+        @Test(expected = AssertionError.class) //because derby doesn't return multiple keys from execute batch
+        @Override
+        public void insertBatchesRewriteValues() throws Exception {
+            super.insertBatchesRewriteValues();
+        }
+
+        @Test(expected = AssertionError.class) //because derby doesn't return multiple keys from execute batch
+        @Override
+        public void executeParallel() throws Exception {
+            super.executeParallel();
+        }
     }
 
     public static class BatchedExecuteUpdate extends BatchedExecuteUpdateTest {
@@ -68,6 +80,28 @@ public class QueriesTest {
         }
     }
 
+    public static class StreamingBatchedExecuteInsert extends StreamingBatchedExecuteInsertTest {
+
+        @Override
+        public DataSource db() {
+            return db;
+        }
+
+        @Test(expected = AssertionError.class) //because derby doesn't return multiple keys from execute batch
+        @Override
+        public void insertStream() throws Exception {
+            super.insertStream();
+        }
+    }
+
+    public static class StreamingBatchedExecuteUpdate extends StreamingBatchedExecuteUpdateTest {
+
+        @Override
+        public DataSource db() {
+            return db;
+        }
+    }
+
     public static class ExecuteInsert extends ExecuteInsertTest {
 
         @Override
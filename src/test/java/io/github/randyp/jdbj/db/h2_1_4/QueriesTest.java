@@ -32,6 +32,22 @@ public class QueriesTest {
         }
     }
 
+    public static class StreamingBatchedExecuteInsert extends StreamingBatchedExecuteInsertTest {
+
+        @Override
+        public DataSource db() {
+            return db;
+        }
+    }
+
+    public static class StreamingBatchedExecuteUpdate extends StreamingBatchedExecuteUpdateTest {
+
+        @Override
+        public DataSource db() {
+            return db;
+        }
+    }
+
     public static class ExecuteInsert extends ExecuteInsertTest {
 
         @Override
@@ -53,6 +53,18 @@ public class QueriesTest {
         public void insertBatches() throws Exception {
             super.insertBatches();
         }
+
+        @Test(expected = AssertionError.class) //because sqllite doesn't return multiple keys from execute batch
+        @Override
+        public void insertBatchesRewriteValues() throws Exception {
+            super.insertBatchesRewriteValues();
+        }
+
+        @Test(expected = AssertionError.class) //because sqllite doesn't return multiple keys from execute batch
+        @Override
+        public void executeParallel() throws Exception {
+            super.executeParallel();
+        }
     }
 
     public static class BatchedExecuteUpdate extends BatchedExecuteUpdateTest {
@@ -63,6 +75,28 @@ public class QueriesTest {
         }
     }
 
+    public static class StreamingBatchedExecuteInsert extends StreamingBatchedExecuteInsertTest {
+
+        @Override
+        public DataSource db() {
+            return db;
+        }
+
+        @Test(expected = AssertionError.class) //because sqllite doesn't return multiple keys from execute batch
+        @Override
+        public void insertStream() throws Exception {
+            super.insertStream();
+        }
+    }
+
+    public static class StreamingBatchedExecuteUpdate extends StreamingBatchedExecuteUpdateTest {
+
+        @Override
+        public DataSource db() {
+            return db;
+        }
+    }
+
     public static class ExecuteInsert extends ExecuteInsertTest {
 
         @Override
@@ -77,6 +111,12 @@ public class QueriesTest {
         public DataSource db() {
             return db;
         }
+
+        @Test(expected = SQLException.class) //because sqllite sets fetch direction on the result set, which is closed until executed
+        @Override
+        public void selectMapCursorToListExecute() throws Exception {
+            super.selectMapCursorToListExecute();
+        }
     }
 
     public static class ExecuteQueryRunnable extends ExecuteQueryRunnableTest {
@@ -26,8 +26,10 @@ public class ReadmeMain {
             //db is a javax.sql.DataSource
             List<Long> generatedKeys = JDBJ.returningTransaction(connection -> {
                 final List<Long> keys = new ArrayList<>();
-                for (NewStudent newStudent : newStudents) {
-                    keys.addAll(insert.bindValues(newStudent::bindings).execute(connection));
+                try (PreparedExecuteInsert<Long> prepared = insert.prepare(connection)) {
+                    for (NewStudent newStudent : newStudents) {
+                        keys.addAll(prepared.bindValues(newStudent::bindings).execute());
+                    }
                 }
                 return keys;
             }).execute(db);
@@ -0,0 +1,45 @@
+package io.github.randyp.jdbj.lexer;
+
+import org.antlr.runtime.RecognitionException;
+import org.antlr.v4.runtime.atn.ATN;
+import org.antlr.v4.runtime.atn.ATNDeserializer;
+import org.antlr.v4.runtime.atn.ATNSerializer;
+import org.antlr.v4.tool.LexerGrammar;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads the lexer grammars from test resources so they can be interpreted without generating code.
+ */
+final class Grammars {
+
+    static LexerGrammar load(String resourceName) {
+        try (InputStream in = Grammars.class.getResourceAsStream(resourceName)) {
+            if (in == null) {
+                throw new IllegalArgumentException("resource not found: " + resourceName);
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new LexerGrammar(new String(out.toByteArray(), StandardCharsets.UTF_8));
+        } catch (IOException | RecognitionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Each interpreter needs its own copy of the atn, same as {@link LexerGrammar#createLexerInterpreter}.
+     */
+    static ATN copyATN(LexerGrammar grammar) {
+        return new ATNDeserializer().deserialize(ATNSerializer.getSerializedAsChars(grammar.getATN()));
+    }
+
+    private Grammars() {
+    }
+}
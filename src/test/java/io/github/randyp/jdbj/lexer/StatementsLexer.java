@@ -0,0 +1,25 @@
+package io.github.randyp.jdbj.lexer;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.LexerInterpreter;
+import org.antlr.v4.tool.LexerGrammar;
+
+import java.util.Arrays;
+
+/**
+ * Interpreter for StatementsLexer.g4, the reference which SqlScanner is checked against.
+ */
+public class StatementsLexer extends LexerInterpreter {
+
+    private static final LexerGrammar GRAMMAR = Grammars.load("StatementsLexer.g4");
+
+    public static final int LITERAL = GRAMMAR.getTokenType("LITERAL");
+    public static final int QUOTED_TEXT = GRAMMAR.getTokenType("QUOTED_TEXT");
+    public static final int DOUBLE_QUOTED_TEXT = GRAMMAR.getTokenType("DOUBLE_QUOTED_TEXT");
+    public static final int ESCAPED_TEXT = GRAMMAR.getTokenType("ESCAPED_TEXT");
+    public static final int STATEMENT_END = GRAMMAR.getTokenType("STATEMENT_END");
+
+    public StatementsLexer(CharStream input) {
+        super(GRAMMAR.fileName, GRAMMAR.getVocabulary(), Arrays.asList(GRAMMAR.getRuleNames()), GRAMMAR.modes.keySet(), Grammars.copyATN(GRAMMAR), input);
+    }
+}
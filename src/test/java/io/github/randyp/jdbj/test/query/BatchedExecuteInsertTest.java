@@ -2,6 +2,7 @@ package io.github.randyp.jdbj.test.query;
 
 import io.github.randyp.jdbj.BatchedExecuteInsert;
 import io.github.randyp.jdbj.JDBJ;
+import io.github.randyp.jdbj.PartitionMode;
 import io.github.randyp.jdbj.lambda.ResultMapper;
 import io.github.randyp.jdbj.student.NewStudent;
 import io.github.randyp.jdbj.student.Student;
@@ -9,11 +10,18 @@ import io.github.randyp.jdbj.student.StudentTest;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public abstract class BatchedExecuteInsertTest extends StudentTest {
 
@@ -61,6 +69,123 @@ public abstract class BatchedExecuteInsertTest extends StudentTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void insertBatchesRewriteValues() throws Exception {
+        final List<NewStudent> newStudents = StreamingBatchedExecuteUpdateTest.newStudents(5);
+
+        BatchedExecuteInsert<Long> insertQuery = JDBJ.resource(Student.INSERT).insert(rs -> rs.getLong(1))
+                .asBatch()
+                .rewriteValues(2);
+        for (NewStudent newStudent : newStudents) {
+            insertQuery.startBatch()
+                    .bindValues(newStudent::bindings)
+                    .addBatch();
+        }
+
+        final List<Long> keys = insertQuery.execute(db());
+        assertEquals(newStudents.size(), keys.size());
+        final List<Student> expected = new ArrayList<>();
+        for (int i = 0; i < newStudents.size(); i++) {
+            expected.add(newStudents.get(i).withId(keys.get(i)));
+        }
+        assertEquals(expected, Student.SELECT_ALL.execute(db()));
+    }
+
+    @Test
+    public void insertBatchesBindObject() throws Exception {
+        final List<NewStudent> newStudents = StreamingBatchedExecuteUpdateTest.newStudents(5);
+
+        BatchedExecuteInsert<Long> insertQuery = JDBJ.resource(Student.INSERT).insert(rs -> rs.getLong(1)).asBatch();
+        for (NewStudent newStudent : newStudents) {
+            insertQuery.startBatch()
+                    .bindObject(newStudent)
+                    .addBatch();
+        }
+        insertQuery.execute(db());
+
+        assertSameStudents(newStudents, Student.SELECT_ALL.execute(db()));
+    }
+
+    @Test
+    public void insertBatchesBindObjectRewriteValues() throws Exception {
+        final List<NewStudent> newStudents = StreamingBatchedExecuteUpdateTest.newStudents(5);
+
+        BatchedExecuteInsert<Long> insertQuery = JDBJ.resource(Student.INSERT).insert(rs -> rs.getLong(1))
+                .asBatch()
+                .rewriteValues(2);
+        for (NewStudent newStudent : newStudents) {
+            insertQuery.startBatch()
+                    .bindObject(newStudent)
+                    .addBatch();
+        }
+        insertQuery.execute(db());
+
+        assertSameStudents(newStudents, Student.SELECT_ALL.execute(db()));
+    }
+
+    private static void assertSameStudents(List<NewStudent> expected, List<Student> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).withId(actual.get(i).getId()), actual.get(i));
+        }
+    }
+
+    @Test
+    public void executeParallel() throws Exception {
+        final List<NewStudent> newStudents = StreamingBatchedExecuteUpdateTest.newStudents(10);
+
+        BatchedExecuteInsert<Long> insertQuery = JDBJ.resource(Student.INSERT).insert(rs -> rs.getLong(1)).asBatch();
+        for (NewStudent newStudent : newStudents) {
+            insertQuery.startBatch()
+                    .bindValues(newStudent::bindings)
+                    .addBatch();
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        final List<Long> keys;
+        try {
+            keys = insertQuery.executeParallel(db(), 3, PartitionMode.TRANSACTION_PER_PARTITION, executor);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(newStudents.size(), keys.size());
+        final List<Student> expected = new ArrayList<>();
+        for (int i = 0; i < newStudents.size(); i++) {
+            expected.add(newStudents.get(i).withId(keys.get(i)));
+        }
+        final List<Student> actual = Student.SELECT_ALL.execute(db());
+        actual.sort(Comparator.comparing(student -> keys.indexOf(student.getId())));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void executeParallelRejected() throws Exception {
+        BatchedExecuteInsert<Long> insertQuery = JDBJ.resource(Student.INSERT).insert(rs -> rs.getLong(1)).asBatch();
+        for (NewStudent newStudent : StreamingBatchedExecuteUpdateTest.newStudents(10)) {
+            insertQuery.startBatch()
+                    .bindValues(newStudent::bindings)
+                    .addBatch();
+        }
+
+        final List<Runnable> accepted = new ArrayList<>();
+        final Executor executor = task -> {
+            if (!accepted.isEmpty()) {
+                throw new RejectedExecutionException("full");
+            }
+            accepted.add(task);
+        };
+        try {
+            insertQuery.executeParallel(db(), 3, PartitionMode.TRANSACTION_PER_PARTITION, executor);
+            fail("expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            assertEquals("full", e.getMessage());
+        }
+        assertEquals(1, accepted.size());
+        assertTrue(((Future<?>) accepted.get(0)).isCancelled());
+        accepted.get(0).run();
+        assertEquals(Collections.emptyList(), Student.SELECT_ALL.execute(db()));
+    }
+
     @Test(expected = IllegalStateException.class)
     public void noBatchesAdded() throws Exception {
         ResultMapper<Long> keyMapper = rs -> rs.getLong(1);
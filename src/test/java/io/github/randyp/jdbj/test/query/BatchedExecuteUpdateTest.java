@@ -2,6 +2,8 @@ package io.github.randyp.jdbj.test.query;
 
 import io.github.randyp.jdbj.BatchedExecuteUpdate;
 import io.github.randyp.jdbj.JDBJ;
+import io.github.randyp.jdbj.PartitionMode;
+import io.github.randyp.jdbj.PartitionedBatchException;
 import io.github.randyp.jdbj.student.NewStudent;
 import io.github.randyp.jdbj.student.Student;
 import io.github.randyp.jdbj.student.StudentTest;
@@ -9,8 +11,11 @@ import org.junit.Test;
 
 import java.math.BigDecimal;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -41,6 +46,94 @@ public abstract class BatchedExecuteUpdateTest extends StudentTest {
         }
     }
 
+    @Test
+    public void insertBatchRewriteValues() throws Exception {
+        final List<NewStudent> expected = StreamingBatchedExecuteUpdateTest.newStudents(5);
+
+        BatchedExecuteUpdate insertQuery = JDBJ.resource(Student.INSERT).update().asBatch().rewriteValues(2);
+        for (NewStudent newStudent : expected) {
+            insertQuery.startBatch()
+                    .bindValues(newStudent::bindings)
+                    .addBatch();
+        }
+
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1}, insertQuery.execute(db()));
+        final List<Student> actual = Student.SELECT_ALL.execute(db());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < actual.size(); i++) {
+            assertEquals(expected.get(i).getFirstName(), actual.get(i).getFirstName());
+        }
+    }
+
+    @Test
+    public void executeParallel() throws Exception {
+        final List<NewStudent> expected = StreamingBatchedExecuteUpdateTest.newStudents(10);
+
+        BatchedExecuteUpdate insertQuery = JDBJ.resource(Student.INSERT).update().asBatch();
+        for (NewStudent newStudent : expected) {
+            insertQuery.startBatch()
+                    .bindValues(newStudent::bindings)
+                    .addBatch();
+        }
+
+        final int[] updateCounts = insertQuery.executeParallel(db(), 3, PartitionMode.BEST_EFFORT);
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1, 1, 1, 1, 1, 1}, updateCounts);
+        final Set<String> actual = Student.SELECT_ALL.execute(db()).stream().map(Student::getFirstName).collect(Collectors.toSet());
+        assertEquals(expected.stream().map(NewStudent::getFirstName).collect(Collectors.toSet()), actual);
+    }
+
+    @Test
+    public void executeParallelTransactionPerPartition() throws Exception {
+        final PartitionedBatchException e = executeParallelFailingRow4(PartitionMode.TRANSACTION_PER_PARTITION);
+        assertEquals(1, e.getFailedPartitions().size());
+        final PartitionedBatchException.Partition failed = e.getFailedPartitions().get(0);
+        assertEquals(1, failed.getIndex());
+        assertEquals(3, failed.getFromRow());
+        assertEquals(6, failed.getToRow());
+        assertEquals("bad row", failed.getFailure().getMessage());
+        assertArrayEquals(new int[]{1, 1, 1}, (int[]) e.getPartitions().get(0).getResult());
+        assertEquals(3, Student.SELECT_ALL.execute(db()).size());
+    }
+
+    @Test
+    public void executeParallelBestEffort() throws Exception {
+        final PartitionedBatchException e = executeParallelFailingRow4(PartitionMode.BEST_EFFORT);
+        assertEquals(1, e.getFailedPartitions().size());
+        assertEquals(4, Student.SELECT_ALL.execute(db()).size());
+    }
+
+    /**
+     * Each row is its own statement, so the rows of partition 1 before the failing row are executed.
+     */
+    private PartitionedBatchException executeParallelFailingRow4(PartitionMode mode) throws Exception {
+        final List<NewStudent> newStudents = StreamingBatchedExecuteUpdateTest.newStudents(6);
+        BatchedExecuteUpdate insertQuery = JDBJ.resource(Student.INSERT).update().asBatch().rewriteValues(1);
+        for (int i = 0; i < newStudents.size(); i++) {
+            final NewStudent newStudent = newStudents.get(i);
+            final BatchedExecuteUpdate.Batch batch = insertQuery.startBatch()
+                    .bindString(":first_name", newStudent.getFirstName())
+                    .bindString(":last_name", newStudent.getLastName());
+            if (i == 4) {
+                batch.bind(":gpa", pc -> {
+                    throw new SQLException("bad row");
+                }).addBatch();
+            } else {
+                batch.bindBigDecimal(":gpa", newStudent.getGpa()).addBatch();
+            }
+        }
+        try {
+            insertQuery.executeParallel(db(), 2, mode);
+        } catch (PartitionedBatchException e) {
+            return e;
+        }
+        throw new AssertionError("expected PartitionedBatchException");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rewriteValuesNotInsert() throws Exception {
+        JDBJ.update("UPDATE student SET gpa = :gpa").asBatch().rewriteValues();
+    }
+
     @Test(expected = IllegalStateException.class)
     public void noBatchesAdded() throws Exception {
         BatchedExecuteUpdate insertQuery = JDBJ.resource(Student.INSERT)
@@ -3,6 +3,7 @@ package io.github.randyp.jdbj.test.query;
 import io.github.randyp.jdbj.ExecuteInsert;
 import io.github.randyp.jdbj.JDBJ;
 import io.github.randyp.jdbj.PositionalBindings;
+import io.github.randyp.jdbj.PreparedExecuteInsert;
 import io.github.randyp.jdbj.lambda.ResultMapper;
 import io.github.randyp.jdbj.student.NewStudent;
 import io.github.randyp.jdbj.student.Student;
@@ -10,6 +11,8 @@ import io.github.randyp.jdbj.student.StudentTest;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -61,6 +64,21 @@ public abstract class ExecuteInsertTest extends StudentTest {
         assertEquals(Collections.singletonList(newStudent.withId(keys.get(0))), actual);
     }
 
+    @Test
+    public void prepareExecuteRepeatedly() throws Exception {
+        final List<NewStudent> newStudents = StreamingBatchedExecuteUpdateTest.newStudents(3);
+        final List<Student> expected = new ArrayList<>();
+        try (Connection connection = db().getConnection();
+             PreparedExecuteInsert<Long> insert = JDBJ.resource(Student.INSERT).insert(rs -> rs.getLong(1)).prepare(connection)) {
+            for (NewStudent newStudent : newStudents) {
+                final List<Long> keys = insert.bindValues(newStudent::bindings).execute();
+                assertEquals(1, keys.size());
+                expected.add(newStudent.withId(keys.get(0)));
+            }
+        }
+        assertEquals(expected, Student.SELECT_ALL.execute(db()));
+    }
+
     @Test
     public void convenienceOnJDBJ() throws Exception {
         //noinspection AccessStaticViaInstance
@@ -11,6 +11,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -77,4 +78,24 @@ public abstract class ExecuteQueryRunnableTest extends StudentTest {
 
         assertTrue(count[0] > 1);
     }
+
+    @Test
+    public void selectRunChunkCollectionsExecute() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicInteger runs = new AtomicInteger();
+        JDBJ.string("SELECT * FROM student where last_name in :last_names")
+                .query()
+                .bindStrings(":last_names", ExecuteQueryTest.lastNamesAtBothEnds(250))
+                .run(rs -> {
+                    runs.incrementAndGet();
+                    while (rs.next()) {
+                        count.incrementAndGet();
+                    }
+                })
+                .chunkCollections(100, 2)
+                .execute(db());
+
+        assertEquals(3, runs.get());
+        assertEquals(2, count.get());
+    }
 }
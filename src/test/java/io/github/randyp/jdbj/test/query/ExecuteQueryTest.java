@@ -1,7 +1,14 @@
 package io.github.randyp.jdbj.test.query;
 
+import io.github.randyp.jdbj.Column;
+import io.github.randyp.jdbj.Columns;
 import io.github.randyp.jdbj.ExecuteQuery;
+import io.github.randyp.jdbj.FakeConnection;
+import io.github.randyp.jdbj.IntMapQuery;
 import io.github.randyp.jdbj.JDBJ;
+import io.github.randyp.jdbj.MapQuery;
+import io.github.randyp.jdbj.PreparedExecuteQuery;
+import io.github.randyp.jdbj.SpillingList;
 import io.github.randyp.jdbj.StreamQuery;
 import io.github.randyp.jdbj.student.NewStudent;
 import io.github.randyp.jdbj.student.Student;
@@ -12,12 +19,22 @@ import org.junit.Test;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public abstract class ExecuteQueryTest extends StudentTest {
@@ -54,6 +71,59 @@ public abstract class ExecuteQueryTest extends StudentTest {
         }
     }
 
+    @Test
+    public void selectMapToConstructorToListExecute() throws Exception {
+        final ExecuteQuery<List<Student>> query = JDBJ.query("SELECT id, first_name, last_name, gpa FROM student ORDER BY id")
+                .mapTo(Student.class)
+                .toList();
+        final List<Student> results = query.execute(db());
+        assertEquals(Student.SELECT_ALL.execute(db()), results);
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    public void selectMapToSingleColumnToListExecute() throws Exception {
+        final ExecuteQuery<List<String>> query = JDBJ.query("SELECT first_name FROM student ORDER BY id")
+                .mapTo(String.class)
+                .toList();
+        assertEquals(Arrays.asList("Ada10", "Ada11"), query.execute(db()));
+    }
+
+    @Test
+    public void selectMapPrepareExecuteRepeatedly() throws Exception {
+        final AtomicInteger prepared = new AtomicInteger();
+        try (Connection connection = new FakeConnection(db().getConnection()) {
+            @Override
+            public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+                prepared.incrementAndGet();
+                return super.prepareStatement(sql, resultSetType, resultSetConcurrency);
+            }
+        }; PreparedExecuteQuery<List<Student>> query = JDBJ.query("SELECT * FROM student WHERE last_name in :last_names ORDER BY id")
+                .map(Student::from)
+                .prepare(connection)) {
+
+            assertEquals("Ada10", query.bindStrings(":last_names", "Dada10").execute().get(0).getFirstName());
+            assertEquals("Ada11", query.bindStrings(":last_names", "Dada11").execute().get(0).getFirstName());
+            assertEquals(1, prepared.get());
+
+            assertEquals(2, query.bindStrings(":last_names", "Dada10", "Dada11").execute().size());
+            assertEquals(2, prepared.get());
+            assertEquals(1, query.bindStrings(":last_names", "Dada10").execute().size());
+            assertEquals(3, prepared.get());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void selectMapPrepareBindingsCleared() throws Exception {
+        try (Connection connection = db().getConnection();
+             PreparedExecuteQuery<List<Student>> query = JDBJ.query("SELECT * FROM student WHERE last_name in :last_names")
+                     .map(Student::from)
+                     .prepare(connection)) {
+            query.bindStrings(":last_names", "Dada10").execute();
+            query.execute();
+        }
+    }
+
     @Test
     public void selectMapToListBindListExecute() throws Exception {
         final ExecuteQuery<List<Student>> query = JDBJ.query("SELECT * FROM student WHERE last_name in :last_names")
@@ -109,6 +179,301 @@ public abstract class ExecuteQueryTest extends StudentTest {
         assertEquals("Ada11", result.get().getFirstName());
     }
 
+    @Test
+    public void selectMapParallelStreamExecute() throws Exception {
+        final MapQuery<Student> query = JDBJ.query("SELECT * FROM student ORDER BY id").map(Student::from);
+        final List<String> expected = query.toList().execute(db()).stream()
+                .map(NewStudent::getFirstName)
+                .collect(Collectors.toList());
+
+        final List<String> firstNames;
+        try (Stream<Student> stream = query.toParallelStream().execute(db())) {
+            assertTrue(stream.isParallel());
+            firstNames = stream.map(NewStudent::getFirstName).collect(Collectors.toList());
+        }
+        assertFalse(firstNames.isEmpty());
+        assertEquals(expected, firstNames);
+    }
+
+    @Test
+    public void selectMapReadAheadStreamExecute() throws Exception {
+        final MapQuery<Student> query = JDBJ.query("SELECT * FROM student ORDER BY id").map(Student::from);
+        final List<String> expected = query.toList().execute(db()).stream()
+                .map(NewStudent::getFirstName)
+                .collect(Collectors.toList());
+
+        final List<String> firstNames;
+        try (Stream<Student> stream = query.toStream().readAhead(1, 1).execute(db())) {
+            firstNames = stream.map(NewStudent::getFirstName).collect(Collectors.toList());
+        }
+        assertFalse(firstNames.isEmpty());
+        assertEquals(expected, firstNames);
+    }
+
+    @Test
+    public void selectMapReadAheadStreamCloseEarly() throws Exception {
+        final StreamQuery<Student> query = JDBJ.query("SELECT * FROM student ORDER BY id")
+                .map(Student::from)
+                .toStream()
+                .readAhead(1, 1);
+
+        try (Connection connection = db().getConnection()) {
+            try (Stream<Student> stream = query.execute(connection)) {
+                assertTrue(stream.findFirst().isPresent());
+            }
+            assertTrue(connection.isValid(1));
+        }
+    }
+
+    @Test
+    public void selectMapMaxRowsToListExecute() throws Exception {
+        final List<Student> results = JDBJ.query("SELECT * FROM student ORDER BY id")
+                .map(Student::from)
+                .maxRows(1)
+                .toList()
+                .execute(db());
+        assertEquals(1, results.size());
+        assertEquals("Ada10", results.get(0).getFirstName());
+    }
+
+    @Test
+    public void selectMapFirstSetsMaxRows() throws Exception {
+        final List<PreparedStatement> prepared = new ArrayList<>();
+        try (Connection connection = new FakeConnection(db().getConnection()) {
+            @Override
+            public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+                final PreparedStatement ps = super.prepareStatement(sql, resultSetType, resultSetConcurrency);
+                prepared.add(ps);
+                return ps;
+            }
+        }) {
+            final Optional<Integer> maxRows = JDBJ.query("SELECT * FROM student ORDER BY id")
+                    .map(rs -> prepared.get(0).getMaxRows())
+                    .first()
+                    .execute(connection);
+            assertEquals(Optional.of(1), maxRows);
+        }
+    }
+
+    @Test
+    public void selectMapCursorToListExecute() throws Exception {
+        final List<Student> results = JDBJ.query("SELECT * FROM student ORDER BY id")
+                .map(Student::from)
+                .fetchSize(1)
+                .queryTimeout(10)
+                .fetchDirection(ResultSet.FETCH_FORWARD)
+                .toList()
+                .execute(db());
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    public void selectMapStreamingStreamExecute() throws Exception {
+        final StreamQuery<String> query = JDBJ.query("SELECT * FROM student ORDER BY id")
+                .map(Student::from)
+                .remap(NewStudent::getFirstName)
+                .toStream()
+                .streaming()
+                .fetchSize(1);
+
+        try (Connection connection = db().getConnection()) {
+            final List<String> firstNames;
+            try (Stream<String> stream = query.execute(connection)) {
+                firstNames = stream.collect(Collectors.toList());
+            }
+            assertEquals(Arrays.asList("Ada10", "Ada11"), firstNames);
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    @Test
+    public void selectMapStreamingToListExecute() throws Exception {
+        try (Connection connection = db().getConnection()) {
+            final List<Student> results = JDBJ.query("SELECT * FROM student ORDER BY id")
+                    .map(Student::from)
+                    .streaming()
+                    .toList()
+                    .execute(connection);
+            assertEquals(2, results.size());
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void selectMapInvalidFetchDirection() throws Exception {
+        JDBJ.query("SELECT * FROM student").map(Student::from).fetchDirection(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void selectMapNegativeMaxRows() throws Exception {
+        JDBJ.query("SELECT * FROM student").map(Student::from).toStream().maxRows(-1);
+    }
+
+    @Test
+    public void selectMapChunkCollectionsToListExecute() throws Exception {
+        final List<Student> results = JDBJ.query("SELECT * FROM student WHERE last_name in :last_names")
+                .map(Student::from)
+                .chunkCollections(100)
+                .toList()
+                .bindStrings(":last_names", lastNamesAtBothEnds(250))
+                .execute(db());
+
+        assertEquals(2, results.size());
+        assertEquals("Ada10", results.get(0).getFirstName());
+        assertEquals("Ada11", results.get(1).getFirstName());
+    }
+
+    @Test
+    public void selectMapChunkCollectionsInParallelToListExecute() throws Exception {
+        final List<Student> results = JDBJ.query("SELECT * FROM student WHERE last_name in :last_names")
+                .map(Student::from)
+                .chunkCollections(10, 3)
+                .toList()
+                .bindStrings(":last_names", lastNamesAtBothEnds(250))
+                .execute(db());
+
+        assertEquals(2, results.size());
+        assertEquals("Ada10", results.get(0).getFirstName());
+        assertEquals("Ada11", results.get(1).getFirstName());
+    }
+
+    @Test
+    public void selectMapChunkCollectionsFirstExecute() throws Exception {
+        final Optional<Student> result = JDBJ.query("SELECT * FROM student WHERE last_name in :last_names")
+                .map(Student::from)
+                .chunkCollections(100)
+                .first()
+                .bindStrings(":last_names", lastNamesAtBothEnds(250).subList(1, 250))
+                .execute(db());
+
+        assertTrue(result.isPresent());
+        assertEquals("Ada11", result.get().getFirstName());
+    }
+
+    @Test
+    public void selectMapChunkCollectionsStreamExecute() throws Exception {
+        final StreamQuery<Student> query = JDBJ.query("SELECT * FROM student WHERE last_name in :last_names")
+                .map(Student::from)
+                .chunkCollections(100)
+                .toStream()
+                .bindStrings(":last_names", lastNamesAtBothEnds(250));
+
+        final List<String> firstNames;
+        try (Stream<Student> stream = query.execute(db())) {
+            firstNames = stream.map(NewStudent::getFirstName).collect(Collectors.toList());
+        }
+        assertEquals(Arrays.asList("Ada10", "Ada11"), firstNames);
+    }
+
+    @Test
+    public void selectMapToSpillingListExecute() throws Exception {
+        final List<Student> expected = Student.SELECT_ALL.execute(db());
+        try (SpillingList<Student> results = JDBJ.query("SELECT * FROM student ORDER BY id")
+                .map(Student::from)
+                .toSpillingList(1, Long.MAX_VALUE)
+                .execute(db())) {
+            assertTrue(results.isSpilled());
+            assertEquals(expected, results);
+            assertEquals(expected.get(1), results.get(1));
+        }
+    }
+
+    @Test
+    public void selectToColumnsExecute() throws Exception {
+        final List<Student> expected = Student.SELECT_ALL.execute(db());
+        final Columns columns = JDBJ.query("SELECT id, first_name, last_name FROM student ORDER BY id")
+                .toColumns()
+                .execute(db());
+        assertEquals(expected.size(), columns.rows());
+        final Column.OfString firstNames = columns.column("first_name", Column.OfString.class);
+        for (int row = 0; row < columns.rows(); row++) {
+            assertEquals(expected.get(row).getId(), ((Number) columns.column("id").getObject(row)).longValue());
+            assertEquals(expected.get(row).getFirstName(), firstNames.getString(row));
+        }
+        assertEquals(Arrays.asList("Dada10", "Dada11"), columns.column("last_name", Column.OfString.class).getDictionary());
+    }
+
+    @Test
+    public void selectMapToLongStreamExecute() throws Exception {
+        final long[] expected = Student.SELECT_ALL.execute(db()).stream().mapToLong(Student::getId).toArray();
+
+        final long[] ids;
+        try (LongStream stream = JDBJ.query("SELECT id FROM student ORDER BY id").mapToLong(rs -> rs.getLongPrimitive(1)).toStream().execute(db())) {
+            ids = stream.toArray();
+        }
+        assertEquals(2, ids.length);
+        assertArrayEquals(expected, ids);
+    }
+
+    @Test
+    public void selectMapToDoubleParallelStreamExecute() throws Exception {
+        final double sum;
+        try (DoubleStream stream = JDBJ.query("SELECT gpa FROM student").mapToDouble(rs -> rs.getDoublePrimitive(1)).toParallelStream().execute(db())) {
+            assertTrue(stream.isParallel());
+            sum = stream.sum();
+        }
+        assertEquals(8.8, sum, 0.0001);
+    }
+
+    @Test
+    public void selectMapToLongArrayExecute() throws Exception {
+        final long[] expected = Student.SELECT_ALL.execute(db()).stream().mapToLong(Student::getId).toArray();
+        final long[] ids = JDBJ.query("SELECT id FROM student ORDER BY id")
+                .mapToLong(rs -> rs.getLongPrimitive(1))
+                .toLongArray()
+                .execute(db());
+        assertArrayEquals(expected, ids);
+    }
+
+    @Test
+    public void selectMapToIntArrayEmptyExecute() throws Exception {
+        final int[] ids = JDBJ.query("SELECT id FROM student WHERE id < 0")
+                .mapToInt(rs -> rs.getIntegerPrimitive(1))
+                .toIntArray()
+                .execute(db());
+        assertArrayEquals(new int[0], ids);
+    }
+
+    @Test
+    public void selectMapToIntChunkCollectionsExecute() throws Exception {
+        final IntMapQuery query = JDBJ.query("SELECT LENGTH(first_name) FROM student WHERE last_name in :last_names")
+                .mapToInt(rs -> rs.getIntegerPrimitive(1))
+                .chunkCollections(100)
+                .bindStrings(":last_names", lastNamesAtBothEnds(250));
+
+        assertArrayEquals(new int[]{5, 5}, query.toIntArray().execute(db()));
+        try (IntStream stream = query.toStream().execute(db())) {
+            assertArrayEquals(new int[]{5, 5}, stream.toArray());
+        }
+    }
+
+    @Test
+    public void selectMapCollectionsAsArraysToListExecute() throws Exception {
+        final List<Student> results = JDBJ.query("SELECT * FROM student WHERE last_name in :last_names ORDER BY id")
+                .map(Student::from)
+                .toList()
+                .collectionsAsArrays(1)
+                .bindStrings(":last_names", lastNamesAtBothEnds(250))
+                .execute(db());
+
+        assertEquals(2, results.size());
+        assertEquals("Ada10", results.get(0).getFirstName());
+        assertEquals("Ada11", results.get(1).getFirstName());
+    }
+
+    /**
+     * @return Dada10 first, Dada11 last, and last names of nobody in between
+     */
+    static List<String> lastNamesAtBothEnds(int size) {
+        final List<String> lastNames = new ArrayList<>();
+        lastNames.add("Dada10");
+        for (int i = 2; i < size; i++) {
+            lastNames.add("Nobody" + i);
+        }
+        lastNames.add("Dada11");
+        return lastNames;
+    }
+
     @Test
     public void query() throws Exception {
         final ExecuteQuery<Optional<Student>> query = JDBJ.resource("student_all_ordered_by_id.sql")
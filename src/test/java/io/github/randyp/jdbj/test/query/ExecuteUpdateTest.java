@@ -2,6 +2,7 @@ package io.github.randyp.jdbj.test.query;
 
 import io.github.randyp.jdbj.ExecuteUpdate;
 import io.github.randyp.jdbj.JDBJ;
+import io.github.randyp.jdbj.PreparedExecuteUpdate;
 import io.github.randyp.jdbj.student.Student;
 import io.github.randyp.jdbj.student.NewStudent;
 import io.github.randyp.jdbj.student.StudentTest;
@@ -37,6 +38,28 @@ public abstract class ExecuteUpdateTest extends StudentTest {
         assertEquals(newStudent.getFirstName(), actual.get(0).getFirstName());
     }
 
+    @Test
+    public void prepareExecuteRepeatedly() throws Exception {
+        final List<NewStudent> newStudents = StreamingBatchedExecuteUpdateTest.newStudents(3);
+        final ExecuteUpdate executeUpdate = JDBJ.resource(Student.INSERT).update()
+                .bindBigDecimal(":gpa", new BigDecimal("3.1"));
+
+        try (Connection connection = db().getConnection();
+             PreparedExecuteUpdate update = executeUpdate.prepare(connection)) {
+            for (NewStudent newStudent : newStudents) {
+                final int updated = update.bindString(":first_name", newStudent.getFirstName())
+                        .bindString(":last_name", newStudent.getLastName())
+                        .execute();
+                assertEquals(1, updated);
+            }
+        }
+        final List<Student> actual = Student.SELECT_ALL.execute(db());
+        assertEquals(newStudents.size(), actual.size());
+        for (int i = 0; i < actual.size(); i++) {
+            assertEquals(newStudents.get(i).getFirstName(), actual.get(i).getFirstName());
+        }
+    }
+
     @Test
     public void convenienceOnJDBJ() throws Exception {
         final ExecuteUpdate executeUpdate = JDBJ.update("INSERT INTO student (first_name, last_name, gpa) VALUES (:s, :s, :s)")
@@ -0,0 +1,47 @@
+package io.github.randyp.jdbj.test.query;
+
+import io.github.randyp.jdbj.JDBJ;
+import io.github.randyp.jdbj.StreamingBatchedExecuteInsert;
+import io.github.randyp.jdbj.student.NewStudent;
+import io.github.randyp.jdbj.student.Student;
+import io.github.randyp.jdbj.student.StudentTest;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public abstract class StreamingBatchedExecuteInsertTest extends StudentTest {
+
+    @Test
+    public void insertStream() throws Exception {
+        final List<NewStudent> newStudents = StreamingBatchedExecuteUpdateTest.newStudents(5);
+
+        final List<Long> keys;
+        try (StreamingBatchedExecuteInsert<Long> batch = JDBJ.resource(Student.INSERT)
+                .insert(rs -> rs.getLong(1))
+                .asStreamingBatch(db())
+                .flushEvery(2)) {
+            keys = batch.addAll(newStudents.stream().map(NewStudent::bindings)).execute();
+        }
+
+        assertEquals(newStudents.size(), keys.size());
+        final List<Student> expected = new ArrayList<>();
+        for (int i = 0; i < newStudents.size(); i++) {
+            expected.add(newStudents.get(i).withId(keys.get(i)));
+        }
+        assertEquals(expected, Student.SELECT_ALL.execute(db()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void noBatchesAdded() throws Exception {
+        try (Connection connection = db().getConnection()) {
+            JDBJ.resource(Student.INSERT)
+                    .insert(rs -> rs.getLong(1))
+                    .asStreamingBatch(connection)
+                    .execute();
+        }
+    }
+}
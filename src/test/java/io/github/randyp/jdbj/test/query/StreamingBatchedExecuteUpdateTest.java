@@ -0,0 +1,118 @@
+package io.github.randyp.jdbj.test.query;
+
+import io.github.randyp.jdbj.JDBJ;
+import io.github.randyp.jdbj.StreamingBatchedExecuteUpdate;
+import io.github.randyp.jdbj.ValueBindings;
+import io.github.randyp.jdbj.student.NewStudent;
+import io.github.randyp.jdbj.student.Student;
+import io.github.randyp.jdbj.student.StudentTest;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public abstract class StreamingBatchedExecuteUpdateTest extends StudentTest {
+
+    @Test
+    public void insertStream() throws Exception {
+        final List<NewStudent> expected = newStudents(5);
+
+        final int[] updateCounts;
+        try (StreamingBatchedExecuteUpdate batch = JDBJ.resource(Student.INSERT).update().asStreamingBatch(db()).flushEvery(2)) {
+            updateCounts = batch.addAll(expected.stream().map(NewStudent::bindings)).execute();
+        }
+
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1}, updateCounts);
+        final List<Student> actual = Student.SELECT_ALL.execute(db());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < actual.size(); i++) {
+            assertEquals(expected.get(i).getFirstName(), actual.get(i).getFirstName());
+        }
+    }
+
+    @Test
+    public void insertIterator() throws Exception {
+        final List<ValueBindings> rows = newStudents(3).stream().map(NewStudent::bindings).collect(Collectors.toList());
+
+        try (StreamingBatchedExecuteUpdate batch = JDBJ.resource(Student.INSERT).update().asStreamingBatch(db())) {
+            assertArrayEquals(new int[]{1, 1, 1}, batch.addAll(rows.iterator()).execute());
+        }
+        assertEquals(3, Student.SELECT_ALL.execute(db()).size());
+    }
+
+    @Test
+    public void flushesEveryRows() throws Exception {
+        try (StreamingBatchedExecuteUpdate batch = JDBJ.resource(Student.INSERT).update().asStreamingBatch(db()).flushEvery(2)) {
+            for (NewStudent newStudent : newStudents(3)) {
+                batch.startBatch()
+                        .bindValues(newStudent::bindings)
+                        .addBatch();
+            }
+            assertEquals(2, batch.getUpdateCounts().length);
+            assertEquals(2, Student.SELECT_ALL.execute(db()).size());
+            assertEquals(3, batch.execute().length);
+        }
+        assertEquals(3, Student.SELECT_ALL.execute(db()).size());
+    }
+
+    @Test
+    public void flushesEveryBytes() throws Exception {
+        try (StreamingBatchedExecuteUpdate batch = JDBJ.resource(Student.INSERT).update().asStreamingBatch(db()).flushEveryBytes(1)) {
+            batch.addAll(newStudents(2).stream().map(NewStudent::bindings));
+            assertEquals(2, batch.getUpdateCounts().length);
+        }
+        assertEquals(2, Student.SELECT_ALL.execute(db()).size());
+    }
+
+    @Test
+    public void closeDiscardsUnflushedRows() throws Exception {
+        try (Connection connection = db().getConnection()) {
+            try (StreamingBatchedExecuteUpdate batch = JDBJ.resource(Student.INSERT).update().asStreamingBatch(connection)) {
+                batch.addAll(newStudents(2).stream().map(NewStudent::bindings));
+            }
+            assertFalse(connection.isClosed());
+        }
+        assertTrue(Student.SELECT_ALL.execute(db()).isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void noBatchesAdded() throws Exception {
+        try (Connection connection = db().getConnection()) {
+            JDBJ.resource(Student.INSERT).update().asStreamingBatch(connection).execute();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void missingBindings() throws Exception {
+        final NewStudent student = new NewStudent("Ada10", "Dada10", new BigDecimal("3.1"));
+
+        try (StreamingBatchedExecuteUpdate batch = JDBJ.resource(Student.INSERT).update().asStreamingBatch(db())) {
+            batch.startBatch()
+                    .bindString(":first_name", student.getFirstName())
+                    .bindString(":last_name", student.getLastName())
+                    .addBatch();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addAfterExecute() throws Exception {
+        final NewStudent student = new NewStudent("Ada10", "Dada10", new BigDecimal("3.1"));
+
+        final StreamingBatchedExecuteUpdate batch = JDBJ.resource(Student.INSERT).update().asStreamingBatch(db());
+        batch.add(student.bindings()).execute();
+        batch.add(student.bindings());
+    }
+
+    static List<NewStudent> newStudents(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new NewStudent("Ada" + i, "Dada" + i, new BigDecimal("3.1")))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}